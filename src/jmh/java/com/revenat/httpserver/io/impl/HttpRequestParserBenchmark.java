@@ -0,0 +1,63 @@
+package com.revenat.httpserver.io.impl;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.revenat.httpserver.io.HttpRequest;
+import com.revenat.httpserver.io.config.HttpRequestParser;
+
+/**
+ * Compares {@link DefaultHttpRequestParser} with {@link BulkHttpRequestParser}
+ * on a typical browser request read from the buffered stream, the way client
+ * socket handler provides it.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HttpRequestParserBenchmark {
+	private static final String REQUEST = "GET /static/css/main.css?version=3&theme=dark HTTP/1.1\r\n"
+			+ "Host: localhost:8080\r\n"
+			+ "User-Agent: Mozilla/5.0 (X11; Linux x86_64; rv:109.0) Gecko/20100101 Firefox/115.0\r\n"
+			+ "Accept: text/css,*/*;q=0.1\r\n"
+			+ "Accept-Language: en-US,en;q=0.5\r\n"
+			+ "Accept-Encoding: gzip, deflate, br\r\n"
+			+ "Connection: keep-alive\r\n"
+			+ "Referer: http://localhost:8080/index.html\r\n"
+			+ "Cookie: JSESSIONID=6F3C1E5B2D4A9C8B7E0F1A2B3C4D5E6F; theme=dark\r\n"
+			+ "Cache-Control: max-age=0\r\n"
+			+ "\r\n";
+
+	@Param({ "default", "bulk" })
+	private String parserType;
+
+	private HttpRequestParser parser;
+	private byte[] request;
+
+	@Setup
+	public void setUp() {
+		parser = "bulk".equals(parserType) ? new BulkHttpRequestParser() : new DefaultHttpRequestParser();
+		request = REQUEST.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	@Benchmark
+	public HttpRequest parseRequest() throws IOException {
+		InputStream in = new BufferedInputStream(new ByteArrayInputStream(request));
+		return parser.parseHttpRequest(in, "127.0.0.1");
+	}
+}
@@ -0,0 +1,60 @@
+package com.revenat.httpserver.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe live view of the statistics of the single HTTP server acceptor
+ * thread, which accepts new client connections.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+public class AcceptorStatistics {
+	private final String name;
+	private final long startTime;
+	private final AtomicLong acceptedConnectionCount = new AtomicLong();
+
+	public AcceptorStatistics(String name) {
+		this.name = requireNonNull(name, "Acceptor name can not be null");
+		this.startTime = System.nanoTime();
+	}
+
+	/**
+	 * Returns name of the acceptor.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns total number of client connections accepted by the acceptor.
+	 */
+	public long getAcceptedConnectionCount() {
+		return acceptedConnectionCount.get();
+	}
+
+	/**
+	 * Returns average number of client connections accepted by the acceptor per
+	 * second since it was started.
+	 */
+	public double getAcceptRate() {
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+		return elapsedMillis > 0 ? getAcceptedConnectionCount() * 1000.0 / elapsedMillis : 0;
+	}
+
+	/**
+	 * Registers one more accepted client connection.
+	 */
+	public void incrementAcceptedConnectionCount() {
+		acceptedConnectionCount.incrementAndGet();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("AcceptorStatistics [name=%s, acceptedConnectionCount=%s, acceptRate=%.2f/s]", name,
+				getAcceptedConnectionCount(), getAcceptRate());
+	}
+}
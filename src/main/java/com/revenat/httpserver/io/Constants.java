@@ -11,12 +11,23 @@ import java.util.List;
  */
 public final class Constants {
 	public static final String HTTP_VERSION = "HTTP/1.1";
+	public static final String HTTP_VERSION_1_0 = "HTTP/1.0";
 	
-	public static final String GET = "GET";
-	public static final String POST = "POST";
-	public static final String HEAD = "HEAD";
+	public static final String GET = HttpMethod.GET.name();
+	public static final String POST = HttpMethod.POST.name();
+	public static final String HEAD = HttpMethod.HEAD.name();
+	public static final String OPTIONS = HttpMethod.OPTIONS.name();
 	
-	public static final List<String> ALLOWED_METHODS = Collections.unmodifiableList(Arrays.asList(GET, POST, HEAD));
+	/**
+	 * Methods served by the server. Other {@link HttpMethod} values are
+	 * recognized, but answered with {@code 405 Method Not Allowed}.
+	 */
+	public static final List<String> ALLOWED_METHODS = Collections.unmodifiableList(
+			Arrays.asList(GET, HEAD, POST, OPTIONS));
+	/**
+	 * Value of the {@code Allow} response header.
+	 */
+	public static final String ALLOW_HEADER_VALUE = String.join(", ", ALLOWED_METHODS);
 
 	private Constants() {
 	}
@@ -0,0 +1,94 @@
+package com.revenat.httpserver.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe live view of the statistics of the single event loop of the NIO
+ * HTTP server, which serves its own set of client connections.
+ * <p>
+ * Loop lag is the time event loop spent handling events of the single
+ * iteration, i.e. how long new events of its connections had to wait before
+ * the loop could react to them.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+public class EventLoopStatistics {
+	private final String name;
+	private final AtomicInteger connectionCount = new AtomicInteger();
+	private volatile long loopLag;
+	private volatile long maxLoopLag;
+
+	public EventLoopStatistics(String name) {
+		this.name = requireNonNull(name, "Event loop name can not be null");
+	}
+
+	/**
+	 * Returns name of the event loop.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns number of client connections currently served by the event loop.
+	 */
+	public int getConnectionCount() {
+		return connectionCount.get();
+	}
+
+	/**
+	 * Returns lag (in milliseconds) of the last event loop iteration.
+	 */
+	public double getLoopLag() {
+		return toMillis(loopLag);
+	}
+
+	/**
+	 * Returns maximum lag (in milliseconds) of the event loop iteration since
+	 * event loop was started.
+	 */
+	public double getMaxLoopLag() {
+		return toMillis(maxLoopLag);
+	}
+
+	/**
+	 * Registers new client connection assigned to the event loop.
+	 */
+	public void connectionOpened() {
+		connectionCount.incrementAndGet();
+	}
+
+	/**
+	 * Registers closed client connection of the event loop.
+	 */
+	public void connectionClosed() {
+		connectionCount.decrementAndGet();
+	}
+
+	/**
+	 * Records lag of the event loop iteration. Should be called from the event
+	 * loop thread only.
+	 * 
+	 * @param lagNanos lag in nanoseconds
+	 */
+	public void recordLoopLag(long lagNanos) {
+		loopLag = lagNanos;
+		if (lagNanos > maxLoopLag) {
+			maxLoopLag = lagNanos;
+		}
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("EventLoopStatistics [name=%s, connectionCount=%s, loopLag=%.3fms, maxLoopLag=%.3fms]",
+				name, getConnectionCount(), getLoopLag(), getMaxLoopLag());
+	}
+}
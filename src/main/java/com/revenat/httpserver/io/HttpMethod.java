@@ -0,0 +1,78 @@
+package com.revenat.httpserver.io;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HTTP request methods supported by the server. Method of the request is
+ * resolved right from the bytes of the request line, so no string is created
+ * for it and further comparisons are done by identity.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+public enum HttpMethod {
+	GET(false), HEAD(false), POST(true), PUT(true), DELETE(false), OPTIONS(false), PATCH(true);
+
+	private static final HttpMethod[] VALUES = values();
+
+	private final byte[] nameBytes = name().getBytes(StandardCharsets.US_ASCII);
+	private final boolean formBodyAllowed;
+
+	HttpMethod(boolean formBodyAllowed) {
+		this.formBodyAllowed = formBodyAllowed;
+	}
+
+	/**
+	 * Returns {@code true} if request parameters are sent in the form body, or
+	 * {@code false} if they are sent in the query string of the URI.
+	 */
+	public boolean isFormBodyAllowed() {
+		return formBodyAllowed;
+	}
+
+	/**
+	 * Returns method with the specified name (ignoring case), or {@code null} if
+	 * method is not supported.
+	 */
+	public static HttpMethod of(String name) {
+		if (name != null) {
+			for (HttpMethod method : VALUES) {
+				if (method.name().equalsIgnoreCase(name)) {
+					return method;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns method which name (ignoring case) is in the specified range of
+	 * {@code US-ASCII} bytes, or {@code null} if method is not supported.
+	 * 
+	 * @param data array holding the method name
+	 * @param from index of the first byte of the name
+	 * @param to   index next to the last byte of the name
+	 */
+	public static HttpMethod of(byte[] data, int from, int to) {
+		for (HttpMethod method : VALUES) {
+			if (method.matches(data, from, to)) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	private boolean matches(byte[] data, int from, int to) {
+		if (to - from != nameBytes.length) {
+			return false;
+		}
+		for (int i = from; i < to; i++) {
+			// Names consist of upper case letters only, so clearing the case bit
+			// of the data byte is enough to compare ignoring case
+			if ((data[i] & 0xDF) != nameBytes[i - from]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
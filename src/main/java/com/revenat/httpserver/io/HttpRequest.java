@@ -1,5 +1,10 @@
 package com.revenat.httpserver.io;
 
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -22,6 +27,15 @@ public interface HttpRequest {
 	 */
 	String getMethod();
 	
+	/**
+	 * Returns request method of the HTTP request, or {@code null} if method is
+	 * not supported.
+	 * @return
+	 */
+	default HttpMethod getHttpMethod() {
+		return HttpMethod.of(getMethod());
+	}
+	
 	/**
 	 * Returns unique resource id from the HTPP request
 	 * @return
@@ -47,8 +61,45 @@ public interface HttpRequest {
 	Map<String, String> getHeaders();
 	
 	/**
-	 * Return all the parameters from the HTTP request.
+	 * Return all the parameters from the HTTP request. Distinct values of the
+	 * repeated parameter are joined with commas.
+	 * @see #getParameterValues()
 	 * @return
 	 */
 	Map<String, String> getParameters();
+
+	/**
+	 * Returns all the values of each parameter from the HTTP request, in the
+	 * order they were sent.
+	 * @return
+	 */
+	Map<String, List<String>> getParameterValues();
+
+	/**
+	 * Returns message body of the HTTP request, decoded from the chunked
+	 * transfer coding if needed. Body may be read lazily from the client
+	 * connection, so it can be read only once, while request is being handled.
+	 * Unread rest of the body is discarded after the request is handled.
+	 * @return
+	 */
+	InputStream getBody();
+
+	/**
+	 * Returns parts of the {@code multipart/form-data} message body, or empty
+	 * iterator if body is not multipart. Parts are read from the body one by
+	 * one as iterator advances, so they can be iterated only once, instead of
+	 * reading the body with {@link #getBody()}. Temporary files of the large
+	 * parts are deleted after the request is handled.
+	 * @return
+	 */
+	Iterator<Part> getParts();
+
+	/**
+	 * Returns message body of the HTTP request as a channel.
+	 * @see #getBody()
+	 * @return
+	 */
+	default ReadableByteChannel getBodyChannel() {
+		return Channels.newChannel(getBody());
+	}
 }
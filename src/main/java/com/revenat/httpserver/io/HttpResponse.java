@@ -1,7 +1,17 @@
 package com.revenat.httpserver.io;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.revenat.httpserver.io.exception.HttpServerException;
 
 /**
  * Represents HTTP response that the HTTP server sends to its clients for each
@@ -42,4 +52,47 @@ public interface HttpResponse {
 	 * @param reader character stream to read body content from
 	 */
 	void setBody(Reader reader);
+	
+	/**
+	 * Sets body for this response using content of the specified file. File is
+	 * read when response is sent, so it should not be changed till then.
+	 * @param file file to send as body content
+	 */
+	default void setBody(Path file) {
+		try (InputStream in = Files.newInputStream(file)) {
+			setBody(in);
+		} catch (IOException e) {
+			throw new HttpServerException("Can not set HTTP response body from file: " + e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * Returns stream to write body of this response incrementally. Server sends
+	 * status line and headers once stream is flushed or enough bytes are
+	 * written, so status and headers should be set before writing the body and
+	 * can't be changed after that. Body of the unknown length is sent with
+	 * {@code Transfer-Encoding: chunked}. Stream is completed by the server once
+	 * handler returns, so it needn't be closed.
+	 * <p>
+	 * Default implementation collects body in memory and sets it when stream
+	 * is closed.
+	 * @return stream to write body content to
+	 */
+	default OutputStream getOutputStream() {
+		return new ByteArrayOutputStream() {
+			@Override
+			public void close() {
+				setBody(new ByteArrayInputStream(buf, 0, count));
+			}
+		};
+	}
+	
+	/**
+	 * Returns channel to write body of this response incrementally.
+	 * @see #getOutputStream()
+	 * @return channel to write body content to
+	 */
+	default WritableByteChannel getBodyChannel() {
+		return Channels.newChannel(getOutputStream());
+	}
 }
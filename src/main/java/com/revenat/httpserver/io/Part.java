@@ -0,0 +1,69 @@
+package com.revenat.httpserver.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Represents single part of the {@code multipart/form-data} HTTP request body:
+ * form field or uploaded file. Content of the small part is held in memory,
+ * content of the large one is kept in the temporary file, which is deleted
+ * after the request is handled.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+public interface Part {
+
+	/**
+	 * Returns name of the form field from the {@code Content-Disposition}
+	 * header of the part.
+	 * @return
+	 */
+	String getName();
+
+	/**
+	 * Returns name of the uploaded file, or {@code null} if part is not a file.
+	 * @return
+	 */
+	String getFileName();
+
+	/**
+	 * Returns value of the {@code Content-Type} header of the part, or
+	 * {@code null} if there is no such header.
+	 * @return
+	 */
+	String getContentType();
+
+	/**
+	 * Returns all the headers of the part.
+	 * @return
+	 */
+	Map<String, String> getHeaders();
+
+	/**
+	 * Returns size of the part content in bytes.
+	 * @return
+	 */
+	long getSize();
+
+	/**
+	 * Returns {@code true} if content of the part is held in memory,
+	 * {@code false} if it's kept in the temporary file.
+	 * @return
+	 */
+	boolean isInMemory();
+
+	/**
+	 * Returns new stream to read content of the part.
+	 * @return
+	 * @throws IOException if temporary file of the part can't be read
+	 */
+	InputStream getInputStream() throws IOException;
+
+	/**
+	 * Deletes temporary file of the part, if any.
+	 * @throws IOException if file can't be deleted
+	 */
+	void delete() throws IOException;
+}
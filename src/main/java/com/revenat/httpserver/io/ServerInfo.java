@@ -4,7 +4,7 @@ import static java.util.Objects.requireNonNull;
 
 /**
  * Immutable value type that contains information about HTTP server's current
- * state
+ * state. Runtime statistics are available via {@link #getStatistics()}
  * 
  * @author Vitaly Dragun
  *
@@ -13,11 +13,13 @@ public class ServerInfo {
 	private final String name;
 	private final int port;
 	private final int threadCount;
+	private final ServerStatistics statistics;
 
 	public ServerInfo(String name, int port, int threadCount) {
 		this.name = requireNonNull(name, "Server name can not be null");
 		this.port = port;
 		this.threadCount = threadCount;
+		this.statistics = new ServerStatistics();
 	}
 
 	/**
@@ -47,6 +49,15 @@ public class ServerInfo {
 		return threadCount;
 	}
 
+	/**
+	 * Returns live runtime statistics of the HTTP server (e.g. worker queue size).
+	 * 
+	 * @return
+	 */
+	public ServerStatistics getStatistics() {
+		return statistics;
+	}
+
 	@Override
 	public String toString() {
 		return String.format("ServerInfo [name=%s, port=%s, threadCount=%s]", name, port, (threadCount == 0 ? "UNLIMITED" : threadCount));
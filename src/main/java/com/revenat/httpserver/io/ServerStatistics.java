@@ -0,0 +1,168 @@
+package com.revenat.httpserver.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Thread-safe live view of the HTTP server's runtime statistics. Values are
+ * updated by the HTTP server while it is running.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+public class ServerStatistics {
+	private final AtomicLong rejectedRequestCount = new AtomicLong();
+	private final AtomicInteger inFlightRequestCount = new AtomicInteger();
+	private final AtomicLong processedRequestCount = new AtomicLong();
+	private volatile boolean draining;
+	private volatile long drainedRequestCount;
+	private volatile long abortedRequestCount;
+	private volatile IntSupplier workerQueueSize = () -> 0;
+	private final List<AcceptorStatistics> acceptorStatistics = new CopyOnWriteArrayList<>();
+	private final List<EventLoopStatistics> eventLoopStatistics = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Returns number of client connections waiting in the worker queue.
+	 */
+	public int getWorkerQueueSize() {
+		return workerQueueSize.getAsInt();
+	}
+
+	/**
+	 * Returns number of client connections rejected because the worker queue
+	 * was full.
+	 */
+	public long getRejectedRequestCount() {
+		return rejectedRequestCount.get();
+	}
+
+	/**
+	 * Returns number of requests received by the HTTP server whose responses
+	 * are not written yet.
+	 */
+	public int getInFlightRequestCount() {
+		return inFlightRequestCount.get();
+	}
+
+	/**
+	 * Returns total number of requests processed by the HTTP server.
+	 */
+	public long getProcessedRequestCount() {
+		return processedRequestCount.get();
+	}
+
+	/**
+	 * Returns {@code true} if HTTP server is being stopped and finishes
+	 * in-flight requests, so persistent connections should not be kept open.
+	 */
+	public boolean isDraining() {
+		return draining;
+	}
+
+	/**
+	 * Returns number of in-flight requests finished during the last shutdown.
+	 */
+	public long getDrainedRequestCount() {
+		return drainedRequestCount;
+	}
+
+	/**
+	 * Returns number of in-flight requests which were not finished before the
+	 * shutdown deadline.
+	 */
+	public long getAbortedRequestCount() {
+		return abortedRequestCount;
+	}
+
+	/**
+	 * Registers request received by the HTTP server.
+	 */
+	public void requestStarted() {
+		inFlightRequestCount.incrementAndGet();
+	}
+
+	/**
+	 * Registers request whose response was written.
+	 */
+	public void requestCompleted() {
+		inFlightRequestCount.decrementAndGet();
+		processedRequestCount.incrementAndGet();
+	}
+
+	/**
+	 * Marks HTTP server as draining.
+	 */
+	public void startDraining() {
+		draining = true;
+	}
+
+	/**
+	 * Records result of the HTTP server shutdown.
+	 */
+	public void setDrainResult(long drainedRequestCount, long abortedRequestCount) {
+		this.drainedRequestCount = drainedRequestCount;
+		this.abortedRequestCount = abortedRequestCount;
+	}
+
+	/**
+	 * Returns statistics of all the acceptor threads of the HTTP server.
+	 */
+	public List<AcceptorStatistics> getAcceptorStatistics() {
+		return Collections.unmodifiableList(acceptorStatistics);
+	}
+
+	/**
+	 * Registers new acceptor thread with specified name and returns its
+	 * statistics.
+	 */
+	public AcceptorStatistics registerAcceptor(String name) {
+		AcceptorStatistics statistics = new AcceptorStatistics(name);
+		acceptorStatistics.add(statistics);
+		return statistics;
+	}
+
+	/**
+	 * Returns statistics of all the event loops of the NIO HTTP server.
+	 */
+	public List<EventLoopStatistics> getEventLoopStatistics() {
+		return Collections.unmodifiableList(eventLoopStatistics);
+	}
+
+	/**
+	 * Registers new event loop with specified name and returns its statistics.
+	 */
+	public EventLoopStatistics registerEventLoop(String name) {
+		EventLoopStatistics statistics = new EventLoopStatistics(name);
+		eventLoopStatistics.add(statistics);
+		return statistics;
+	}
+
+	/**
+	 * Sets source of the current worker queue size.
+	 */
+	public void setWorkerQueueSize(IntSupplier workerQueueSize) {
+		this.workerQueueSize = requireNonNull(workerQueueSize, "Worker queue size supplier can not be null");
+	}
+
+	/**
+	 * Registers one more rejected client connection.
+	 */
+	public void incrementRejectedRequestCount() {
+		rejectedRequestCount.incrementAndGet();
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"ServerStatistics [workerQueueSize=%s, rejectedRequestCount=%s, inFlightRequestCount=%s, "
+						+ "processedRequestCount=%s, acceptors=%s, eventLoops=%s]",
+				getWorkerQueueSize(), getRejectedRequestCount(), getInFlightRequestCount(),
+				getProcessedRequestCount(), acceptorStatistics, eventLoopStatistics);
+	}
+}
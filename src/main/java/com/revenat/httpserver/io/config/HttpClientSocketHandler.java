@@ -8,4 +8,15 @@ package com.revenat.httpserver.io.config;
  *
  */
 public interface HttpClientSocketHandler extends Runnable {
+
+	/**
+	 * Handles single request of the client and closes connection without
+	 * waiting for the next one. Used when connection is handled by the thread
+	 * which accepted it, so that thread is not held by the persistent
+	 * connection. Default implementation handles connection as
+	 * {@link #run()} does.
+	 */
+	default void runSingleRequest() {
+		run();
+	}
 }
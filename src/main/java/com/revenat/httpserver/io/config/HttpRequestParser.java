@@ -16,7 +16,9 @@ public interface HttpRequestParser {
 
 	/**
 	 * Creates new instance of the {@link HttpRequest} using provided
-	 * input stream and remote address.
+	 * input stream and remote address. Implementations should not read
+	 * beyond the end of the request, so bytes of the next pipelined request
+	 * are left in the stream for the next call.
 	 * 
 	 * @param inputStream input stream to read data for http request from.
 	 * @param remoteAddress remote address of the http request
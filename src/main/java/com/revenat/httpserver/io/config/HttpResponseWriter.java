@@ -13,4 +13,11 @@ public interface HttpResponseWriter {
 
 	void writeHttpResponse(OutputStream out, ReadableHttpResponse response)
 		throws IOException;
+
+	/**
+	 * Writes only status line and headers of the response, which body is
+	 * streamed to the client separately.
+	 */
+	void writeHttpResponseHead(OutputStream out, ReadableHttpResponse response)
+		throws IOException;
 }
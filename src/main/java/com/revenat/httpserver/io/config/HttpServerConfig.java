@@ -1,10 +1,12 @@
 package com.revenat.httpserver.io.config;
 
 import java.net.Socket;
+import java.nio.file.Path;
 import java.util.concurrent.ThreadFactory;
 
 import com.revenat.httpserver.io.HttpServerContext;
 import com.revenat.httpserver.io.ServerInfo;
+import com.revenat.httpserver.io.utils.HttpUtils;
 
 /**
  * Component that holds all server-related configuration and responsible for
@@ -32,6 +34,15 @@ public interface HttpServerConfig extends AutoCloseable {
 	 */
 	String getStatusMessage(int statusCode);
 
+	/**
+	 * Returns status line of the response with provided status code, encoded
+	 * with {@code CRLF} at the end. Returned array may be shared, so it must
+	 * not be modified.
+	 */
+	default byte[] getStatusLine(int statusCode) {
+		return HttpUtils.encodeStatusLine(statusCode, getStatusMessage(statusCode));
+	}
+
 	/**
 	 * Returns concrete {@link HttpRequestParser} implementation for current HTTP
 	 * server configuration.
@@ -80,6 +91,152 @@ public interface HttpServerConfig extends AutoCloseable {
 	 */
 	ThreadFactory getWorkerThreadFactory();
 
+	/**
+	 * Returns {@code true} if each client connection should be handled by its own
+	 * virtual thread instead of the pool of platform worker threads. Requires Java
+	 * 21+.
+	 */
+	boolean isVirtualThreadsEnabled();
+
+	/**
+	 * Returns maximum number of client connections that can wait in the queue
+	 * for a free worker thread. {@code 0} means unbounded queue.
+	 */
+	int getWorkerQueueCapacity();
+
+	/**
+	 * Returns {@link RejectionPolicy} to apply to the client connection when
+	 * worker queue is full.
+	 */
+	RejectionPolicy getRejectionPolicy();
+
+	/**
+	 * Returns number of threads accepting client connections. Values less than
+	 * {@code 2} mean single acceptor thread.
+	 */
+	int getAcceptorCount();
+
+	/**
+	 * Returns {@code true} if each acceptor thread should listen on its own
+	 * socket bound with {@code SO_REUSEPORT} option, so operating system kernel
+	 * balances incoming connections between them. Takes effect only on
+	 * platforms that support this option (e.g. Linux).
+	 */
+	boolean isReusePortEnabled();
+
+	/**
+	 * Returns number of event loops serving client connections of the NIO
+	 * HTTP server, each with its own selector thread. {@code 0} means one event
+	 * loop per available processor.
+	 */
+	int getEventLoopCount();
+
+	/**
+	 * Returns {@code true} if NIO HTTP server should process requests right in
+	 * the event loop thread which owns the connection instead of passing them to
+	 * the worker threads. Suitable only for handlers which never block.
+	 */
+	boolean isEventLoopProcessingEnabled();
+
+	/**
+	 * Returns maximum length of the queue of incoming connections waiting to be
+	 * accepted by the server socket. {@code 0} means platform default.
+	 */
+	int getSocketBacklog();
+
+	/**
+	 * Returns {@code true} if Nagle's algorithm should be disabled
+	 * ({@code TCP_NODELAY}) for the client sockets.
+	 */
+	boolean isTcpNoDelayEnabled();
+
+	/**
+	 * Returns size (in bytes) of the receive buffer ({@code SO_RCVBUF}) of the
+	 * client sockets. {@code 0} means platform default.
+	 */
+	int getSocketReceiveBufferSize();
+
+	/**
+	 * Returns size (in bytes) of the send buffer ({@code SO_SNDBUF}) of the
+	 * client sockets. {@code 0} means platform default.
+	 */
+	int getSocketSendBufferSize();
+
+	/**
+	 * Returns how long (in milliseconds) client can take to send starting line
+	 * and headers of the HTTP request, counting from the first received byte.
+	 * {@code 0} means no limit.
+	 */
+	int getHeaderReadTimeout();
+
+	/**
+	 * Returns how long (in milliseconds) server waits for the next portion of
+	 * the HTTP request body. {@code 0} means no limit.
+	 */
+	int getBodyReadTimeout();
+
+	/**
+	 * Returns maximum length (in bytes) of the starting line of the HTTP
+	 * request. Longer requests are rejected with {@code 414 URI Too Long}.
+	 * {@code 0} means no limit.
+	 */
+	int getMaxRequestLineLength();
+
+	/**
+	 * Returns maximum size (in bytes) of the starting line and headers of the
+	 * HTTP request. Larger requests are rejected with
+	 * {@code 431 Request Header Fields Too Large}. {@code 0} means no limit.
+	 */
+	int getMaxHeaderSize();
+
+	/**
+	 * Returns maximum number of headers of the HTTP request. Requests with more
+	 * headers are rejected with {@code 431 Request Header Fields Too Large}.
+	 * {@code 0} means no limit.
+	 */
+	int getMaxHeaderCount();
+
+	/**
+	 * Returns maximum size (in bytes) of the HTTP request body. Larger requests
+	 * are rejected with {@code 413 Payload Too Large}. {@code 0} means no limit.
+	 */
+	int getMaxBodySize();
+
+	/**
+	 * Returns maximum size (in bytes) of the {@code multipart/form-data} body
+	 * part which is held in memory. Larger parts are written to the temporary
+	 * files.
+	 */
+	int getMultipartMemoryThreshold();
+
+	/**
+	 * Returns directory for the temporary files of the large
+	 * {@code multipart/form-data} body parts, or {@code null} if default
+	 * temporary directory should be used.
+	 */
+	Path getMultipartTempDir();
+
+	/**
+	 * Returns how long (in milliseconds) HTTP server waits for in-flight
+	 * requests to finish when it's being stopped. {@code 0} means in-flight
+	 * requests are aborted immediately.
+	 */
+	int getShutdownTimeout();
+
+	/**
+	 * Returns how long (in milliseconds) persistent client connection can stay
+	 * idle waiting for the next request. {@code 0} means that persistent
+	 * connections are disabled and each connection is closed after the first
+	 * response.
+	 */
+	int getKeepAliveTimeout();
+
+	/**
+	 * Returns maximum number of requests that can be served by a single
+	 * persistent client connection. {@code 0} means no limit.
+	 */
+	int getKeepAliveMaxRequests();
+
 	/**
 	 * Creates new instance of the {@link HttpClientSocketHandler} to handle new
 	 * client connection with the HTTP server.
@@ -90,4 +247,15 @@ public interface HttpServerConfig extends AutoCloseable {
 	 * @return new instance of the {@link HttpClientSocketHandler}
 	 */
 	HttpClientSocketHandler buildNewHttpClientSocketHandler(Socket clientSocket);
+
+	/**
+	 * Creates new instance of the {@link IncrementalHttpRequestParser} to parse
+	 * requests of the new client connection served by the non-blocking HTTP
+	 * server.
+	 * 
+	 * @param remoteAddress remote address of the client connection
+	 * 
+	 * @return new instance of the {@link IncrementalHttpRequestParser}
+	 */
+	IncrementalHttpRequestParser buildNewIncrementalHttpRequestParser(String remoteAddress);
 }
@@ -0,0 +1,91 @@
+package com.revenat.httpserver.io.config;
+
+import java.nio.ByteBuffer;
+
+import com.revenat.httpserver.io.HttpRequest;
+import com.revenat.httpserver.io.exception.AbstractRequestParseFailedException;
+
+/**
+ * Component responsible for parsing {@link HttpRequest} from the byte
+ * fragments received by the non-blocking transport. Unlike
+ * {@link HttpRequestParser}, it never waits for the data: each fragment is fed
+ * to the parser as soon as it arrives, and parser keeps its state between the
+ * calls, so bytes already seen are never scanned again.
+ * <p>
+ * Single instance is used by the single client connection for all its
+ * requests, one request at a time. Implementations are not thread-safe.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+public interface IncrementalHttpRequestParser {
+
+	/**
+	 * State of the request being parsed.
+	 */
+	enum Status {
+		/**
+		 * Request is incomplete, parser waits for the next fragment.
+		 */
+		NEED_MORE,
+		/**
+		 * Request is parsed and can be obtained with {@link #getRequest()}.
+		 */
+		COMPLETE,
+		/**
+		 * Request is invalid, the reason can be obtained with {@link #getError()}.
+		 */
+		ERROR
+	}
+
+	/**
+	 * Consumes bytes of the current request from the specified fragment,
+	 * starting from its position. Parser never reads beyond the end of the
+	 * request, so bytes of the next pipelined request are left in the buffer
+	 * (its position is advanced by the number of consumed bytes). Once request
+	 * is complete or failed, parser consumes nothing until {@link #reset()}.
+	 * 
+	 * @param fragment next bytes received from the client
+	 * @return status of the current request
+	 */
+	Status parse(ByteBuffer fragment);
+
+	/**
+	 * Returns number of bytes consumed by the last {@link #parse(ByteBuffer)}
+	 * call.
+	 */
+	int getConsumedCount();
+
+	/**
+	 * Returns status of the current request.
+	 */
+	Status getStatus();
+
+	/**
+	 * Returns {@code true} if starting line and headers of the current request
+	 * are received, so parser waits for the message body only.
+	 */
+	default boolean isHeadReceived() {
+		return getStatus() != Status.NEED_MORE;
+	}
+
+	/**
+	 * Returns parsed request.
+	 * 
+	 * @throws IllegalStateException if status is not {@link Status#COMPLETE}
+	 */
+	HttpRequest getRequest();
+
+	/**
+	 * Returns exception describing why request is invalid.
+	 * 
+	 * @throws IllegalStateException if status is not {@link Status#ERROR}
+	 */
+	AbstractRequestParseFailedException getError();
+
+	/**
+	 * Forgets current request, so parser is ready for the next one. Buffers
+	 * allocated for the previous requests may be reused.
+	 */
+	void reset();
+}
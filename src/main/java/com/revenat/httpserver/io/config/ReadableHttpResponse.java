@@ -1,5 +1,7 @@
 package com.revenat.httpserver.io.config;
 
+import java.io.OutputStream;
+import java.nio.file.Path;
 import java.util.Map;
 
 import com.revenat.httpserver.io.HttpResponse;
@@ -28,6 +30,21 @@ public interface ReadableHttpResponse extends HttpResponse {
 	 */
 	byte[] getBody();
 	
+	/**
+	 * Returns array holding body content of this response without copying it,
+	 * so it must not be modified. Only the first {@link #getBodyLength()} bytes
+	 * of the array belong to the body.
+	 */
+	default byte[] getBodyArray() {
+		return getBody();
+	}
+	
+	/**
+	 * Returns file which content is the body of this response, or {@code null}
+	 * if body is held in memory.
+	 */
+	Path getBodyFile();
+	
 	/**
 	 * Returns true if this request has empty body, false otherwise
 	 */
@@ -36,5 +53,11 @@ public interface ReadableHttpResponse extends HttpResponse {
 	/**
 	 * Returns length of the body of this request in bytes.
 	 */
-	int getBodyLength();
+	long getBodyLength();
+	
+	/**
+	 * Sets stream returned by {@link #getOutputStream()}, which passes the body
+	 * to the client as it is written.
+	 */
+	void setBodyOutputStream(OutputStream out);
 }
@@ -0,0 +1,49 @@
+package com.revenat.httpserver.io.config;
+
+import com.revenat.httpserver.io.exception.HttpServerConfigException;
+
+/**
+ * Enumeration of the strategies HTTP server can use when new client
+ * connection can not be accepted for processing because the worker queue is
+ * full. Chosen via {@code server.thread.rejection.policy} property.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+public enum RejectionPolicy {
+	/**
+	 * Responds with {@code 503 Service Unavailable} and closes connection.
+	 */
+	SERVICE_UNAVAILABLE,
+	/**
+	 * Closes connection without any response.
+	 */
+	CLOSE,
+	/**
+	 * Processes connection in the thread which accepted it, thereby slowing down
+	 * accepting new connections. Only one request of the connection is served
+	 * this way, with keep-alive disabled. Asynchronous and NIO servers treat it
+	 * as {@link #SERVICE_UNAVAILABLE}, since their accepting threads serve io
+	 * of the other connections too.
+	 */
+	CALLER_RUNS;
+
+	/**
+	 * Returns {@link RejectionPolicy} with specified name (case-insensitive,
+	 * words are separated by '-') or {@link #SERVICE_UNAVAILABLE} if name is not
+	 * specified.
+	 * 
+	 * @throws HttpServerConfigException if there is no policy with such name
+	 */
+	public static RejectionPolicy of(String name) {
+		if (name == null || name.trim().isEmpty()) {
+			return SERVICE_UNAVAILABLE;
+		}
+		for (RejectionPolicy policy : values()) {
+			if (policy.name().replace('_', '-').equalsIgnoreCase(name.trim())) {
+				return policy;
+			}
+		}
+		throw new HttpServerConfigException("Unsupported server.thread.rejection.policy: " + name);
+	}
+}
@@ -0,0 +1,19 @@
+package com.revenat.httpserver.io.exception;
+
+/**
+ * Exception that represents that request processing failed because message
+ * body of the request exceeds configured size limit ({@code Payload Too Large},
+ * status 413).
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+public class PayloadTooLargeException extends AbstractRequestParseFailedException {
+	private static final long serialVersionUID = -6214571820957934402L;
+
+	public PayloadTooLargeException(String message, String startingLine) {
+		super(message, startingLine);
+		setStatusCode(413);
+	}
+
+}
@@ -0,0 +1,19 @@
+package com.revenat.httpserver.io.exception;
+
+/**
+ * Exception that represents that request processing failed because headers of
+ * the request exceed configured size or count limit
+ * ({@code Request Header Fields Too Large}, status 431).
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+public class RequestHeaderFieldsTooLargeException extends AbstractRequestParseFailedException {
+	private static final long serialVersionUID = 3920744183261548120L;
+
+	public RequestHeaderFieldsTooLargeException(String message, String startingLine) {
+		super(message, startingLine);
+		setStatusCode(431);
+	}
+
+}
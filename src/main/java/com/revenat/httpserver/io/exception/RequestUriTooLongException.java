@@ -0,0 +1,19 @@
+package com.revenat.httpserver.io.exception;
+
+/**
+ * Exception that represents that request processing failed because starting
+ * line of the request exceeds configured length limit ({@code URI Too Long},
+ * status 414).
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+public class RequestUriTooLongException extends AbstractRequestParseFailedException {
+	private static final long serialVersionUID = -2356104418613360528L;
+
+	public RequestUriTooLongException(String message, String startingLine) {
+		super(message, startingLine);
+		setStatusCode(414);
+	}
+
+}
@@ -6,11 +6,14 @@ import java.io.IOException;
 import java.util.Map;
 import java.util.TreeMap;
 
-import com.revenat.httpserver.io.Constants;
+import com.revenat.httpserver.io.AcceptorStatistics;
+import com.revenat.httpserver.io.EventLoopStatistics;
 import com.revenat.httpserver.io.HttpHandler;
+import com.revenat.httpserver.io.HttpMethod;
 import com.revenat.httpserver.io.HttpRequest;
 import com.revenat.httpserver.io.HttpResponse;
 import com.revenat.httpserver.io.HttpServerContext;
+import com.revenat.httpserver.io.ServerStatistics;
 import com.revenat.httpserver.io.utils.DataUtils;
 
 /**
@@ -26,6 +29,11 @@ public class ServerInfoHttpHandler implements HttpHandler {
 	private static final String SUPPORTED_RESPONSE_STATUSES = "SUPPORTED-RESPONSE-STATUSES";
 	private static final String SUPPORTED_REQUEST_METHODS = "SUPPORTED-REQUEST-METHODS";
 	private static final String THREAD_COUNT = "THREAD-COUNT";
+	private static final String WORKER_QUEUE_SIZE = "WORKER-QUEUE-SIZE";
+	private static final String REJECTED_REQUEST_COUNT = "REJECTED-REQUEST-COUNT";
+	private static final String ACCEPTORS = "ACCEPTORS";
+	private static final String EVENT_LOOPS = "EVENT-LOOPS";
+	private static final String IN_FLIGHT_REQUEST_COUNT = "IN-FLIGHT-REQUEST-COUNT";
 	private static final String SERVER_PORT = "SERVER-PORT";
 	private static final String SERVER_NAME = "SERVER-NAME";
 	private static final String SERVER_INFO_TEMPLATE = "server-info.html";
@@ -36,7 +44,7 @@ public class ServerInfoHttpHandler implements HttpHandler {
 		requireNonNull(request, "request can not be null");
 		requireNonNull(response, "response can not be null");
 		
-		if (Constants.GET.equals(request.getMethod())) {
+		if (request.getHttpMethod() == HttpMethod.GET) {
 			Map<String, Object> templateData = getTemplateData(context);
 			response.setBody(context.getHtmlTemplateManager().processTemplate(SERVER_INFO_TEMPLATE, templateData));
 		} else {
@@ -47,15 +55,40 @@ public class ServerInfoHttpHandler implements HttpHandler {
 
 	private Map<String, Object> getTemplateData(HttpServerContext context) {
 		int threadCount = context.getServerInfo().getThreadCount();
+		ServerStatistics statistics = context.getServerInfo().getStatistics();
 		return DataUtils.buildMap(new Object[][] {
 			{ SERVER_NAME, context.getServerInfo().getName() },
 			{ SERVER_PORT, context.getServerInfo().getPort() },
 			{ THREAD_COUNT, threadCount == 0 ? UNLIMITED_COUNT : threadCount },
+			{ WORKER_QUEUE_SIZE, statistics.getWorkerQueueSize() },
+			{ REJECTED_REQUEST_COUNT, statistics.getRejectedRequestCount() },
+			{ IN_FLIGHT_REQUEST_COUNT, statistics.getInFlightRequestCount() },
+			{ ACCEPTORS, getAcceptors(statistics) },
+			{ EVENT_LOOPS, getEventLoops(statistics) },
 			{ SUPPORTED_REQUEST_METHODS, context.getSupportedRequestMethods() },
 			{ SUPPORTED_RESPONSE_STATUSES, getSupportedResponseStatuses(context) }
 		});
 	}
 
+	private StringBuilder getAcceptors(ServerStatistics statistics) {
+		StringBuilder html = new StringBuilder();
+		for (AcceptorStatistics acceptor : statistics.getAcceptorStatistics()) {
+			html.append(acceptor.getName()).append(" [").append(acceptor.getAcceptedConnectionCount())
+					.append(" accepted, ").append(String.format("%.2f", acceptor.getAcceptRate())).append("/s]<br />");
+		}
+		return html;
+	}
+
+	private StringBuilder getEventLoops(ServerStatistics statistics) {
+		StringBuilder html = new StringBuilder();
+		for (EventLoopStatistics eventLoop : statistics.getEventLoopStatistics()) {
+			html.append(eventLoop.getName()).append(" [").append(eventLoop.getConnectionCount())
+					.append(" connections, lag ").append(String.format("%.3f", eventLoop.getLoopLag()))
+					.append(" ms, max ").append(String.format("%.3f", eventLoop.getMaxLoopLag())).append(" ms]<br />");
+		}
+		return html;
+	}
+
 	private StringBuilder getSupportedResponseStatuses(HttpServerContext context) {
 		StringBuilder html = new StringBuilder();
 		Map<Object, Object> statuses = new TreeMap<>(context.getSupportedResponseStatuses());
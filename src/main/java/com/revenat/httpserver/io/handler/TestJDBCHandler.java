@@ -3,6 +3,10 @@ package com.revenat.httpserver.io.handler;
 import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -14,7 +18,9 @@ import com.revenat.httpserver.io.utils.DataUtils;
 
 /**
  * Simple implementation of the {@link HttpHandler} that demonstrates how it can
- * be possible to work with database from the handler.
+ * be possible to work with database from the handler. Rows of the students
+ * table are written to the response as they are rendered, so the page is
+ * streamed to the client instead of being built in memory.
  * 
  * @author Vitaly Dragun
  *
@@ -22,6 +28,13 @@ import com.revenat.httpserver.io.utils.DataUtils;
 public class TestJDBCHandler implements HttpHandler {
 	private static final String STUDENT_ROW_TEMPLATE = "student-row.html";
 	private static final String STUDENTS_TEMPLATE = "students.html";
+	/**
+	 * Table body is left as is in the page, so rows can be streamed in its place
+	 * one by one.
+	 */
+	private static final String TABLE_BODY_PLACEHOLDER = "${TABLE-BODY}";
+	private static final Map<String, Object> TABLE_BODY_ARGS = Collections.singletonMap("TABLE-BODY",
+			TABLE_BODY_PLACEHOLDER);
 
 	private final EntityProvider<Student> studentProvider;
 
@@ -36,20 +49,20 @@ public class TestJDBCHandler implements HttpHandler {
 		requireNonNull(response, "response can not be null");
 		
 		List<Student> students = studentProvider.getAll(context);
-		Map<String, Object> tabelBody = getTableBody(students, context);
-		response.setBody(context.getHtmlTemplateManager().processTemplate(STUDENTS_TEMPLATE, tabelBody));
-
-	}
-
-	private Map<String, Object> getTableBody(List<Student> students, HttpServerContext context) {
-		StringBuilder tableBody = new StringBuilder("");
-		for (Student student : students) {
-			tableBody.append(getRowBody(context, student));
+		String page = context.getHtmlTemplateManager().processTemplate(STUDENTS_TEMPLATE, TABLE_BODY_ARGS);
+		int tableBodyIndex = page.indexOf(TABLE_BODY_PLACEHOLDER);
+		try (Writer writer = new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8)) {
+			if (tableBodyIndex == -1) {
+				writer.write(page);
+				return;
+			}
+			writer.write(page, 0, tableBodyIndex);
+			for (Student student : students) {
+				writer.write(getRowBody(context, student));
+			}
+			int tableBodyEnd = tableBodyIndex + TABLE_BODY_PLACEHOLDER.length();
+			writer.write(page, tableBodyEnd, page.length() - tableBodyEnd);
 		}
-
-		return DataUtils.buildMap(new Object[][] { 
-			{ "TABLE-BODY", tableBody.toString() } 
-			});
 	}
 
 	private String getRowBody(HttpServerContext context, Student student) {
@@ -0,0 +1,194 @@
+package com.revenat.httpserver.io.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.InterruptedByTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revenat.httpserver.io.config.HttpServerConfig;
+import com.revenat.httpserver.io.config.IncrementalHttpRequestParser;
+import com.revenat.httpserver.io.config.IncrementalHttpRequestParser.Status;
+import com.revenat.httpserver.io.impl.HttpRequestProcessor.RequestSource;
+
+/**
+ * Represents state of the single client connection served by the
+ * {@link AsyncHttpServer}. Reads and writes are chained through
+ * {@link CompletionHandler}s, so at most one operation is pending at any
+ * time and no additional synchronization is required.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+class AsyncConnection {
+	private static final Logger LOGGER = LoggerFactory.getLogger(AsyncConnection.class);
+	private static final int READ_BUFFER_SIZE = 8192;
+
+	/**
+	 * Callback notified about connection events.
+	 */
+	interface Listener {
+		/**
+		 * Called when complete request is received by the connection.
+		 */
+		void onRequest(AsyncConnection connection, RequestSource request);
+
+		/**
+		 * Called once when connection is closed.
+		 */
+		void onClose(AsyncConnection connection);
+	}
+
+	private final AsynchronousSocketChannel channel;
+	private final String remoteAddress;
+	private final Listener listener;
+	/**
+	 * Holds bytes received from the client which were not consumed by the
+	 * request parser yet, e.g. next pipelined request.
+	 */
+	private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+	private final IncrementalHttpRequestParser requestParser;
+	private final ReadHandler readHandler = new ReadHandler();
+	private final WriteHandler writeHandler = new WriteHandler();
+	private int requestCount;
+	private final AtomicBoolean closed = new AtomicBoolean();
+	private volatile boolean processing;
+	private boolean keepAlive;
+
+	AsyncConnection(AsynchronousSocketChannel channel, HttpServerConfig httpServerConfig, Listener listener)
+			throws IOException {
+		this.channel = channel;
+		this.remoteAddress = channel.getRemoteAddress().toString();
+		this.requestParser = httpServerConfig.buildNewIncrementalHttpRequestParser(remoteAddress);
+		this.listener = listener;
+		readBuffer.limit(0);
+	}
+
+	String getRemoteAddress() {
+		return remoteAddress;
+	}
+
+	/**
+	 * Returns number of requests received by this connection.
+	 */
+	int getRequestCount() {
+		return requestCount;
+	}
+
+	/**
+	 * Returns {@code true} if request received by this connection is being
+	 * processed or response to it is being written.
+	 */
+	boolean isProcessing() {
+		return processing;
+	}
+
+	/**
+	 * Passes next request to the {@link Listener} if it was already
+	 * received, otherwise starts reading it from the client.
+	 * 
+	 * @param timeout how long (in milliseconds) to wait for the client, {@code 0}
+	 *                means no limit
+	 */
+	void readRequest(int timeout) {
+		if (requestParser.getStatus() == Status.NEED_MORE && readBuffer.hasRemaining()) {
+			requestParser.parse(readBuffer);
+		}
+		if (requestParser.getStatus() != Status.NEED_MORE) {
+			processing = true;
+			requestCount++;
+			RequestSource request = RequestSource.of(requestParser);
+			requestParser.reset();
+			listener.onRequest(this, request);
+		} else {
+			readBuffer.clear();
+			channel.read(readBuffer, timeout, TimeUnit.MILLISECONDS, timeout, readHandler);
+		}
+	}
+
+	/**
+	 * Writes response to the client and then either waits for the next request
+	 * or closes connection.
+	 * 
+	 * @param response         response bytes
+	 * @param keepAlive        whether connection should be kept open
+	 * @param keepAliveTimeout how long (in milliseconds) to wait for the next
+	 *                         request
+	 */
+	void writeResponse(ByteBuffer response, boolean keepAlive, int keepAliveTimeout) {
+		this.keepAlive = keepAlive;
+		channel.write(response, keepAliveTimeout, writeHandler.with(response));
+	}
+
+	boolean isOpen() {
+		return channel.isOpen();
+	}
+
+	void close() {
+		if (closed.compareAndSet(false, true)) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				/* ignore */
+			}
+			listener.onClose(this);
+		}
+	}
+
+	private void failed(Throwable exc) {
+		if (exc instanceof InterruptedByTimeoutException) {
+			LOGGER.debug("Client connection timed out: {}", remoteAddress);
+		} else if (channel.isOpen()) {
+			LOGGER.debug("Client connection failed: {}", exc.getMessage());
+		}
+		close();
+	}
+
+	private class ReadHandler implements CompletionHandler<Integer, Integer> {
+		@Override
+		public void completed(Integer readCount, Integer timeout) {
+			if (readCount == -1) {
+				close();
+				return;
+			}
+			readBuffer.flip();
+			readRequest(timeout);
+		}
+
+		@Override
+		public void failed(Throwable exc, Integer timeout) {
+			AsyncConnection.this.failed(exc);
+		}
+	}
+
+	private class WriteHandler implements CompletionHandler<Integer, Integer> {
+		private ByteBuffer response;
+
+		WriteHandler with(ByteBuffer response) {
+			this.response = response;
+			return this;
+		}
+
+		@Override
+		public void completed(Integer writeCount, Integer keepAliveTimeout) {
+			if (response.hasRemaining()) {
+				channel.write(response, keepAliveTimeout, this);
+			} else if (keepAlive) {
+				processing = false;
+				readRequest(keepAliveTimeout);
+			} else {
+				close();
+			}
+		}
+
+		@Override
+		public void failed(Throwable exc, Integer keepAliveTimeout) {
+			AsyncConnection.this.failed(exc);
+		}
+	}
+}
@@ -0,0 +1,288 @@
+package com.revenat.httpserver.io.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousChannelGroup;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.AsynchronousServerSocketChannel;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revenat.httpserver.io.AcceptorStatistics;
+import com.revenat.httpserver.io.HttpServer;
+import com.revenat.httpserver.io.config.HttpServerConfig;
+import com.revenat.httpserver.io.config.RejectionPolicy;
+import com.revenat.httpserver.io.exception.HttpServerException;
+import com.revenat.httpserver.io.impl.HttpRequestProcessor.RequestSource;
+
+/**
+ * Implementation of the {@link HttpServer} which uses asynchronous channels of
+ * the NIO.2 API. Accepting connections, reading requests and writing responses
+ * are chained through {@link CompletionHandler}s executed by the
+ * {@link AsynchronousChannelGroup} with one thread per available processor.
+ * Complete HTTP requests are processed by the worker threads, so blocking
+ * handlers don't stall io.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+class AsyncHttpServer implements HttpServer {
+	private static final Logger LOGGER = LoggerFactory.getLogger(AsyncHttpServer.class);
+	private static final String IO_THREAD_PREFIX = "async-io-thread-";
+
+	private final HttpServerConfig httpServerConfig;
+	private final HttpRequestProcessor requestProcessor;
+	private final ExecutorService executorService;
+	private final AsynchronousChannelGroup channelGroup;
+	private final AsynchronousServerSocketChannel serverChannel;
+	private final AcceptorStatistics acceptorStatistics;
+	private final AcceptHandler acceptHandler = new AcceptHandler();
+	private final ConnectionListener connectionListener = new ConnectionListener();
+	private final Set<AsyncConnection> connections = ConcurrentHashMap.newKeySet();
+	private final AtomicBoolean started = new AtomicBoolean();
+	private final AtomicBoolean stopped = new AtomicBoolean();
+	private volatile boolean serverStopped;
+
+	AsyncHttpServer(HttpServerConfig httpServerConfig) {
+		this.httpServerConfig = requireNonNull(httpServerConfig, "HttpServerConfig can not be null");
+		this.requestProcessor = new HttpRequestProcessor(httpServerConfig);
+		this.executorService = createExecutorService();
+		this.channelGroup = createChannelGroup();
+		this.serverChannel = createServerChannel();
+		this.acceptorStatistics = httpServerConfig.getServerInfo().getStatistics().registerAcceptor("Async Acceptor");
+		this.serverStopped = false;
+	}
+
+	/**
+	 * Creates {@link ExecutorService} responsible for managing server's worker threads.
+	 */
+	protected ExecutorService createExecutorService() {
+		return WorkerExecutors.create(httpServerConfig);
+	}
+
+	/**
+	 * Creates channel group whose threads handle io completion events.
+	 */
+	protected AsynchronousChannelGroup createChannelGroup() {
+		try {
+			return AsynchronousChannelGroup.withFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+					new DefaultThreadFactory(IO_THREAD_PREFIX));
+		} catch (IOException e) {
+			throw new HttpServerException("Can not create asynchronous channel group", e);
+		}
+	}
+
+	/**
+	 * Creates asynchronous HTTP server channel.
+	 */
+	protected AsynchronousServerSocketChannel createServerChannel() {
+		int serverPort = httpServerConfig.getServerInfo().getPort();
+		AsynchronousServerSocketChannel channel = null;
+		try {
+			channel = AsynchronousServerSocketChannel.open(channelGroup);
+			ServerSockets.configure(channel, false, httpServerConfig.getSocketReceiveBufferSize());
+			channel.bind(new InetSocketAddress(serverPort), httpServerConfig.getSocketBacklog());
+			return channel;
+		} catch (IOException e) {
+			if (channel != null) {
+				try {
+					channel.close();
+				} catch (IOException ex) {/* ignore */}
+			}
+			channelGroup.shutdown();
+			throw new HttpServerException("Can not create server socket with port=" + serverPort, e);
+		}
+	}
+
+	@Override
+	public void start() {
+		if (!started.compareAndSet(false, true) || stopped.get()) {
+			throw new HttpServerException("Current HTTP server already started or stopped!"
+					+ " Please create a new HTTP server instance.");
+		}
+		Runtime.getRuntime().addShutdownHook(getShutdownHook());
+		serverChannel.accept(null, acceptHandler);
+		LOGGER.info("Async HTTP server started: {}", httpServerConfig.getServerInfo());
+	}
+
+	@Override
+	public void stop() {
+		LOGGER.info("Detect stop cmd");
+		if (stopped.compareAndSet(false, true)) {
+			destroyHttpServer();
+		}
+	}
+
+	private void accepted(AsynchronousSocketChannel channel) {
+		acceptorStatistics.incrementAcceptedConnectionCount();
+		try {
+			ServerSockets.configureClientChannel(channel, httpServerConfig);
+			AsyncConnection connection = new AsyncConnection(channel, httpServerConfig, connectionListener);
+			connections.add(connection);
+			connection.readRequest(httpServerConfig.getHeaderReadTimeout());
+		} catch (IOException e) {
+			LOGGER.error("Can not accept client socket: " + e.getMessage(), e);
+			try {
+				channel.close();
+			} catch (IOException ex) {/* ignore */}
+		}
+	}
+
+	private void submitRequest(AsyncConnection connection, RequestSource request) {
+		boolean keepAliveAllowed = requestProcessor.isKeepAliveAllowed(connection.getRequestCount());
+		try {
+			executorService.execute(() -> processRequest(connection, request, keepAliveAllowed));
+		} catch (RejectedExecutionException e) {
+			if (executorService.isShutdown()) {
+				connection.close();
+			} else {
+				rejectRequest(connection);
+			}
+		}
+	}
+
+	/**
+	 * Applies configured {@link RejectionPolicy} to the request which can not be
+	 * processed because worker queue is full. {@link RejectionPolicy#CALLER_RUNS}
+	 * is treated as {@link RejectionPolicy#SERVICE_UNAVAILABLE}, since the
+	 * calling thread is the io thread of the channel group, and handler running
+	 * there would stall io of all the connections.
+	 */
+	private void rejectRequest(AsyncConnection connection) {
+		httpServerConfig.getServerInfo().getStatistics().incrementRejectedRequestCount();
+		RejectionPolicy rejectionPolicy = httpServerConfig.getRejectionPolicy();
+		LOGGER.warn("Worker queue is full, apply {} policy to client connection", rejectionPolicy);
+		if (rejectionPolicy == RejectionPolicy.CLOSE) {
+			connection.close();
+		} else {
+			connection.writeResponse(ServiceUnavailableResponse.toByteBuffer(), false, 0);
+		}
+	}
+
+	/**
+	 * Processes complete request in the worker thread and starts writing
+	 * response to the client.
+	 */
+	private void processRequest(AsyncConnection connection, RequestSource request, boolean keepAliveAllowed) {
+		ByteArrayOutputStream response = new ByteArrayOutputStream();
+		boolean keepAlive = false;
+		try {
+			keepAlive = requestProcessor.processRequest(connection.getRemoteAddress(),
+					request, response, keepAliveAllowed);
+		} catch (Exception e) {
+			LOGGER.error("Client request failed: " + e.getMessage(), e);
+		}
+		if (connection.isOpen()) {
+			connection.writeResponse(ByteBuffer.wrap(response.toByteArray()), keepAlive,
+					httpServerConfig.getKeepAliveTimeout());
+		}
+	}
+
+	/**
+	 * Creates thread responsible for gracefully closing HTTP server
+	 * on JVM exit event.
+	 */
+	protected Thread getShutdownHook() {
+		return new Thread(() -> {
+			if (!serverStopped) {
+				stop();
+			}
+		}, "ShutdownHook");
+	}
+
+	/**
+	 * Gracefully closes HTTP server resources and sets {@code serverStopped} flag
+	 * to {@code true}. Server stops accepting new connections, closes idle ones
+	 * and waits for in-flight requests to finish, so resources they use (e.g.
+	 * data source of the HttpServerConfig) are closed only after that.
+	 */
+	protected void destroyHttpServer() {
+		httpServerConfig.getServerInfo().getStatistics().startDraining();
+		try {
+			serverChannel.close();
+		} catch (IOException e) {
+			LOGGER.warn("Error during closing HTTP server channel: " + e.getMessage(), e);
+		}
+		closeIdleConnections();
+		WorkerExecutors.drain(executorService, httpServerConfig);
+		shutdownChannelGroup();
+		try {
+			httpServerConfig.close();
+		} catch (Exception e) {
+			LOGGER.error("Close httpServerConfig failed: " + e.getMessage(), e);
+		}
+		LOGGER.info("Async HTTP Server stopped");
+		serverStopped = true;
+	}
+
+	private void closeIdleConnections() {
+		for (AsyncConnection connection : connections) {
+			if (!connection.isProcessing()) {
+				connection.close();
+			}
+		}
+	}
+
+	/**
+	 * Lets pending responses to be written and then closes all the client
+	 * connections.
+	 */
+	private void shutdownChannelGroup() {
+		channelGroup.shutdown();
+		try {
+			if (!channelGroup.awaitTermination(httpServerConfig.getShutdownTimeout(), TimeUnit.MILLISECONDS)) {
+				channelGroup.shutdownNow();
+			}
+		} catch (IOException e) {
+			LOGGER.warn("Error during closing channel group: " + e.getMessage(), e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	protected boolean isServerStopped() {
+		return serverStopped;
+	}
+
+	private class ConnectionListener implements AsyncConnection.Listener {
+		@Override
+		public void onRequest(AsyncConnection connection, RequestSource request) {
+			submitRequest(connection, request);
+		}
+
+		@Override
+		public void onClose(AsyncConnection connection) {
+			connections.remove(connection);
+		}
+	}
+
+	private class AcceptHandler implements CompletionHandler<AsynchronousSocketChannel, Void> {
+		@Override
+		public void completed(AsynchronousSocketChannel channel, Void attachment) {
+			serverChannel.accept(null, this);
+			accepted(channel);
+		}
+
+		@Override
+		public void failed(Throwable exc, Void attachment) {
+			if (exc instanceof AsynchronousCloseException || !serverChannel.isOpen()) {
+				return;
+			}
+			LOGGER.error("Can not accept client socket: " + exc.getMessage(), exc);
+			serverChannel.accept(null, this);
+		}
+	}
+}
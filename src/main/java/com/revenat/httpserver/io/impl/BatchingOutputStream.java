@@ -0,0 +1,123 @@
+package com.revenat.httpserver.io.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Buffered {@link OutputStream} which ignores regular {@link #flush()} calls,
+ * so several HTTP responses can be sent to the client as a single batch. Bytes
+ * are passed to the underlying stream only when buffer is full or when
+ * {@link #flushBatch()} or {@link #close()} is called. Large responses and
+ * files go to the channel of the client socket directly, if it has one.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+class BatchingOutputStream extends BufferedOutputStream {
+	private static final int BUFFER_SIZE = 8192;
+	/**
+	 * Whether some bytes were written since the last batch flush
+	 */
+	private boolean pending;
+	/**
+	 * Channel of the client socket to transfer files to, {@code null} if socket
+	 * has no channel.
+	 */
+	private final WritableByteChannel channel;
+
+	BatchingOutputStream(OutputStream out) {
+		this(out, null);
+	}
+
+	/**
+	 * @param out     stream of the client socket
+	 * @param channel channel of the same client socket or {@code null}
+	 */
+	BatchingOutputStream(OutputStream out, WritableByteChannel channel) {
+		super(out, BUFFER_SIZE);
+		this.channel = channel;
+	}
+
+	@Override
+	public synchronized void write(int b) throws IOException {
+		super.write(b);
+		pending = true;
+	}
+
+	@Override
+	public synchronized void write(byte[] b, int off, int len) throws IOException {
+		super.write(b, off, len);
+		pending = true;
+	}
+
+	/**
+	 * Does nothing, since bytes are flushed once per batch.
+	 * 
+	 * @see #flushBatch()
+	 */
+	@Override
+	public void flush() {
+		// Do nothing
+	}
+
+	/**
+	 * Writes all the buffered bytes to the underlying stream and flushes it.
+	 */
+	synchronized void flushBatch() throws IOException {
+		if (pending) {
+			super.flush();
+			pending = false;
+		}
+	}
+
+	/**
+	 * Writes head and body of the response. If they don't fit the buffer and
+	 * client socket has a channel, buffered bytes, head and body are passed to
+	 * the client with a single gathering write, without copying; otherwise they
+	 * are buffered as usual.
+	 * 
+	 * @param head       array holding the head of the response
+	 * @param headLength length of the head
+	 * @param body       array holding the body of the response
+	 * @param bodyLength length of the body
+	 */
+	synchronized void write(byte[] head, int headLength, byte[] body, int bodyLength) throws IOException {
+		if (!(channel instanceof GatheringByteChannel) || headLength + bodyLength <= buf.length - count) {
+			write(head, 0, headLength);
+			write(body, 0, bodyLength);
+			return;
+		}
+		ByteBuffer[] buffers = { ByteBuffer.wrap(buf, 0, count), ByteBuffer.wrap(head, 0, headLength),
+				ByteBuffer.wrap(body, 0, bodyLength) };
+		GatheringByteChannel gatheringChannel = (GatheringByteChannel) channel;
+		long remaining = count + headLength + bodyLength;
+		while (remaining > 0) {
+			remaining -= gatheringChannel.write(buffers);
+		}
+		count = 0;
+		pending = false;
+	}
+
+	/**
+	 * Writes buffered bytes and then transfers specified number of bytes from
+	 * the start of the file right to the client, bypassing the buffer.
+	 */
+	synchronized void transferFrom(FileChannel file, long length) throws IOException {
+		super.flush();
+		pending = false;
+		DefaultHttpResponseWriter.transfer(file, length, channel != null ? channel : Channels.newChannel(out));
+	}
+
+	@Override
+	public void close() throws IOException {
+		try (OutputStream target = out) {
+			flushBatch();
+		}
+	}
+}
@@ -0,0 +1,272 @@
+package com.revenat.httpserver.io.impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.revenat.httpserver.io.HttpRequest;
+import com.revenat.httpserver.io.config.HttpRequestParser;
+import com.revenat.httpserver.io.exception.BadRequestException;
+import com.revenat.httpserver.io.exception.HttpServerException;
+
+/**
+ * Implementation of the {@link HttpRequestParser} which reads starting line
+ * and headers of the HTTP request in bulk into the buffer reused by the
+ * current thread, and tokenizes them in a single pass right from the bytes.
+ * Line ends are looked for 8 bytes at a time, and only the resulting values
+ * (method, URI, header names and values) are turned into strings.
+ * <p>
+ * To leave bytes of the next pipelined request in the stream, parser relies on
+ * {@link InputStream#mark(int)} support (e.g. {@link java.io.BufferedInputStream}
+ * or {@link java.io.ByteArrayInputStream}): bytes read past the end of the
+ * headers are returned to the stream. Streams without mark support are read
+ * byte by byte.
+ * <p>
+ * Length of the starting line and size of the head are checked against
+ * {@link HttpRequestLimits} after each read, so oversized request is rejected
+ * before the buffer grows any further.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+class BulkHttpRequestParser implements HttpRequestParser {
+	/**
+	 * Buffer and head of the current thread, reused for all the requests parsed
+	 * by it.
+	 */
+	private final ThreadLocal<HeadBuffer> headBuffers;
+	private final HttpRequestLimits limits;
+	private final MultipartConfig multipartConfig;
+
+	BulkHttpRequestParser() {
+		this(HttpRequestLimits.UNLIMITED, MultipartConfig.DEFAULT);
+	}
+
+	BulkHttpRequestParser(HttpRequestLimits limits, MultipartConfig multipartConfig) {
+		this.limits = limits;
+		this.multipartConfig = multipartConfig;
+		this.headBuffers = ThreadLocal.withInitial(() -> new HeadBuffer(limits));
+	}
+
+	@Override
+	public HttpRequest parseHttpRequest(InputStream inputStream, String remoteAddress)
+			throws IOException, HttpServerException {
+		try {
+			HeadBuffer head = headBuffers.get();
+			head.read(inputStream, limits);
+			return parseRequest(head, inputStream, remoteAddress);
+		} catch (HttpServerException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			throw new BadRequestException("Can not parse HTTP request: " + e.getMessage(), e, null);
+		}
+	}
+
+	private HttpRequest parseRequest(HeadBuffer headBuffer, InputStream inputStream, String remoteAddress)
+			throws IOException {
+		HttpRequestHead head = headBuffer.head;
+		head.reset();
+		int lineStart = 0;
+		int lineEnd;
+		while ((lineEnd = headBuffer.indexOfLineEnd(lineStart)) != -1) {
+			if (lineEnd > lineStart) {
+				head.parseLine(headBuffer.data, lineStart, lineEnd);
+			}
+			lineStart = lineEnd + 2;
+		}
+		return head.toHttpRequest(remoteAddress,
+				DefaultHttpRequestParser.createBodyStream(inputStream, head.getHeaders(), limits), multipartConfig);
+	}
+
+	/**
+	 * Growable buffer holding starting line and headers of the HTTP request,
+	 * including the empty line after them.
+	 * 
+	 * @author Vitaly Dragun
+	 *
+	 */
+	private static final class HeadBuffer {
+		private static final int INITIAL_SIZE = 4096;
+		/**
+		 * Buffers grown above this size are not kept for the next requests.
+		 */
+		private static final int MAX_RETAINED_SIZE = 65536;
+		private static final long LINE_FEEDS = 0x0A0A0A0A0A0A0A0AL;
+		private static final long LOW_BITS = 0x0101010101010101L;
+		private static final long HIGH_BITS = 0x8080808080808080L;
+
+		/**
+		 * Tokenized head of the request, reset before each request.
+		 */
+		private final HttpRequestHead head;
+		private byte[] data;
+		/**
+		 * Little-endian view of the {@link #data} to read it 8 bytes at a time
+		 */
+		private ByteBuffer words;
+		private int length;
+		private boolean requestLineRead;
+
+		HeadBuffer(HttpRequestLimits limits) {
+			head = new HttpRequestHead(limits);
+			allocate(INITIAL_SIZE);
+		}
+
+		private void allocate(int size) {
+			byte[] newData = new byte[size];
+			if (data != null) {
+				System.arraycopy(data, 0, newData, 0, length);
+			}
+			data = newData;
+			words = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		/**
+		 * Reads starting line and headers from specified input stream, leaving
+		 * the rest of the bytes in it.
+		 */
+		void read(InputStream inputStream, HttpRequestLimits limits) throws IOException {
+			length = 0;
+			requestLineRead = false;
+			if (data.length > MAX_RETAINED_SIZE) {
+				allocate(INITIAL_SIZE);
+			}
+			if (inputStream.markSupported()) {
+				readInBulk(inputStream, limits);
+			} else {
+				readByteByByte(inputStream, limits);
+			}
+		}
+
+		private void readInBulk(InputStream inputStream, HttpRequestLimits limits) throws IOException {
+			while (true) {
+				if (length == data.length) {
+					allocate(data.length * 2);
+				}
+				inputStream.mark(data.length - length);
+				int readCount = inputStream.read(data, length, data.length - length);
+				if (readCount == -1) {
+					throw new EOFException("InputStream is closed");
+				}
+				int headEnd = indexOfHeadEnd(length, length + readCount);
+				checkLimits(length, headEnd != -1 ? headEnd : length + readCount, limits);
+				if (headEnd != -1) {
+					// Return bytes of the message body or next request to the stream
+					inputStream.reset();
+					skipFully(inputStream, headEnd - length);
+					length = headEnd;
+					return;
+				}
+				length += readCount;
+			}
+		}
+
+		private void readByteByByte(InputStream inputStream, HttpRequestLimits limits) throws IOException {
+			while (true) {
+				if (length == data.length) {
+					allocate(data.length * 2);
+				}
+				int read = inputStream.read();
+				if (read == -1) {
+					throw new EOFException("InputStream is closed");
+				}
+				data[length++] = (byte) read;
+				checkLimits(length - 1, length, limits);
+				if (read == '\n' && isHeadEnd(length - 1)) {
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Checks limits after the bytes in specified range were read: the
+		 * starting line is too long if it's still not finished.
+		 */
+		private void checkLimits(int from, int to, HttpRequestLimits limits) {
+			if (!requestLineRead) {
+				if (indexOfLineFeed(from, to) != -1) {
+					requestLineRead = true;
+				} else {
+					// The last byte could be CR of the line terminator
+					limits.checkRequestLineLength(to - 1);
+				}
+			}
+			limits.checkHeaderSize(to);
+		}
+
+		private static void skipFully(InputStream inputStream, int count) throws IOException {
+			while (count > 0) {
+				long skipped = inputStream.skip(count);
+				if (skipped <= 0) {
+					if (inputStream.read() == -1) {
+						throw new EOFException("InputStream is closed");
+					}
+					skipped = 1;
+				}
+				count -= skipped;
+			}
+		}
+
+		/**
+		 * Looks for the end of the empty line which finishes the headers, assuming
+		 * there is no such line before {@code from} index.
+		 * 
+		 * @return index next to the end of the headers or {@code -1}
+		 */
+		private int indexOfHeadEnd(int from, int to) {
+			int lineFeed = indexOfLineFeed(from, to);
+			while (lineFeed != -1) {
+				if (isHeadEnd(lineFeed)) {
+					return lineFeed + 1;
+				}
+				lineFeed = indexOfLineFeed(lineFeed + 1, to);
+			}
+			return -1;
+		}
+
+		private boolean isHeadEnd(int lineFeed) {
+			return lineFeed >= 3 && data[lineFeed - 1] == '\r' && data[lineFeed - 2] == '\n'
+					&& data[lineFeed - 3] == '\r';
+		}
+
+		/**
+		 * Returns index of the {@code CR} of the first {@code CRLF} sequence which
+		 * starts at specified index or after it, or {@code -1} if there is no such
+		 * sequence in the buffered head.
+		 */
+		int indexOfLineEnd(int from) {
+			int lineFeed = indexOfLineFeed(from + 1, length);
+			while (lineFeed != -1) {
+				if (data[lineFeed - 1] == '\r') {
+					return lineFeed - 1;
+				}
+				lineFeed = indexOfLineFeed(lineFeed + 1, length);
+			}
+			return -1;
+		}
+
+		/**
+		 * Looks for the {@code LF} byte checking 8 bytes at a time: after XOR with
+		 * {@link #LINE_FEEDS} matching bytes become zero, and the lowest zero
+		 * byte of the word is found with the bit trick from "Bit Twiddling Hacks".
+		 */
+		private int indexOfLineFeed(int from, int to) {
+			int i = from;
+			for (; i + Long.BYTES <= to; i += Long.BYTES) {
+				long word = words.getLong(i) ^ LINE_FEEDS;
+				long zeroBytes = (word - LOW_BITS) & ~word & HIGH_BITS;
+				if (zeroBytes != 0) {
+					return i + (Long.numberOfTrailingZeros(zeroBytes) >>> 3);
+				}
+			}
+			for (; i < to; i++) {
+				if (data[i] == '\n') {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.revenat.httpserver.io.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Implementation of the {@link DateTimeProvider} shared by all the worker
+ * threads, which keeps current date and time with second precision, as the
+ * {@code Date} header has. Date is created and formatted only when the second
+ * changes, so the rest of the responses within the same second reuse it
+ * without any allocation.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+class CachedDateTimeProvider implements DateTimeProvider {
+	private final Clock clock;
+	/**
+	 * Date of the current second, replaced as a whole, so threads never see
+	 * date and its text out of sync.
+	 */
+	private volatile CachedDate cachedDate;
+
+	CachedDateTimeProvider(Clock clock) {
+		this.clock = requireNonNull(clock, "Clock can not be null");
+	}
+
+	@Override
+	public ZonedDateTime getCurrentDateTime() {
+		return getCachedDate().dateTime;
+	}
+
+	@Override
+	public String getCurrentHttpDate() {
+		return getCachedDate().httpDate;
+	}
+
+	private CachedDate getCachedDate() {
+		long epochSecond = Math.floorDiv(clock.millis(), 1000);
+		CachedDate date = cachedDate;
+		if (date == null || date.epochSecond != epochSecond) {
+			// Threads which see the new second at once may format it twice,
+			// which is cheaper than synchronization
+			date = new CachedDate(epochSecond, clock);
+			cachedDate = date;
+		}
+		return date;
+	}
+
+	/**
+	 * Date and time of the single second, with its {@code Date} header text.
+	 * 
+	 * @author Vitaly Dragun
+	 *
+	 */
+	private static final class CachedDate {
+		private final long epochSecond;
+		private final ZonedDateTime dateTime;
+		private final String httpDate;
+
+		CachedDate(long epochSecond, Clock clock) {
+			this.epochSecond = epochSecond;
+			this.dateTime = ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), clock.getZone());
+			this.httpDate = DateTimeFormatter.RFC_1123_DATE_TIME.format(dateTime);
+		}
+	}
+}
@@ -0,0 +1,222 @@
+package com.revenat.httpserver.io.impl;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.revenat.httpserver.io.exception.BadRequestException;
+
+/**
+ * Message body of the HTTP request with {@code Transfer-Encoding: chunked},
+ * decoded lazily from the client stream. Each chunk is passed through as it
+ * is read, so body of any size takes constant memory, while total size of
+ * the chunks is checked against {@link HttpRequestLimits}. Chunk extensions and
+ * trailer headers are ignored. Stream ends after the last (empty) chunk and
+ * trailers, so bytes of the next request are never read. Closing the stream
+ * discards unread rest of the body, leaving client stream open.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+class ChunkedInputStream extends FilterInputStream {
+	private static final int INITIAL_LINE_LENGTH = 64;
+	/**
+	 * Maximum length of the chunk size line or trailer line.
+	 */
+	static final int MAX_LINE_LENGTH = 8192;
+	private static final int SKIP_BUFFER_SIZE = 2048;
+
+	private final HttpRequestLimits limits;
+	/**
+	 * Total size of the chunks declared so far.
+	 */
+	private long bodySize;
+	/**
+	 * Bytes remaining in the current chunk, {@code 0} before the chunk size
+	 * line is read, {@code -1} when body is finished.
+	 */
+	private long chunkRemaining;
+	/**
+	 * Whether data of at least one chunk was read, so line end is expected
+	 * before the next chunk size line.
+	 */
+	private boolean chunkRead;
+	private byte[] line = new byte[INITIAL_LINE_LENGTH];
+	private boolean closed;
+
+	/**
+	 * @param in     client stream positioned at the start of the body
+	 * @param limits limits to check body size against
+	 */
+	ChunkedInputStream(InputStream in, HttpRequestLimits limits) {
+		super(in);
+		this.limits = limits;
+	}
+
+	@Override
+	public int read() throws IOException {
+		checkNotClosed();
+		if (!nextChunk()) {
+			return -1;
+		}
+		int read = in.read();
+		if (read == -1) {
+			throw new EOFException("InputStream is closed");
+		}
+		chunkRemaining--;
+		return read;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		checkNotClosed();
+		if (len == 0) {
+			return 0;
+		}
+		if (!nextChunk()) {
+			return -1;
+		}
+		int readCount = in.read(b, off, (int) Math.min(len, chunkRemaining));
+		if (readCount == -1) {
+			throw new EOFException("InputStream is closed");
+		}
+		chunkRemaining -= readCount;
+		return readCount;
+	}
+
+	@Override
+	public int available() throws IOException {
+		checkNotClosed();
+		return chunkRemaining > 0 ? (int) Math.min(in.available(), chunkRemaining) : 0;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public synchronized void mark(int readlimit) {
+		// Not supported
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		throw new IOException("mark/reset not supported");
+	}
+
+	/**
+	 * Discards unread rest of the body without closing client stream.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!closed) {
+			if (chunkRemaining != -1) {
+				byte[] buffer = new byte[SKIP_BUFFER_SIZE];
+				while (read(buffer, 0, buffer.length) != -1) {
+					// discard
+				}
+			}
+			closed = true;
+		}
+	}
+
+	/**
+	 * Moves to the next chunk if current one is read completely.
+	 * 
+	 * @return {@code false} if body is finished, {@code true} otherwise
+	 */
+	private boolean nextChunk() throws IOException {
+		if (chunkRemaining > 0) {
+			return true;
+		}
+		if (chunkRemaining == -1) {
+			return false;
+		}
+		if (chunkRead && readLine() != 0) {
+			throw new BadRequestException("Chunk data is not followed by line end", null, null);
+		}
+		chunkRemaining = parseChunkSize(line, 0, readLine());
+		chunkRead = true;
+		bodySize += chunkRemaining;
+		limits.checkBodySize(bodySize);
+		if (chunkRemaining == 0) {
+			// Last chunk: skip trailers till the empty line
+			while (readLine() > 0) {
+				// ignore trailer
+			}
+			chunkRemaining = -1;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Reads next line into the {@link #line} buffer.
+	 * 
+	 * @return length of the line without {@code CRLF}
+	 */
+	private int readLine() throws IOException {
+		int length = 0;
+		while (true) {
+			int read = in.read();
+			if (read == -1) {
+				throw new EOFException("InputStream is closed");
+			}
+			if (read == '\n' && length > 0 && line[length - 1] == '\r') {
+				return length - 1;
+			}
+			if (length == line.length) {
+				if (length == MAX_LINE_LENGTH) {
+					throw new BadRequestException("Chunk line is too long", null, null);
+				}
+				line = Arrays.copyOf(line, Math.min(length * 2, MAX_LINE_LENGTH));
+			}
+			line[length++] = (byte) read;
+		}
+	}
+
+	/**
+	 * Parses size of the chunk from its hexadecimal representation, ignoring
+	 * chunk extensions (e.g. {@code 1a;name=value}).
+	 * 
+	 * @throws BadRequestException if chunk size is invalid
+	 */
+	static long parseChunkSize(byte[] data, int from, int to) {
+		int end = from;
+		while (end < to && data[end] != ';') {
+			end++;
+		}
+		while (end > from && data[end - 1] <= ' ') {
+			end--;
+		}
+		while (from < end && data[from] <= ' ') {
+			from++;
+		}
+		if (from == end || end - from > 15) {
+			throw new BadRequestException(
+					"Invalid chunk size: " + new String(data, from, end - from, StandardCharsets.ISO_8859_1), null,
+					null);
+		}
+		long size = 0;
+		for (int i = from; i < end; i++) {
+			int digit = Character.digit(data[i], 16);
+			if (digit == -1) {
+				throw new BadRequestException(
+						"Invalid chunk size: " + new String(data, from, end - from, StandardCharsets.ISO_8859_1),
+						null, null);
+			}
+			size = size * 16 + digit;
+		}
+		return size;
+	}
+
+	private void checkNotClosed() throws IOException {
+		if (closed) {
+			throw new IOException("Stream is closed");
+		}
+	}
+}
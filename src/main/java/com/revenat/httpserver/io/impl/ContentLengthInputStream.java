@@ -0,0 +1,114 @@
+package com.revenat.httpserver.io.impl;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Message body of the HTTP request with the {@code Content-Length} header,
+ * read lazily from the client stream. Stream ends after the declared number of
+ * bytes, so bytes of the next request are never read. Closing the stream
+ * discards unread rest of the body, leaving client stream open and positioned
+ * at the next request.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+class ContentLengthInputStream extends FilterInputStream {
+	private static final int SKIP_BUFFER_SIZE = 2048;
+
+	private long remaining;
+	private boolean closed;
+
+	/**
+	 * @param in            client stream positioned at the start of the body
+	 * @param contentLength declared length of the body
+	 */
+	ContentLengthInputStream(InputStream in, long contentLength) {
+		super(in);
+		this.remaining = contentLength;
+	}
+
+	@Override
+	public int read() throws IOException {
+		checkNotClosed();
+		if (remaining == 0) {
+			return -1;
+		}
+		int read = in.read();
+		if (read == -1) {
+			throw new EOFException("InputStream is closed");
+		}
+		remaining--;
+		return read;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		checkNotClosed();
+		if (remaining == 0) {
+			return -1;
+		}
+		if (len == 0) {
+			return 0;
+		}
+		int readCount = in.read(b, off, (int) Math.min(len, remaining));
+		if (readCount == -1) {
+			throw new EOFException("InputStream is closed");
+		}
+		remaining -= readCount;
+		return readCount;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		checkNotClosed();
+		long skipped = in.skip(Math.min(n, remaining));
+		remaining -= skipped;
+		return skipped;
+	}
+
+	@Override
+	public int available() throws IOException {
+		checkNotClosed();
+		return (int) Math.min(in.available(), remaining);
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public synchronized void mark(int readlimit) {
+		// Not supported
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		throw new IOException("mark/reset not supported");
+	}
+
+	/**
+	 * Discards unread rest of the body without closing client stream.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!closed) {
+			if (remaining > 0) {
+				byte[] buffer = new byte[(int) Math.min(SKIP_BUFFER_SIZE, remaining)];
+				while (read(buffer, 0, buffer.length) != -1) {
+					// discard
+				}
+			}
+			closed = true;
+		}
+	}
+
+	private void checkNotClosed() throws IOException {
+		if (closed) {
+			throw new IOException("Stream is closed");
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package com.revenat.httpserver.io.impl;
 
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 
 /**
  * Component that can produce date and time data in form of
@@ -16,4 +17,12 @@ interface DateTimeProvider {
 	 * data that was actual at the time of calling this method.
 	 */
 	ZonedDateTime getCurrentDateTime();
+
+	/**
+	 * Returns current date and time formatted for the {@code Date} header of
+	 * the HTTP response.
+	 */
+	default String getCurrentHttpDate() {
+		return DateTimeFormatter.RFC_1123_DATE_TIME.format(getCurrentDateTime());
+	}
 }
@@ -1,12 +1,10 @@
 package com.revenat.httpserver.io.impl;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Map;
@@ -14,15 +12,22 @@ import java.util.stream.Stream;
 
 import org.apache.commons.io.FilenameUtils;
 
+import com.revenat.httpserver.io.Constants;
 import com.revenat.httpserver.io.HttpHandler;
+import com.revenat.httpserver.io.HttpMethod;
 import com.revenat.httpserver.io.HttpRequest;
 import com.revenat.httpserver.io.HttpResponse;
 import com.revenat.httpserver.io.HttpServerContext;
+import com.revenat.httpserver.io.exception.MethodNotAllowedException;
 import com.revenat.httpserver.io.utils.DataUtils;
+import com.revenat.httpserver.io.utils.HeaderNames;
 
 /**
  * Default {@link HttpHandler} implementation, responsible for serving
- * requested static resources from server's root directory.
+ * requested static resources from server's root directory. Resources are
+ * served for {@code GET}, {@code HEAD} and {@code POST} requests,
+ * {@code OPTIONS} request is answered with the list of allowed methods, while
+ * other methods are not allowed.
  * 
  * @author Vitaly Dragun
  *
@@ -36,6 +41,15 @@ class DefaultHttpHandler implements HttpHandler {
 
 	@Override
 	public void handle(HttpServerContext context, HttpRequest request, HttpResponse response) throws IOException {
+		HttpMethod method = request.getHttpMethod();
+		if (method == HttpMethod.OPTIONS) {
+			handleOptionsRequest(response);
+			return;
+		}
+		if (method != HttpMethod.GET && method != HttpMethod.HEAD && method != HttpMethod.POST) {
+			throw new MethodNotAllowedException(request.getMethod(), request.getStartingLine());
+		}
+
 		Path resourcePath = Paths.get(context.getRootPath().toString(), request.getUri());
 
 		if (!resourcePath.toFile().exists()) {
@@ -48,6 +62,11 @@ class DefaultHttpHandler implements HttpHandler {
 
 	}
 
+	private void handleOptionsRequest(HttpResponse response) {
+		response.setStatus(204);
+		response.setHeader(HeaderNames.ALLOW, Constants.ALLOW_HEADER_VALUE);
+	}
+
 	private void handleResourceNotFound(HttpResponse response) {
 		response.setStatus(404);
 	}
@@ -111,9 +130,7 @@ class DefaultHttpHandler implements HttpHandler {
 	}
 
 
-	private void writeFileContentToResponseBody(HttpResponse response, Path resourcePath) throws IOException {
-		try (InputStream in = Files.newInputStream(resourcePath, StandardOpenOption.READ)) {
-			response.setBody(in);
-		}
+	private void writeFileContentToResponseBody(HttpResponse response, Path resourcePath) {
+		response.setBody(resourcePath);
 	}
 }
@@ -1,9 +1,18 @@
 package com.revenat.httpserver.io.impl;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 
+import com.revenat.httpserver.io.HttpMethod;
 import com.revenat.httpserver.io.HttpRequest;
+import com.revenat.httpserver.io.Part;
+import com.revenat.httpserver.io.utils.HeaderNames;
 
 /**
  * Reference implementation of the {@link HttpRequest}
@@ -12,26 +21,70 @@ import com.revenat.httpserver.io.HttpRequest;
  *
  */
 class DefaultHttpRequest implements HttpRequest {
+	/**
+	 * Starting line as it was received, created from the parts if not known.
+	 */
+	private String startingLine;
+	private final HttpMethod httpMethod;
 	private final String method;
 	private final String uri;
 	private final String httpVersion;
 	private final String remoteAddress;
 	private final Map<String, String> headers;
-	private final Map<String, String> parameters;
+	private final Map<String, List<String>> parameterValues;
+	/**
+	 * Single-value view of the parameters, created on demand.
+	 */
+	private Map<String, String> parameters;
+	private final InputStream body;
+	private final MultipartConfig multipartConfig;
+	/**
+	 * Parser of the multipart body, created when parts are requested.
+	 */
+	private MultipartParser multipartParser;
 
 	DefaultHttpRequest(String method, String uri, String httpVersion, String remoteAddress,
-			Map<String, String> headers, Map<String, String> parameters) {
+			Map<String, String> headers, Map<String, List<String>> parameterValues) {
+		this(method, uri, httpVersion, remoteAddress, headers, parameterValues,
+				new ByteArrayInputStream(new byte[0]));
+	}
+
+	DefaultHttpRequest(String method, String uri, String httpVersion, String remoteAddress,
+			Map<String, String> headers, Map<String, List<String>> parameterValues, InputStream body) {
+		this(null, HttpMethod.of(method), method, uri, httpVersion, remoteAddress, headers, parameterValues, body,
+				MultipartConfig.DEFAULT);
+	}
+
+	DefaultHttpRequest(String startingLine, HttpMethod httpMethod, String uri, String httpVersion,
+			String remoteAddress, Map<String, String> headers, Map<String, List<String>> parameterValues,
+			InputStream body, MultipartConfig multipartConfig) {
+		this(startingLine, httpMethod, httpMethod.name(), uri, httpVersion, remoteAddress, headers, parameterValues,
+				body, multipartConfig);
+	}
+
+	private DefaultHttpRequest(String startingLine, HttpMethod httpMethod, String method, String uri,
+			String httpVersion, String remoteAddress, Map<String, String> headers,
+			Map<String, List<String>> parameterValues, InputStream body, MultipartConfig multipartConfig) {
+		this.startingLine = startingLine;
+		this.httpMethod = httpMethod;
 		this.method = method;
 		this.uri = uri;
 		this.httpVersion = httpVersion;
 		this.remoteAddress = remoteAddress;
-		this.headers = Collections.unmodifiableMap(headers);
-		this.parameters = Collections.unmodifiableMap(parameters);
+		// Raw headers are read-only already
+		this.headers = headers instanceof RawHttpHeaders ? headers : Collections.unmodifiableMap(headers);
+		this.parameterValues = parameterValues.isEmpty() ? Collections.emptyMap()
+				: Collections.unmodifiableMap(parameterValues);
+		this.body = body;
+		this.multipartConfig = multipartConfig;
 	}
 
 	@Override
 	public String getStartingLine() {
-		return String.format("%s %s %s", getMethod(), getUri(), getHttpVersion());
+		if (startingLine == null) {
+			startingLine = method + " " + uri + " " + httpVersion;
+		}
+		return startingLine;
 	}
 
 	@Override
@@ -39,6 +92,11 @@ class DefaultHttpRequest implements HttpRequest {
 		return method;
 	}
 
+	@Override
+	public HttpMethod getHttpMethod() {
+		return httpMethod;
+	}
+
 	@Override
 	public String getUri() {
 		return uri;
@@ -61,7 +119,57 @@ class DefaultHttpRequest implements HttpRequest {
 
 	@Override
 	public Map<String, String> getParameters() {
+		if (parameters == null) {
+			parameters = toSingleValueMap(parameterValues);
+		}
 		return parameters;
 	}
 
+	@Override
+	public Map<String, List<String>> getParameterValues() {
+		return parameterValues;
+	}
+
+	@Override
+	public InputStream getBody() {
+		return body;
+	}
+
+	@Override
+	public Iterator<Part> getParts() {
+		if (multipartParser == null) {
+			String boundary = MultipartParser.getBoundary(headers.get(HeaderNames.CONTENT_TYPE));
+			if (boundary == null) {
+				return Collections.emptyIterator();
+			}
+			multipartParser = new MultipartParser(body, boundary, multipartConfig);
+		}
+		return multipartParser;
+	}
+
+	/**
+	 * Deletes temporary files of the parts, if any.
+	 */
+	void deleteParts() {
+		if (multipartParser != null) {
+			multipartParser.close();
+		}
+	}
+
+	/**
+	 * Distinct values of the repeated parameter are joined with commas.
+	 */
+	private static Map<String, String> toSingleValueMap(Map<String, List<String>> parameterValues) {
+		if (parameterValues.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<String, String> parameters = new LinkedHashMap<>();
+		for (Map.Entry<String, List<String>> entry : parameterValues.entrySet()) {
+			List<String> values = entry.getValue();
+			parameters.put(entry.getKey(),
+					values.size() == 1 ? values.get(0) : String.join(",", new LinkedHashSet<>(values)));
+		}
+		return Collections.unmodifiableMap(parameters);
+	}
+
 }
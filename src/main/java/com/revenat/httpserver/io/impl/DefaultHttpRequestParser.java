@@ -1,25 +1,29 @@
 package com.revenat.httpserver.io.impl;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
-import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.io.IOUtils;
+
 import com.revenat.httpserver.io.Constants;
+import com.revenat.httpserver.io.HttpMethod;
 import com.revenat.httpserver.io.HttpRequest;
 import com.revenat.httpserver.io.config.HttpRequestParser;
 import com.revenat.httpserver.io.exception.BadRequestException;
 import com.revenat.httpserver.io.exception.HttpServerException;
 import com.revenat.httpserver.io.exception.HttpVersionNotSupportedException;
 import com.revenat.httpserver.io.exception.MethodNotAllowedException;
+import com.revenat.httpserver.io.exception.PayloadTooLargeException;
 import com.revenat.httpserver.io.utils.DataUtils;
+import com.revenat.httpserver.io.utils.HeaderNames;
 import com.revenat.httpserver.io.utils.HttpUtils;
+import com.revenat.httpserver.io.utils.UrlEncodedParameters;
 
 /**
  * Reference implementation of the {@link HttpRequestParser}
@@ -28,13 +32,28 @@ import com.revenat.httpserver.io.utils.HttpUtils;
  *
  */
 class DefaultHttpRequestParser implements HttpRequestParser {
+	private static final String CHUNKED = "chunked";
+	private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded";
+	private static final InputStream EMPTY_BODY = new ByteArrayInputStream(new byte[0]);
+
+	private final HttpRequestLimits limits;
+	private final MultipartConfig multipartConfig;
+
+	DefaultHttpRequestParser() {
+		this(HttpRequestLimits.UNLIMITED, MultipartConfig.DEFAULT);
+	}
+
+	DefaultHttpRequestParser(HttpRequestLimits limits, MultipartConfig multipartConfig) {
+		this.limits = limits;
+		this.multipartConfig = multipartConfig;
+	}
 
 	@Override
 	public HttpRequest parseHttpRequest(InputStream inputStream, String remoteAddress)
 			throws IOException, HttpServerException {
 		try {
 			ParsedRequest request = parseInputStream(inputStream);
-			return convertParsedRequestToHttpRequest(request, remoteAddress);
+			return convertParsedRequestToHttpRequest(request, inputStream, remoteAddress);
 		} catch (HttpServerException e) {
 			throw e;
 		} catch (RuntimeException e) {
@@ -42,41 +61,132 @@ class DefaultHttpRequestParser implements HttpRequestParser {
 		}
 	}
 
-	private static ParsedRequest parseInputStream(InputStream inputStream) throws IOException {
-		String startingLineAndHeaders = HttpUtils.readStartingLineAndHeaders(inputStream);
-		int contentLength = HttpUtils.getContentLengthValue(startingLineAndHeaders);
-		byte[] body = HttpUtils.readBody(inputStream, contentLength);
-		return new ParsedRequest(startingLineAndHeaders, body);
+	private ParsedRequest parseInputStream(InputStream inputStream) throws IOException {
+		String startingLineAndHeaders = HttpUtils.readStartingLineAndHeaders(inputStream, limits.getMaxHeaderSize());
+		ParsedRequest request = new ParsedRequest(startingLineAndHeaders);
+		limits.checkRequestLineLength(request.startingLine.length());
+		limits.checkHeaderCount(request.headersLines.size());
+		return request;
 	}
 
-	private static HttpRequest convertParsedRequestToHttpRequest(ParsedRequest request, String remoteAddress)
-			throws IOException {
+	private HttpRequest convertParsedRequestToHttpRequest(ParsedRequest request, InputStream inputStream,
+			String remoteAddress) throws IOException {
 		// Parse starting line: e.g. GET /index.html HTTP/1.1
 		String[] startingLineData = request.startingLine.split(" ");
-		String method = startingLineData[0];
-		validateMethod(request.startingLine, method);
+		HttpMethod method = resolveMethod(startingLineData[0], request.startingLine);
 		String uri = startingLineData[1];
 		String httpVersion = startingLineData[2];
-		validateHttpVersion(request.startingLine, httpVersion);
 		// Parse headers: e.g. Host: localhost
 		Map<String, String> headers = parseHeaders(request.headersLines);
+
+		return createHttpRequest(request.startingLine, method, uri, httpVersion, remoteAddress, headers,
+				createBodyStream(inputStream, headers, limits), multipartConfig);
+	}
+
+	/**
+	 * Validates parts of the parsed HTTP request and creates {@link HttpRequest}
+	 * from them, extracting request parameters from the URI or message body.
+	 * Form body is read right away to extract parameters from it, any other body
+	 * (including multipart one) is left in the stream for the handler.
+	 */
+	static HttpRequest createHttpRequest(String startingLine, HttpMethod method, String uri, String httpVersion,
+			String remoteAddress, Map<String, String> headers, InputStream body, MultipartConfig multipartConfig)
+			throws IOException {
+		validateHttpVersion(httpVersion, startingLine);
 		// Parse message body / URI parameters
-		ProcessedUri processedUri = extractParametersIfPresent(method, uri, request.messageBody);
+		String path = uri;
+		Map<String, List<String>> parameters = Collections.emptyMap();
+		int queryStart = uri.indexOf('?');
+		if (queryStart != -1) {
+			path = uri.substring(0, queryStart);
+			if (!method.isFormBodyAllowed()) {
+				parameters = UrlEncodedParameters.parse(uri, queryStart + 1, uri.length());
+			}
+		}
+		if (method.isFormBodyAllowed() && isFormContent(headers)) {
+			byte[] formBody = IOUtils.toByteArray(body);
+			parameters = UrlEncodedParameters.parse(formBody, 0, formBody.length);
+			body = new ByteArrayInputStream(formBody);
+		}
 
-		return new DefaultHttpRequest(method, processedUri.uri, httpVersion, remoteAddress, headers,
-				processedUri.parameters);
+		return new DefaultHttpRequest(startingLine, method, path, httpVersion, remoteAddress, headers, parameters,
+				body, multipartConfig);
 	}
 
-	private static void validateHttpVersion(String startingLine, String httpVersion) {
-		if (!Constants.HTTP_VERSION.equals(httpVersion)) {
-			throw new HttpVersionNotSupportedException(
-					"Http server currently supports only " + Constants.HTTP_VERSION + " protocol", startingLine);
+	/**
+	 * Creates stream of the message body which reads it lazily from the
+	 * specified client stream, according to the {@code Transfer-Encoding} or
+	 * {@code Content-Length} header.
+	 * 
+	 * @throws PayloadTooLargeException if declared body length exceeds the limit
+	 */
+	static InputStream createBodyStream(InputStream inputStream, Map<String, String> headers,
+			HttpRequestLimits limits) {
+		if (isChunked(headers)) {
+			return new ChunkedInputStream(inputStream, limits);
 		}
+		int contentLength = getContentLength(headers);
+		limits.checkBodySize(contentLength);
+		return contentLength > 0 ? new ContentLengthInputStream(inputStream, contentLength) : EMPTY_BODY;
+	}
+
+	/**
+	 * Returns {@code true} if message body is sent with chunked transfer coding.
+	 */
+	static boolean isChunked(Map<String, String> headers) {
+		String transferEncoding = headers.get(HeaderNames.TRANSFER_ENCODING);
+		return transferEncoding != null && transferEncoding.toLowerCase().endsWith(CHUNKED);
 	}
 
-	private static void validateMethod(String startingLine, String method) {
-		if (Constants.ALLOWED_METHODS.stream().noneMatch(allowedMethod -> allowedMethod.equalsIgnoreCase(method))) {
-			throw new MethodNotAllowedException(method, startingLine);
+	/**
+	 * Returns length of the message body declared by the {@code Content-Length}
+	 * header, or {@code 0} if there is no such header.
+	 * 
+	 * @throws BadRequestException if header value is not a valid length
+	 */
+	static int getContentLength(Map<String, String> headers) {
+		String contentLength = headers.get(HeaderNames.CONTENT_LENGTH);
+		if (contentLength == null) {
+			return 0;
+		}
+		try {
+			int length = Integer.parseInt(contentLength.trim());
+			if (length >= 0) {
+				return length;
+			}
+		} catch (NumberFormatException e) {
+			// fall through
+		}
+		throw new BadRequestException("Invalid Content-Length: " + contentLength, null, null);
+	}
+
+	/**
+	 * Request body contains form parameters only if it's explicitly sent as
+	 * {@code application/x-www-form-urlencoded}. Body without content type is
+	 * left in the stream, so large upload is never buffered as a form.
+	 */
+	private static boolean isFormContent(Map<String, String> headers) {
+		String contentType = headers.get(HeaderNames.CONTENT_TYPE);
+		return contentType != null && contentType.toLowerCase().startsWith(FORM_CONTENT_TYPE);
+	}
+
+	/**
+	 * Returns supported method with the specified name.
+	 * 
+	 * @throws MethodNotAllowedException if method is not supported
+	 */
+	private static HttpMethod resolveMethod(String name, String startingLine) {
+		HttpMethod method = HttpMethod.of(name);
+		if (method == null) {
+			throw new MethodNotAllowedException(name, startingLine);
+		}
+		return method;
+	}
+
+	private static void validateHttpVersion(String httpVersion, String startingLine) {
+		if (!Constants.HTTP_VERSION.equals(httpVersion)) {
+			throw new HttpVersionNotSupportedException(
+					"Http server currently supports only " + Constants.HTTP_VERSION + " protocol", startingLine);
 		}
 	}
 
@@ -105,51 +215,9 @@ class DefaultHttpRequestParser implements HttpRequestParser {
 		}
 	}
 
-	private static ProcessedUri extractParametersIfPresent(String method, String uri, String messageBody)
-			throws IOException {
-		Map<String, String> parameters = Collections.emptyMap();
-
-		if (Constants.GET.equalsIgnoreCase(method) || Constants.HEAD.equalsIgnoreCase(method)) {
-			parameters = extractParametersFromUri(uri);
-		} else if (Constants.POST.equalsIgnoreCase(method) && !messageBody.isEmpty()) {
-			parameters = getParameters(messageBody);
-		}
-
-		return new ProcessedUri(uri, parameters);
-	}
-
-	private static Map<String, String> extractParametersFromUri(String uri) throws UnsupportedEncodingException {
-		int delimeterIndex = uri.indexOf('?');
-		if (delimeterIndex != -1) {
-			return getParameters(uri.substring(delimeterIndex + 1));
-		}
-		return Collections.emptyMap();
-	}
-
-	private static Map<String, String> getParameters(String paramString) throws UnsupportedEncodingException {
-		Map<String, String> parameters = new HashMap<>();
-		String[] paramLines = paramString.split("&");
-		for (String paramLine : paramLines) {
-			String[] items = paramLine.split("=");
-			// If empty value for parameter
-			if (items.length == 1) {
-				items = new String[] { items[0], "" };
-			}
-			String paramName = items[0];
-			String paramValue = URLDecoder.decode(items[1], StandardCharsets.UTF_8.name());
-			parameters.merge(paramName, paramValue, (oldVal, newVal) -> {
-				if (oldVal.contains(newVal)) {
-					return oldVal;
-				}
-				return oldVal.concat(",").concat(newVal);
-			});
-		}
-		return parameters;
-	}
-
 	/**
 	 * Component that represents first stage of parsing HTTP request. Holds main
-	 * HTTP request parts as strings (startingLine, headers, messageBody).
+	 * HTTP request parts as strings (startingLine, headers).
 	 * 
 	 * @author Vitaly Dragun
 	 *
@@ -157,9 +225,8 @@ class DefaultHttpRequestParser implements HttpRequestParser {
 	private static class ParsedRequest {
 		private final String startingLine;
 		private final List<String> headersLines;
-		private final String messageBody;
 
-		ParsedRequest(String startingLineAndHeaders, byte[] body) {
+		ParsedRequest(String startingLineAndHeaders) {
 			List<String> lines = DataUtils.convertToLineList(startingLineAndHeaders);
 			this.startingLine = lines.remove(0);
 			if (lines.isEmpty()) {
@@ -167,34 +234,7 @@ class DefaultHttpRequestParser implements HttpRequestParser {
 			} else {
 				this.headersLines = Collections.unmodifiableList(lines);
 			}
-			this.messageBody = new String(body, StandardCharsets.UTF_8);
-		}
-	}
-
-	/**
-	 * Component that represents HTTP request URI with optional request parameters.
-	 * 
-	 * @author Vitaly Dragun
-	 *
-	 */
-	private static class ProcessedUri {
-		private final String uri;
-		private final Map<String, String> parameters;
-
-		ProcessedUri(String uri, Map<String, String> parameters) {
-			this.uri = getExactUriString(uri);
-			this.parameters = parameters;
-		}
-
-		private static String getExactUriString(String uri) {
-			int delimeterIndex = uri.indexOf('?');
-			if (delimeterIndex != -1) {
-				return uri.substring(0, delimeterIndex);
-			} else {
-				return uri;
-			}
 		}
-
 	}
 
-}
+}
\ No newline at end of file
@@ -31,7 +31,7 @@ class DefaultHttpResponseBuilder extends AbstractHttpConfigurableComponent imple
 	public ReadableHttpResponse buildNewHttpResponse() {
 		ReadableHttpResponse response = createReadableHttpResponse();
 
-		response.setHeader("Date", dateTimeProvider.getCurrentDateTime());
+		response.setHeader("Date", dateTimeProvider.getCurrentHttpDate());
 		response.setHeader("Server", httpServerConfig.getServerInfo().getName());
 		response.setHeader("Content-Language", "en");
 		response.setHeader("Connection", "close");
@@ -68,7 +68,10 @@ class DefaultHttpResponseBuilder extends AbstractHttpConfigurableComponent imple
 	}
 
 	private static void setContentLength(ReadableHttpResponse response) {
-		response.setHeader("Content-Length", response.getBodyLength());
+		// 204 No Content response must not have Content-Length header
+		if (response.getStatus() != 204) {
+			response.setHeader("Content-Length", response.getBodyLength());
+		}
 
 	}
 
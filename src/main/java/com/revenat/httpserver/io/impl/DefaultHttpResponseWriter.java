@@ -1,25 +1,44 @@
 package com.revenat.httpserver.io.impl;
 
-import java.io.BufferedWriter;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Map;
 
-import com.revenat.httpserver.io.Constants;
 import com.revenat.httpserver.io.config.HttpResponseWriter;
 import com.revenat.httpserver.io.config.HttpServerConfig;
 import com.revenat.httpserver.io.config.ReadableHttpResponse;
 
 /**
- * Reference implementation of the {@link HttpResponseWriter}
+ * Reference implementation of the {@link HttpResponseWriter}. Status line is
+ * taken pre-encoded from the {@link HttpServerConfig}, and headers are
+ * encoded with {@code CRLF} line ends straight into the byte buffer reused by
+ * each thread. Head is written together with the body held in memory: with
+ * a single gathering write when client socket has a channel, or by copying
+ * small body after the head otherwise. Body held in a file is
+ * sent with {@link FileChannel#transferTo(long, long, WritableByteChannel)},
+ * so its content is passed from the file to the client without being read
+ * into the heap (with {@code sendfile} when client socket has a channel).
  * 
  * @author Vitaly Dragun
  *
  */
 class DefaultHttpResponseWriter extends AbstractHttpConfigurableComponent implements HttpResponseWriter {
+	/**
+	 * Bodies up to this size are copied after the head when response can't be
+	 * written with a gathering write.
+	 */
+	private static final int MAX_COPIED_BODY_SIZE = 16384;
+	private static final byte[] HEADER_DELIMITER = { ':', ' ' };
+
+	private final ThreadLocal<HeadBuffer> headBuffers = ThreadLocal.withInitial(HeadBuffer::new);
 
 	DefaultHttpResponseWriter(HttpServerConfig httpServerConfig) {
 		super(httpServerConfig);
@@ -27,31 +46,140 @@ class DefaultHttpResponseWriter extends AbstractHttpConfigurableComponent implem
 
 	@Override
 	public void writeHttpResponse(OutputStream out, ReadableHttpResponse response) throws IOException {
-		PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
-		writeStartingLine(writer, response);
-		writeHeaders(writer, response);
-		writer.println();
-		writer.flush();
-		writeMessageBody(out, response);
+		HeadBuffer head = encodeHead(response);
+		Path bodyFile = response.getBodyFile();
+		if (bodyFile != null && !response.isBodyEmpty()) {
+			out.write(head.data, 0, head.length);
+			writeFile(out, bodyFile, response.getBodyLength());
+		} else if (response.isBodyEmpty()) {
+			out.write(head.data, 0, head.length);
+		} else {
+			writeHeadAndBody(out, head, response.getBodyArray(), (int) response.getBodyLength());
+		}
+		out.flush();
 	}
 
-	protected void writeStartingLine(PrintWriter out, ReadableHttpResponse response) {
-		String httpVersion = Constants.HTTP_VERSION;
-		int statusCode = response.getStatus();
-		String statusMessage = httpServerConfig.getStatusMessage(statusCode);
-		out.println(String.format("%s %s %s", httpVersion, statusCode, statusMessage));
+	@Override
+	public void writeHttpResponseHead(OutputStream out, ReadableHttpResponse response) throws IOException {
+		HeadBuffer head = encodeHead(response);
+		out.write(head.data, 0, head.length);
+		out.flush();
 	}
 
-	protected void writeHeaders(PrintWriter out, ReadableHttpResponse response) {
+	private HeadBuffer encodeHead(ReadableHttpResponse response) {
+		HeadBuffer head = headBuffers.get();
+		head.reset();
+		byte[] statusLine = httpServerConfig.getStatusLine(response.getStatus());
+		head.append(statusLine, 0, statusLine.length);
 		for (Map.Entry<String, String> header : response.getHeaders().entrySet()) {
-			out.println(String.format("%s: %s", header.getKey(), header.getValue()));
+			head.append(header.getKey());
+			head.append(HEADER_DELIMITER, 0, HEADER_DELIMITER.length);
+			head.append(header.getValue());
+			head.appendLineEnd();
+		}
+		head.appendLineEnd();
+		return head;
+	}
+
+	private static void writeHeadAndBody(OutputStream out, HeadBuffer head, byte[] body, int bodyLength)
+			throws IOException {
+		if (out instanceof BatchingOutputStream) {
+			((BatchingOutputStream) out).write(head.data, head.length, body, bodyLength);
+		} else if (bodyLength <= MAX_COPIED_BODY_SIZE) {
+			head.append(body, 0, bodyLength);
+			out.write(head.data, 0, head.length);
+		} else {
+			out.write(head.data, 0, head.length);
+			out.write(body, 0, bodyLength);
+		}
+	}
+
+	private static void writeFile(OutputStream out, Path file, long length) throws IOException {
+		try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (out instanceof BatchingOutputStream) {
+				((BatchingOutputStream) out).transferFrom(fileChannel, length);
+			} else {
+				out.flush();
+				transfer(fileChannel, length, Channels.newChannel(out));
+			}
+		}
+	}
+
+	/**
+	 * Transfers specified number of bytes from the start of the file to the
+	 * target channel.
+	 * 
+	 * @throws EOFException if file became shorter than specified length
+	 */
+	static void transfer(FileChannel file, long length, WritableByteChannel target) throws IOException {
+		long position = 0;
+		while (position < length) {
+			long transferred = file.transferTo(position, length - position, target);
+			if (transferred == 0 && position >= file.size()) {
+				throw new EOFException("File is shorter than response body length: " + length);
+			}
+			position += transferred;
 		}
 	}
 
-	protected void writeMessageBody(OutputStream out, ReadableHttpResponse response) throws IOException {
-		if (!response.isBodyEmpty()) {
-			out.write(response.getBody());
-			out.flush();
+	/**
+	 * Growable buffer the head of the response is encoded into, reused for
+	 * all the responses written by the thread.
+	 * 
+	 * @author Vitaly Dragun
+	 *
+	 */
+	private static final class HeadBuffer {
+		private static final int INITIAL_SIZE = 1024;
+		/**
+		 * Buffers grown above this size are not kept for the next responses.
+		 */
+		private static final int MAX_RETAINED_SIZE = 65536;
+
+		private byte[] data = new byte[INITIAL_SIZE];
+		private int length;
+
+		void reset() {
+			length = 0;
+			if (data.length > MAX_RETAINED_SIZE) {
+				data = new byte[INITIAL_SIZE];
+			}
+		}
+
+		/**
+		 * Appends specified string as {@code US-ASCII}, switching to
+		 * {@code UTF-8} only if it contains other characters.
+		 */
+		void append(String value) {
+			int valueLength = value.length();
+			ensureCapacity(valueLength);
+			for (int i = 0; i < valueLength; i++) {
+				char ch = value.charAt(i);
+				if (ch >= 0x80) {
+					byte[] encoded = value.substring(i).getBytes(StandardCharsets.UTF_8);
+					append(encoded, 0, encoded.length);
+					return;
+				}
+				data[length++] = (byte) ch;
+			}
+		}
+
+		void append(byte[] bytes, int off, int len) {
+			ensureCapacity(len);
+			System.arraycopy(bytes, off, data, length, len);
+			length += len;
+		}
+
+		void appendLineEnd() {
+			ensureCapacity(2);
+			data[length++] = '\r';
+			data[length++] = '\n';
+		}
+
+		private void ensureCapacity(int count) {
+			if (length + count > data.length) {
+				data = Arrays.copyOf(data, Math.max(data.length * 2, length + count));
+			}
 		}
 	}
 }
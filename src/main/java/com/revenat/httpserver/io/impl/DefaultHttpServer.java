@@ -5,15 +5,19 @@ import static java.util.Objects.requireNonNull;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.revenat.httpserver.io.AcceptorStatistics;
 import com.revenat.httpserver.io.HttpServer;
+import com.revenat.httpserver.io.config.HttpClientSocketHandler;
 import com.revenat.httpserver.io.config.HttpServerConfig;
+import com.revenat.httpserver.io.config.RejectionPolicy;
 import com.revenat.httpserver.io.exception.HttpServerException;
 
 /**
@@ -28,6 +32,12 @@ class DefaultHttpServer implements HttpServer {
 	private final ServerSocket serverSocket;
 	private final ExecutorService executorService;
 	private final Thread mainServerThread;
+	/**
+	 * Additional acceptor threads with their listening sockets. Main server
+	 * thread is always the first acceptor.
+	 */
+	private final List<Thread> acceptorThreads = new ArrayList<>();
+	private final List<ServerSocket> acceptorSockets = new ArrayList<>();
 	private volatile boolean serverStopped;
 	
 	DefaultHttpServer(HttpServerConfig httpServerConfig) {
@@ -35,6 +45,7 @@ class DefaultHttpServer implements HttpServer {
 		this.executorService = createExecutorService();
 		this.mainServerThread = createMainServerThread(createServerRunnable());
 		this.serverSocket = createServerSocket();
+		createAdditionalAcceptors();
 		this.serverStopped = false;
 	}
 
@@ -42,13 +53,7 @@ class DefaultHttpServer implements HttpServer {
 	 * Creates {@link ExecutorService} responsible for managing server's worker threads.
 	 */
 	protected ExecutorService createExecutorService() {
-		ThreadFactory threadFactory = httpServerConfig.getWorkerThreadFactory();
-		int threadCount = httpServerConfig.getServerInfo().getThreadCount();
-		if (threadCount > 0) {
-			return Executors.newFixedThreadPool(threadCount, threadFactory);
-		} else {
-			return Executors.newCachedThreadPool(threadFactory);
-		}
+		return WorkerExecutors.create(httpServerConfig);
 	}
 	
 	/**
@@ -62,25 +67,116 @@ class DefaultHttpServer implements HttpServer {
 		return serverThread;
 	}
 	
+	/**
+	 * Creates additional acceptor thread
+	 * @param job {@link Runnable} with instructions what acceptor should do
+	 * @param acceptorIndex ordinal number of the acceptor
+	 */
+	protected Thread createAcceptorThread(Runnable job, int acceptorIndex) {
+		Thread acceptorThread = new Thread(job, "Acceptor Thread-" + acceptorIndex);
+		acceptorThread.setPriority(Thread.MAX_PRIORITY);
+		acceptorThread.setDaemon(false);
+		return acceptorThread;
+	}
+	
 	/**
 	 * Creates runnable that encapsulate HTTP server's main job - accepting clients sockets
 	 * and passing them to handlers to process clients requests.
 	 */
 	protected Runnable createServerRunnable() {
 		return () -> {
-			while (!mainServerThread.isInterrupted()) {
+			if (!acceptClientSockets(serverSocket)) {
+				destroyHttpServer();
+			}
+		};
+	}
+	
+	/**
+	 * Accepts client sockets using specified listening socket until server is
+	 * stopped or socket is closed. Accepted connections are counted in the
+	 * statistics of the current acceptor thread.
+	 * 
+	 * @return {@code true} if server was stopped, {@code false} if listening
+	 *         socket failed or was closed
+	 */
+	private boolean acceptClientSockets(ServerSocket listeningSocket) {
+		AcceptorStatistics statistics = httpServerConfig.getServerInfo().getStatistics()
+				.registerAcceptor(Thread.currentThread().getName());
+		while (!mainServerThread.isInterrupted()) {
+			try {
+				Socket cleintSocket = listeningSocket.accept();
+				statistics.incrementAcceptedConnectionCount();
+				submitClientSocket(cleintSocket);
+			} catch (IOException e) {
+				if (!listeningSocket.isClosed()) {
+					LOGGER.error("Can not accept client socket: " + e.getMessage(), e);
+				}
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Creates {@code server.acceptor.count - 1} additional acceptor threads.
+	 * Each of them gets its own listening socket if {@code SO_REUSEPORT} is
+	 * enabled, or shares the main server socket otherwise.
+	 */
+	private void createAdditionalAcceptors() {
+		int acceptorCount = httpServerConfig.getAcceptorCount();
+		boolean ownSockets = httpServerConfig.isReusePortEnabled() && ServerSockets.isReusePortSupported();
+		for (int i = 1; i < acceptorCount; i++) {
+			ServerSocket listeningSocket = ownSockets ? createServerSocket() : serverSocket;
+			if (ownSockets) {
+				acceptorSockets.add(listeningSocket);
+			}
+			acceptorThreads.add(createAcceptorThread(() -> acceptClientSockets(listeningSocket), i));
+		}
+	}
+	
+	private void submitClientSocket(Socket clientSocket) {
+		HttpClientSocketHandler socketHandler = httpServerConfig.buildNewHttpClientSocketHandler(clientSocket);
+		try {
+			executorService.submit(socketHandler);
+		} catch (RejectedExecutionException e) {
+			if (executorService.isShutdown()) {
+				closeClientSocket(clientSocket);
+			} else {
+				rejectClientSocket(clientSocket, socketHandler);
+			}
+		}
+	}
+	
+	/**
+	 * Applies configured {@link RejectionPolicy} to the client connection which
+	 * can not be processed because worker queue is full.
+	 */
+	private void rejectClientSocket(Socket clientSocket, HttpClientSocketHandler socketHandler) {
+		httpServerConfig.getServerInfo().getStatistics().incrementRejectedRequestCount();
+		RejectionPolicy rejectionPolicy = httpServerConfig.getRejectionPolicy();
+		LOGGER.warn("Worker queue is full, apply {} policy to client connection", rejectionPolicy);
+		if (rejectionPolicy == RejectionPolicy.CALLER_RUNS) {
+			// Accepting thread serves one request only, so persistent connection
+			// doesn't stall other clients
+			socketHandler.runSingleRequest();
+		} else {
+			if (rejectionPolicy != RejectionPolicy.CLOSE) {
 				try {
-					Socket cleintSocket = serverSocket.accept();
-					executorService.submit(httpServerConfig.buildNewHttpClientSocketHandler(cleintSocket));
-				} catch (IOException e) {
-					if (!serverSocket.isClosed()) {
-						LOGGER.error("Can not accept client socket: " + e.getMessage(), e);
-					}
-					destroyHttpServer();
-					break;
+					ServiceUnavailableResponse.writeTo(clientSocket.getOutputStream());
+				} catch (IOException ex) {
+					LOGGER.debug("Can not send 503 response: {}", ex.getMessage());
 				}
 			}
-		};
+			closeClientSocket(clientSocket);
+		}
+	}
+	
+	private static void closeClientSocket(Socket clientSocket) {
+		try {
+			clientSocket.close();
+		} catch (IOException e) {
+			LOGGER.debug("Can not close client socket: {}", e.getMessage());
+		}
 	}
 	
 	/**
@@ -88,17 +184,10 @@ class DefaultHttpServer implements HttpServer {
 	 */
 	protected ServerSocket createServerSocket() {
 		int serverPort = httpServerConfig.getServerInfo().getPort();
-		ServerSocket socket = null;
 		try {
-			socket = new ServerSocket(serverPort);
-			socket.setReuseAddress(true);
-			return socket;
+			return ServerSockets.open(serverPort, httpServerConfig.isReusePortEnabled(),
+					httpServerConfig.getSocketBacklog(), httpServerConfig.getSocketReceiveBufferSize());
 		} catch (IOException e) {
-			if (socket != null) {
-				try {
-					socket.close();
-				} catch (IOException ex) {/*ignore*/}
-			}
 			throw new HttpServerException("Can not create server socket with port=" + serverPort, e);
 		}
 	}
@@ -111,6 +200,9 @@ class DefaultHttpServer implements HttpServer {
 		}
 		Runtime.getRuntime().addShutdownHook(getShutdownHook());
 		mainServerThread.start();
+		for (Thread acceptorThread : acceptorThreads) {
+			acceptorThread.start();
+		}
 		LOGGER.info("HTTP server started: {}", httpServerConfig.getServerInfo());
 
 	}
@@ -119,8 +211,19 @@ class DefaultHttpServer implements HttpServer {
 	public void stop() {
 		LOGGER.info("Detect stop cmd");
 		mainServerThread.interrupt();
+		closeListeningSockets();
+	}
+	
+	private void closeListeningSockets() {
+		for (ServerSocket acceptorSocket : acceptorSockets) {
+			closeServerSocket(acceptorSocket);
+		}
+		closeServerSocket(serverSocket);
+	}
+	
+	private static void closeServerSocket(ServerSocket socket) {
 		try {
-			serverSocket.close();
+			socket.close();
 		} catch (IOException e) {
 			LOGGER.warn("Error during closing HTTP server socket: " + e.getMessage(), e);
 		}
@@ -134,22 +237,37 @@ class DefaultHttpServer implements HttpServer {
 	protected Thread getShutdownHook() {
 		return new Thread(() -> {
 			if (!serverStopped) {
-				destroyHttpServer();
+				// Main server thread drains in-flight requests when its socket is closed
+				stop();
+				try {
+					mainServerThread.join();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				if (!serverStopped) {
+					destroyHttpServer();
+				}
 			}
 		}, "ShutdownHook");
 	}
 
 	/**
-	 * Gracefully closes HTTP server resources (e.g. HttpServerConfig, ExecutorService)
-	 * and sets {@code serverStopped} flag to {@code true}
+	 * Gracefully closes HTTP server resources and sets {@code serverStopped} flag
+	 * to {@code true}. Server stops accepting new connections and waits for
+	 * in-flight requests to finish, so resources they use (e.g. data source of
+	 * the HttpServerConfig) are closed only after that.
 	 */
 	protected void destroyHttpServer() {
+		closeListeningSockets();
+		// Interruption is used to stop acceptor threads, clear it so current
+		// thread can wait for in-flight requests
+		Thread.interrupted();
+		WorkerExecutors.drain(executorService, httpServerConfig);
 		try {
 			httpServerConfig.close();
 		} catch (Exception e) {
 			LOGGER.error("Close httpServerConfig failed: " + e.getMessage(), e);
 		}
-		executorService.shutdown();
 		LOGGER.info("HTTP Server stopped");
 		serverStopped = true;
 	}
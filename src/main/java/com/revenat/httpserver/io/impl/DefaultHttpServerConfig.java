@@ -5,12 +5,14 @@ import static java.util.Objects.requireNonNull;
 
 import java.io.File;
 import java.net.Socket;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.time.Clock;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -32,6 +34,8 @@ import com.revenat.httpserver.io.config.HttpResponseBuilder;
 import com.revenat.httpserver.io.config.HttpResponseWriter;
 import com.revenat.httpserver.io.config.HttpServerConfig;
 import com.revenat.httpserver.io.config.HttpServerResourceLoader;
+import com.revenat.httpserver.io.config.IncrementalHttpRequestParser;
+import com.revenat.httpserver.io.config.RejectionPolicy;
 import com.revenat.httpserver.io.exception.HttpServerConfigException;
 
 /**
@@ -51,6 +55,15 @@ class DefaultHttpServerConfig implements HttpServerConfig {
 	private final Properties serverProperties = new Properties();
 	private final Properties statusesProperties = new Properties();
 	private final Properties mimeTypesProperties = new Properties();
+	
+	/**
+	 * Lookup tables compiled from the properties at startup, which are read by
+	 * all worker threads without locks: status lines by status code, MIME types
+	 * and expires days by resource extension.
+	 */
+	private final StatusLines statusLines;
+	private final ImmutableStringMap<String> mimeTypes;
+	private final ImmutableStringMap<Integer> staticExpiresDaysByExtension;
 
 	/**
 	 * HTTP server external resources: data source with connections to the server's
@@ -69,8 +82,16 @@ class DefaultHttpServerConfig implements HttpServerConfig {
 	private final HttpResponseWriter httpResponseWriter;
 	private final HttpRequestDispatcher httpRequestDispatcher;
 	private final ThreadFactory workerThreadFactory;
+	private final boolean virtualThreadsEnabled;
+	private final int workerQueueCapacity;
+	private final RejectionPolicy rejectionPolicy;
+	private final int acceptorCount;
+	private final boolean reusePortEnabled;
+	private final int eventLoopCount;
+	private final boolean eventLoopProcessingEnabled;
 	private final HtmlTemplateManager htmlTemplateManager;
 	private final ServerInfo serverInfo;
+	private final HttpServerType serverType;
 	private final Map<String, HttpHandler> httpHandlers;
 	private final HttpHandler defaultHttpHandler;
 	
@@ -81,6 +102,43 @@ class DefaultHttpServerConfig implements HttpServerConfig {
 	private final List<String> staticExpiresExtensions;
 	private final int staticExpiresDays;
 	
+	/**
+	 * Persistent connection settings: how long idle connection is kept open (in
+	 * milliseconds) and how many requests can be served by a single connection.
+	 */
+	private final int keepAliveTimeout;
+	private final int keepAliveMaxRequests;
+	
+	/**
+	 * Socket tuning and request read timeouts (in milliseconds), which protect
+	 * worker threads from slow clients.
+	 */
+	private final int socketBacklog;
+	private final boolean tcpNoDelayEnabled;
+	private final int socketReceiveBufferSize;
+	private final int socketSendBufferSize;
+	private final int headerReadTimeout;
+	private final int bodyReadTimeout;
+	private final int shutdownTimeout;
+	
+	/**
+	 * Request size limits: starting line length, size and number of headers,
+	 * and message body size (in bytes).
+	 */
+	private final int maxRequestLineLength;
+	private final int maxHeaderSize;
+	private final int maxHeaderCount;
+	private final int maxBodySize;
+	private final HttpRequestLimits requestLimits;
+	
+	/**
+	 * Multipart body settings: max size of the part held in memory (in bytes)
+	 * and directory for the temporary files of the larger parts.
+	 */
+	private final int multipartMemoryThreshold;
+	private final Path multipartTempDir;
+	private final MultipartConfig multipartConfig;
+	
 	DefaultHttpServerConfig(HttpHandlerRegistrar handlerRegistrar, Properties overrideServerProperties,
 			HttpServerResourceLoader resourceLoader) {
 		loadAllProperties(overrideServerProperties, resourceLoader);
@@ -88,15 +146,43 @@ class DefaultHttpServerConfig implements HttpServerConfig {
 		this.rootPath = createRootPath();
 		this.dataSource = createBasicDataSource();
 		this.serverInfo = createServerInfo();
+		this.serverType = HttpServerType.of(this.serverProperties.getProperty("server.type"));
+		this.virtualThreadsEnabled = Boolean.parseBoolean(this.serverProperties.getProperty("server.thread.virtual"));
+		this.workerQueueCapacity = getNonNegativeIntProperty("server.thread.queue.capacity");
+		this.rejectionPolicy = RejectionPolicy.of(this.serverProperties.getProperty("server.thread.rejection.policy"));
+		this.acceptorCount = getNonNegativeIntProperty("server.acceptor.count");
+		this.reusePortEnabled = Boolean.parseBoolean(this.serverProperties.getProperty("server.acceptor.reuseport"));
+		this.eventLoopCount = getNonNegativeIntProperty("server.nio.eventloop.count");
+		this.eventLoopProcessingEnabled = Boolean.parseBoolean(this.serverProperties.getProperty("server.nio.eventloop.inline"));
 		this.staticExpiresDays = parseInt(this.serverProperties.getProperty("webapp.static.expires.days"));
 		this.staticExpiresExtensions = Arrays.asList(
 				this.serverProperties.getProperty("webapp.static.expires.extensions").split(","));
+		this.statusLines = new StatusLines(statusesProperties);
+		this.mimeTypes = createMimeTypes();
+		this.staticExpiresDaysByExtension = createStaticExpiresDaysByExtension();
+		this.keepAliveTimeout = getNonNegativeIntProperty("server.keepalive.timeout");
+		this.keepAliveMaxRequests = getNonNegativeIntProperty("server.keepalive.max.requests");
+		this.socketBacklog = getNonNegativeIntProperty("server.socket.backlog");
+		this.tcpNoDelayEnabled = Boolean.parseBoolean(this.serverProperties.getProperty("server.socket.tcp.nodelay"));
+		this.socketReceiveBufferSize = getNonNegativeIntProperty("server.socket.receive.buffer");
+		this.socketSendBufferSize = getNonNegativeIntProperty("server.socket.send.buffer");
+		this.headerReadTimeout = getNonNegativeIntProperty("server.request.header.timeout");
+		this.bodyReadTimeout = getNonNegativeIntProperty("server.request.body.timeout");
+		this.shutdownTimeout = getNonNegativeIntProperty("server.shutdown.timeout");
+		this.maxRequestLineLength = getNonNegativeIntProperty("server.request.line.max.length");
+		this.maxHeaderSize = getNonNegativeIntProperty("server.request.header.max.size");
+		this.maxHeaderCount = getNonNegativeIntProperty("server.request.header.max.count");
+		this.maxBodySize = getNonNegativeIntProperty("server.request.body.max.size");
+		this.requestLimits = HttpRequestLimits.from(this);
+		this.multipartMemoryThreshold = getMultipartMemoryThresholdProperty();
+		this.multipartTempDir = createMultipartTempDir();
+		this.multipartConfig = MultipartConfig.from(this);
 		
 		// Create default implementations
 		this.httpServerContext = new DefaultHttpServerContext(this);
-		this.httpRequestParser = new DefaultHttpRequestParser();
+		this.httpRequestParser = new BulkHttpRequestParser(requestLimits, multipartConfig);
 		this.httpResponseWriter = new DefaultHttpResponseWriter(this);
-		this.httpResponseBuilder = new DefaultHttpResponseBuilder(this, new DefaultDateTimeProvider(Clock.systemDefaultZone()));
+		this.httpResponseBuilder = new DefaultHttpResponseBuilder(this, new CachedDateTimeProvider(Clock.systemDefaultZone()));
 		this.httpHandlers = handlerRegistrar != null ? handlerRegistrar.toMap() : Collections.emptyMap();
 		this.defaultHttpHandler = new DefaultHttpHandler();
 		this.httpRequestDispatcher = new DefaultHttpRequestDispatcher(defaultHttpHandler, httpHandlers);
@@ -127,6 +213,23 @@ class DefaultHttpServerConfig implements HttpServerConfig {
 		}
 	}
 	
+	protected ImmutableStringMap<String> createMimeTypes() {
+		Map<String, String> types = new HashMap<>();
+		for (String extension : mimeTypesProperties.stringPropertyNames()) {
+			types.put(extension, mimeTypesProperties.getProperty(extension));
+		}
+		return new ImmutableStringMap<>(types);
+	}
+	
+	protected ImmutableStringMap<Integer> createStaticExpiresDaysByExtension() {
+		Integer days = staticExpiresDays;
+		Map<String, Integer> daysByExtension = new HashMap<>();
+		for (String extension : staticExpiresExtensions) {
+			daysByExtension.put(extension, days);
+		}
+		return new ImmutableStringMap<>(daysByExtension);
+	}
+	
 	protected Path createRootPath() {
 		Path path = Paths.get(new File(
 				this.serverProperties.getProperty("webapp.static.dir.root")).getAbsoluteFile().toURI());
@@ -177,6 +280,39 @@ class DefaultHttpServerConfig implements HttpServerConfig {
 		return info;
 	}
 
+	/**
+	 * Returns value of the specified integer server property or {@code 0} if
+	 * such property is absent.
+	 * 
+	 * @throws HttpServerConfigException if property value is negative
+	 */
+	protected int getMultipartMemoryThresholdProperty() {
+		String value = serverProperties.getProperty("server.multipart.memory.threshold");
+		return value != null ? getNonNegativeIntProperty("server.multipart.memory.threshold")
+				: MultipartConfig.DEFAULT_MEMORY_THRESHOLD;
+	}
+	
+	protected Path createMultipartTempDir() {
+		String dir = serverProperties.getProperty("server.multipart.temp.dir");
+		if (dir == null || dir.trim().isEmpty()) {
+			return null;
+		}
+		Path path = Paths.get(dir.trim()).toAbsolutePath();
+		if (!Files.isDirectory(path)) {
+			throw new HttpServerConfigException("Multipart temp dir is not a directory: " + path);
+		}
+		return path;
+	}
+
+	protected int getNonNegativeIntProperty(String name) {
+		String value = serverProperties.getProperty(name);
+		int result = value != null ? parseInt(value.trim()) : 0;
+		if (result < 0) {
+			throw new HttpServerConfigException(name + " should be >= 0");
+		}
+		return result;
+	}
+
 	@Override
 	public ServerInfo getServerInfo() {
 		return serverInfo;
@@ -184,8 +320,12 @@ class DefaultHttpServerConfig implements HttpServerConfig {
 
 	@Override
 	public String getStatusMessage(int statusCode) {
-		String message = statusesProperties.getProperty(String.valueOf(statusCode));
-		return message != null ? message : statusesProperties.getProperty("500");
+		return statusLines.getMessage(statusCode);
+	}
+
+	@Override
+	public byte[] getStatusLine(int statusCode) {
+		return statusLines.getLine(statusCode);
 	}
 
 	@Override
@@ -218,11 +358,126 @@ class DefaultHttpServerConfig implements HttpServerConfig {
 		return workerThreadFactory;
 	}
 
+	@Override
+	public boolean isVirtualThreadsEnabled() {
+		return virtualThreadsEnabled;
+	}
+
+	@Override
+	public int getWorkerQueueCapacity() {
+		return workerQueueCapacity;
+	}
+
+	@Override
+	public RejectionPolicy getRejectionPolicy() {
+		return rejectionPolicy;
+	}
+
+	@Override
+	public int getAcceptorCount() {
+		return acceptorCount;
+	}
+
+	@Override
+	public boolean isReusePortEnabled() {
+		return reusePortEnabled;
+	}
+
+	@Override
+	public int getEventLoopCount() {
+		return eventLoopCount;
+	}
+
+	@Override
+	public boolean isEventLoopProcessingEnabled() {
+		return eventLoopProcessingEnabled;
+	}
+
+	@Override
+	public int getKeepAliveTimeout() {
+		return keepAliveTimeout;
+	}
+
+	@Override
+	public int getKeepAliveMaxRequests() {
+		return keepAliveMaxRequests;
+	}
+
+	@Override
+	public int getSocketBacklog() {
+		return socketBacklog;
+	}
+
+	@Override
+	public boolean isTcpNoDelayEnabled() {
+		return tcpNoDelayEnabled;
+	}
+
+	@Override
+	public int getSocketReceiveBufferSize() {
+		return socketReceiveBufferSize;
+	}
+
+	@Override
+	public int getSocketSendBufferSize() {
+		return socketSendBufferSize;
+	}
+
+	@Override
+	public int getHeaderReadTimeout() {
+		return headerReadTimeout;
+	}
+
+	@Override
+	public int getBodyReadTimeout() {
+		return bodyReadTimeout;
+	}
+
+	@Override
+	public int getMaxRequestLineLength() {
+		return maxRequestLineLength;
+	}
+
+	@Override
+	public int getMaxHeaderSize() {
+		return maxHeaderSize;
+	}
+
+	@Override
+	public int getMaxHeaderCount() {
+		return maxHeaderCount;
+	}
+
+	@Override
+	public int getMaxBodySize() {
+		return maxBodySize;
+	}
+
+	@Override
+	public int getMultipartMemoryThreshold() {
+		return multipartMemoryThreshold;
+	}
+
+	@Override
+	public Path getMultipartTempDir() {
+		return multipartTempDir;
+	}
+
+	@Override
+	public int getShutdownTimeout() {
+		return shutdownTimeout;
+	}
+
 	@Override
 	public HttpClientSocketHandler buildNewHttpClientSocketHandler(Socket clientSocket) {
 		return new DefaultHttpClientSocketHandler(clientSocket, this);
 	}
 
+	@Override
+	public IncrementalHttpRequestParser buildNewIncrementalHttpRequestParser(String remoteAddress) {
+		return new DefaultIncrementalHttpRequestParser(remoteAddress, requestLimits, multipartConfig);
+	}
+
 	@Override
 	public void close() throws Exception {
 		if (dataSource != null) {
@@ -259,6 +514,14 @@ class DefaultHttpServerConfig implements HttpServerConfig {
 		return htmlTemplateManager;
 	}
 
+	protected ImmutableStringMap<String> getMimeTypes() {
+		return mimeTypes;
+	}
+
+	protected ImmutableStringMap<Integer> getStaticExpiresDaysByExtension() {
+		return staticExpiresDaysByExtension;
+	}
+
 	protected List<String> getStaticExpiresExtensions() {
 		return staticExpiresExtensions;
 	}
@@ -266,5 +529,9 @@ class DefaultHttpServerConfig implements HttpServerConfig {
 	protected int getStaticExpiresDays() {
 		return staticExpiresDays;
 	}
+
+	protected HttpServerType getServerType() {
+		return serverType;
+	}
 	
 }
@@ -64,7 +64,7 @@ class DefaultHttpServerContext extends AbstractHttpConfigurableComponent impleme
 
 	@Override
 	public String getContentType(String extension) {
-		String result = getHttpServerConfig().getMimeTypesProperties().getProperty(extension);
+		String result = getHttpServerConfig().getMimeTypes().get(extension);
 		return result != null ? result : "text/plain";
 	}
 
@@ -75,10 +75,7 @@ class DefaultHttpServerContext extends AbstractHttpConfigurableComponent impleme
 
 	@Override
 	public Integer getExpiresDaysForResource(String extension) {
-		if (getHttpServerConfig().getStaticExpiresExtensions().contains(extension)) {
-			return getHttpServerConfig().getStaticExpiresDays();
-		}
-		return null;
+		return getHttpServerConfig().getStaticExpiresDaysByExtension().get(extension);
 	}
 
 }
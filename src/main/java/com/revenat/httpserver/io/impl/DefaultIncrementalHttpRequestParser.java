@@ -0,0 +1,328 @@
+package com.revenat.httpserver.io.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.revenat.httpserver.io.HttpRequest;
+import com.revenat.httpserver.io.config.IncrementalHttpRequestParser;
+import com.revenat.httpserver.io.exception.AbstractRequestParseFailedException;
+import com.revenat.httpserver.io.exception.BadRequestException;
+
+/**
+ * Default implementation of the {@link IncrementalHttpRequestParser}. Starting
+ * line and headers are tokenized line by line as soon as each line is
+ * complete, so only the unfinished line is kept between the fragments. Message
+ * body is copied into the array which grows as the body bytes arrive, up to
+ * the size declared by the {@code Content-Length} header, or decoded from the
+ * chunked transfer coding. Declared length alone never allocates memory, so
+ * client can't reserve large buffers without sending the body. Since
+ * non-blocking transport can't wait for the body while request is being
+ * handled, whole body is buffered before request is complete. Head and body
+ * sizes are checked against {@link HttpRequestLimits} as the bytes arrive, so
+ * buffers never grow past the limits.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+class DefaultIncrementalHttpRequestParser implements IncrementalHttpRequestParser {
+	private static final int INITIAL_LINE_CAPACITY = 1024;
+	/**
+	 * Line buffers grown above this size are not kept for the next requests.
+	 */
+	private static final int MAX_RETAINED_LINE_CAPACITY = 65536;
+	private static final int INITIAL_BODY_CAPACITY = 1024;
+	private static final byte[] EMPTY_BODY = new byte[0];
+
+	/**
+	 * Part of the request being parsed.
+	 */
+	private enum State {
+		HEAD, BODY, CHUNK_SIZE, CHUNK_DATA, CHUNK_END, TRAILERS
+	}
+
+	private final String remoteAddress;
+	private final HttpRequestLimits limits;
+	private final MultipartConfig multipartConfig;
+	private byte[] line = new byte[INITIAL_LINE_CAPACITY];
+	private int lineLength;
+	private final HttpRequestHead head;
+	/**
+	 * Number of bytes of the starting line and headers consumed so far.
+	 */
+	private int headLength;
+	private State state = State.HEAD;
+	/**
+	 * Message body of the current request, {@code null} until headers are parsed.
+	 */
+	private byte[] body;
+	private int bodyLength;
+	/**
+	 * Length of the body declared by the {@code Content-Length} header.
+	 */
+	private int contentLength;
+	private long chunkRemaining;
+	private Status status = Status.NEED_MORE;
+	private int consumedCount;
+	private HttpRequest request;
+	private AbstractRequestParseFailedException error;
+
+	DefaultIncrementalHttpRequestParser(String remoteAddress) {
+		this(remoteAddress, HttpRequestLimits.UNLIMITED, MultipartConfig.DEFAULT);
+	}
+
+	DefaultIncrementalHttpRequestParser(String remoteAddress, HttpRequestLimits limits,
+			MultipartConfig multipartConfig) {
+		this.remoteAddress = remoteAddress;
+		this.limits = limits;
+		this.multipartConfig = multipartConfig;
+		this.head = new HttpRequestHead(limits);
+	}
+
+	@Override
+	public Status parse(ByteBuffer fragment) {
+		requireNonNull(fragment, "Fragment can not be null");
+		int start = fragment.position();
+		if (status == Status.NEED_MORE) {
+			try {
+				parseFragment(fragment);
+			} catch (AbstractRequestParseFailedException e) {
+				fail(e);
+			} catch (IOException | RuntimeException e) {
+				fail(new BadRequestException("Can not parse HTTP request: " + e.getMessage(), e, null));
+			}
+		}
+		consumedCount = fragment.position() - start;
+		return status;
+	}
+
+	private void parseFragment(ByteBuffer fragment) throws IOException {
+		while (status == Status.NEED_MORE && fragment.hasRemaining()) {
+			switch (state) {
+			case HEAD:
+				readHead(fragment);
+				break;
+			case BODY:
+				readBody(fragment);
+				break;
+			case CHUNK_SIZE:
+				readChunkSize(fragment);
+				break;
+			case CHUNK_DATA:
+				readChunkData(fragment);
+				break;
+			case CHUNK_END:
+				readChunkEnd(fragment);
+				break;
+			default:
+				readTrailer(fragment);
+			}
+		}
+	}
+
+	private void readHead(ByteBuffer fragment) throws IOException {
+		int start = fragment.position();
+		int length = readLine(fragment);
+		headLength += fragment.position() - start;
+		limits.checkHeaderSize(headLength);
+		if (length > 0) {
+			head.parseLine(line, 0, length);
+		} else if (length == 0 && head.hasStartingLine()) {
+			startBody();
+		} else if (length == -1 && !head.hasStartingLine()) {
+			// The last byte could be CR of the line terminator
+			limits.checkRequestLineLength(lineLength - 1);
+		}
+	}
+
+	private void startBody() throws IOException {
+		if (head.isChunked()) {
+			body = new byte[INITIAL_BODY_CAPACITY];
+			state = State.CHUNK_SIZE;
+		} else {
+			contentLength = head.getContentLength();
+			body = contentLength > 0 ? new byte[Math.min(contentLength, INITIAL_BODY_CAPACITY)] : EMPTY_BODY;
+			state = State.BODY;
+			if (contentLength <= 0) {
+				complete();
+			}
+		}
+	}
+
+	private void readBody(ByteBuffer fragment) throws IOException {
+		int count = Math.min(fragment.remaining(), contentLength - bodyLength);
+		ensureBodyCapacity(bodyLength + count, contentLength);
+		fragment.get(body, bodyLength, count);
+		bodyLength += count;
+		if (bodyLength == contentLength) {
+			complete();
+		}
+	}
+
+	/**
+	 * Grows body array geometrically to hold at least specified number of
+	 * bytes, but not more than specified maximum.
+	 */
+	private void ensureBodyCapacity(int capacity, long maxCapacity) {
+		if (capacity > body.length) {
+			body = Arrays.copyOf(body, (int) Math.min(Math.max(body.length * 2L, capacity), maxCapacity));
+		}
+	}
+
+	private void readChunkSize(ByteBuffer fragment) {
+		int length = readChunkLine(fragment);
+		if (length != -1) {
+			chunkRemaining = ChunkedInputStream.parseChunkSize(line, 0, length);
+			limits.checkBodySize(bodyLength + chunkRemaining);
+			if (chunkRemaining == 0) {
+				state = State.TRAILERS;
+			} else if (chunkRemaining > Integer.MAX_VALUE - bodyLength) {
+				throw new BadRequestException("Chunked body is too large", null, null);
+			} else {
+				state = State.CHUNK_DATA;
+			}
+		}
+	}
+
+	private void readChunkData(ByteBuffer fragment) {
+		int count = (int) Math.min(fragment.remaining(), chunkRemaining);
+		ensureBodyCapacity(bodyLength + count, bodyLength + chunkRemaining);
+		fragment.get(body, bodyLength, count);
+		bodyLength += count;
+		chunkRemaining -= count;
+		if (chunkRemaining == 0) {
+			state = State.CHUNK_END;
+		}
+	}
+
+	private void readChunkEnd(ByteBuffer fragment) {
+		int length = readChunkLine(fragment);
+		if (length > 0) {
+			throw new BadRequestException("Chunk data is not followed by line end", null, null);
+		} else if (length == 0) {
+			state = State.CHUNK_SIZE;
+		}
+	}
+
+	private void readTrailer(ByteBuffer fragment) throws IOException {
+		// Trailer headers are ignored
+		if (readChunkLine(fragment) == 0) {
+			complete();
+		}
+	}
+
+	private void complete() throws IOException {
+		request = head.toHttpRequest(remoteAddress, new ByteArrayInputStream(body, 0, bodyLength),
+				multipartConfig);
+		status = Status.COMPLETE;
+	}
+
+	/**
+	 * Reads chunk size line, line end after chunk data or trailer line, which
+	 * can't be longer than {@link ChunkedInputStream#MAX_LINE_LENGTH}.
+	 */
+	private int readChunkLine(ByteBuffer fragment) {
+		int length = readLine(fragment);
+		if (Math.max(length, lineLength) > ChunkedInputStream.MAX_LINE_LENGTH) {
+			throw new BadRequestException("Chunk line is too long", null, null);
+		}
+		return length;
+	}
+
+	/**
+	 * Reads bytes of the fragment till the end of the current line.
+	 * 
+	 * @return length of the line (without {@code CRLF}) in the {@link #line}
+	 *         buffer or {@code -1} if line is not complete yet
+	 */
+	private int readLine(ByteBuffer fragment) {
+		while (fragment.hasRemaining()) {
+			int lineFeed = indexOfLineFeed(fragment);
+			int end = lineFeed != -1 ? lineFeed + 1 : fragment.limit();
+			appendToLine(fragment, end - fragment.position());
+			if (lineFeed != -1 && lineLength >= 2 && line[lineLength - 2] == '\r') {
+				int length = lineLength - 2;
+				lineLength = 0;
+				return length;
+			}
+		}
+		return -1;
+	}
+
+	private static int indexOfLineFeed(ByteBuffer fragment) {
+		for (int i = fragment.position(); i < fragment.limit(); i++) {
+			if (fragment.get(i) == '\n') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void appendToLine(ByteBuffer fragment, int count) {
+		if (lineLength + count > line.length) {
+			byte[] newLine = new byte[Math.max(line.length * 2, lineLength + count)];
+			System.arraycopy(line, 0, newLine, 0, lineLength);
+			line = newLine;
+		}
+		fragment.get(line, lineLength, count);
+		lineLength += count;
+	}
+
+	private void fail(AbstractRequestParseFailedException e) {
+		error = e;
+		status = Status.ERROR;
+	}
+
+	@Override
+	public int getConsumedCount() {
+		return consumedCount;
+	}
+
+	@Override
+	public Status getStatus() {
+		return status;
+	}
+
+	@Override
+	public boolean isHeadReceived() {
+		return state != State.HEAD || status != Status.NEED_MORE;
+	}
+
+	@Override
+	public HttpRequest getRequest() {
+		if (status != Status.COMPLETE) {
+			throw new IllegalStateException("Request is not complete: " + status);
+		}
+		return request;
+	}
+
+	@Override
+	public AbstractRequestParseFailedException getError() {
+		if (status != Status.ERROR) {
+			throw new IllegalStateException("Request is not failed: " + status);
+		}
+		return error;
+	}
+
+	@Override
+	public void reset() {
+		if (line.length > MAX_RETAINED_LINE_CAPACITY) {
+			line = new byte[INITIAL_LINE_CAPACITY];
+		}
+		lineLength = 0;
+		head.reset();
+		headLength = 0;
+		state = State.HEAD;
+		body = null;
+		bodyLength = 0;
+		contentLength = 0;
+		chunkRemaining = 0;
+		status = Status.NEED_MORE;
+		consumedCount = 0;
+		request = null;
+		error = null;
+	}
+}
@@ -0,0 +1,87 @@
+package com.revenat.httpserver.io.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import com.revenat.httpserver.io.Part;
+import com.revenat.httpserver.io.utils.HeaderNames;
+
+/**
+ * Reference implementation of the {@link Part}, holding its content either in
+ * the byte array or in the temporary file.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+class DefaultPart implements Part {
+	private final String name;
+	private final String fileName;
+	private final Map<String, String> headers;
+	private final byte[] content;
+	private final Path file;
+	private final long size;
+
+	private DefaultPart(String name, String fileName, Map<String, String> headers, byte[] content, Path file,
+			long size) {
+		this.name = name;
+		this.fileName = fileName;
+		this.headers = headers;
+		this.content = content;
+		this.file = file;
+		this.size = size;
+	}
+
+	static DefaultPart inMemory(String name, String fileName, Map<String, String> headers, byte[] content) {
+		return new DefaultPart(name, fileName, headers, content, null, content.length);
+	}
+
+	static DefaultPart inFile(String name, String fileName, Map<String, String> headers, Path file, long size) {
+		return new DefaultPart(name, fileName, headers, null, file, size);
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getFileName() {
+		return fileName;
+	}
+
+	@Override
+	public String getContentType() {
+		return headers.get(HeaderNames.CONTENT_TYPE);
+	}
+
+	@Override
+	public Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	@Override
+	public long getSize() {
+		return size;
+	}
+
+	@Override
+	public boolean isInMemory() {
+		return file == null;
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		return file == null ? new ByteArrayInputStream(content) : Files.newInputStream(file);
+	}
+
+	@Override
+	public void delete() throws IOException {
+		if (file != null) {
+			Files.deleteIfExists(file);
+		}
+	}
+}
@@ -4,8 +4,11 @@ import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -23,20 +26,29 @@ import com.revenat.httpserver.io.exception.HttpServerException;
 import com.revenat.httpserver.io.utils.HttpUtils;
 
 /**
- * Reference implementation of the {@link ReadableHttpResponse}
+ * Reference implementation of the {@link ReadableHttpResponse}. Body set from
+ * a file is not read into memory: only the file and its length are kept, so
+ * the file can be sent straight to the client. Body written to the
+ * {@link #getOutputStream()} goes to the stream set by the server, or is
+ * collected in memory if there is none.
  * 
  * @author Vitaly Dragun
  *
  */
 class DefaultReadableHttpResponse implements ReadableHttpResponse {
+	private static final byte[] EMPTY_BODY = new byte[0];
+
 	private final Map<String, String> headers;
 	private byte[] body;
+	private Path bodyFile;
+	private long bodyFileLength;
+	private OutputStream bodyOutputStream;
 	private int status;
 	
 	DefaultReadableHttpResponse() {
 		this.status = 200;
 		this.headers = new LinkedHashMap<>();
-		this.body = new byte[0];
+		this.body = EMPTY_BODY;
 	}
 	
 	@Override
@@ -66,6 +78,7 @@ class DefaultReadableHttpResponse implements ReadableHttpResponse {
 	public void setBody(String content) {
 		requireNonNull(content, "Body content can not be null ");
 		this.body = content.getBytes(StandardCharsets.UTF_8);
+		this.bodyFile = null;
 
 	}
 
@@ -74,6 +87,7 @@ class DefaultReadableHttpResponse implements ReadableHttpResponse {
 		try {
 			requireNonNull(in, "InputStream can not be null");
 			this.body = IOUtils.toByteArray(in);
+			this.bodyFile = null;
 		} catch (IOException e) {
 			throw new HttpServerException("Can not set HTTP response body from InputStream: " + e.getMessage(), e);
 		}
@@ -84,11 +98,34 @@ class DefaultReadableHttpResponse implements ReadableHttpResponse {
 		try {
 			requireNonNull(reader, "Reader can not be null");
 			this.body = IOUtils.toByteArray(reader, StandardCharsets.UTF_8);
+			this.bodyFile = null;
 		} catch (IOException e) {
 			throw new HttpServerException("Can not set HTTP response body from Reader: " + e.getMessage(), e);
 		}
 	}
 
+	@Override
+	public void setBody(Path file) {
+		try {
+			requireNonNull(file, "File can not be null");
+			this.bodyFileLength = Files.size(file);
+			this.bodyFile = file;
+			this.body = EMPTY_BODY;
+		} catch (IOException e) {
+			throw new HttpServerException("Can not set HTTP response body from file: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public OutputStream getOutputStream() {
+		return bodyOutputStream != null ? bodyOutputStream : ReadableHttpResponse.super.getOutputStream();
+	}
+
+	@Override
+	public void setBodyOutputStream(OutputStream out) {
+		this.bodyOutputStream = out;
+	}
+
 	@Override
 	public int getStatus() {
 		return status;
@@ -101,17 +138,34 @@ class DefaultReadableHttpResponse implements ReadableHttpResponse {
 
 	@Override
 	public byte[] getBody() {
+		if (bodyFile != null) {
+			try {
+				return Files.readAllBytes(bodyFile);
+			} catch (IOException e) {
+				throw new HttpServerException("Can not read HTTP response body from file: " + e.getMessage(), e);
+			}
+		}
 		return Arrays.copyOf(body, body.length);
 	}
 
+	@Override
+	public byte[] getBodyArray() {
+		return bodyFile != null ? getBody() : body;
+	}
+
+	@Override
+	public Path getBodyFile() {
+		return bodyFile;
+	}
+
 	@Override
 	public boolean isBodyEmpty() {
 		return getBodyLength() == 0;
 	}
 
 	@Override
-	public int getBodyLength() {
-		return body.length;
+	public long getBodyLength() {
+		return bodyFile != null ? bodyFileLength : body.length;
 	}
 
 }
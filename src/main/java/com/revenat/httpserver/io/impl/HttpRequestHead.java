@@ -0,0 +1,279 @@
+package com.revenat.httpserver.io.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import com.revenat.httpserver.io.Constants;
+import com.revenat.httpserver.io.HttpMethod;
+import com.revenat.httpserver.io.HttpRequest;
+import com.revenat.httpserver.io.exception.BadRequestException;
+import com.revenat.httpserver.io.exception.MethodNotAllowedException;
+import com.revenat.httpserver.io.exception.PayloadTooLargeException;
+import com.revenat.httpserver.io.exception.RequestHeaderFieldsTooLargeException;
+import com.revenat.httpserver.io.exception.RequestUriTooLongException;
+
+/**
+ * Starting line and headers of the HTTP request being parsed. Lines are passed
+ * one by one as byte ranges without line terminators, and are tokenized right
+ * from the bytes of the parser's buffer. Only method, URI and HTTP version are
+ * turned into strings: trimmed header names and values are copied into the
+ * single array backing {@link RawHttpHeaders}, and decoded on access. Length
+ * of the starting line and number of headers are checked against
+ * {@link HttpRequestLimits}, size of the whole head is checked by the parser
+ * while reading.
+ * <p>
+ * Head is owned by the parser (per connection or per thread) and is
+ * {@link #reset() reset} for the next request, so its arrays are reused: only
+ * the exact-size copy of the header data is handed over to the request.
+ * Method is resolved to {@link HttpMethod} right from the bytes, and
+ * well-known HTTP versions are returned as shared constants.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+final class HttpRequestHead {
+	private static final int INITIAL_HEADER_DATA_SIZE = 512;
+	private static final int INITIAL_HEADER_CAPACITY = 16;
+	/**
+	 * Header data arrays grown above this size are not kept for the next
+	 * requests.
+	 */
+	private static final int MAX_RETAINED_HEADER_DATA_SIZE = 65536;
+	private static final String[] KNOWN_VERSIONS = { Constants.HTTP_VERSION, Constants.HTTP_VERSION_1_0 };
+	private static final RawHttpHeaders NO_HEADERS = new RawHttpHeaders(new byte[0], new int[0], 0);
+
+	private final HttpRequestLimits limits;
+	private String startingLine;
+	private HttpMethod method;
+	private String uri;
+	private String httpVersion;
+	private byte[] headerData;
+	private int headerDataLength;
+	private int[] headerOffsets;
+	private int headerCount;
+	private RawHttpHeaders headers;
+
+	HttpRequestHead(HttpRequestLimits limits) {
+		this.limits = limits;
+	}
+
+	/**
+	 * Clears parsed starting line and headers to parse the next request, keeping
+	 * allocated arrays unless they grew too large.
+	 */
+	void reset() {
+		startingLine = null;
+		method = null;
+		uri = null;
+		httpVersion = null;
+		headerDataLength = 0;
+		headerCount = 0;
+		headers = null;
+		if (headerData != null && headerData.length > MAX_RETAINED_HEADER_DATA_SIZE) {
+			headerData = null;
+			headerOffsets = null;
+		}
+	}
+
+	/**
+	 * Parses next non-empty line of the request head: the first line is
+	 * starting line, the rest are headers.
+	 * 
+	 * @param data buffer holding the line
+	 * @param from index of the first byte of the line
+	 * @param to   index next to the last byte of the line (without {@code CRLF})
+	 * @throws BadRequestException if line is invalid
+	 * @throws RequestUriTooLongException if starting line is too long
+	 * @throws RequestHeaderFieldsTooLargeException if there are too many headers
+	 */
+	void parseLine(byte[] data, int from, int to) {
+		if (startingLine == null) {
+			parseStartingLine(data, from, to);
+		} else {
+			parseHeader(data, from, to);
+		}
+	}
+
+	/**
+	 * Returns {@code true} if starting line was already parsed.
+	 */
+	boolean hasStartingLine() {
+		return startingLine != null;
+	}
+
+	/**
+	 * Returns {@code true} if message body is sent with chunked transfer coding.
+	 */
+	boolean isChunked() {
+		return DefaultHttpRequestParser.isChunked(getHeaders());
+	}
+
+	/**
+	 * Returns length of the message body declared by the {@code Content-Length}
+	 * header, or {@code 0} if there is no such header.
+	 * 
+	 * @throws BadRequestException if header value is not a valid length
+	 * @throws PayloadTooLargeException if length exceeds the limit
+	 */
+	int getContentLength() {
+		int contentLength = DefaultHttpRequestParser.getContentLength(getHeaders());
+		limits.checkBodySize(contentLength);
+		return contentLength;
+	}
+
+	/**
+	 * Creates {@link HttpRequest} from the parsed head and specified message body.
+	 * 
+	 * @throws BadRequestException if starting line was not parsed
+	 */
+	HttpRequest toHttpRequest(String remoteAddress, InputStream body, MultipartConfig multipartConfig)
+			throws IOException {
+		if (startingLine == null) {
+			throw new BadRequestException("Starting line is absent", null, null);
+		}
+		return DefaultHttpRequestParser.createHttpRequest(startingLine, method, uri, httpVersion, remoteAddress,
+				getHeaders(), body, multipartConfig);
+	}
+
+	/**
+	 * Returns headers parsed so far. Should be called once all the headers are
+	 * parsed. Returned headers don't depend on this head, so it can be reset
+	 * while they are still in use.
+	 */
+	Map<String, String> getHeaders() {
+		if (headers == null) {
+			headers = headerCount == 0 ? NO_HEADERS
+					: new RawHttpHeaders(Arrays.copyOf(headerData, headerDataLength),
+							Arrays.copyOf(headerOffsets, headerCount * RawHttpHeaders.OFFSETS_PER_HEADER),
+							headerCount);
+		}
+		return headers;
+	}
+
+	/**
+	 * Parses starting line: e.g. GET /index.html HTTP/1.1. Line itself is kept
+	 * as it was received, URI is cut from it.
+	 * 
+	 * @throws MethodNotAllowedException if method is not supported
+	 */
+	private void parseStartingLine(byte[] data, int from, int to) {
+		limits.checkRequestLineLength(to - from);
+		int methodEnd = indexOf(data, ' ', from, to);
+		int uriEnd = indexOf(data, ' ', methodEnd + 1, to);
+		if (methodEnd == -1 || uriEnd == -1) {
+			throw new BadRequestException("Invalid starting line", null, toString(data, from, to));
+		}
+		String line = new String(data, from, to - from, StandardCharsets.UTF_8);
+		HttpMethod httpMethod = HttpMethod.of(data, from, methodEnd);
+		if (httpMethod == null) {
+			throw new MethodNotAllowedException(toString(data, from, methodEnd), line);
+		}
+		int versionEnd = indexOf(data, ' ', uriEnd + 1, to);
+		// Method is ASCII and URI has no spaces, so URI is found in the decoded
+		// line by the same start and the next space
+		int uriStart = methodEnd + 1 - from;
+		uri = line.substring(uriStart, line.indexOf(' ', uriStart));
+		httpVersion = toKnownString(data, uriEnd + 1, versionEnd != -1 ? versionEnd : to, KNOWN_VERSIONS);
+		method = httpMethod;
+		startingLine = line;
+	}
+
+	/**
+	 * Parses header: e.g. Host: localhost
+	 */
+	private void parseHeader(byte[] data, int from, int to) {
+		if (data[from] == ' ' || data[from] == '\t') {
+			// Continuation of the previous header value, which is the last bytes of
+			// the header data
+			if (headerCount == 0) {
+				throw new BadRequestException("Invalid header: " + toString(data, from, to), null, null);
+			}
+			appendHeaderData(data, trimStart(data, from, to), trimEnd(data, from, to));
+			headerOffsets[(headerCount - 1) * RawHttpHeaders.OFFSETS_PER_HEADER + 3] = headerDataLength;
+			return;
+		}
+		int delimiterIndex = indexOf(data, ':', from, to);
+		if (delimiterIndex == -1) {
+			throw new BadRequestException("Invalid header: " + toString(data, from, to), null, null);
+		}
+		limits.checkHeaderCount(headerCount + 1);
+		if (headerData == null) {
+			headerData = new byte[INITIAL_HEADER_DATA_SIZE];
+			headerOffsets = new int[INITIAL_HEADER_CAPACITY * RawHttpHeaders.OFFSETS_PER_HEADER];
+		} else if ((headerCount + 1) * RawHttpHeaders.OFFSETS_PER_HEADER > headerOffsets.length) {
+			headerOffsets = Arrays.copyOf(headerOffsets, headerOffsets.length * 2);
+		}
+		int offset = headerCount * RawHttpHeaders.OFFSETS_PER_HEADER;
+		headerOffsets[offset] = headerDataLength;
+		appendHeaderData(data, trimStart(data, from, delimiterIndex), trimEnd(data, from, delimiterIndex));
+		headerOffsets[offset + 1] = headerDataLength;
+		headerOffsets[offset + 2] = headerDataLength;
+		appendHeaderData(data, trimStart(data, delimiterIndex + 1, to), trimEnd(data, delimiterIndex + 1, to));
+		headerOffsets[offset + 3] = headerDataLength;
+		headerCount++;
+	}
+
+	private void appendHeaderData(byte[] data, int from, int to) {
+		int length = to - from;
+		if (headerDataLength + length > headerData.length) {
+			headerData = Arrays.copyOf(headerData, Math.max(headerData.length * 2, headerDataLength + length));
+		}
+		System.arraycopy(data, from, headerData, headerDataLength, length);
+		headerDataLength += length;
+	}
+
+	private static int trimStart(byte[] data, int from, int to) {
+		while (from < to && data[from] <= ' ') {
+			from++;
+		}
+		return from;
+	}
+
+	private static int trimEnd(byte[] data, int from, int to) {
+		while (to > from && data[to - 1] <= ' ') {
+			to--;
+		}
+		return to;
+	}
+
+	private static int indexOf(byte[] data, char ch, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (data[i] == ch) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns one of the specified strings if it matches bytes in the range,
+	 * otherwise creates new string.
+	 */
+	private static String toKnownString(byte[] data, int from, int to, String[] known) {
+		for (String value : known) {
+			if (matches(data, from, to, value)) {
+				return value;
+			}
+		}
+		return toString(data, from, to);
+	}
+
+	private static boolean matches(byte[] data, int from, int to, String value) {
+		if (to - from != value.length()) {
+			return false;
+		}
+		for (int i = from; i < to; i++) {
+			if (data[i] != value.charAt(i - from)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String toString(byte[] data, int from, int to) {
+		return new String(data, from, to - from, StandardCharsets.ISO_8859_1);
+	}
+}
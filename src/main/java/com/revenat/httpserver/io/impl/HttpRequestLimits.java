@@ -0,0 +1,91 @@
+package com.revenat.httpserver.io.impl;
+
+import com.revenat.httpserver.io.config.HttpServerConfig;
+import com.revenat.httpserver.io.exception.PayloadTooLargeException;
+import com.revenat.httpserver.io.exception.RequestHeaderFieldsTooLargeException;
+import com.revenat.httpserver.io.exception.RequestUriTooLongException;
+
+/**
+ * Size limits of the HTTP request, checked by the parsers while the request is
+ * being read, so oversized request is rejected before buffers for it are
+ * allocated. {@code 0} means no limit.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+final class HttpRequestLimits {
+	static final HttpRequestLimits UNLIMITED = new HttpRequestLimits(0, 0, 0, 0);
+
+	private final int maxRequestLineLength;
+	private final int maxHeaderSize;
+	private final int maxHeaderCount;
+	private final long maxBodySize;
+
+	/**
+	 * @param maxRequestLineLength max length of the starting line (without
+	 *                             {@code CRLF})
+	 * @param maxHeaderSize        max size of the starting line and headers,
+	 *                             including line terminators
+	 * @param maxHeaderCount       max number of the headers
+	 * @param maxBodySize          max size of the message body
+	 */
+	HttpRequestLimits(int maxRequestLineLength, int maxHeaderSize, int maxHeaderCount, long maxBodySize) {
+		this.maxRequestLineLength = maxRequestLineLength;
+		this.maxHeaderSize = maxHeaderSize;
+		this.maxHeaderCount = maxHeaderCount;
+		this.maxBodySize = maxBodySize;
+	}
+
+	static HttpRequestLimits from(HttpServerConfig httpServerConfig) {
+		return new HttpRequestLimits(httpServerConfig.getMaxRequestLineLength(), httpServerConfig.getMaxHeaderSize(),
+				httpServerConfig.getMaxHeaderCount(), httpServerConfig.getMaxBodySize());
+	}
+
+	int getMaxHeaderSize() {
+		return maxHeaderSize;
+	}
+
+	/**
+	 * @param length length of the starting line (or its part received so far)
+	 * @throws RequestUriTooLongException if length exceeds the limit
+	 */
+	void checkRequestLineLength(int length) {
+		if (maxRequestLineLength > 0 && length > maxRequestLineLength) {
+			throw new RequestUriTooLongException("Starting line is longer than " + maxRequestLineLength + " bytes",
+					null);
+		}
+	}
+
+	/**
+	 * @param size size of the starting line and headers received so far
+	 * @throws RequestHeaderFieldsTooLargeException if size exceeds the limit
+	 */
+	void checkHeaderSize(int size) {
+		if (maxHeaderSize > 0 && size > maxHeaderSize) {
+			throw new RequestHeaderFieldsTooLargeException("Request headers are larger than " + maxHeaderSize
+					+ " bytes", null);
+		}
+	}
+
+	/**
+	 * @param count number of the headers received so far
+	 * @throws RequestHeaderFieldsTooLargeException if count exceeds the limit
+	 */
+	void checkHeaderCount(int count) {
+		if (maxHeaderCount > 0 && count > maxHeaderCount) {
+			throw new RequestHeaderFieldsTooLargeException("Request has more than " + maxHeaderCount + " headers",
+					null);
+		}
+	}
+
+	/**
+	 * @param size declared size of the message body or size of its part
+	 *             received so far
+	 * @throws PayloadTooLargeException if size exceeds the limit
+	 */
+	void checkBodySize(long size) {
+		if (maxBodySize > 0 && size > maxBodySize) {
+			throw new PayloadTooLargeException("Request body is larger than " + maxBodySize + " bytes", null);
+		}
+	}
+}
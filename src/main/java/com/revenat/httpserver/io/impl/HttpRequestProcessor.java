@@ -0,0 +1,297 @@
+package com.revenat.httpserver.io.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revenat.httpserver.io.Constants;
+import com.revenat.httpserver.io.HttpMethod;
+import com.revenat.httpserver.io.HttpRequest;
+import com.revenat.httpserver.io.HttpResponse;
+import com.revenat.httpserver.io.HttpServerContext;
+import com.revenat.httpserver.io.ServerStatistics;
+import com.revenat.httpserver.io.config.HttpServerConfig;
+import com.revenat.httpserver.io.config.IncrementalHttpRequestParser;
+import com.revenat.httpserver.io.config.ReadableHttpResponse;
+import com.revenat.httpserver.io.exception.AbstractRequestParseFailedException;
+import com.revenat.httpserver.io.exception.HttpServerException;
+import com.revenat.httpserver.io.exception.MethodNotAllowedException;
+
+/**
+ * Component responsible for the full request-response cycle of a single HTTP
+ * request: parsing, dispatching to the appropriate handler, error handling,
+ * access logging and writing the response. Shared by all the HTTP server
+ * engines, so blocking and non-blocking transports behave the same.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+class HttpRequestProcessor extends AbstractHttpConfigurableComponent {
+	private static final Logger ACCESS_LOGGER = LoggerFactory.getLogger("ACCESS_LOG");
+	private static final Logger LOGGER = LoggerFactory.getLogger(HttpRequestProcessor.class);
+
+	/**
+	 * Source of the single HTTP request to process, e.g. parser reading it from
+	 * the client stream or request already parsed by the non-blocking transport.
+	 */
+	@FunctionalInterface
+	interface RequestSource {
+		/**
+		 * Returns request to process.
+		 * 
+		 * @throws EOFException                        if client closed connection
+		 *                                             before sending request
+		 * @throws AbstractRequestParseFailedException if request is invalid
+		 */
+		HttpRequest getRequest() throws IOException;
+
+		/**
+		 * Returns source of the request completed (either valid or not) by the
+		 * specified parser. Returned source doesn't depend on the parser, so
+		 * parser can be reset for the next request right away.
+		 */
+		static RequestSource of(IncrementalHttpRequestParser parser) {
+			if (parser.getStatus() == IncrementalHttpRequestParser.Status.ERROR) {
+				AbstractRequestParseFailedException error = parser.getError();
+				return () -> {
+					throw error;
+				};
+			}
+			HttpRequest request = parser.getRequest();
+			return () -> request;
+		}
+	}
+
+	HttpRequestProcessor(HttpServerConfig httpServerConfig) {
+		super(httpServerConfig);
+	}
+
+	/**
+	 * Reads single HTTP request from the {@code clientInput}, processes it and
+	 * writes response to the {@code clientOutput}.
+	 * 
+	 * @param remoteAddress    address of the client
+	 * @param clientInput      stream to read request from
+	 * @param clientOutput     stream to write response to
+	 * @param keepAliveAllowed whether connection can be kept open after this
+	 *                         request
+	 * @return {@code true} if connection should be kept open for the next
+	 *         request, {@code false} if it should be closed (e.g. client closed
+	 *         connection before sending request or asked to close it)
+	 */
+	boolean processRequest(String remoteAddress, InputStream clientInput, OutputStream clientOutput,
+			boolean keepAliveAllowed) throws IOException {
+		requireNonNull(clientInput, "Client input can not be null");
+		return processRequest(remoteAddress,
+				() -> httpServerConfig.getHttpRequestParser().parseHttpRequest(clientInput, remoteAddress),
+				clientOutput, keepAliveAllowed);
+	}
+
+	/**
+	 * Processes single HTTP request obtained from the {@code requestSource} and
+	 * writes response to the {@code clientOutput}.
+	 * 
+	 * @param remoteAddress    address of the client
+	 * @param requestSource    source of the request to process
+	 * @param clientOutput     stream to write response to
+	 * @param keepAliveAllowed whether connection can be kept open after this
+	 *                         request
+	 * @return {@code true} if connection should be kept open for the next
+	 *         request, {@code false} if it should be closed
+	 */
+	boolean processRequest(String remoteAddress, RequestSource requestSource, OutputStream clientOutput,
+			boolean keepAliveAllowed) throws IOException {
+		requireNonNull(requestSource, "Request source can not be null");
+		requireNonNull(clientOutput, "Client output can not be null");
+		ReadableHttpResponse response = httpServerConfig.getHttpResponseBuilder().buildNewHttpResponse();
+		ServerStatistics statistics = httpServerConfig.getServerInfo().getStatistics();
+		String startingLine = null;
+		boolean headRequest = false;
+		boolean keepAlive = false;
+		ResponseBodyOutputStream bodyStream = null;
+		boolean handled = true;
+
+		try {
+			HttpRequest request = requestSource.getRequest();
+			statistics.requestStarted();
+			startingLine = request.getStartingLine();
+			headRequest = request.getHttpMethod() == HttpMethod.HEAD;
+			keepAlive = keepAliveAllowed && isKeepAliveRequested(request);
+			bodyStream = createBodyStream(request, response, clientOutput, keepAlive);
+			response.setBodyOutputStream(bodyStream);
+			try {
+				handled = processRequest(request, response, bodyStream);
+				keepAlive = keepAlive && discardUnreadBody(request);
+			} finally {
+				deleteParts(request);
+			}
+		} catch (AbstractRequestParseFailedException e) {
+			statistics.requestStarted();
+			startingLine = e.getStartingLine();
+			headRequest = getHttpMethod(startingLine) == HttpMethod.HEAD;
+			handleException(e, response);
+		} catch (EOFException e) {
+			LOGGER.debug("Client socket closed connection");
+			return false;
+		}
+		try {
+			// Server could start draining while request was being processed
+			keepAlive = keepAlive && !statistics.isDraining();
+			if (bodyStream != null && bodyStream.isCommitted()) {
+				return completeStreamedResponse(remoteAddress, startingLine, response, bodyStream, handled)
+						&& keepAlive;
+			}
+			if (bodyStream != null) {
+				bodyStream.finish();
+			}
+			if (keepAlive) {
+				response.setHeader("Connection", "keep-alive");
+			}
+
+			httpServerConfig.getHttpResponseBuilder().prepareHttpResponse(response, headRequest);
+
+			ACCESS_LOGGER.info("Request: {} - \"{}\", Response: {} ({} bytes)", remoteAddress, startingLine,
+					response.getStatus(), response.getBodyLength());
+
+			httpServerConfig.getHttpResponseWriter().writeHttpResponse(clientOutput, response);
+			return keepAlive;
+		} finally {
+			statistics.requestCompleted();
+		}
+	}
+
+	/**
+	 * Returns method of the request with specified starting line, or {@code null}
+	 * if starting line is missing or its method is not supported.
+	 */
+	private static HttpMethod getHttpMethod(String startingLine) {
+		if (startingLine == null) {
+			return null;
+		}
+		int methodEnd = startingLine.indexOf(' ');
+		return HttpMethod.of(methodEnd == -1 ? startingLine : startingLine.substring(0, methodEnd));
+	}
+
+	/**
+	 * Creates stream for the body written by the handler, which writes head of
+	 * the response to the client once the body is committed.
+	 */
+	private ResponseBodyOutputStream createBodyStream(HttpRequest request, ReadableHttpResponse response,
+			OutputStream clientOutput, boolean keepAlive) {
+		ServerStatistics statistics = httpServerConfig.getServerInfo().getStatistics();
+		boolean chunkedAllowed = !Constants.HTTP_VERSION_1_0.equals(request.getHttpVersion());
+		return new ResponseBodyOutputStream(response, clientOutput, persistent -> {
+			if (keepAlive && persistent && !statistics.isDraining()) {
+				response.setHeader("Connection", "keep-alive");
+			}
+			httpServerConfig.getHttpResponseWriter().writeHttpResponseHead(clientOutput, response);
+		}, request.getHttpMethod() != HttpMethod.HEAD, chunkedAllowed);
+	}
+
+	/**
+	 * Completes response which head was already sent to the client while
+	 * request was being handled.
+	 * 
+	 * @param handled {@code false} if handler failed after response was
+	 *                committed, so the body is incomplete
+	 * @return {@code true} if connection can be kept open for the next request
+	 */
+	private static boolean completeStreamedResponse(String remoteAddress, String startingLine,
+			ReadableHttpResponse response, ResponseBodyOutputStream bodyStream, boolean handled) throws IOException {
+		if (handled) {
+			bodyStream.finish();
+		}
+		ACCESS_LOGGER.info("Request: {} - \"{}\", Response: {} ({} bytes{})", remoteAddress, startingLine,
+				response.getStatus(), bodyStream.getSize(), handled ? ", streamed" : ", aborted");
+		// Client can detect incomplete body only if connection is closed
+		return handled && bodyStream.isPersistent();
+	}
+
+	/**
+	 * Skips the part of the request body not read by the handler, so the next
+	 * request on the same connection starts at the right position.
+	 * 
+	 * @return {@code false} if body can't be skipped and connection should be
+	 *         closed, {@code true} otherwise
+	 */
+	private static boolean discardUnreadBody(HttpRequest request) {
+		InputStream body = request.getBody();
+		if (body != null) {
+			try {
+				body.close();
+			} catch (IOException | HttpServerException e) {
+				LOGGER.debug("Can not discard request body: " + e.getMessage());
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void deleteParts(HttpRequest request) {
+		if (request instanceof DefaultHttpRequest) {
+			((DefaultHttpRequest) request).deleteParts();
+		}
+	}
+
+	/**
+	 * HTTP/1.1 connections are persistent unless client sends
+	 * {@code Connection: close} header.
+	 */
+	private static boolean isKeepAliveRequested(HttpRequest request) {
+		String connection = request.getHeaders().get("Connection");
+		return connection == null || !connection.toLowerCase().contains("close");
+	}
+
+	/**
+	 * Checks whether client connection can be kept open after the request with
+	 * specified ordinal number, according to the keep-alive settings of the
+	 * {@link HttpServerConfig}.
+	 */
+	boolean isKeepAliveAllowed(int requestCount) {
+		int maxRequests = httpServerConfig.getKeepAliveMaxRequests();
+		return httpServerConfig.getKeepAliveTimeout() > 0 && (maxRequests == 0 || requestCount < maxRequests);
+	}
+
+	/**
+	 * Dispatches request to the handler, turning handler errors into error
+	 * response while it is not committed.
+	 * 
+	 * @return {@code false} if handler failed after response was committed,
+	 *         {@code true} otherwise
+	 */
+	private boolean processRequest(HttpRequest request, HttpResponse response, ResponseBodyOutputStream bodyStream) {
+		HttpServerContext context = httpServerConfig.getHttpServerContext();
+		try {
+			httpServerConfig.getHttpRequestDispatcher().handle(context, request, response);
+			return true;
+		} catch (Exception e) {
+			if (bodyStream.isCommitted()) {
+				LOGGER.error("Exception during streamed response: " + e.getMessage(), e);
+				return false;
+			}
+			bodyStream.discard();
+			handleException(e, response);
+			return true;
+		}
+	}
+
+	private static void handleException(Exception ex, HttpResponse response) {
+		LOGGER.error("Exception during request: " + ex.getMessage(), ex);
+		if (ex instanceof HttpServerException) {
+			HttpServerException e = (HttpServerException) ex;
+			response.setStatus(e.getStatusCode());
+			if (e instanceof MethodNotAllowedException) {
+				response.setHeader("Allow", Constants.ALLOW_HEADER_VALUE);
+			}
+		} else {
+			response.setStatus(500);
+		}
+	}
+
+}
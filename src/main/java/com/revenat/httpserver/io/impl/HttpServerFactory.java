@@ -42,10 +42,28 @@ public class HttpServerFactory {
 	 * @return new instance of the {@link HttpServer}
 	 */
 	public HttpServer createHttpServer(HttpHandlerRegistrar handlerRegistrar, Properties overrideServerProperties) {
-		HttpServerConfig httpServerConfig = new DefaultHttpServerConfig(handlerRegistrar, overrideServerProperties,
-				new ClassPathHttpServerResourceLoader());
+		DefaultHttpServerConfig httpServerConfig = new DefaultHttpServerConfig(handlerRegistrar,
+				overrideServerProperties, new ClassPathHttpServerResourceLoader());
 
-		return new DefaultHttpServer(httpServerConfig);
+		return createHttpServer(httpServerConfig, httpServerConfig.getServerType());
+	}
+
+	/**
+	 * Creates new instance of the {@link HttpServer} engine of the specified type.
+	 * 
+	 * @param httpServerConfig configuration of the HTTP server
+	 * @param serverType       type of the HTTP server engine to create
+	 * @return new instance of the {@link HttpServer}
+	 */
+	HttpServer createHttpServer(HttpServerConfig httpServerConfig, HttpServerType serverType) {
+		switch (serverType) {
+		case NIO:
+			return new NioHttpServer(httpServerConfig);
+		case ASYNC:
+			return new AsyncHttpServer(httpServerConfig);
+		default:
+			return new DefaultHttpServer(httpServerConfig);
+		}
 	}
 
 }
@@ -0,0 +1,44 @@
+package com.revenat.httpserver.io.impl;
+
+import com.revenat.httpserver.io.HttpServer;
+import com.revenat.httpserver.io.exception.HttpServerConfigException;
+
+/**
+ * Enumeration of the available {@link HttpServer} engines which can be chosen
+ * via {@code server.type} property.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+enum HttpServerType {
+	/**
+	 * Thread-per-connection engine which uses blocking io.
+	 */
+	BLOCKING,
+	/**
+	 * Selector based engine which uses non-blocking io.
+	 */
+	NIO,
+	/**
+	 * Completion handler based engine which uses asynchronous channels.
+	 */
+	ASYNC;
+
+	/**
+	 * Returns {@link HttpServerType} with specified name (case-insensitive) or
+	 * {@link #BLOCKING} if name is not specified.
+	 * 
+	 * @throws HttpServerConfigException if there is no type with such name
+	 */
+	static HttpServerType of(String name) {
+		if (name == null || name.trim().isEmpty()) {
+			return BLOCKING;
+		}
+		for (HttpServerType type : values()) {
+			if (type.name().equalsIgnoreCase(name.trim())) {
+				return type;
+			}
+		}
+		throw new HttpServerConfigException("Unsupported server.type: " + name);
+	}
+}
@@ -0,0 +1,75 @@
+package com.revenat.httpserver.io.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+
+/**
+ * Read-only map with {@link String} keys, built once from the configuration
+ * and then shared by all the worker threads. Entries are kept in the
+ * open-addressing table with linear probing, so lookup takes neither lock nor
+ * allocation, unlike {@link java.util.Properties} backed by the synchronized
+ * {@code Hashtable}.
+ * 
+ * @author Vitaly Dragun
+ * 
+ * @param <V> type of the values
+ */
+final class ImmutableStringMap<V> {
+	private final String[] keys;
+	private final Object[] values;
+	private final int mask;
+	private final int size;
+
+	/**
+	 * Creates map with the entries of the specified one. Table is kept at most
+	 * half full, so probe sequences stay short.
+	 */
+	ImmutableStringMap(Map<String, ? extends V> entries) {
+		requireNonNull(entries, "Entries can not be null");
+		int capacity = Integer.highestOneBit(Math.max(entries.size(), 1) * 2 - 1) << 1;
+		this.keys = new String[capacity];
+		this.values = new Object[capacity];
+		this.mask = capacity - 1;
+		this.size = entries.size();
+		for (Map.Entry<String, ? extends V> entry : entries.entrySet()) {
+			String key = requireNonNull(entry.getKey(), "Key can not be null");
+			int index = indexOf(key);
+			keys[index] = key;
+			values[index] = requireNonNull(entry.getValue(), "Value can not be null");
+		}
+	}
+
+	/**
+	 * Returns value mapped to the specified key, or {@code null} if there is
+	 * none.
+	 */
+	@SuppressWarnings("unchecked")
+	V get(String key) {
+		if (key == null) {
+			return null;
+		}
+		return (V) values[indexOf(key)];
+	}
+
+	boolean containsKey(String key) {
+		return get(key) != null;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns slot holding the specified key, or the empty slot where it would
+	 * be placed.
+	 */
+	private int indexOf(String key) {
+		int hash = key.hashCode();
+		int index = (hash ^ (hash >>> 16)) & mask;
+		while (keys[index] != null && !keys[index].equals(key)) {
+			index = (index + 1) & mask;
+		}
+		return index;
+	}
+}
@@ -0,0 +1,44 @@
+package com.revenat.httpserver.io.impl;
+
+import java.nio.file.Path;
+
+import com.revenat.httpserver.io.config.HttpServerConfig;
+
+/**
+ * Settings of the {@code multipart/form-data} body parsing: parts larger than
+ * the memory threshold are written to the temporary files in the specified
+ * directory.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+final class MultipartConfig {
+	static final int DEFAULT_MEMORY_THRESHOLD = 65536;
+	static final MultipartConfig DEFAULT = new MultipartConfig(DEFAULT_MEMORY_THRESHOLD, null);
+
+	private final int memoryThreshold;
+	private final Path tempDir;
+
+	/**
+	 * @param memoryThreshold max size of the part held in memory
+	 * @param tempDir         directory for the temporary files, or {@code null}
+	 *                        to use default temporary directory
+	 */
+	MultipartConfig(int memoryThreshold, Path tempDir) {
+		this.memoryThreshold = memoryThreshold;
+		this.tempDir = tempDir;
+	}
+
+	static MultipartConfig from(HttpServerConfig httpServerConfig) {
+		return new MultipartConfig(httpServerConfig.getMultipartMemoryThreshold(),
+				httpServerConfig.getMultipartTempDir());
+	}
+
+	int getMemoryThreshold() {
+		return memoryThreshold;
+	}
+
+	Path getTempDir() {
+		return tempDir;
+	}
+}
@@ -0,0 +1,410 @@
+package com.revenat.httpserver.io.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revenat.httpserver.io.Part;
+import com.revenat.httpserver.io.exception.BadRequestException;
+import com.revenat.httpserver.io.utils.HeaderNames;
+
+/**
+ * Streaming parser of the {@code multipart/form-data} request body, which
+ * reads parts one by one as they are requested. Body is scanned for the
+ * boundary in the fixed-size buffer: content of each part is collected in
+ * memory until it exceeds the threshold of the {@link MultipartConfig}, and
+ * then is written to the temporary file, so upload of any size takes constant
+ * heap. Temporary files are deleted when parser is closed.
+ * <p>
+ * Errors in the body structure are reported as {@link BadRequestException},
+ * I/O errors as {@link UncheckedIOException}.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+class MultipartParser implements Iterator<Part>, Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(MultipartParser.class);
+	private static final String MULTIPART_FORM_DATA = "multipart/form-data";
+	private static final String BOUNDARY = "boundary=";
+	private static final int BUFFER_SIZE = 8192;
+	/**
+	 * Maximum size of the headers of a single part.
+	 */
+	private static final int MAX_PART_HEAD_SIZE = 8192;
+
+	private final InputStream in;
+	private final MultipartConfig config;
+	/**
+	 * Line end with dashes and the boundary, which precedes each part.
+	 */
+	private final byte[] delimiter;
+	private final byte[] buffer;
+	private int position;
+	private int limit;
+	private boolean started;
+	private boolean finished;
+	private DefaultPart nextPart;
+	private final List<DefaultPart> parts = new ArrayList<>();
+
+	/**
+	 * @param in       stream of the request body
+	 * @param boundary boundary from the {@code Content-Type} header
+	 * @param config   memory threshold and directory for the temporary files
+	 */
+	MultipartParser(InputStream in, String boundary, MultipartConfig config) {
+		this.in = in;
+		this.config = config;
+		this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+		this.buffer = new byte[Math.max(BUFFER_SIZE, delimiter.length * 2)];
+		// The first boundary is not preceded by the line end
+		this.buffer[0] = '\r';
+		this.buffer[1] = '\n';
+		this.limit = 2;
+	}
+
+	/**
+	 * Returns boundary of the {@code multipart/form-data} body from the
+	 * specified {@code Content-Type} header value, or {@code null} if body is
+	 * not multipart.
+	 */
+	static String getBoundary(String contentType) {
+		if (contentType == null || !contentType.toLowerCase().startsWith(MULTIPART_FORM_DATA)) {
+			return null;
+		}
+		int boundaryIndex = contentType.toLowerCase().indexOf(BOUNDARY);
+		if (boundaryIndex == -1) {
+			throw new BadRequestException("Multipart boundary is absent: " + contentType, null, null);
+		}
+		String boundary = contentType.substring(boundaryIndex + BOUNDARY.length());
+		int end = boundary.indexOf(';');
+		boundary = (end != -1 ? boundary.substring(0, end) : boundary).trim();
+		if (boundary.length() > 1 && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+			boundary = boundary.substring(1, boundary.length() - 1);
+		}
+		if (boundary.isEmpty()) {
+			throw new BadRequestException("Multipart boundary is empty: " + contentType, null, null);
+		}
+		return boundary;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (nextPart == null && !finished) {
+			try {
+				nextPart = readPart();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return nextPart != null;
+	}
+
+	@Override
+	public Part next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		Part part = nextPart;
+		nextPart = null;
+		return part;
+	}
+
+	/**
+	 * Deletes temporary files of all the parsed parts.
+	 */
+	@Override
+	public void close() {
+		for (DefaultPart part : parts) {
+			try {
+				part.delete();
+			} catch (IOException e) {
+				LOGGER.warn("Can not delete temporary file of the part: " + e.getMessage(), e);
+			}
+		}
+		parts.clear();
+	}
+
+	private DefaultPart readPart() throws IOException {
+		if (!started) {
+			// Skip preamble before the first boundary
+			readContent(NullOutputStream.INSTANCE);
+			started = true;
+			if (finished) {
+				return null;
+			}
+		}
+		Map<String, String> headers = readHeaders();
+		String disposition = headers.get(HeaderNames.CONTENT_DISPOSITION);
+		String name = getDispositionParameter(disposition, "name");
+		if (name == null) {
+			throw new BadRequestException("Part has no name: " + disposition, null, null);
+		}
+		String fileName = getDispositionParameter(disposition, "filename");
+
+		PartContent content = new PartContent();
+		try {
+			readContent(content);
+			content.close();
+		} catch (IOException | RuntimeException e) {
+			content.discard();
+			throw e;
+		}
+		DefaultPart part = content.file != null
+				? DefaultPart.inFile(name, fileName, headers, content.file, content.size)
+				: DefaultPart.inMemory(name, fileName, headers, content.memory.toByteArray());
+		parts.add(part);
+		return part;
+	}
+
+	/**
+	 * Reads headers of the part till the empty line.
+	 */
+	private Map<String, String> readHeaders() throws IOException {
+		Map<String, String> headers = new LinkedHashMap<>();
+		int headSize = 0;
+		while (true) {
+			int lineEnd = indexOfLineEnd();
+			int length = lineEnd - position;
+			headSize += length + 2;
+			if (headSize > MAX_PART_HEAD_SIZE) {
+				throw new BadRequestException("Part headers are too large", null, null);
+			}
+			if (length == 0) {
+				position = lineEnd + 2;
+				return Collections.unmodifiableMap(headers);
+			}
+			String line = new String(buffer, position, length, StandardCharsets.UTF_8);
+			position = lineEnd + 2;
+			int delimiterIndex = line.indexOf(':');
+			if (delimiterIndex == -1) {
+				throw new BadRequestException("Invalid part header: " + line, null, null);
+			}
+			headers.put(HeaderNames.canonicalize(line.substring(0, delimiterIndex)),
+					line.substring(delimiterIndex + 1).trim());
+		}
+	}
+
+	/**
+	 * Returns index of the {@code CRLF} which ends the current line, reading
+	 * more bytes into the buffer if needed.
+	 */
+	private int indexOfLineEnd() throws IOException {
+		// Number of bytes after the position already checked
+		int checked = 0;
+		while (true) {
+			for (int i = position + checked; i + 1 < limit; i++) {
+				if (buffer[i] == '\r' && buffer[i + 1] == '\n') {
+					return i;
+				}
+			}
+			if (limit - position >= MAX_PART_HEAD_SIZE) {
+				throw new BadRequestException("Part header is too long", null, null);
+			}
+			checked = Math.max(0, limit - position - 1);
+			fill();
+		}
+	}
+
+	/**
+	 * Writes content of the current part to the specified stream till the next
+	 * delimiter, and reads the delimiter with the line end after it (or the
+	 * dashes closing the body).
+	 */
+	private void readContent(OutputStream out) throws IOException {
+		while (true) {
+			int delimiterIndex = indexOfDelimiter();
+			if (delimiterIndex != -1) {
+				out.write(buffer, position, delimiterIndex - position);
+				position = delimiterIndex + delimiter.length;
+				readDelimiterEnd();
+				return;
+			}
+			// Tail of the buffer could be the beginning of the delimiter
+			int safeEnd = Math.max(position, limit - delimiter.length + 1);
+			out.write(buffer, position, safeEnd - position);
+			position = safeEnd;
+			fill();
+		}
+	}
+
+	private int indexOfDelimiter() {
+		int last = limit - delimiter.length;
+		for (int i = position; i <= last; i++) {
+			if (buffer[i] == delimiter[0] && matchesDelimiter(i)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private boolean matchesDelimiter(int from) {
+		for (int i = 1; i < delimiter.length; i++) {
+			if (buffer[from + i] != delimiter[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void readDelimiterEnd() throws IOException {
+		ensureAvailable(2);
+		if (buffer[position] == '-' && buffer[position + 1] == '-') {
+			position += 2;
+			finished = true;
+			return;
+		}
+		// Skip transport padding before the line end
+		while (true) {
+			ensureAvailable(2);
+			byte b = buffer[position];
+			if (b == ' ' || b == '\t') {
+				position++;
+			} else if (b == '\r' && buffer[position + 1] == '\n') {
+				position += 2;
+				return;
+			} else {
+				throw new BadRequestException("Invalid multipart boundary line", null, null);
+			}
+		}
+	}
+
+	private void ensureAvailable(int count) throws IOException {
+		while (limit - position < count) {
+			fill();
+		}
+	}
+
+	/**
+	 * Moves unread bytes to the start of the buffer and reads more bytes after
+	 * them.
+	 * 
+	 * @throws EOFException if body ends before the closing boundary
+	 */
+	private void fill() throws IOException {
+		if (position > 0) {
+			System.arraycopy(buffer, position, buffer, 0, limit - position);
+			limit -= position;
+			position = 0;
+		}
+		int readCount = in.read(buffer, limit, buffer.length - limit);
+		if (readCount == -1) {
+			throw new EOFException("Multipart body is not terminated");
+		}
+		limit += readCount;
+	}
+
+	/**
+	 * Extracts parameter (e.g. {@code name="file"}) of the
+	 * {@code Content-Disposition} header value.
+	 */
+	private static String getDispositionParameter(String disposition, String parameter) {
+		if (disposition == null) {
+			return null;
+		}
+		for (String item : disposition.split(";")) {
+			int delimiterIndex = item.indexOf('=');
+			if (delimiterIndex != -1 && item.substring(0, delimiterIndex).trim().equalsIgnoreCase(parameter)) {
+				String value = item.substring(delimiterIndex + 1).trim();
+				if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+					value = value.substring(1, value.length() - 1);
+				}
+				return value;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Sink for the content of the part, which switches from memory to the
+	 * temporary file once the content exceeds the threshold.
+	 * 
+	 * @author Vitaly Dragun
+	 *
+	 */
+	private final class PartContent extends OutputStream {
+		private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+		private Path file;
+		private OutputStream fileOutput;
+		private long size;
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (fileOutput == null && size + len > config.getMemoryThreshold()) {
+				file = config.getTempDir() != null ? Files.createTempFile(config.getTempDir(), "part-", ".tmp")
+						: Files.createTempFile("part-", ".tmp");
+				fileOutput = Files.newOutputStream(file);
+				memory.writeTo(fileOutput);
+				memory = null;
+			}
+			if (fileOutput != null) {
+				fileOutput.write(b, off, len);
+			} else {
+				memory.write(b, off, len);
+			}
+			size += len;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (fileOutput != null) {
+				fileOutput.close();
+			}
+		}
+
+		/**
+		 * Deletes temporary file of the part which can't be read completely.
+		 */
+		void discard() {
+			try {
+				close();
+				if (file != null) {
+					Files.deleteIfExists(file);
+				}
+			} catch (IOException e) {
+				LOGGER.warn("Can not delete temporary file of the part: " + e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * Sink which discards everything written to it.
+	 * 
+	 * @author Vitaly Dragun
+	 *
+	 */
+	private static final class NullOutputStream extends OutputStream {
+		static final NullOutputStream INSTANCE = new NullOutputStream();
+
+		@Override
+		public void write(int b) {
+			// discard
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			// discard
+		}
+	}
+}
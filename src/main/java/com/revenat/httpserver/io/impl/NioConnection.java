@@ -0,0 +1,258 @@
+package com.revenat.httpserver.io.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import com.revenat.httpserver.io.EventLoopStatistics;
+import com.revenat.httpserver.io.config.HttpServerConfig;
+import com.revenat.httpserver.io.config.IncrementalHttpRequestParser;
+import com.revenat.httpserver.io.config.IncrementalHttpRequestParser.Status;
+import com.revenat.httpserver.io.impl.HttpRequestProcessor.RequestSource;
+
+/**
+ * Represents state of the single client connection served by the
+ * {@link NioHttpServer}. All the methods of this class should be called from
+ * the thread of the {@link NioEventLoop} which owns the connection.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+class NioConnection {
+	private final SocketChannel channel;
+	private final SelectionKey key;
+	private final String remoteAddress;
+	private final HttpServerConfig httpServerConfig;
+	private final EventLoopStatistics eventLoopStatistics;
+	private final Queue<ByteBuffer> pendingWrites = new ArrayDeque<>();
+	/**
+	 * Created lazily when first bytes arrive, so idle connections cost as less
+	 * memory as possible.
+	 */
+	private IncrementalHttpRequestParser requestParser;
+	/**
+	 * Bytes of the next pipelined requests received together with the current
+	 * one, or {@code null} if there are no such bytes. Read buffer is shared by
+	 * all the connections of the event loop, so these bytes are copied.
+	 */
+	private ByteBuffer pendingInput;
+	private int requestCount;
+	private boolean keepAlive;
+	/**
+	 * Time when the last bytes were received or the last response was written.
+	 */
+	private long lastActiveTime;
+	/**
+	 * Time when the first bytes of the current request were received, or
+	 * {@code 0} if connection waits for the next request.
+	 */
+	private long requestStartTime;
+
+	NioConnection(SocketChannel channel, SelectionKey key, HttpServerConfig httpServerConfig,
+			EventLoopStatistics eventLoopStatistics) throws IOException {
+		this.channel = channel;
+		this.key = key;
+		this.remoteAddress = channel.getRemoteAddress().toString();
+		this.httpServerConfig = httpServerConfig;
+		this.eventLoopStatistics = eventLoopStatistics;
+		this.lastActiveTime = System.currentTimeMillis();
+	}
+
+	String getRemoteAddress() {
+		return remoteAddress;
+	}
+
+	/**
+	 * Reads available bytes from the client channel using specified buffer and
+	 * passes them to the request parser.
+	 * 
+	 * @return {@code false} if client closed connection, {@code true} otherwise
+	 */
+	boolean read(ByteBuffer readBuffer) throws IOException {
+		readBuffer.clear();
+		int readCount = channel.read(readBuffer);
+		if (readCount == -1) {
+			return false;
+		}
+		lastActiveTime = System.currentTimeMillis();
+		readBuffer.flip();
+		if (readBuffer.hasRemaining()) {
+			if (requestStartTime == 0) {
+				requestStartTime = lastActiveTime;
+			}
+			IncrementalHttpRequestParser parser = getRequestParser();
+			if (parser.getStatus() == Status.NEED_MORE && pendingInput == null) {
+				parser.parse(readBuffer);
+			}
+			if (readBuffer.hasRemaining()) {
+				addPendingInput(readBuffer);
+			}
+		}
+		return true;
+	}
+
+	private void addPendingInput(ByteBuffer readBuffer) {
+		int pendingCount = pendingInput != null ? pendingInput.remaining() : 0;
+		ByteBuffer input = ByteBuffer.allocate(pendingCount + readBuffer.remaining());
+		if (pendingInput != null) {
+			input.put(pendingInput);
+		}
+		input.put(readBuffer);
+		input.flip();
+		pendingInput = input;
+	}
+
+	/**
+	 * Returns {@code true} if complete (either valid or not) HTTP request was
+	 * received from the client.
+	 */
+	boolean hasCompleteRequest() {
+		if (requestParser == null) {
+			return false;
+		}
+		if (requestParser.getStatus() == Status.NEED_MORE && pendingInput != null) {
+			requestParser.parse(pendingInput);
+			if (!pendingInput.hasRemaining()) {
+				pendingInput = null;
+			}
+		}
+		return requestParser.getStatus() != Status.NEED_MORE;
+	}
+
+	/**
+	 * Removes complete HTTP request from this connection and returns it as the
+	 * {@link RequestSource}, which throws parse error if request is invalid.
+	 */
+	RequestSource takeRequest() {
+		requestCount++;
+		RequestSource requestSource = RequestSource.of(requestParser);
+		requestParser.reset();
+		requestStartTime = 0;
+		return requestSource;
+	}
+
+	/**
+	 * Suspends reading from the client while current request is being processed.
+	 */
+	void suspendReading() {
+		key.interestOps(0);
+	}
+
+	/**
+	 * Resumes reading from the client when response to the previous request was
+	 * written.
+	 */
+	void resumeReading() {
+		lastActiveTime = System.currentTimeMillis();
+		// Bytes of the next pipelined request are already received
+		requestStartTime = pendingInput != null ? lastActiveTime : 0;
+		key.interestOps(SelectionKey.OP_READ);
+	}
+
+	/**
+	 * Returns {@code true} if client takes too long to send the request, as
+	 * {@link TimeoutSocketInputStream} checks for the blocking server:
+	 * <ul>
+	 * <li>waiting for the request - longer than header read timeout for the
+	 * first request or keep-alive timeout for the next ones;</li>
+	 * <li>reading starting line and headers - longer than header read timeout
+	 * since the first byte, even if bytes arrive one by one;</li>
+	 * <li>reading body - longer than body read timeout since the last bytes.</li>
+	 * </ul>
+	 * Connection with request being processed or pending response is never
+	 * expired.
+	 */
+	boolean isExpired(long currentTime) {
+		if (!isWaitingForRequest()) {
+			return false;
+		}
+		if (requestStartTime == 0) {
+			int timeout = requestCount == 0 ? httpServerConfig.getHeaderReadTimeout()
+					: httpServerConfig.getKeepAliveTimeout();
+			return isElapsed(currentTime, lastActiveTime, timeout);
+		} else if (!requestParser.isHeadReceived()) {
+			return isElapsed(currentTime, requestStartTime, httpServerConfig.getHeaderReadTimeout());
+		} else {
+			return isElapsed(currentTime, lastActiveTime, httpServerConfig.getBodyReadTimeout());
+		}
+	}
+
+	private static boolean isElapsed(long currentTime, long startTime, int timeout) {
+		return timeout > 0 && currentTime - startTime > timeout;
+	}
+
+	/**
+	 * Returns {@code true} if connection has no request being processed and no
+	 * pending response.
+	 */
+	boolean isWaitingForRequest() {
+		return key.isValid() && key.interestOps() == SelectionKey.OP_READ;
+	}
+
+	/**
+	 * Returns number of requests received by this connection.
+	 */
+	int getRequestCount() {
+		return requestCount;
+	}
+
+	boolean isKeepAlive() {
+		return keepAlive;
+	}
+
+	void setKeepAlive(boolean keepAlive) {
+		this.keepAlive = keepAlive;
+	}
+
+	/**
+	 * Adds specified buffer to the queue of the buffers to write.
+	 */
+	void enqueueWrite(ByteBuffer buffer) {
+		pendingWrites.add(buffer);
+	}
+
+	/**
+	 * Writes as much pending bytes as client channel accepts without blocking.
+	 * 
+	 * @return {@code true} if all pending bytes were written, {@code false}
+	 *         otherwise
+	 */
+	boolean writePending() throws IOException {
+		while (!pendingWrites.isEmpty()) {
+			ByteBuffer buffer = pendingWrites.peek();
+			channel.write(buffer);
+			if (buffer.hasRemaining()) {
+				key.interestOps(SelectionKey.OP_WRITE);
+				return false;
+			}
+			pendingWrites.poll();
+		}
+		return true;
+	}
+
+	boolean isOpen() {
+		return channel.isOpen();
+	}
+
+	void close() {
+		key.cancel();
+		if (channel.isOpen()) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				/* ignore */
+			}
+			eventLoopStatistics.connectionClosed();
+		}
+	}
+
+	private IncrementalHttpRequestParser getRequestParser() {
+		if (requestParser == null) {
+			requestParser = httpServerConfig.buildNewIncrementalHttpRequestParser(remoteAddress);
+		}
+		return requestParser;
+	}
+}
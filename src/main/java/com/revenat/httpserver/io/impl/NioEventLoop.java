@@ -0,0 +1,395 @@
+package com.revenat.httpserver.io.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revenat.httpserver.io.EventLoopStatistics;
+import com.revenat.httpserver.io.config.HttpServerConfig;
+import com.revenat.httpserver.io.config.RejectionPolicy;
+import com.revenat.httpserver.io.exception.HttpServerException;
+import com.revenat.httpserver.io.impl.HttpRequestProcessor.RequestSource;
+
+/**
+ * Single event loop of the {@link NioHttpServer}. Event loop owns its own
+ * selector thread, read buffer and set of client connections. Connection
+ * assigned to the event loop stays on it for life: all the reads and writes of
+ * the connection are done by the same thread, so connection state is never
+ * shared between selector threads.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+class NioEventLoop {
+	private static final Logger LOGGER = LoggerFactory.getLogger(NioEventLoop.class);
+	private static final int READ_BUFFER_SIZE = 8192;
+	/**
+	 * How often (in milliseconds) connections are checked for expired
+	 * timeouts.
+	 */
+	private static final int EXPIRY_CHECK_INTERVAL = 1000;
+	/**
+	 * How often (in milliseconds) connections are checked while draining.
+	 */
+	private static final int DRAIN_CHECK_INTERVAL = 50;
+
+	private final HttpServerConfig httpServerConfig;
+	private final HttpRequestProcessor requestProcessor;
+	private final ExecutorService executorService;
+	private final boolean processingEnabled;
+	private final Thread thread;
+	private final Selector selector;
+	private final EventLoopStatistics statistics;
+	/**
+	 * Tasks submitted by other threads which should be executed in event loop thread.
+	 */
+	private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+	/**
+	 * Buffer shared by all connections of the event loop, since reading is done
+	 * in the event loop thread only.
+	 */
+	private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+
+	/**
+	 * @param name              name of the event loop thread
+	 * @param httpServerConfig  HTTP server configuration
+	 * @param requestProcessor  processor of the complete HTTP requests
+	 * @param executorService   worker threads processing requests, unless
+	 *                          requests are processed by the event loop thread
+	 */
+	NioEventLoop(String name, HttpServerConfig httpServerConfig, HttpRequestProcessor requestProcessor,
+			ExecutorService executorService) {
+		this.httpServerConfig = httpServerConfig;
+		this.requestProcessor = requestProcessor;
+		this.executorService = executorService;
+		this.processingEnabled = httpServerConfig.isEventLoopProcessingEnabled();
+		this.thread = createThread(name);
+		this.selector = openSelector();
+		this.statistics = httpServerConfig.getServerInfo().getStatistics().registerEventLoop(name);
+	}
+
+	private Thread createThread(String name) {
+		Thread eventLoopThread = new Thread(this::run, name);
+		eventLoopThread.setPriority(Thread.MAX_PRIORITY);
+		eventLoopThread.setDaemon(false);
+		return eventLoopThread;
+	}
+
+	private static Selector openSelector() {
+		try {
+			return Selector.open();
+		} catch (IOException e) {
+			throw new HttpServerException("Can not open selector", e);
+		}
+	}
+
+	/**
+	 * Returns number of client connections served by this event loop.
+	 */
+	int getConnectionCount() {
+		return statistics.getConnectionCount();
+	}
+
+	void start() {
+		thread.start();
+	}
+
+	/**
+	 * Stops event loop. Event loop keeps serving connections with in-flight
+	 * requests until their responses are written or shutdown timeout expires.
+	 */
+	void stop() {
+		thread.interrupt();
+		selector.wakeup();
+		if (thread.getState() == Thread.State.NEW) {
+			closeChannels();
+		}
+	}
+
+	/**
+	 * Waits for the event loop thread to finish.
+	 */
+	void join() throws InterruptedException {
+		if (thread.getState() != Thread.State.NEW) {
+			thread.join();
+		}
+	}
+
+	/**
+	 * Assigns specified accepted client channel to this event loop. Connection
+	 * is counted right away, so event loops can be compared by their load
+	 * before registration is done by the event loop thread.
+	 */
+	void register(SocketChannel channel) {
+		statistics.connectionOpened();
+		runInLoop(() -> {
+			try {
+				channel.configureBlocking(false);
+				SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+				key.attach(new NioConnection(channel, key, httpServerConfig, statistics));
+			} catch (IOException | ClosedSelectorException e) {
+				LOGGER.error("Can not register client socket: " + e.getMessage(), e);
+				try {
+					channel.close();
+				} catch (IOException ex) {/* ignore */}
+				statistics.connectionClosed();
+			}
+		});
+	}
+
+	private void run() {
+		boolean timeoutsEnabled = isTimeoutsEnabled();
+		long lastExpiryCheckTime = System.currentTimeMillis();
+		try {
+			while (!thread.isInterrupted()) {
+				selector.select(timeoutsEnabled ? EXPIRY_CHECK_INTERVAL : 0);
+				long iterationStart = System.nanoTime();
+				runTasks();
+				handleSelectedKeys();
+				long currentTime = System.currentTimeMillis();
+				if (timeoutsEnabled && currentTime - lastExpiryCheckTime >= EXPIRY_CHECK_INTERVAL) {
+					closeExpiredConnections(currentTime);
+					lastExpiryCheckTime = currentTime;
+				}
+				statistics.recordLoopLag(System.nanoTime() - iterationStart);
+			}
+		} catch (IOException | ClosedSelectorException e) {
+			LOGGER.error("Event loop failed: " + e.getMessage(), e);
+		} finally {
+			drainConnections();
+			closeChannels();
+		}
+	}
+
+	/**
+	 * Returns {@code true} if any of the keep-alive, header read or body read
+	 * timeouts is set, so connections have to be checked for expiry.
+	 */
+	private boolean isTimeoutsEnabled() {
+		return httpServerConfig.getKeepAliveTimeout() > 0 || httpServerConfig.getHeaderReadTimeout() > 0
+				|| httpServerConfig.getBodyReadTimeout() > 0;
+	}
+
+	/**
+	 * Keeps serving connections with in-flight requests or pending responses
+	 * until they are finished or shutdown timeout expires. Idle connections are
+	 * closed right away.
+	 */
+	private void drainConnections() {
+		long deadline = System.currentTimeMillis() + httpServerConfig.getShutdownTimeout();
+		try {
+			while (closeIdleConnections() && System.currentTimeMillis() < deadline) {
+				// Interruption is used as stop signal, clear it so select() can block
+				Thread.interrupted();
+				selector.select(DRAIN_CHECK_INTERVAL);
+				runTasks();
+				handleSelectedKeys();
+			}
+		} catch (IOException | ClosedSelectorException e) {
+			LOGGER.error("Event loop failed while draining: " + e.getMessage(), e);
+		}
+	}
+
+	private void handleSelectedKeys() {
+		Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+		while (keys.hasNext()) {
+			SelectionKey key = keys.next();
+			keys.remove();
+			handleKey(key);
+		}
+	}
+
+	private void handleKey(SelectionKey key) {
+		if (!key.isValid()) {
+			return;
+		}
+		NioConnection connection = (NioConnection) key.attachment();
+		try {
+			if (key.isReadable()) {
+				read(connection);
+			} else if (key.isWritable()) {
+				write(connection);
+			}
+		} catch (IOException e) {
+			LOGGER.debug("Client connection failed: {}", e.getMessage());
+			connection.close();
+		}
+	}
+
+	private void read(NioConnection connection) throws IOException {
+		if (!connection.read(readBuffer)) {
+			connection.close();
+		} else {
+			processNextRequest(connection);
+		}
+	}
+
+	/**
+	 * Processes next complete request received by the connection (if any) or
+	 * passes it to the worker threads. Connection doesn't read anything until
+	 * response to that request is written.
+	 */
+	private void processNextRequest(NioConnection connection) {
+		if (connection.hasCompleteRequest()) {
+			connection.suspendReading();
+			RequestSource request = connection.takeRequest();
+			boolean keepAliveAllowed = requestProcessor.isKeepAliveAllowed(connection.getRequestCount());
+			if (processingEnabled) {
+				processRequest(connection, request, keepAliveAllowed);
+			} else {
+				submitRequest(connection, request, keepAliveAllowed);
+			}
+		}
+	}
+
+	private void submitRequest(NioConnection connection, RequestSource request, boolean keepAliveAllowed) {
+		try {
+			executorService.execute(() -> processRequest(connection, request, keepAliveAllowed));
+		} catch (RejectedExecutionException e) {
+			if (executorService.isShutdown()) {
+				connection.close();
+			} else {
+				rejectRequest(connection);
+			}
+		}
+	}
+
+	/**
+	 * Applies configured {@link RejectionPolicy} to the request which can not be
+	 * processed because worker queue is full. {@link RejectionPolicy#CALLER_RUNS}
+	 * is treated as {@link RejectionPolicy#SERVICE_UNAVAILABLE}, since the
+	 * calling thread is the selector thread, and handler running there would
+	 * freeze all the connections of the event loop.
+	 */
+	private void rejectRequest(NioConnection connection) {
+		httpServerConfig.getServerInfo().getStatistics().incrementRejectedRequestCount();
+		RejectionPolicy rejectionPolicy = httpServerConfig.getRejectionPolicy();
+		LOGGER.warn("Worker queue is full, apply {} policy to client connection", rejectionPolicy);
+		if (rejectionPolicy == RejectionPolicy.CLOSE) {
+			connection.close();
+		} else {
+			respond(connection, ServiceUnavailableResponse.toByteBuffer(), false);
+		}
+	}
+
+	/**
+	 * Processes complete request and passes response bytes back to the event
+	 * loop thread, unless it is already the current thread.
+	 */
+	private void processRequest(NioConnection connection, RequestSource request, boolean keepAliveAllowed) {
+		ByteArrayOutputStream response = new ByteArrayOutputStream();
+		boolean keepAlive = false;
+		try {
+			keepAlive = requestProcessor.processRequest(connection.getRemoteAddress(),
+					request, response, keepAliveAllowed);
+		} catch (Exception e) {
+			LOGGER.error("Client request failed: " + e.getMessage(), e);
+		}
+		ByteBuffer responseBuffer = ByteBuffer.wrap(response.toByteArray());
+		if (Thread.currentThread() == thread) {
+			respond(connection, responseBuffer, keepAlive);
+		} else {
+			boolean keepConnection = keepAlive;
+			runInLoop(() -> respond(connection, responseBuffer, keepConnection));
+		}
+	}
+
+	private void respond(NioConnection connection, ByteBuffer response, boolean keepAlive) {
+		if (!connection.isOpen()) {
+			return;
+		}
+		connection.setKeepAlive(keepAlive);
+		connection.enqueueWrite(response);
+		try {
+			write(connection);
+		} catch (IOException e) {
+			LOGGER.debug("Client connection failed: {}", e.getMessage());
+			connection.close();
+		}
+	}
+
+	private void write(NioConnection connection) throws IOException {
+		if (connection.writePending()) {
+			if (connection.isKeepAlive()) {
+				connection.resumeReading();
+				processNextRequest(connection);
+			} else {
+				connection.close();
+			}
+		}
+	}
+
+	private void closeExpiredConnections(long currentTime) {
+		for (SelectionKey key : selector.keys()) {
+			if (key.attachment() instanceof NioConnection) {
+				NioConnection connection = (NioConnection) key.attachment();
+				if (connection.isExpired(currentTime)) {
+					LOGGER.debug("Close expired client connection: {}", connection.getRemoteAddress());
+					connection.close();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Closes connections which wait for the next request.
+	 * 
+	 * @return {@code true} if there are connections with in-flight requests or
+	 *         pending responses, {@code false} otherwise
+	 */
+	private boolean closeIdleConnections() {
+		boolean hasActiveConnections = false;
+		for (SelectionKey key : selector.keys()) {
+			if (key.attachment() instanceof NioConnection) {
+				NioConnection connection = (NioConnection) key.attachment();
+				if (connection.isWaitingForRequest()) {
+					connection.close();
+				} else if (connection.isOpen()) {
+					hasActiveConnections = true;
+				}
+			}
+		}
+		return hasActiveConnections;
+	}
+
+	private void runInLoop(Runnable task) {
+		tasks.add(task);
+		selector.wakeup();
+	}
+
+	private void runTasks() {
+		Runnable task;
+		while ((task = tasks.poll()) != null) {
+			task.run();
+		}
+	}
+
+	private void closeChannels() {
+		try {
+			if (selector.isOpen()) {
+				for (SelectionKey key : selector.keys()) {
+					if (key.attachment() instanceof NioConnection) {
+						((NioConnection) key.attachment()).close();
+					}
+				}
+				selector.close();
+			}
+		} catch (IOException | ClosedSelectorException e) {
+			LOGGER.warn("Error during closing selector: " + e.getMessage(), e);
+		}
+		// Channels waiting for registration are closed since selector is closed
+		runTasks();
+	}
+}
@@ -0,0 +1,261 @@
+package com.revenat.httpserver.io.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revenat.httpserver.io.AcceptorStatistics;
+import com.revenat.httpserver.io.HttpServer;
+import com.revenat.httpserver.io.config.HttpServerConfig;
+import com.revenat.httpserver.io.exception.HttpServerException;
+
+/**
+ * Implementation of the {@link HttpServer} which uses non-blocking io. Client
+ * connections are accepted by single acceptor thread and are served by several
+ * {@link NioEventLoop}s (one per available processor by default), each with
+ * its own selector thread. Accepted connection is assigned to the least loaded
+ * event loop and stays on it for life. Only complete HTTP requests are passed
+ * to the worker threads for processing, so idle (e.g. persistent) connections
+ * don't occupy any worker thread.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+class NioHttpServer implements HttpServer {
+	private static final Logger LOGGER = LoggerFactory.getLogger(NioHttpServer.class);
+	private static final String EVENT_LOOP_NAME_PREFIX = "NIO Event Loop-";
+
+	private final HttpServerConfig httpServerConfig;
+	private final HttpRequestProcessor requestProcessor;
+	private final ExecutorService executorService;
+	private final Thread acceptorThread;
+	private final ServerSocketChannel serverChannel;
+	private final List<NioEventLoop> eventLoops;
+	private final AcceptorStatistics acceptorStatistics;
+	/**
+	 * Position from which the least loaded event loop is looked for, so equally
+	 * loaded event loops get connections in turn. Used by acceptor thread only.
+	 */
+	private int nextEventLoopIndex;
+	private volatile boolean serverStopped;
+
+	NioHttpServer(HttpServerConfig httpServerConfig) {
+		this.httpServerConfig = requireNonNull(httpServerConfig, "HttpServerConfig can not be null");
+		this.requestProcessor = new HttpRequestProcessor(httpServerConfig);
+		this.executorService = createExecutorService();
+		this.acceptorThread = createAcceptorThread(this::runAcceptorLoop);
+		this.serverChannel = createServerChannel();
+		this.eventLoops = createEventLoops();
+		this.acceptorStatistics = httpServerConfig.getServerInfo().getStatistics()
+				.registerAcceptor(acceptorThread.getName());
+		this.serverStopped = false;
+	}
+
+	/**
+	 * Creates {@link ExecutorService} responsible for managing server's worker threads.
+	 */
+	protected ExecutorService createExecutorService() {
+		return WorkerExecutors.create(httpServerConfig);
+	}
+
+	/**
+	 * Creates thread which accepts client connections.
+	 * 
+	 * @param job {@link Runnable} with accept loop
+	 */
+	protected Thread createAcceptorThread(Runnable job) {
+		Thread thread = new Thread(job, "NIO Acceptor Thread");
+		thread.setPriority(Thread.MAX_PRIORITY);
+		thread.setDaemon(false);
+		return thread;
+	}
+
+	/**
+	 * Creates event loops serving client connections.
+	 */
+	protected List<NioEventLoop> createEventLoops() {
+		int eventLoopCount = httpServerConfig.getEventLoopCount();
+		if (eventLoopCount == 0) {
+			eventLoopCount = Runtime.getRuntime().availableProcessors();
+		}
+		List<NioEventLoop> loops = new ArrayList<>(eventLoopCount);
+		for (int i = 1; i <= eventLoopCount; i++) {
+			loops.add(new NioEventLoop(EVENT_LOOP_NAME_PREFIX + i, httpServerConfig, requestProcessor,
+					executorService));
+		}
+		return loops;
+	}
+
+	/**
+	 * Creates HTTP server channel. Channel stays in blocking mode, since it's
+	 * used by acceptor thread only.
+	 */
+	protected ServerSocketChannel createServerChannel() {
+		int serverPort = httpServerConfig.getServerInfo().getPort();
+		ServerSocketChannel channel = null;
+		try {
+			channel = ServerSocketChannel.open();
+			ServerSockets.configure(channel, false, httpServerConfig.getSocketReceiveBufferSize());
+			channel.bind(new InetSocketAddress(serverPort), httpServerConfig.getSocketBacklog());
+			return channel;
+		} catch (IOException e) {
+			if (channel != null) {
+				try {
+					channel.close();
+				} catch (IOException ex) {/* ignore */}
+			}
+			throw new HttpServerException("Can not create server socket with port=" + serverPort, e);
+		}
+	}
+
+	@Override
+	public void start() {
+		if (acceptorThread.getState() != Thread.State.NEW) {
+			throw new HttpServerException("Current HTTP server already started or stopped!"
+					+ " Please create a new HTTP server instance.");
+		}
+		Runtime.getRuntime().addShutdownHook(getShutdownHook());
+		for (NioEventLoop eventLoop : eventLoops) {
+			eventLoop.start();
+		}
+		acceptorThread.start();
+		LOGGER.info("NIO HTTP server started with {} event loops: {}", eventLoops.size(),
+				httpServerConfig.getServerInfo());
+	}
+
+	@Override
+	public void stop() {
+		LOGGER.info("Detect stop cmd");
+		acceptorThread.interrupt();
+		closeServerChannel();
+		if (acceptorThread.getState() == Thread.State.NEW) {
+			for (NioEventLoop eventLoop : eventLoops) {
+				eventLoop.stop();
+			}
+		}
+	}
+
+	private void runAcceptorLoop() {
+		try {
+			while (!acceptorThread.isInterrupted() && serverChannel.isOpen()) {
+				accept();
+			}
+		} finally {
+			stopEventLoops();
+			destroyHttpServer();
+		}
+	}
+
+	private void accept() {
+		SocketChannel channel = null;
+		try {
+			channel = serverChannel.accept();
+			acceptorStatistics.incrementAcceptedConnectionCount();
+			ServerSockets.configureClientChannel(channel, httpServerConfig);
+			nextEventLoop().register(channel);
+		} catch (ClosedChannelException e) {
+			// Server channel is closed by stop()
+		} catch (IOException e) {
+			LOGGER.error("Can not accept client socket: " + e.getMessage(), e);
+			if (channel != null) {
+				try {
+					channel.close();
+				} catch (IOException ex) {/* ignore */}
+			}
+		}
+	}
+
+	/**
+	 * Returns event loop with the least number of connections.
+	 */
+	private NioEventLoop nextEventLoop() {
+		int size = eventLoops.size();
+		NioEventLoop result = eventLoops.get(nextEventLoopIndex);
+		for (int i = 1; i < size; i++) {
+			NioEventLoop eventLoop = eventLoops.get((nextEventLoopIndex + i) % size);
+			if (eventLoop.getConnectionCount() < result.getConnectionCount()) {
+				result = eventLoop;
+			}
+		}
+		nextEventLoopIndex = (nextEventLoopIndex + 1) % size;
+		return result;
+	}
+
+	/**
+	 * Stops accepting new connections and waits for event loops to finish
+	 * in-flight requests of their connections. Idle connections are closed
+	 * right away.
+	 */
+	private void stopEventLoops() {
+		httpServerConfig.getServerInfo().getStatistics().startDraining();
+		closeServerChannel();
+		for (NioEventLoop eventLoop : eventLoops) {
+			eventLoop.stop();
+		}
+		// Interruption is used as stop signal, clear it so event loops can be waited for
+		Thread.interrupted();
+		try {
+			for (NioEventLoop eventLoop : eventLoops) {
+				eventLoop.join();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void closeServerChannel() {
+		try {
+			serverChannel.close();
+		} catch (IOException e) {
+			LOGGER.warn("Error during closing HTTP server channel: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Creates thread responsible for gracefully closing HTTP server
+	 * on JVM exit event.
+	 */
+	protected Thread getShutdownHook() {
+		return new Thread(() -> {
+			if (!serverStopped) {
+				// Acceptor thread drains in-flight requests when it is stopped
+				stop();
+				try {
+					acceptorThread.join();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}, "ShutdownHook");
+	}
+
+	/**
+	 * Gracefully closes HTTP server resources and sets {@code serverStopped} flag
+	 * to {@code true}. Resources used by in-flight requests (e.g. data source of
+	 * the HttpServerConfig) are closed only after they are finished.
+	 */
+	protected void destroyHttpServer() {
+		WorkerExecutors.drain(executorService, httpServerConfig);
+		try {
+			httpServerConfig.close();
+		} catch (Exception e) {
+			LOGGER.error("Close httpServerConfig failed: " + e.getMessage(), e);
+		}
+		LOGGER.info("NIO HTTP Server stopped");
+		serverStopped = true;
+	}
+
+	protected boolean isServerStopped() {
+		return serverStopped;
+	}
+}
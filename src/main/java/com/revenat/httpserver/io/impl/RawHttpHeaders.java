@@ -0,0 +1,134 @@
+package com.revenat.httpserver.io.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.revenat.httpserver.io.utils.HeaderNames;
+
+/**
+ * Read-only view of the HTTP request headers backed by their raw bytes. Names
+ * and values are stored one after another in the single array, and the offset
+ * table keeps boundaries of each of them, so no strings are created during
+ * parsing.
+ * <p>
+ * Lookup with {@link #get(Object)} is case-insensitive, compares bytes with the
+ * requested name directly and decodes only the value found. If header is
+ * repeated, its last value is returned. Full map with the normalized header
+ * names (e.g. {@code Content-Length}) is built only when headers are iterated.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+final class RawHttpHeaders extends AbstractMap<String, String> {
+	/**
+	 * Number of offsets per header: name start, name end, value start, value end.
+	 */
+	static final int OFFSETS_PER_HEADER = 4;
+
+	private final byte[] data;
+	private final int[] offsets;
+	private final int count;
+	/**
+	 * Values decoded so far, created on first access.
+	 */
+	private String[] values;
+	/**
+	 * Map of all the headers, created on first iteration.
+	 */
+	private Set<Map.Entry<String, String>> entrySet;
+
+	/**
+	 * @param data    bytes of the header names and values
+	 * @param offsets {@link #OFFSETS_PER_HEADER} offsets in the {@code data} per
+	 *                header
+	 * @param count   number of headers
+	 */
+	RawHttpHeaders(byte[] data, int[] offsets, int count) {
+		this.data = data;
+		this.offsets = offsets;
+		this.count = count;
+	}
+
+	@Override
+	public String get(Object key) {
+		if (key instanceof String) {
+			int index = lastIndexOf((String) key);
+			if (index != -1) {
+				return getValue(index);
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof String && lastIndexOf((String) key) != -1;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	@Override
+	public Set<Map.Entry<String, String>> entrySet() {
+		if (entrySet == null) {
+			Map<String, String> headers = new LinkedHashMap<>();
+			for (int i = 0; i < count; i++) {
+				headers.put(getName(i), getValue(i));
+			}
+			entrySet = Collections.unmodifiableMap(headers).entrySet();
+		}
+		return entrySet;
+	}
+
+	private int lastIndexOf(String name) {
+		for (int i = count - 1; i >= 0; i--) {
+			if (nameEqualsIgnoreCase(i, name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private boolean nameEqualsIgnoreCase(int index, String name) {
+		int start = offsets[index * OFFSETS_PER_HEADER];
+		int end = offsets[index * OFFSETS_PER_HEADER + 1];
+		if (end - start != name.length()) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (toLowerCase((char) (data[i] & 0xFF)) != toLowerCase(name.charAt(i - start))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static char toLowerCase(char ch) {
+		return ch >= 'A' && ch <= 'Z' ? (char) (ch + ('a' - 'A')) : ch;
+	}
+
+	private String getValue(int index) {
+		if (values == null) {
+			values = new String[count];
+		}
+		String value = values[index];
+		if (value == null) {
+			int start = offsets[index * OFFSETS_PER_HEADER + 2];
+			int end = offsets[index * OFFSETS_PER_HEADER + 3];
+			value = new String(data, start, end - start, StandardCharsets.UTF_8);
+			values[index] = value;
+		}
+		return value;
+	}
+
+	private String getName(int index) {
+		return HeaderNames.canonicalize(data, offsets[index * OFFSETS_PER_HEADER],
+				offsets[index * OFFSETS_PER_HEADER + 1]);
+	}
+}
@@ -0,0 +1,273 @@
+package com.revenat.httpserver.io.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import com.revenat.httpserver.io.HttpResponse;
+import com.revenat.httpserver.io.config.ReadableHttpResponse;
+import com.revenat.httpserver.io.utils.HeaderNames;
+
+/**
+ * Body of the HTTP response written by the handler through
+ * {@link HttpResponse#getOutputStream()}, which is sent to the client as it is
+ * written. Bytes are collected in the fixed-size buffer first: if the whole
+ * body fits it, response is sent as usual (with {@code Content-Length}) once
+ * handler returns. Otherwise status line and headers are written as soon as
+ * buffer is full or stream is flushed, and body follows them with
+ * {@code Transfer-Encoding: chunked}, one chunk per buffer, so response of
+ * any size takes constant memory.
+ * <p>
+ * If handler set {@code Content-Length} header itself, body is written as is.
+ * The same is done for the clients which don't support chunked coding
+ * (HTTP/1.0), but then connection is closed to mark the end of the body.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+class ResponseBodyOutputStream extends OutputStream {
+	private static final int BUFFER_SIZE = 8192;
+	private static final byte[] CRLF = { '\r', '\n' };
+	private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * Callback which writes status line and headers of the response to the
+	 * client.
+	 */
+	@FunctionalInterface
+	interface HeadWriter {
+		/**
+		 * @param persistent {@code false} if connection has to be closed to mark
+		 *                   the end of the body, {@code true} otherwise
+		 */
+		void writeHead(boolean persistent) throws IOException;
+	}
+
+	private final ReadableHttpResponse response;
+	private final OutputStream clientOutput;
+	private final HeadWriter headWriter;
+	private final boolean bodyAllowed;
+	private final boolean chunkedAllowed;
+	private byte[] buffer;
+	private int count;
+	/**
+	 * Total number of bytes written by the handler.
+	 */
+	private long size;
+	private boolean committed;
+	private boolean chunked;
+	/**
+	 * Length declared by the handler, {@code -1} if unknown.
+	 */
+	private long contentLength = -1;
+	private boolean closed;
+
+	/**
+	 * @param response       response which body is written
+	 * @param clientOutput   stream of the client connection
+	 * @param headWriter     callback writing the head of the response
+	 * @param bodyAllowed    {@code false} if body is not sent (response to
+	 *                       {@code HEAD} request), {@code true} otherwise
+	 * @param chunkedAllowed whether client supports chunked transfer coding
+	 */
+	ResponseBodyOutputStream(ReadableHttpResponse response, OutputStream clientOutput, HeadWriter headWriter,
+			boolean bodyAllowed, boolean chunkedAllowed) {
+		this.response = response;
+		this.clientOutput = clientOutput;
+		this.headWriter = headWriter;
+		this.bodyAllowed = bodyAllowed;
+		this.chunkedAllowed = chunkedAllowed;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		checkNotClosed();
+		ensureBuffer();
+		if (count == buffer.length) {
+			drainBuffer();
+		}
+		buffer[count++] = (byte) b;
+		size++;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		checkNotClosed();
+		ensureBuffer();
+		if (len >= buffer.length) {
+			// Large data is sent right away as a single chunk
+			drainBuffer();
+			writeData(b, off, len);
+		} else {
+			if (len > buffer.length - count) {
+				drainBuffer();
+			}
+			System.arraycopy(b, off, buffer, count, len);
+			count += len;
+		}
+		size += len;
+	}
+
+	/**
+	 * Sends status line, headers and buffered part of the body to the client.
+	 */
+	@Override
+	public void flush() throws IOException {
+		checkNotClosed();
+		drainBuffer();
+		flushClientOutput();
+	}
+
+	/**
+	 * Marks stream as closed without completing the body, which is done by the
+	 * server once handler returns.
+	 * 
+	 * @see #finish()
+	 */
+	@Override
+	public void close() {
+		closed = true;
+	}
+
+	/**
+	 * Returns {@code true} if status line and headers are already sent, so
+	 * response can't be changed anymore.
+	 */
+	boolean isCommitted() {
+		return committed;
+	}
+
+	/**
+	 * Returns {@code false} if connection has to be closed after the body is
+	 * sent, {@code true} otherwise.
+	 */
+	boolean isPersistent() {
+		return !committed || chunked || contentLength != -1;
+	}
+
+	/**
+	 * Returns total number of bytes written by the handler.
+	 */
+	long getSize() {
+		return size;
+	}
+
+	/**
+	 * Discards body written so far, if response is not committed yet (e.g. to
+	 * send error response instead).
+	 */
+	void discard() {
+		if (!committed) {
+			count = 0;
+			size = 0;
+		}
+	}
+
+	/**
+	 * Completes the body once handler returns. If response is not committed,
+	 * buffered body (if any) is set as the regular body of the response, which
+	 * is then sent as usual. Otherwise the rest of the body and the last chunk
+	 * are sent to the client.
+	 * 
+	 * @throws IOException if body length doesn't match {@code Content-Length}
+	 *                     declared by the handler
+	 */
+	void finish() throws IOException {
+		closed = true;
+		if (!committed) {
+			if (size > 0) {
+				response.setBody(new ByteArrayInputStream(buffer, 0, count));
+			}
+			return;
+		}
+		if (count > 0) {
+			writeData(buffer, 0, count);
+			count = 0;
+		}
+		if (bodyAllowed) {
+			if (chunked) {
+				clientOutput.write(LAST_CHUNK);
+			} else if (contentLength != -1 && contentLength != size) {
+				throw new IOException(
+						"Response body length " + size + " doesn't match Content-Length " + contentLength);
+			}
+		}
+		clientOutput.flush();
+	}
+
+	private void ensureBuffer() {
+		if (buffer == null) {
+			buffer = new byte[BUFFER_SIZE];
+		}
+	}
+
+	private void drainBuffer() throws IOException {
+		commit();
+		if (count > 0) {
+			writeData(buffer, 0, count);
+			count = 0;
+		}
+	}
+
+	/**
+	 * Chooses how the end of the body is marked and writes status line and
+	 * headers, once per response.
+	 */
+	private void commit() throws IOException {
+		if (committed) {
+			return;
+		}
+		contentLength = getDeclaredContentLength();
+		if (contentLength == -1 && chunkedAllowed) {
+			chunked = true;
+			response.setHeader(HeaderNames.TRANSFER_ENCODING, "chunked");
+		}
+		committed = true;
+		headWriter.writeHead(isPersistent());
+	}
+
+	private long getDeclaredContentLength() {
+		String value = response.getHeaders().get(HeaderNames.CONTENT_LENGTH);
+		if (value != null) {
+			try {
+				return Long.parseLong(value.trim());
+			} catch (NumberFormatException e) {
+				// Invalid length is ignored, as if it was not declared
+			}
+		}
+		return -1;
+	}
+
+	private void writeData(byte[] b, int off, int len) throws IOException {
+		if (!bodyAllowed || len == 0) {
+			return;
+		}
+		if (chunked) {
+			clientOutput.write(Integer.toHexString(len).getBytes(StandardCharsets.US_ASCII));
+			clientOutput.write(CRLF);
+			clientOutput.write(b, off, len);
+			clientOutput.write(CRLF);
+		} else {
+			clientOutput.write(b, off, len);
+		}
+	}
+
+	/**
+	 * Passes bytes to the client right away, even if client stream batches
+	 * responses.
+	 */
+	private void flushClientOutput() throws IOException {
+		if (clientOutput instanceof BatchingOutputStream) {
+			((BatchingOutputStream) clientOutput).flushBatch();
+		} else {
+			clientOutput.flush();
+		}
+	}
+
+	private void checkNotClosed() throws IOException {
+		if (closed) {
+			throw new IOException("Stream is closed");
+		}
+	}
+}
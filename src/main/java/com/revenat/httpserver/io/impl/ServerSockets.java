@@ -0,0 +1,133 @@
+package com.revenat.httpserver.io.impl;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.SocketOption;
+import java.net.StandardSocketOptions;
+import java.nio.channels.NetworkChannel;
+import java.nio.channels.ServerSocketChannel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revenat.httpserver.io.config.HttpServerConfig;
+
+/**
+ * Utility class responsible for creating HTTP server's listening sockets.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+final class ServerSockets {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ServerSockets.class);
+	private static final String REUSE_PORT_OPTION_NAME = "SO_REUSEPORT";
+
+	/**
+	 * Creates server socket bound to the specified port. If {@code reusePort}
+	 * is {@code true} socket is created with {@code SO_REUSEPORT} option, so
+	 * several sockets can listen to the same port and kernel distributes
+	 * incoming connections among them.
+	 * 
+	 * @param port              port to bind socket to
+	 * @param reusePort         whether {@code SO_REUSEPORT} option should be set
+	 * @param backlog           max length of the queue of incoming connections,
+	 *                          {@code 0} means platform default
+	 * @param receiveBufferSize {@code SO_RCVBUF} size for the accepted sockets,
+	 *                          {@code 0} means platform default
+	 */
+	static ServerSocket open(int port, boolean reusePort, int backlog, int receiveBufferSize) throws IOException {
+		if (reusePort && isReusePortSupported()) {
+			return openWithReusePort(port, backlog, receiveBufferSize);
+		}
+		if (reusePort) {
+			LOGGER.warn("SO_REUSEPORT is not supported by current platform, listening socket is shared instead");
+		}
+		ServerSocket socket = new ServerSocket();
+		try {
+			socket.setReuseAddress(true);
+			// Buffers larger than 64K require TCP window scaling negotiated during
+			// handshake, so receive buffer should be set before binding
+			if (receiveBufferSize > 0) {
+				socket.setReceiveBufferSize(receiveBufferSize);
+			}
+			socket.bind(new InetSocketAddress(port), backlog);
+			return socket;
+		} catch (IOException | RuntimeException e) {
+			socket.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns {@code true} if {@code SO_REUSEPORT} option is supported by the
+	 * current JVM (Java 9+) and platform (e.g. Linux).
+	 */
+	static boolean isReusePortSupported() {
+		SocketOption<Boolean> reusePort = getReusePortOption();
+		if (reusePort == null) {
+			return false;
+		}
+		try (ServerSocketChannel channel = ServerSocketChannel.open()) {
+			return channel.supportedOptions().contains(reusePort);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static ServerSocket openWithReusePort(int port, int backlog, int receiveBufferSize) throws IOException {
+		ServerSocketChannel channel = ServerSocketChannel.open();
+		try {
+			configure(channel, true, receiveBufferSize);
+			channel.bind(new InetSocketAddress(port), backlog);
+			return channel.socket();
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Sets options of the server channel which should be set before binding.
+	 */
+	static void configure(NetworkChannel channel, boolean reusePort, int receiveBufferSize)
+			throws IOException {
+		channel.setOption(StandardSocketOptions.SO_REUSEADDR, Boolean.TRUE);
+		if (reusePort) {
+			channel.setOption(getReusePortOption(), Boolean.TRUE);
+		}
+		if (receiveBufferSize > 0) {
+			channel.setOption(StandardSocketOptions.SO_RCVBUF, receiveBufferSize);
+		}
+	}
+
+	/**
+	 * Sets options of the accepted client channel according to the specified
+	 * {@link HttpServerConfig}.
+	 */
+	static void configureClientChannel(NetworkChannel channel, HttpServerConfig httpServerConfig)
+			throws IOException {
+		if (httpServerConfig.isTcpNoDelayEnabled()) {
+			channel.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+		}
+		if (httpServerConfig.getSocketSendBufferSize() > 0) {
+			channel.setOption(StandardSocketOptions.SO_SNDBUF, httpServerConfig.getSocketSendBufferSize());
+		}
+	}
+
+	/**
+	 * {@code StandardSocketOptions.SO_REUSEPORT} is available since Java 9, so
+	 * it's obtained reflectively to keep Java 8 compatibility.
+	 */
+	@SuppressWarnings("unchecked")
+	private static SocketOption<Boolean> getReusePortOption() {
+		try {
+			return (SocketOption<Boolean>) StandardSocketOptions.class.getField(REUSE_PORT_OPTION_NAME).get(null);
+		} catch (NoSuchFieldException | IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	private ServerSockets() {
+	}
+}
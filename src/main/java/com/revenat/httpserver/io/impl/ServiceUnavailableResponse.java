@@ -0,0 +1,47 @@
+package com.revenat.httpserver.io.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.revenat.httpserver.io.Constants;
+
+/**
+ * Pre-encoded {@code 503 Service Unavailable} response, which is sent to the
+ * client when HTTP server is overloaded. Since it is written directly to the
+ * client connection, rejecting client doesn't cost any request parsing or
+ * response building.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+final class ServiceUnavailableResponse {
+	/**
+	 * How long (in seconds) client should wait before retrying the request
+	 */
+	static final int RETRY_AFTER_SECONDS = 1;
+
+	private static final byte[] CONTENT = (Constants.HTTP_VERSION + " 503 Service Unavailable\r\n"
+			+ "Retry-After: " + RETRY_AFTER_SECONDS + "\r\n"
+			+ "Content-Length: 0\r\n"
+			+ "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * Writes response to the specified stream.
+	 */
+	static void writeTo(OutputStream out) throws IOException {
+		out.write(CONTENT);
+		out.flush();
+	}
+
+	/**
+	 * Returns new read-only buffer with response content.
+	 */
+	static ByteBuffer toByteBuffer() {
+		return ByteBuffer.wrap(CONTENT).asReadOnlyBuffer();
+	}
+
+	private ServiceUnavailableResponse() {
+	}
+}
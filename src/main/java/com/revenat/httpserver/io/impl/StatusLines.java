@@ -0,0 +1,57 @@
+package com.revenat.httpserver.io.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Properties;
+
+import com.revenat.httpserver.io.utils.HttpUtils;
+
+/**
+ * Status messages and encoded status lines of the HTTP responses, built once
+ * from the statuses configuration and indexed by the status code, so they are
+ * looked up by all the worker threads without locks or allocation. Codes
+ * without configured message get the message of the {@code 500} status.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+final class StatusLines {
+	private static final int MIN_STATUS_CODE = 100;
+	private static final int MAX_STATUS_CODE = 599;
+
+	private final String defaultMessage;
+	private final String[] messages = new String[MAX_STATUS_CODE + 1];
+	private final byte[][] lines = new byte[MAX_STATUS_CODE + 1][];
+
+	/**
+	 * @param statuses status codes mapped to their messages
+	 */
+	StatusLines(Properties statuses) {
+		requireNonNull(statuses, "Statuses can not be null");
+		this.defaultMessage = statuses.getProperty("500");
+		for (int statusCode = MIN_STATUS_CODE; statusCode <= MAX_STATUS_CODE; statusCode++) {
+			String message = statuses.getProperty(String.valueOf(statusCode));
+			messages[statusCode] = message != null ? message : defaultMessage;
+			lines[statusCode] = HttpUtils.encodeStatusLine(statusCode, messages[statusCode]);
+		}
+	}
+
+	/**
+	 * Returns message of the specified status code.
+	 */
+	String getMessage(int statusCode) {
+		return isInRange(statusCode) ? messages[statusCode] : defaultMessage;
+	}
+
+	/**
+	 * Returns status line of the specified status code with {@code CRLF} at
+	 * the end. Returned array is shared, so it must not be modified.
+	 */
+	byte[] getLine(int statusCode) {
+		return isInRange(statusCode) ? lines[statusCode] : HttpUtils.encodeStatusLine(statusCode, defaultMessage);
+	}
+
+	private static boolean isInRange(int statusCode) {
+		return statusCode >= MIN_STATUS_CODE && statusCode <= MAX_STATUS_CODE;
+	}
+}
@@ -0,0 +1,140 @@
+package com.revenat.httpserver.io.impl;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+
+/**
+ * Client socket {@link java.io.InputStream} which protects worker thread from
+ * slow clients by adjusting socket read timeout ({@code SO_TIMEOUT}) according
+ * to the stage of the HTTP request being read:
+ * <ul>
+ * <li>while waiting for the first byte of the request - idle timeout (e.g.
+ * keep-alive timeout);</li>
+ * <li>while reading starting line and headers - time remaining till the header
+ * deadline, so client can't hold connection by sending headers byte by
+ * byte;</li>
+ * <li>while reading body - body read timeout for each read.</li>
+ * </ul>
+ * End of the headers is detected by looking for the empty line in the bytes
+ * read from the socket, so this stream should be placed under any buffering
+ * stream.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+class TimeoutSocketInputStream extends FilterInputStream {
+	private static final byte[] HEADERS_END = { '\r', '\n', '\r', '\n' };
+
+	private enum Stage {
+		IDLE, HEADERS, BODY
+	}
+
+	private final Socket socket;
+	private final int headerTimeout;
+	private final int bodyTimeout;
+	private Stage stage;
+	private int idleTimeout;
+	private long headerDeadline;
+	/**
+	 * Number of bytes of the {@link #HEADERS_END} sequence matched so far
+	 */
+	private int headersEndMatched;
+	private int currentTimeout;
+
+	/**
+	 * @param socket        client socket to read from
+	 * @param headerTimeout deadline (in milliseconds) for starting line and
+	 *                      headers, {@code 0} means no limit
+	 * @param bodyTimeout   timeout (in milliseconds) of each body read,
+	 *                      {@code 0} means no limit
+	 */
+	TimeoutSocketInputStream(Socket socket, int headerTimeout, int bodyTimeout) throws IOException {
+		super(socket.getInputStream());
+		this.socket = socket;
+		this.headerTimeout = headerTimeout;
+		this.bodyTimeout = bodyTimeout;
+		this.currentTimeout = 0;
+		awaitRequest(headerTimeout);
+	}
+
+	/**
+	 * Prepares stream to read the next HTTP request.
+	 * 
+	 * @param idleTimeout how long (in milliseconds) to wait for the first byte of
+	 *                    the request, {@code 0} means no limit
+	 */
+	void awaitRequest(int idleTimeout) throws SocketException {
+		this.stage = Stage.IDLE;
+		this.idleTimeout = idleTimeout;
+		this.headersEndMatched = 0;
+		applyTimeout(idleTimeout);
+	}
+
+	@Override
+	public int read() throws IOException {
+		byte[] b = new byte[1];
+		int read = read(b, 0, 1);
+		return read == -1 ? -1 : b[0] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		applyTimeout(getStageTimeout());
+		int read = in.read(b, off, len);
+		if (read > 0) {
+			onBytesRead(b, off, read);
+		}
+		return read;
+	}
+
+	private int getStageTimeout() throws SocketTimeoutException {
+		switch (stage) {
+		case IDLE:
+			return idleTimeout;
+		case HEADERS:
+			if (headerTimeout == 0) {
+				return 0;
+			}
+			long remaining = headerDeadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				throw new SocketTimeoutException("Request headers were not received in " + headerTimeout + " ms");
+			}
+			return (int) remaining;
+		default:
+			return bodyTimeout;
+		}
+	}
+
+	private void onBytesRead(byte[] b, int off, int len) {
+		if (stage == Stage.IDLE) {
+			stage = Stage.HEADERS;
+			headerDeadline = System.currentTimeMillis() + headerTimeout;
+		}
+		if (stage == Stage.HEADERS) {
+			for (int i = off; i < off + len; i++) {
+				if (b[i] == HEADERS_END[headersEndMatched]) {
+					headersEndMatched++;
+				} else {
+					headersEndMatched = b[i] == HEADERS_END[0] ? 1 : 0;
+				}
+				if (headersEndMatched == HEADERS_END.length) {
+					stage = Stage.BODY;
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Changes socket timeout only if it differs from the current one.
+	 */
+	private void applyTimeout(int timeout) throws SocketException {
+		if (timeout != currentTimeout) {
+			socket.setSoTimeout(timeout);
+			currentTimeout = timeout;
+		}
+	}
+}
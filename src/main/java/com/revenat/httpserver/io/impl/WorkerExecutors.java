@@ -0,0 +1,146 @@
+package com.revenat.httpserver.io.impl;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revenat.httpserver.io.ServerInfo;
+import com.revenat.httpserver.io.ServerStatistics;
+import com.revenat.httpserver.io.config.HttpServerConfig;
+import com.revenat.httpserver.io.config.RejectionPolicy;
+import com.revenat.httpserver.io.exception.HttpServerConfigException;
+
+/**
+ * Utility class responsible for creating {@link ExecutorService} instances
+ * that manage HTTP server's worker threads. Shared by all the HTTP server
+ * engines.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+final class WorkerExecutors {
+	private static final Logger LOGGER = LoggerFactory.getLogger(WorkerExecutors.class);
+	private static final String VIRTUAL_THREAD_EXECUTOR_FACTORY_METHOD = "newVirtualThreadPerTaskExecutor";
+	/**
+	 * How often (in milliseconds) in-flight requests are checked while draining.
+	 */
+	private static final long DRAIN_CHECK_INTERVAL = 50;
+
+	/**
+	 * Creates {@link ExecutorService} according to the settings of the given
+	 * {@link HttpServerConfig}: executor that starts new virtual thread for each
+	 * task if virtual threads are enabled, otherwise fixed thread pool with the
+	 * worker queue of configured capacity if thread count is greater than
+	 * {@code 0}, cached thread pool otherwise. Size of the worker queue is
+	 * exposed via {@link ServerStatistics}.
+	 * <p>
+	 * Executor throws {@link RejectedExecutionException} when its queue is full,
+	 * so HTTP server can apply configured {@link RejectionPolicy}.
+	 * 
+	 * @throws HttpServerConfigException if virtual threads are enabled but not
+	 *                                   supported by the current JVM
+	 */
+	static ExecutorService create(HttpServerConfig httpServerConfig) {
+		if (httpServerConfig.isVirtualThreadsEnabled()) {
+			return createVirtualThreadExecutor();
+		}
+		ThreadFactory threadFactory = httpServerConfig.getWorkerThreadFactory();
+		ServerInfo serverInfo = httpServerConfig.getServerInfo();
+		int threadCount = serverInfo.getThreadCount();
+		ThreadPoolExecutor executor;
+		if (threadCount > 0) {
+			executor = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+					createWorkerQueue(httpServerConfig.getWorkerQueueCapacity()), threadFactory);
+		} else {
+			executor = (ThreadPoolExecutor) Executors.newCachedThreadPool(threadFactory);
+		}
+		BlockingQueue<Runnable> workerQueue = executor.getQueue();
+		serverInfo.getStatistics().setWorkerQueueSize(workerQueue::size);
+		return executor;
+	}
+
+	/**
+	 * Stops executor accepting new tasks and waits up to
+	 * {@link HttpServerConfig#getShutdownTimeout()} milliseconds till all the
+	 * in-flight and queued requests are processed. Requests which are still
+	 * in-flight after that are aborted by interrupting worker threads. Number
+	 * of drained and aborted requests is recorded in {@link ServerStatistics}.
+	 * <p>
+	 * Worker threads waiting for the next request on the persistent connection
+	 * don't delay the shutdown.
+	 */
+	static void drain(ExecutorService executorService, HttpServerConfig httpServerConfig) {
+		ServerStatistics statistics = httpServerConfig.getServerInfo().getStatistics();
+		statistics.startDraining();
+		long processedBefore = statistics.getProcessedRequestCount();
+		executorService.shutdown();
+		long deadline = System.currentTimeMillis() + httpServerConfig.getShutdownTimeout();
+		try {
+			while (hasPendingRequests(statistics) && System.currentTimeMillis() < deadline) {
+				if (executorService.awaitTermination(DRAIN_CHECK_INTERVAL, TimeUnit.MILLISECONDS)) {
+					break;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		long aborted = statistics.getInFlightRequestCount() + statistics.getWorkerQueueSize();
+		executorService.shutdownNow();
+		long drained = statistics.getProcessedRequestCount() - processedBefore;
+		statistics.setDrainResult(drained, aborted);
+		LOGGER.info("Drained {} in-flight requests, aborted {}", drained, aborted);
+	}
+
+	private static boolean hasPendingRequests(ServerStatistics statistics) {
+		return statistics.getInFlightRequestCount() > 0 || statistics.getWorkerQueueSize() > 0;
+	}
+
+	private static BlockingQueue<Runnable> createWorkerQueue(int capacity) {
+		return capacity > 0 ? new LinkedBlockingQueue<>(capacity) : new LinkedBlockingQueue<>();
+	}
+
+	/**
+	 * Returns {@code true} if current JVM supports virtual threads (Java 21+).
+	 */
+	static boolean isVirtualThreadsSupported() {
+		return getVirtualThreadExecutorFactoryMethod() != null;
+	}
+
+	/**
+	 * Virtual threads API is called reflectively, so the server can still be
+	 * built and run on Java 8.
+	 */
+	private static ExecutorService createVirtualThreadExecutor() {
+		Method factoryMethod = getVirtualThreadExecutorFactoryMethod();
+		if (factoryMethod == null) {
+			throw new HttpServerConfigException("Virtual threads are not supported by current JVM: "
+					+ System.getProperty("java.version") + ". Java 21+ is required");
+		}
+		try {
+			return (ExecutorService) factoryMethod.invoke(null);
+		} catch (IllegalAccessException | InvocationTargetException e) {
+			throw new HttpServerConfigException("Can not create virtual thread executor: " + e.getMessage(), e);
+		}
+	}
+
+	private static Method getVirtualThreadExecutorFactoryMethod() {
+		try {
+			return Executors.class.getMethod(VIRTUAL_THREAD_EXECUTOR_FACTORY_METHOD);
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	private WorkerExecutors() {
+	}
+}
@@ -0,0 +1,206 @@
+package com.revenat.httpserver.io.utils;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Canonical names of the HTTP headers (e.g. {@code Content-Length}).
+ * <p>
+ * Names of the well-known headers are looked up in the static table by length
+ * and then compared char by char ignoring case, so the shared canonical
+ * instance is returned without any allocation. Canonical forms of the other
+ * names are kept in the bounded cache: once it's full, new names are just
+ * normalized on each call.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+public final class HeaderNames {
+	public static final String ACCEPT = "Accept";
+	public static final String ACCEPT_CHARSET = "Accept-Charset";
+	public static final String ACCEPT_ENCODING = "Accept-Encoding";
+	public static final String ACCEPT_LANGUAGE = "Accept-Language";
+	public static final String ACCEPT_RANGES = "Accept-Ranges";
+	public static final String ALLOW = "Allow";
+	public static final String AUTHORIZATION = "Authorization";
+	public static final String CACHE_CONTROL = "Cache-Control";
+	public static final String CONNECTION = "Connection";
+	public static final String CONTENT_DISPOSITION = "Content-Disposition";
+	public static final String CONTENT_ENCODING = "Content-Encoding";
+	public static final String CONTENT_LANGUAGE = "Content-Language";
+	public static final String CONTENT_LENGTH = "Content-Length";
+	public static final String CONTENT_TYPE = "Content-Type";
+	public static final String COOKIE = "Cookie";
+	public static final String DATE = "Date";
+	public static final String ETAG = "Etag";
+	public static final String EXPECT = "Expect";
+	public static final String EXPIRES = "Expires";
+	public static final String HOST = "Host";
+	public static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+	public static final String IF_NONE_MATCH = "If-None-Match";
+	public static final String KEEP_ALIVE = "Keep-Alive";
+	public static final String LAST_MODIFIED = "Last-Modified";
+	public static final String LOCATION = "Location";
+	public static final String ORIGIN = "Origin";
+	public static final String PRAGMA = "Pragma";
+	public static final String RANGE = "Range";
+	public static final String REFERER = "Referer";
+	public static final String SERVER = "Server";
+	public static final String SET_COOKIE = "Set-Cookie";
+	public static final String TRANSFER_ENCODING = "Transfer-Encoding";
+	public static final String UPGRADE = "Upgrade";
+	public static final String USER_AGENT = "User-Agent";
+	public static final String VARY = "Vary";
+
+	private static final String[] WELL_KNOWN_NAMES = { ACCEPT, ACCEPT_CHARSET, ACCEPT_ENCODING, ACCEPT_LANGUAGE,
+			ACCEPT_RANGES, ALLOW, AUTHORIZATION, CACHE_CONTROL, CONNECTION, CONTENT_DISPOSITION, CONTENT_ENCODING,
+			CONTENT_LANGUAGE, CONTENT_LENGTH, CONTENT_TYPE, COOKIE, DATE, ETAG, EXPECT, EXPIRES, HOST,
+			IF_MODIFIED_SINCE, IF_NONE_MATCH, KEEP_ALIVE, LAST_MODIFIED, LOCATION, ORIGIN, PRAGMA, RANGE, REFERER,
+			SERVER, SET_COOKIE, TRANSFER_ENCODING, UPGRADE, USER_AGENT, VARY };
+	/**
+	 * Well-known names grouped by their length.
+	 */
+	private static final String[][] NAMES_BY_LENGTH = groupByLength(WELL_KNOWN_NAMES);
+	private static final int MAX_CACHED_NAMES = 256;
+	private static final ConcurrentMap<String, String> CACHED_NAMES = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns canonical form of the specified header name: trimmed, with the
+	 * first letter of each word in upper case and the rest in lower case.
+	 * 
+	 * @param name header name to canonicalize
+	 * @return canonical header name
+	 */
+	public static String canonicalize(String name) {
+		requireNonNull(name, "Header name can not be null");
+
+		String wellKnownName = findWellKnownName(name);
+		if (wellKnownName != null) {
+			return wellKnownName;
+		}
+		String cachedName = CACHED_NAMES.get(name);
+		if (cachedName != null) {
+			return cachedName;
+		}
+		String canonicalName = normalize(name.trim());
+		if (CACHED_NAMES.size() < MAX_CACHED_NAMES) {
+			CACHED_NAMES.putIfAbsent(name, canonicalName);
+		}
+		return canonicalName;
+	}
+
+	/**
+	 * Returns canonical form of the header name stored in the specified
+	 * ISO-8859-1 bytes, which should be trimmed already.
+	 * 
+	 * @param data array holding the name
+	 * @param from index of the first byte of the name
+	 * @param to   index next to the last byte of the name
+	 * @return canonical header name
+	 */
+	public static String canonicalize(byte[] data, int from, int to) {
+		requireNonNull(data, "Data can not be null");
+
+		String wellKnownName = findWellKnownName(data, from, to);
+		if (wellKnownName != null) {
+			return wellKnownName;
+		}
+		char[] name = new char[to - from];
+		for (int i = 0; i < name.length; i++) {
+			name[i] = (char) (data[from + i] & 0xFF);
+		}
+		return normalize(new String(name));
+	}
+
+	private static String findWellKnownName(String name) {
+		if (name.length() >= NAMES_BY_LENGTH.length) {
+			return null;
+		}
+		for (String candidate : NAMES_BY_LENGTH[name.length()]) {
+			if (equalsIgnoreCase(candidate, name)) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	private static String findWellKnownName(byte[] data, int from, int to) {
+		int length = to - from;
+		if (length >= NAMES_BY_LENGTH.length) {
+			return null;
+		}
+		for (String candidate : NAMES_BY_LENGTH[length]) {
+			if (equalsIgnoreCase(candidate, data, from)) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	private static boolean equalsIgnoreCase(String name, String other) {
+		for (int i = 0; i < name.length(); i++) {
+			if (toLowerCase(name.charAt(i)) != toLowerCase(other.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean equalsIgnoreCase(String name, byte[] data, int from) {
+		for (int i = 0; i < name.length(); i++) {
+			if (toLowerCase(name.charAt(i)) != toLowerCase((char) (data[from + i] & 0xFF))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static char toLowerCase(char ch) {
+		return ch >= 'A' && ch <= 'Z' ? (char) (ch + ('a' - 'A')) : ch;
+	}
+
+	private static String normalize(String name) {
+		StringBuilder headerName = new StringBuilder(name);
+		for (int i = 0; i < headerName.length(); i++) {
+			char ch = headerName.charAt(i);
+			if (i == 0) {
+				headerName.setCharAt(i, Character.toUpperCase(ch));
+			} else if (ch == '-' && i < headerName.length() - 1) {
+				headerName.setCharAt(i + 1, Character.toUpperCase(headerName.charAt(i + 1)));
+				i++;
+			} else {
+				headerName.setCharAt(i, Character.toLowerCase(ch));
+			}
+		}
+		return headerName.toString();
+	}
+
+	private static String[][] groupByLength(String[] names) {
+		int maxLength = 0;
+		for (String name : names) {
+			maxLength = Math.max(maxLength, name.length());
+		}
+		String[][] namesByLength = new String[maxLength + 1][];
+		for (int length = 0; length <= maxLength; length++) {
+			int count = 0;
+			for (String name : names) {
+				if (name.length() == length) {
+					count++;
+				}
+			}
+			namesByLength[length] = new String[count];
+			count = 0;
+			for (String name : names) {
+				if (name.length() == length) {
+					namesByLength[length][count++] = name;
+				}
+			}
+		}
+		return namesByLength;
+	}
+
+	private HeaderNames() {
+	}
+}
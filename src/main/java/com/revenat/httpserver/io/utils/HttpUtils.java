@@ -7,6 +7,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 
+import com.revenat.httpserver.io.Constants;
+import com.revenat.httpserver.io.exception.RequestHeaderFieldsTooLargeException;
+
 /**
  * Utility class that contains helper methods to facilitate work with Http
  * request and response specific tasks.
@@ -18,36 +21,14 @@ public final class HttpUtils {
 	private static final String CONTENT_LENGTH = "content-length: ";
 
 	/**
-	 * Normalizes specified header name to common standard.
+	 * Normalizes specified header name to common standard. Shared instances are
+	 * returned for the well-known names, see {@link HeaderNames}.
 	 * 
 	 * @param name header name to normalize
 	 * @return normalized header name
 	 */
 	public static String normalizeHeaderName(String name) {
-		requireNonNull(name, "Header name can not be null");
-
-		StringBuilder headerName = new StringBuilder(name.trim());
-		for (int i = 0; i < headerName.length(); i++) {
-			char ch = headerName.charAt(i);
-			if (i == 0) {
-				toUpper(ch, i, headerName);
-			} else if (ch == '-' && i < headerName.length() - 1) {
-				toUpper(headerName.charAt(i + 1), i + 1, headerName);
-				i++;
-			} else {
-				if (Character.isUpperCase(ch)) {
-					headerName.setCharAt(i, Character.toLowerCase(ch));
-				}
-			}
-		}
-		return headerName.toString();
-	}
-
-	private static void toUpper(char ch, int index, StringBuilder headerName) {
-		if (Character.isLowerCase(ch)) {
-			headerName.setCharAt(index, Character.toUpperCase(ch));
-		}
-
+		return HeaderNames.canonicalize(name);
 	}
 
 	/**
@@ -55,10 +36,30 @@ public final class HttpUtils {
 	 * and returns result as a string.
 	 */
 	public static String readStartingLineAndHeaders(InputStream inputStream) throws IOException {
+		return readStartingLineAndHeaders(inputStream, 0);
+	}
+
+	/**
+	 * Reads starting line and headers for HTTP request from specified input stream
+	 * and returns result as a string, failing as soon as they exceed specified
+	 * size.
+	 * 
+	 * @param inputStream input stream to read from
+	 * @param maxSize     max size (in bytes) of the starting line and headers,
+	 *                    {@code 0} means no limit
+	 * @throws RequestHeaderFieldsTooLargeException if starting line and headers
+	 *                                              are larger than
+	 *                                              {@code maxSize}
+	 */
+	public static String readStartingLineAndHeaders(InputStream inputStream, int maxSize) throws IOException {
 		requireNonNull(inputStream, "Input stream can not be null");
 
 		ByteArray buffer = new ByteArray();
 		while (!buffer.isEmptyLine()) {
+			if (maxSize > 0 && buffer.size() == maxSize) {
+				throw new RequestHeaderFieldsTooLargeException("Request headers are larger than " + maxSize + " bytes",
+						null);
+			}
 			int read = inputStream.read();
 			if (read == -1) {
 				throw new EOFException("InputStream is closed");
@@ -107,13 +108,23 @@ public final class HttpUtils {
 	public static byte[] readBody(InputStream inputStream, int contentLength) throws IOException {
 		requireNonNull(inputStream, "Input stream can not be null");
 
-		ByteArray body = new ByteArray();
-		while (contentLength > 0) {
-			byte[] buffer = new byte[contentLength];
-			int readCount = inputStream.read(buffer);
-			body.add(buffer, 0, readCount);
-			contentLength -= readCount;
+		byte[] body = new byte[contentLength];
+		int offset = 0;
+		while (offset < contentLength) {
+			int readCount = inputStream.read(body, offset, contentLength - offset);
+			if (readCount == -1) {
+				throw new EOFException("InputStream is closed");
+			}
+			offset += readCount;
 		}
-		return body.toArray();
+		return body;
+	}
+
+	/**
+	 * Encodes status line of the HTTP response with specified status code and
+	 * message, with {@code CRLF} at the end.
+	 */
+	public static byte[] encodeStatusLine(int statusCode, String message) {
+		return (Constants.HTTP_VERSION + " " + statusCode + " " + message + "\r\n").getBytes(StandardCharsets.UTF_8);
 	}
 }
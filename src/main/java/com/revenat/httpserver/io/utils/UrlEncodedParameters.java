@@ -0,0 +1,230 @@
+package com.revenat.httpserver.io.utils;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parser of the {@code application/x-www-form-urlencoded} parameters, used
+ * for the query string of the URI and for the form body.
+ * <p>
+ * Parameters are parsed in a single pass without splitting: names and values
+ * are cut straight from the source, and only those containing {@code '%'} or
+ * {@code '+'} are percent-decoded (as {@code UTF-8}). All the values of the
+ * repeated parameter are kept in the order they appear.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+public final class UrlEncodedParameters {
+
+	/**
+	 * Parses parameters from the specified query string (without leading
+	 * {@code '?'}).
+	 * 
+	 * @param query query string to parse
+	 * @return read-only map of the parameter names to their values, in the
+	 *         order the names first appear
+	 * @throws IllegalArgumentException if query contains invalid escape sequence
+	 */
+	public static Map<String, List<String>> parse(String query) {
+		requireNonNull(query, "Query can not be null");
+
+		return parse(query, 0, query.length());
+	}
+
+	/**
+	 * Parses parameters from the part of the specified string (e.g. query string
+	 * of the URI).
+	 * 
+	 * @param data string holding the parameters
+	 * @param from index of the first char of the parameters
+	 * @param to   index next to the last char of the parameters
+	 * @return read-only map of the parameter names to their values, in the
+	 *         order the names first appear
+	 * @throws IllegalArgumentException if data contains invalid escape sequence
+	 */
+	public static Map<String, List<String>> parse(String data, int from, int to) {
+		requireNonNull(data, "Data can not be null");
+
+		Map<String, List<String>> parameters = new LinkedHashMap<>();
+		int pairStart = from;
+		int delimiter = -1;
+		boolean escaped = false;
+		for (int i = from; i <= to; i++) {
+			char ch = i < to ? data.charAt(i) : '&';
+			if (ch == '&') {
+				int nameEnd = delimiter != -1 ? delimiter : i;
+				if (nameEnd > pairStart) {
+					String name = decode(data, pairStart, nameEnd, escaped);
+					String value = delimiter != -1 ? decode(data, delimiter + 1, i, escaped) : "";
+					addValue(parameters, name, value);
+				}
+				pairStart = i + 1;
+				delimiter = -1;
+				escaped = false;
+			} else if (ch == '=' && delimiter == -1) {
+				delimiter = i;
+			} else if (ch == '%' || ch == '+') {
+				escaped = true;
+			}
+		}
+		return toReadOnly(parameters);
+	}
+
+	/**
+	 * Parses parameters from the specified {@code UTF-8} bytes (e.g. form body).
+	 * 
+	 * @param data array holding the parameters
+	 * @param from index of the first byte of the parameters
+	 * @param to   index next to the last byte of the parameters
+	 * @return read-only map of the parameter names to their values, in the
+	 *         order the names first appear
+	 * @throws IllegalArgumentException if data contains invalid escape sequence
+	 */
+	public static Map<String, List<String>> parse(byte[] data, int from, int to) {
+		requireNonNull(data, "Data can not be null");
+
+		Map<String, List<String>> parameters = new LinkedHashMap<>();
+		int pairStart = from;
+		int delimiter = -1;
+		boolean escaped = false;
+		for (int i = from; i <= to; i++) {
+			byte b = i < to ? data[i] : (byte) '&';
+			if (b == '&') {
+				int nameEnd = delimiter != -1 ? delimiter : i;
+				if (nameEnd > pairStart) {
+					String name = decode(data, pairStart, nameEnd, escaped);
+					String value = delimiter != -1 ? decode(data, delimiter + 1, i, escaped) : "";
+					addValue(parameters, name, value);
+				}
+				pairStart = i + 1;
+				delimiter = -1;
+				escaped = false;
+			} else if (b == '=' && delimiter == -1) {
+				delimiter = i;
+			} else if (b == '%' || b == '+') {
+				escaped = true;
+			}
+		}
+		return toReadOnly(parameters);
+	}
+
+	/**
+	 * Decodes part of the string, which may contain escapes only if
+	 * {@code escaped} is {@code true}. Consecutive escaped bytes are collected
+	 * and decoded together, so multi-byte characters are restored.
+	 */
+	private static String decode(String data, int from, int to, boolean escaped) {
+		if (!escaped) {
+			return data.substring(from, to);
+		}
+		StringBuilder result = new StringBuilder(to - from);
+		byte[] bytes = null;
+		int i = from;
+		while (i < to) {
+			char ch = data.charAt(i);
+			if (ch == '+') {
+				result.append(' ');
+				i++;
+			} else if (ch == '%') {
+				if (bytes == null) {
+					bytes = new byte[(to - i) / 3];
+				}
+				int count = 0;
+				while (i < to && data.charAt(i) == '%') {
+					if (i + 2 >= to) {
+						throw invalidEscape(data.substring(i, to));
+					}
+					bytes[count++] = (byte) ((hexDigit(data.charAt(i + 1)) << 4) | hexDigit(data.charAt(i + 2)));
+					i += 3;
+				}
+				result.append(new String(bytes, 0, count, StandardCharsets.UTF_8));
+			} else {
+				result.append(ch);
+				i++;
+			}
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Decodes part of the {@code UTF-8} bytes, which may contain escapes only
+	 * if {@code escaped} is {@code true}.
+	 */
+	private static String decode(byte[] data, int from, int to, boolean escaped) {
+		if (!escaped) {
+			return new String(data, from, to - from, StandardCharsets.UTF_8);
+		}
+		byte[] bytes = new byte[to - from];
+		int count = 0;
+		int i = from;
+		while (i < to) {
+			byte b = data[i];
+			if (b == '+') {
+				bytes[count++] = ' ';
+				i++;
+			} else if (b == '%') {
+				if (i + 2 >= to) {
+					throw invalidEscape(new String(data, i, to - i, StandardCharsets.UTF_8));
+				}
+				bytes[count++] = (byte) ((hexDigit((char) data[i + 1]) << 4) | hexDigit((char) data[i + 2]));
+				i += 3;
+			} else {
+				bytes[count++] = b;
+				i++;
+			}
+		}
+		return new String(bytes, 0, count, StandardCharsets.UTF_8);
+	}
+
+	private static int hexDigit(char ch) {
+		int digit = Character.digit(ch, 16);
+		if (digit == -1) {
+			throw new IllegalArgumentException("Illegal hex character in escape sequence: " + ch);
+		}
+		return digit;
+	}
+
+	private static IllegalArgumentException invalidEscape(String sequence) {
+		return new IllegalArgumentException("Incomplete escape sequence: " + sequence);
+	}
+
+	/**
+	 * Adds value of the parameter. The first value is kept in the singleton list,
+	 * which is replaced by the growable one only if parameter is repeated.
+	 */
+	private static void addValue(Map<String, List<String>> parameters, String name, String value) {
+		List<String> values = parameters.get(name);
+		if (values == null) {
+			parameters.put(name, Collections.singletonList(value));
+		} else if (values.size() == 1) {
+			List<String> newValues = new ArrayList<>(2);
+			newValues.add(values.get(0));
+			newValues.add(value);
+			parameters.put(name, newValues);
+		} else {
+			values.add(value);
+		}
+	}
+
+	private static Map<String, List<String>> toReadOnly(Map<String, List<String>> parameters) {
+		if (parameters.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		for (Map.Entry<String, List<String>> entry : parameters.entrySet()) {
+			if (entry.getValue().size() > 1) {
+				entry.setValue(Collections.unmodifiableList(entry.getValue()));
+			}
+		}
+		return Collections.unmodifiableMap(parameters);
+	}
+
+	private UrlEncodedParameters() {
+	}
+}
@@ -0,0 +1,39 @@
+package com.revenat.httpserver.io;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class AcceptorStatisticsTest {
+	
+	private final AcceptorStatistics statistics = new AcceptorStatistics("Main Server Thread");
+	
+	@Test(expected = NullPointerException.class)
+	public void throwsExceptionIfNameIsNull() throws Exception {
+		new AcceptorStatistics(null);
+	}
+	
+	@Test
+	public void hasNoAcceptedConnectionsByDefault() throws Exception {
+		assertThat(statistics.getAcceptedConnectionCount(), equalTo(0L));
+		assertThat(statistics.getAcceptRate(), equalTo(0.0));
+	}
+	
+	@Test
+	public void countsAcceptedConnections() throws Exception {
+		statistics.incrementAcceptedConnectionCount();
+		statistics.incrementAcceptedConnectionCount();
+		
+		assertThat(statistics.getAcceptedConnectionCount(), equalTo(2L));
+	}
+	
+	@Test
+	public void calculatesAverageAcceptRate() throws Exception {
+		statistics.incrementAcceptedConnectionCount();
+		Thread.sleep(10);
+		
+		assertThat(statistics.getAcceptRate(), greaterThanOrEqualTo(0.0));
+	}
+}
@@ -0,0 +1,44 @@
+package com.revenat.httpserver.io;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class EventLoopStatisticsTest {
+	
+	private final EventLoopStatistics statistics = new EventLoopStatistics("NIO Event Loop-1");
+	
+	@Test(expected = NullPointerException.class)
+	public void throwsExceptionIfNameIsNull() throws Exception {
+		new EventLoopStatistics(null);
+	}
+	
+	@Test
+	public void hasNoConnectionsAndLagByDefault() throws Exception {
+		assertThat(statistics.getConnectionCount(), equalTo(0));
+		assertThat(statistics.getLoopLag(), equalTo(0.0));
+		assertThat(statistics.getMaxLoopLag(), equalTo(0.0));
+	}
+	
+	@Test
+	public void countsOpenConnections() throws Exception {
+		statistics.connectionOpened();
+		statistics.connectionOpened();
+		statistics.connectionClosed();
+		
+		assertThat(statistics.getConnectionCount(), equalTo(1));
+	}
+	
+	@Test
+	public void recordsLastAndMaxLoopLagInMilliseconds() throws Exception {
+		statistics.recordLoopLag(TimeUnit.MILLISECONDS.toNanos(5));
+		statistics.recordLoopLag(TimeUnit.MICROSECONDS.toNanos(1500));
+		
+		assertThat(statistics.getLoopLag(), closeTo(1.5, 0.0001));
+		assertThat(statistics.getMaxLoopLag(), closeTo(5.0, 0.0001));
+	}
+}
@@ -0,0 +1,50 @@
+package com.revenat.httpserver.io;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class HttpMethodTest {
+
+	@Test
+	public void resolvesMethodFromBytes() throws Exception {
+		byte[] data = "OPTIONS * HTTP/1.1".getBytes(StandardCharsets.US_ASCII);
+
+		assertThat(HttpMethod.of(data, 0, 7), sameInstance(HttpMethod.OPTIONS));
+	}
+
+	@Test
+	public void resolvesMethodFromBytesIgnoringCase() throws Exception {
+		byte[] data = " patch ".getBytes(StandardCharsets.US_ASCII);
+
+		assertThat(HttpMethod.of(data, 1, 6), sameInstance(HttpMethod.PATCH));
+	}
+
+	@Test
+	public void returnsNullForUnsupportedMethodBytes() throws Exception {
+		byte[] data = "TRACE GETS PU".getBytes(StandardCharsets.US_ASCII);
+
+		assertThat(HttpMethod.of(data, 0, 5), nullValue());
+		assertThat(HttpMethod.of(data, 6, 10), nullValue());
+		assertThat(HttpMethod.of(data, 11, 13), nullValue());
+	}
+
+	@Test
+	public void resolvesMethodFromNameIgnoringCase() throws Exception {
+		assertThat(HttpMethod.of("delete"), sameInstance(HttpMethod.DELETE));
+		assertThat(HttpMethod.of("CONNECT"), nullValue());
+		assertThat(HttpMethod.of((String) null), nullValue());
+	}
+
+	@Test
+	public void allowsFormBodyOnlyForMethodsWithRequestBody() throws Exception {
+		assertThat(HttpMethod.POST.isFormBodyAllowed(), is(true));
+		assertThat(HttpMethod.PUT.isFormBodyAllowed(), is(true));
+		assertThat(HttpMethod.PATCH.isFormBodyAllowed(), is(true));
+		assertThat(HttpMethod.GET.isFormBodyAllowed(), is(false));
+		assertThat(HttpMethod.DELETE.isFormBodyAllowed(), is(false));
+	}
+}
@@ -0,0 +1,83 @@
+package com.revenat.httpserver.io;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class ServerStatisticsTest {
+	
+	private final ServerStatistics statistics = new ServerStatistics();
+
+	@Test
+	public void hasEmptyWorkerQueueByDefault() throws Exception {
+		assertThat(statistics.getWorkerQueueSize(), equalTo(0));
+	}
+	
+	@Test
+	public void returnsWorkerQueueSizeFromSpecifiedSource() throws Exception {
+		statistics.setWorkerQueueSize(() -> 5);
+		
+		assertThat(statistics.getWorkerQueueSize(), equalTo(5));
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void throwsExceptionIfWorkerQueueSizeSourceIsNull() throws Exception {
+		statistics.setWorkerQueueSize(null);
+	}
+	
+	@Test
+	public void countsRejectedRequests() throws Exception {
+		statistics.incrementRejectedRequestCount();
+		statistics.incrementRejectedRequestCount();
+		
+		assertThat(statistics.getRejectedRequestCount(), equalTo(2L));
+	}
+	
+	@Test
+	public void registersAcceptorStatistics() throws Exception {
+		AcceptorStatistics acceptor = statistics.registerAcceptor("Acceptor Thread-1");
+		
+		assertThat(statistics.getAcceptorStatistics(), contains(acceptor));
+		assertThat(acceptor.getName(), equalTo("Acceptor Thread-1"));
+	}
+	
+	@Test(expected = UnsupportedOperationException.class)
+	public void doesNotAllowToModifyAcceptorStatistics() throws Exception {
+		statistics.getAcceptorStatistics().add(new AcceptorStatistics("Acceptor"));
+	}
+	
+	@Test
+	public void registersEventLoopStatistics() throws Exception {
+		EventLoopStatistics eventLoop = statistics.registerEventLoop("NIO Event Loop-1");
+		
+		assertThat(statistics.getEventLoopStatistics(), contains(eventLoop));
+		assertThat(eventLoop.getName(), equalTo("NIO Event Loop-1"));
+	}
+	
+	@Test(expected = UnsupportedOperationException.class)
+	public void doesNotAllowToModifyEventLoopStatistics() throws Exception {
+		statistics.getEventLoopStatistics().add(new EventLoopStatistics("NIO Event Loop"));
+	}
+	
+	@Test
+	public void countsInFlightAndProcessedRequests() throws Exception {
+		statistics.requestStarted();
+		statistics.requestStarted();
+		statistics.requestCompleted();
+		
+		assertThat(statistics.getInFlightRequestCount(), equalTo(1));
+		assertThat(statistics.getProcessedRequestCount(), equalTo(1L));
+	}
+	
+	@Test
+	public void recordsDrainResult() throws Exception {
+		statistics.startDraining();
+		statistics.setDrainResult(5, 1);
+		
+		assertThat(statistics.isDraining(), equalTo(true));
+		assertThat(statistics.getDrainedRequestCount(), equalTo(5L));
+		assertThat(statistics.getAbortedRequestCount(), equalTo(1L));
+	}
+}
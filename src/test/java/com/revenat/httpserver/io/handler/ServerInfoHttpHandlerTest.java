@@ -10,6 +10,8 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -27,6 +29,7 @@ import com.revenat.httpserver.io.HttpHandler;
 import com.revenat.httpserver.io.HttpRequest;
 import com.revenat.httpserver.io.HttpResponse;
 import com.revenat.httpserver.io.HttpServerContext;
+import com.revenat.httpserver.io.Part;
 import com.revenat.httpserver.io.ServerInfo;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
@@ -209,6 +212,21 @@ public class ServerInfoHttpHandlerTest {
 		public Map<String, String> getParameters() {
 			return null;
 		}
+
+		@Override
+		public Map<String, List<String>> getParameterValues() {
+			return null;
+		}
+
+		@Override
+		public InputStream getBody() {
+			return null;
+		}
+
+		@Override
+		public Iterator<Part> getParts() {
+			return null;
+		}
 	}
 	
 	private static class HttpResponseStub implements HttpResponse {
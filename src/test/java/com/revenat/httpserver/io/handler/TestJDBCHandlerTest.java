@@ -7,11 +7,15 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Map;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -49,6 +53,8 @@ public class TestJDBCHandlerTest {
 	public void setup() {
 		when(context.getHtmlTemplateManager()).thenReturn(templateManager);
 		when(studentProvider.getAll(context)).thenReturn(Arrays.asList(JACK));
+		when(templateManager.processTemplate(Mockito.contains(STUDENTS_TABLE_TEMPLATE), Mockito.any()))
+		.thenReturn("${TABLE-BODY}");
 		handler = new TestJDBCHandler(studentProvider);
 	}
 
@@ -91,25 +97,17 @@ public class TestJDBCHandlerTest {
 	}
 	
 	@Test
-	public void buildsStudentsTemplateForAllStudent() throws Exception {
+	public void writesStudentRowsInPlaceOfTableBody() throws Exception {
 		when(templateManager.processTemplate(Mockito.contains(STUDENT_ROW_TEMPLATE), Mockito.any()))
 		.thenReturn("Students data");
 		when(templateManager.processTemplate(Mockito.contains(STUDENTS_TABLE_TEMPLATE), Mockito.any()))
-		.thenAnswer(new Answer<String>() {
-			@Override
-			public String answer(InvocationOnMock invocation) throws Throwable {
-				String templateName = invocation.getArgument(0);
-				Map<String, Object> templateData = invocation.getArgument(1);
-				
-				assertThat(templateName, equalTo(STUDENTS_TABLE_TEMPLATE));
-				assertThat(templateData.get("TABLE-BODY"), equalTo("Students data"));
-				
-				return "";
-			}
-		});
+		.thenReturn("<tbody>${TABLE-BODY}</tbody>");
+		
+		StubHttpResponse testResponse = createEmptyResponse();
+		handler.handle(context, null, testResponse);
 		
-		handler.handle(context, null, createEmptyResponse());
 		verify(templateManager, times(1)).processTemplate(Mockito.contains(STUDENTS_TABLE_TEMPLATE), Mockito.any());
+		assertThat(testResponse.getBody(), equalTo("<tbody>Students data</tbody>"));
 	}
 	
 	@Test
@@ -145,6 +143,11 @@ public class TestJDBCHandlerTest {
 
 		@Override
 		public void setBody(InputStream in) {
+			try {
+				this.body = IOUtils.toString(in, StandardCharsets.UTF_8);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
 		}
 
 		@Override
@@ -0,0 +1,228 @@
+package com.revenat.httpserver.io.impl;
+
+import static com.revenat.httpserver.io.impl.TestUtils.MIME_PROPS_RESOURCE;
+import static com.revenat.httpserver.io.impl.TestUtils.SERVER_PROPS_RESOURCE;
+import static com.revenat.httpserver.io.impl.TestUtils.STATUSES_PROPS_RESOURCE;
+import static com.revenat.httpserver.io.impl.TestUtils.createMimeProperties;
+import static com.revenat.httpserver.io.impl.TestUtils.createServerProperties;
+import static com.revenat.httpserver.io.impl.TestUtils.createStatusesProperties;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.revenat.httpserver.io.HttpHandlerRegistrar;
+import com.revenat.httpserver.io.config.HttpServerResourceLoader;
+import com.revenat.httpserver.io.exception.HttpServerException;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class AsyncHttpServerTest {
+	private static final String RESPONSE_BODY = "async content";
+	private static final String GET_REQUEST_START = "GET /test HTTP/1.1\r\n";
+	private static final String GET_REQUEST_END = "Host: localhost\r\n\r\n";
+	private static final String CLOSE_REQUEST_END = "Connection: close\r\n\r\n";
+	private static final int SOCKET_TIMEOUT = 5000;
+	private static final int KEEP_ALIVE_TIMEOUT = 200;
+	private static final int SLOW_REQUEST_TIME = 300;
+
+	@Mock
+	private HttpServerResourceLoader resourceLoader;
+	@Mock
+	private ExecutorService rejectingExecutorService;
+
+	private int port;
+	private AsyncHttpServer server;
+
+	@Before
+	public void setUp() throws IOException {
+		when(resourceLoader.loadProperties(STATUSES_PROPS_RESOURCE)).thenReturn(createStatusesProperties());
+		when(resourceLoader.loadProperties(MIME_PROPS_RESOURCE)).thenReturn(createMimeProperties());
+		when(resourceLoader.loadProperties(SERVER_PROPS_RESOURCE)).thenReturn(createServerProperties());
+		port = findFreePort();
+		server = new AsyncHttpServer(createConfig(new Properties()));
+	}
+
+	@After
+	public void tearDown() {
+		server.stop();
+	}
+
+	private DefaultHttpServerConfig createConfig(Properties overrideProperties) {
+		HttpHandlerRegistrar registrar = new HttpHandlerRegistrar()
+				.registerHandler("/test", (context, request, response) -> response.setBody(RESPONSE_BODY))
+				.registerHandler("/slow", (context, request, response) -> {
+					try {
+						Thread.sleep(SLOW_REQUEST_TIME);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					response.setBody(RESPONSE_BODY);
+				});
+		overrideProperties.put("server.port", String.valueOf(port));
+		overrideProperties.put("server.type", "async");
+		overrideProperties.put("db.datasource.enabled", "false");
+		overrideProperties.put("server.keepalive.timeout", String.valueOf(KEEP_ALIVE_TIMEOUT));
+		overrideProperties.put("server.shutdown.timeout", String.valueOf(SOCKET_TIMEOUT));
+		return new DefaultHttpServerConfig(registrar, overrideProperties, resourceLoader);
+	}
+
+	private static int findFreePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	@Test
+	public void servesClientRequest() throws Exception {
+		server.start();
+
+		String response = sendRequest(GET_REQUEST_START + CLOSE_REQUEST_END);
+
+		assertThat(response, startsWith("HTTP/1.1 200 OK"));
+		assertThat(response, containsString(RESPONSE_BODY));
+	}
+
+	@Test
+	public void servesSeveralRequestsOverPersistentConnection() throws Exception {
+		server.start();
+
+		String response = sendRequest(GET_REQUEST_START + GET_REQUEST_END, GET_REQUEST_START + CLOSE_REQUEST_END);
+
+		assertThat(StringUtils.countMatches(response, "HTTP/1.1 200 OK"), equalTo(2));
+		assertThat(response, containsString("Connection: keep-alive"));
+	}
+
+	@Test
+	public void closesIdlePersistentConnection() throws Exception {
+		server.start();
+
+		String response = sendRequest(GET_REQUEST_START + GET_REQUEST_END);
+
+		assertThat(StringUtils.countMatches(response, "HTTP/1.1 200 OK"), equalTo(1));
+	}
+
+	@Test
+	public void servesClientRequestReceivedInSeveralParts() throws Exception {
+		server.start();
+
+		String response = sendRequest(GET_REQUEST_START, CLOSE_REQUEST_END);
+
+		assertThat(response, startsWith("HTTP/1.1 200 OK"));
+		assertThat(response, containsString(RESPONSE_BODY));
+	}
+
+	@Test
+	public void servesPipelinedRequestsReceivedAtOnce() throws Exception {
+		server.start();
+
+		String response = sendRequest(GET_REQUEST_START + GET_REQUEST_END + GET_REQUEST_START + CLOSE_REQUEST_END);
+
+		assertThat(StringUtils.countMatches(response, "HTTP/1.1 200 OK"), equalTo(2));
+	}
+
+	@Test
+	public void respondsWithBadRequestAndClosesConnectionIfRequestIsInvalid() throws Exception {
+		when(resourceLoader.loadHtmlTemplate("error.html")).thenReturn("${STATUS-CODE}");
+		server.start();
+
+		String response = sendRequest("GET\r\n" + GET_REQUEST_END);
+
+		assertThat(response, startsWith("HTTP/1.1 400 Bad Request"));
+		assertThat(StringUtils.countMatches(response, "HTTP/1.1"), equalTo(1));
+	}
+
+	@Test
+	public void servesSeveralClientsConcurrently() throws Exception {
+		server.start();
+
+		try (Socket idleClient = new Socket("localhost", port)) {
+			idleClient.getOutputStream().write(GET_REQUEST_START.getBytes(StandardCharsets.US_ASCII));
+
+			String response = sendRequest(GET_REQUEST_START + CLOSE_REQUEST_END);
+
+			assertThat(response, containsString(RESPONSE_BODY));
+		}
+	}
+
+	@Test
+	public void finishesInFlightRequestWhenStopped() throws Exception {
+		server.start();
+
+		try (Socket client = new Socket("localhost", port)) {
+			client.setSoTimeout(SOCKET_TIMEOUT);
+			client.getOutputStream().write(("GET /slow HTTP/1.1\r\n" + GET_REQUEST_END).getBytes(StandardCharsets.US_ASCII));
+			Thread.sleep(SLOW_REQUEST_TIME / 3);
+
+			server.stop();
+			String response = IOUtils.toString(client.getInputStream(), StandardCharsets.UTF_8);
+
+			assertThat(response, startsWith("HTTP/1.1 200 OK"));
+			assertThat(response, not(containsString("Connection: keep-alive")));
+		}
+	}
+
+	@Test
+	public void respondsWithServiceUnavailableIfWorkerQueueIsFullAndCallerRunsPolicySpecified() throws Exception {
+		server.stop();
+		Properties properties = new Properties();
+		properties.put("server.thread.rejection.policy", "caller-runs");
+		doThrow(new RejectedExecutionException()).when(rejectingExecutorService).execute(any());
+		server = new AsyncHttpServer(createConfig(properties)) {
+			@Override
+			protected ExecutorService createExecutorService() {
+				return rejectingExecutorService;
+			}
+		};
+		server.start();
+
+		String response = sendRequest(GET_REQUEST_START + CLOSE_REQUEST_END);
+
+		assertThat(response, startsWith("HTTP/1.1 503 Service Unavailable"));
+	}
+
+	@Test(expected = HttpServerException.class)
+	public void throwsHttpServerExceptionIfStartedTwice() throws Exception {
+		server.start();
+
+		server.start();
+	}
+
+	@Test(expected = HttpServerException.class)
+	public void throwsHttpServerExceptionIfPortIsAlreadyInUse() throws Exception {
+		new AsyncHttpServer(createConfig(new Properties()));
+	}
+
+	private String sendRequest(String... requestParts) throws Exception {
+		try (Socket client = new Socket("localhost", port)) {
+			client.setSoTimeout(SOCKET_TIMEOUT);
+			OutputStream out = client.getOutputStream();
+			for (String part : requestParts) {
+				out.write(part.getBytes(StandardCharsets.US_ASCII));
+				out.flush();
+				Thread.sleep(50);
+			}
+			InputStream in = client.getInputStream();
+			return IOUtils.toString(in, StandardCharsets.UTF_8);
+		}
+	}
+}
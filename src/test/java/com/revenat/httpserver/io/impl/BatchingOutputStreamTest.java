@@ -0,0 +1,104 @@
+package com.revenat.httpserver.io.impl;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BatchingOutputStreamTest {
+	private static final byte[] CONTENT = "test content".getBytes(StandardCharsets.UTF_8);
+	
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+	
+	private final ByteArrayOutputStream target = new ByteArrayOutputStream();
+	private final BatchingOutputStream out = new BatchingOutputStream(target);
+
+	@Test
+	public void doesNotWriteBytesToTargetStreamWhenFlushed() throws Exception {
+		out.write(CONTENT);
+		
+		out.flush();
+		
+		assertThat(target.size(), equalTo(0));
+	}
+	
+	@Test
+	public void writesAllBufferedBytesToTargetStreamWhenBatchFlushed() throws Exception {
+		out.write(CONTENT);
+		out.flush();
+		out.write(CONTENT);
+		
+		out.flushBatch();
+		
+		assertThat(target.size(), equalTo(CONTENT.length * 2));
+	}
+	
+	@Test
+	public void writesAllBufferedBytesToTargetStreamWhenClosed() throws Exception {
+		out.write(CONTENT);
+		
+		out.close();
+		
+		assertThat(target.toByteArray(), equalTo(CONTENT));
+	}
+	
+	@Test
+	public void closesTargetStreamWhenClosed() throws Exception {
+		StubOutputStream stubTarget = new StubOutputStream();
+		
+		new BatchingOutputStream(stubTarget).close();
+		
+		assertThat(stubTarget.closed, is(true));
+	}
+	
+	@Test
+	public void buffersResponseWhichFitsBuffer() throws Exception {
+		out.write(CONTENT, CONTENT.length, CONTENT, CONTENT.length);
+		
+		assertThat(target.size(), equalTo(0));
+		out.flushBatch();
+		assertThat(target.size(), equalTo(CONTENT.length * 2));
+	}
+	
+	@Test
+	public void writesBufferedBytesAndLargeResponseToChannelAtOnce() throws Exception {
+		Path file = tempFolder.newFile().toPath();
+		byte[] body = new byte[10000];
+		Arrays.fill(body, (byte) 'a');
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			BatchingOutputStream channelOut = new BatchingOutputStream(target, channel);
+			channelOut.write(CONTENT);
+			
+			channelOut.write(CONTENT, CONTENT.length, body, body.length);
+			channelOut.flushBatch();
+		}
+		
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		expected.write(CONTENT);
+		expected.write(CONTENT);
+		expected.write(body);
+		assertThat(Files.readAllBytes(file), equalTo(expected.toByteArray()));
+		assertThat(target.size(), equalTo(0));
+	}
+	
+	private static class StubOutputStream extends ByteArrayOutputStream {
+		private boolean closed;
+		
+		@Override
+		public void close() throws IOException {
+			closed = true;
+		}
+	}
+}
@@ -0,0 +1,313 @@
+package com.revenat.httpserver.io.impl;
+
+import static com.revenat.httpserver.io.impl.TestUtils.GET_SIMPLE;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import com.revenat.httpserver.io.HttpMethod;
+import com.revenat.httpserver.io.HttpRequest;
+import com.revenat.httpserver.io.Part;
+import com.revenat.httpserver.io.config.HttpRequestParser;
+import com.revenat.httpserver.io.exception.BadRequestException;
+import com.revenat.httpserver.io.exception.MethodNotAllowedException;
+import com.revenat.httpserver.io.exception.PayloadTooLargeException;
+import com.revenat.httpserver.io.exception.RequestHeaderFieldsTooLargeException;
+import com.revenat.httpserver.io.exception.RequestUriTooLongException;
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Runs all the {@link DefaultHttpRequestParserTest} tests against bulk parser
+ * reading from the stream with mark support.
+ */
+public class BulkHttpRequestParserTest extends DefaultHttpRequestParserTest {
+	private static final String FORM_CONTENT_TYPE = "Content-Type: application/x-www-form-urlencoded\r\n";
+
+	@Override
+	protected HttpRequestParser createParser() {
+		return new BulkHttpRequestParser();
+	}
+
+	@Override
+	protected InputStream fromRequest(Path requestPath) throws IOException {
+		return new BufferedInputStream(super.fromRequest(requestPath));
+	}
+
+	@Test
+	public void leavesNextPipelinedRequestInTheStream() throws Exception {
+		InputStream in = fromString("POST /first HTTP/1.1\r\n" + FORM_CONTENT_TYPE + "Content-Length: 5\r\n\r\na=b&c"
+				+ "GET /second HTTP/1.1\r\nHost: localhost\r\n\r\n");
+
+		HttpRequest first = parser.parseHttpRequest(in, DEFAULT_REMOTE_ADDRESS);
+		HttpRequest second = parser.parseHttpRequest(in, DEFAULT_REMOTE_ADDRESS);
+
+		assertThat(first.getUri(), equalTo("/first"));
+		assertThat(first.getParameters(), hasEntry("a", "b"));
+		assertThat(second.getUri(), equalTo("/second"));
+		assertThat(second.getHeaders(), hasEntry("Host", "localhost"));
+		assertThat(in.read(), equalTo(-1));
+	}
+
+	@Test
+	public void parsesRequestFromStreamWithoutMarkSupport() throws Exception {
+		InputStream in = new StubInputStream("GET /test HTTP/1.1\r\nHost: localhost\r\n\r\nnext");
+
+		HttpRequest request = parser.parseHttpRequest(in, DEFAULT_REMOTE_ADDRESS);
+
+		assertThat(request.getUri(), equalTo("/test"));
+		assertThat(IOUtils.toString(in, StandardCharsets.US_ASCII), equalTo("next"));
+	}
+
+	@Test
+	public void parsesHeadersLargerThanInitialBuffer() throws Exception {
+		String longValue = StringUtils.repeat('x', 10000);
+		InputStream in = fromString("GET /test HTTP/1.1\r\nX-Long: " + longValue + "\r\nHost: localhost\r\n\r\n");
+
+		HttpRequest request = parser.parseHttpRequest(in, DEFAULT_REMOTE_ADDRESS);
+
+		assertThat(request.getHeaders(), hasEntry("X-Long", longValue));
+		assertThat(request.getHeaders(), hasEntry("Host", "localhost"));
+	}
+
+	@Test
+	public void reusesBufferForSubsequentRequests() throws Exception {
+		parser.parseHttpRequest(fromRequest(GET_SIMPLE), DEFAULT_REMOTE_ADDRESS);
+
+		HttpRequest request = parser.parseHttpRequest(fromString("HEAD /b HTTP/1.1\r\n\r\n"), DEFAULT_REMOTE_ADDRESS);
+
+		assertThat(request.getStartingLine(), equalTo("HEAD /b HTTP/1.1"));
+		assertThat(request.getHeaders().size(), equalTo(0));
+	}
+
+	@Test
+	public void streamsBodyWhichIsNotForm() throws Exception {
+		InputStream in = fromString("POST /file HTTP/1.1\r\nContent-Type: text/plain\r\nContent-Length: 4\r\n\r\ndata"
+				+ "next");
+
+		HttpRequest request = parser.parseHttpRequest(in, DEFAULT_REMOTE_ADDRESS);
+
+		assertThat(request.getParameters().size(), equalTo(0));
+		assertThat(IOUtils.toString(request.getBody(), StandardCharsets.US_ASCII), equalTo("data"));
+		assertThat(IOUtils.toString(in, StandardCharsets.US_ASCII), equalTo("next"));
+	}
+
+	@Test
+	public void skipsUnreadBodyWhenBodyIsClosed() throws Exception {
+		InputStream in = fromString("POST /file HTTP/1.1\r\nContent-Type: text/plain\r\nTransfer-Encoding: chunked\r\n"
+				+ "\r\n4\r\ndata\r\n0\r\n\r\nGET /second HTTP/1.1\r\n\r\n");
+
+		parser.parseHttpRequest(in, DEFAULT_REMOTE_ADDRESS).getBody().close();
+		HttpRequest second = parser.parseHttpRequest(in, DEFAULT_REMOTE_ADDRESS);
+
+		assertThat(second.getUri(), equalTo("/second"));
+	}
+
+	@Test
+	public void parsesParametersFromChunkedFormBody() throws Exception {
+		InputStream in = fromString("POST /form HTTP/1.1\r\nTransfer-Encoding: chunked\r\n" + FORM_CONTENT_TYPE + "\r\n"
+				+ "4\r\na=b&\r\n3\r\nc=d\r\n0\r\n\r\n");
+
+		HttpRequest request = parser.parseHttpRequest(in, DEFAULT_REMOTE_ADDRESS);
+
+		assertThat(request.getParameters(), hasEntry("a", "b"));
+		assertThat(request.getParameters(), hasEntry("c", "d"));
+		assertThat(in.read(), equalTo(-1));
+	}
+
+	@Test
+	public void readsPartsOfMultipartBody() throws Exception {
+		String body = "--xyz\r\nContent-Disposition: form-data; name=\"a\"\r\n\r\n1\r\n"
+				+ "--xyz\r\nContent-Disposition: form-data; name=\"f\"; filename=\"f.txt\"\r\n\r\ndata\r\n--xyz--";
+		InputStream in = fromString("POST /upload HTTP/1.1\r\nContent-Type: multipart/form-data; boundary=xyz\r\n"
+				+ "Content-Length: " + body.length() + "\r\n\r\n" + body);
+
+		HttpRequest request = parser.parseHttpRequest(in, DEFAULT_REMOTE_ADDRESS);
+		Iterator<Part> parts = request.getParts();
+		Part first = parts.next();
+		Part second = parts.next();
+
+		assertThat(first.getName(), equalTo("a"));
+		assertThat(IOUtils.toString(first.getInputStream(), StandardCharsets.UTF_8), equalTo("1"));
+		assertThat(second.getFileName(), equalTo("f.txt"));
+		assertThat(IOUtils.toString(second.getInputStream(), StandardCharsets.UTF_8), equalTo("data"));
+		assertThat(parts.hasNext(), equalTo(false));
+		assertThat(request.getParameters().isEmpty(), equalTo(true));
+	}
+
+	@Test
+	public void allocatesLittleMemoryPerRequestInSteadyState() throws Exception {
+		ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+		String request = "GET /index.html HTTP/1.1\r\nHost: localhost\r\nAccept: */*\r\nUser-Agent: test\r\n"
+				+ "Connection: keep-alive\r\n\r\n";
+		ByteArrayInputStream in = new ByteArrayInputStream(request.getBytes(StandardCharsets.US_ASCII));
+		parseRepeatedly(in, 10_000);
+
+		long threadId = Thread.currentThread().getId();
+		long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+		parseRepeatedly(in, 10_000);
+		long allocatedPerRequest = (threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / 10_000;
+
+		assertThat(allocatedPerRequest, lessThan(1024L));
+	}
+
+	@Test
+	public void parsesParametersFromPutFormBody() throws Exception {
+		HttpRequest request = parser.parseHttpRequest(
+				fromString("PUT /item HTTP/1.1\r\n" + FORM_CONTENT_TYPE + "Content-Length: 7\r\n\r\nname=a1"),
+				DEFAULT_REMOTE_ADDRESS);
+
+		assertThat(request.getHttpMethod(), equalTo(HttpMethod.PUT));
+		assertThat(request.getParameters(), hasEntry("name", "a1"));
+	}
+
+	@Test
+	public void leavesBodyWithoutContentTypeInTheStream() throws Exception {
+		HttpRequest request = parser.parseHttpRequest(
+				fromString("PUT /item HTTP/1.1\r\nContent-Length: 7\r\n\r\nname=a1"), DEFAULT_REMOTE_ADDRESS);
+
+		assertThat(request.getParameters().isEmpty(), equalTo(true));
+		assertThat(IOUtils.toString(request.getBody(), StandardCharsets.US_ASCII), equalTo("name=a1"));
+	}
+
+	@Test
+	public void parsesParametersFromDeleteQuery() throws Exception {
+		HttpRequest request = parser.parseHttpRequest(fromString("delete /item?id=5 HTTP/1.1\r\n\r\n"),
+				DEFAULT_REMOTE_ADDRESS);
+
+		assertThat(request.getHttpMethod(), equalTo(HttpMethod.DELETE));
+		assertThat(request.getMethod(), equalTo("DELETE"));
+		assertThat(request.getUri(), equalTo("/item"));
+		assertThat(request.getParameters(), hasEntry("id", "5"));
+	}
+
+	@Test
+	public void keepsStartingLineAsItWasReceived() throws Exception {
+		HttpRequest request = parser.parseHttpRequest(fromString("GET /search?q=a%20b HTTP/1.1\r\n\r\n"),
+				DEFAULT_REMOTE_ADDRESS);
+
+		assertThat(request.getStartingLine(), equalTo("GET /search?q=a%20b HTTP/1.1"));
+		assertThat(request.getStartingLine(), sameInstance(request.getStartingLine()));
+	}
+
+	@Test(expected = MethodNotAllowedException.class)
+	public void rejectsUnsupportedMethodBeforeReadingHeaders() throws Exception {
+		parser.parseHttpRequest(fromString("TRACE / HTTP/1.1\r\nHost\r\n\r\n"), DEFAULT_REMOTE_ADDRESS);
+	}
+
+	@Test(expected = EOFException.class)
+	public void throwsEOFExceptionIfStreamEndsBeforeHeaders() throws Exception {
+		parser.parseHttpRequest(fromString("GET /test HTTP/1.1\r\nHost: local"), DEFAULT_REMOTE_ADDRESS);
+	}
+
+	@Test(expected = BadRequestException.class)
+	public void throwsBadRequestExceptionIfStartingLineIsInvalid() throws Exception {
+		parser.parseHttpRequest(fromString("GET\r\n\r\n"), DEFAULT_REMOTE_ADDRESS);
+	}
+
+	@Test(expected = BadRequestException.class)
+	public void throwsBadRequestExceptionIfHeaderHasNoDelimiter() throws Exception {
+		parser.parseHttpRequest(fromString("GET /test HTTP/1.1\r\nHost\r\n\r\n"), DEFAULT_REMOTE_ADDRESS);
+	}
+
+	@Test(expected = BadRequestException.class)
+	public void throwsBadRequestExceptionIfContentLengthIsInvalid() throws Exception {
+		parser.parseHttpRequest(fromString("POST /test HTTP/1.1\r\nContent-Length: abc\r\n\r\n"),
+				DEFAULT_REMOTE_ADDRESS);
+	}
+
+	@Test(expected = RequestUriTooLongException.class)
+	public void rejectsStartingLineLongerThanLimit() throws Exception {
+		parser = new BulkHttpRequestParser(new HttpRequestLimits(64, 0, 0, 0), MultipartConfig.DEFAULT);
+
+		parser.parseHttpRequest(new UnboundedInputStream("GET /" + StringUtils.repeat('a', 100)), DEFAULT_REMOTE_ADDRESS);
+	}
+
+	@Test(expected = RequestHeaderFieldsTooLargeException.class)
+	public void rejectsHeadersLargerThanLimitBeforeReadingThemFully() throws Exception {
+		parser = new BulkHttpRequestParser(new HttpRequestLimits(0, 8192, 0, 0), MultipartConfig.DEFAULT);
+
+		parser.parseHttpRequest(new UnboundedInputStream("GET / HTTP/1.1\r\nX-Long: "), DEFAULT_REMOTE_ADDRESS);
+	}
+
+	@Test(expected = RequestHeaderFieldsTooLargeException.class)
+	public void rejectsMoreHeadersThanLimit() throws Exception {
+		parser = new BulkHttpRequestParser(new HttpRequestLimits(0, 0, 2, 0), MultipartConfig.DEFAULT);
+
+		parser.parseHttpRequest(fromString("GET / HTTP/1.1\r\nA: 1\r\nB: 2\r\nC: 3\r\n\r\n"), DEFAULT_REMOTE_ADDRESS);
+	}
+
+	@Test(expected = PayloadTooLargeException.class)
+	public void rejectsContentLengthLargerThanLimitBeforeReadingBody() throws Exception {
+		parser = new BulkHttpRequestParser(new HttpRequestLimits(0, 0, 0, 1024), MultipartConfig.DEFAULT);
+
+		parser.parseHttpRequest(fromString("POST / HTTP/1.1\r\nContent-Length: 2000000000\r\n\r\n"),
+				DEFAULT_REMOTE_ADDRESS);
+	}
+
+	@Test
+	public void acceptsRequestWithinLimits() throws Exception {
+		parser = new BulkHttpRequestParser(new HttpRequestLimits(20, 64, 2, 3), MultipartConfig.DEFAULT);
+
+		HttpRequest request = parser.parseHttpRequest(
+				fromString("POST /a HTTP/1.1\r\nA: 1\r\nContent-Length: 3\r\n\r\na=b"), DEFAULT_REMOTE_ADDRESS);
+
+		assertThat(IOUtils.toString(request.getBody(), StandardCharsets.US_ASCII), equalTo("a=b"));
+	}
+
+	private void parseRepeatedly(ByteArrayInputStream in, int count) throws IOException {
+		for (int i = 0; i < count; i++) {
+			in.reset();
+			parser.parseHttpRequest(in, DEFAULT_REMOTE_ADDRESS);
+		}
+	}
+
+	private static InputStream fromString(String request) {
+		return new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Stream which returns specified prefix followed by endless 'x' bytes.
+	 */
+	private static class UnboundedInputStream extends InputStream {
+		private final byte[] prefix;
+		private int position;
+
+		UnboundedInputStream(String prefix) {
+			this.prefix = prefix.getBytes(StandardCharsets.US_ASCII);
+		}
+
+		@Override
+		public int read() {
+			return position < prefix.length ? prefix[position++] : 'x';
+		}
+	}
+
+	private static class StubInputStream extends ByteArrayInputStream {
+		StubInputStream(String content) {
+			super(content.getBytes(StandardCharsets.US_ASCII));
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+	}
+}
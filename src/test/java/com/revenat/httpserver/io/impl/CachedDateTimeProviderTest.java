@@ -0,0 +1,87 @@
+package com.revenat.httpserver.io.impl;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.junit.Test;
+
+public class CachedDateTimeProviderTest {
+	private static final ZoneId ZONE = ZoneId.of("GMT");
+	private static final long START_MILLIS = 1_500_000_000_000L;
+
+	private final MutableClock clock = new MutableClock(START_MILLIS);
+	private final DateTimeProvider provider = new CachedDateTimeProvider(clock);
+
+	@Test
+	public void returnsCurrentDateTimeWithSecondPrecision() throws Exception {
+		clock.millis = START_MILLIS + 999;
+
+		ZonedDateTime actual = provider.getCurrentDateTime();
+
+		assertThat(actual, equalTo(ZonedDateTime.ofInstant(Instant.ofEpochMilli(START_MILLIS), ZONE)));
+	}
+
+	@Test
+	public void returnsCurrentDateFormattedForHttpHeader() throws Exception {
+		String actual = provider.getCurrentHttpDate();
+
+		ZonedDateTime expected = ZonedDateTime.ofInstant(Instant.ofEpochMilli(START_MILLIS), ZONE);
+		assertThat(actual, equalTo(DateTimeFormatter.RFC_1123_DATE_TIME.format(expected)));
+	}
+
+	@Test
+	public void reusesFormattedDateWithinSameSecond() throws Exception {
+		String first = provider.getCurrentHttpDate();
+		clock.millis = START_MILLIS + 999;
+
+		String second = provider.getCurrentHttpDate();
+
+		assertThat(second, sameInstance(first));
+	}
+
+	@Test
+	public void refreshesFormattedDateWhenSecondChanges() throws Exception {
+		String first = provider.getCurrentHttpDate();
+		clock.millis = START_MILLIS + 1000;
+
+		String second = provider.getCurrentHttpDate();
+
+		assertThat(second, not(equalTo(first)));
+		ZonedDateTime expected = ZonedDateTime.ofInstant(Instant.ofEpochMilli(START_MILLIS + 1000), ZONE);
+		assertThat(second, equalTo(DateTimeFormatter.RFC_1123_DATE_TIME.format(expected)));
+	}
+
+	private static class MutableClock extends Clock {
+		private long millis;
+
+		MutableClock(long millis) {
+			this.millis = millis;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZONE;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public long millis() {
+			return millis;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.revenat.httpserver.io.impl;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import com.revenat.httpserver.io.exception.BadRequestException;
+import com.revenat.httpserver.io.exception.PayloadTooLargeException;
+
+public class ChunkedInputStreamTest {
+
+	@Test
+	public void decodesChunksTillLastChunk() throws Exception {
+		InputStream in = fromString("4\r\nWiki\r\n5;name=value\r\npedia\r\n0\r\nX-Trailer: a\r\n\r\nnext");
+
+		InputStream body = new ChunkedInputStream(in, HttpRequestLimits.UNLIMITED);
+
+		assertThat(IOUtils.toString(body, StandardCharsets.US_ASCII), equalTo("Wikipedia"));
+		assertThat(body.read(), equalTo(-1));
+		assertThat(IOUtils.toString(in, StandardCharsets.US_ASCII), equalTo("next"));
+	}
+
+	@Test
+	public void decodesChunkWithUpperCaseHexSize() throws Exception {
+		String data = StringUtils.repeat('x', 0x1AF);
+
+		InputStream body = chunked("1AF\r\n" + data + "\r\n0\r\n\r\n");
+
+		assertThat(IOUtils.toString(body, StandardCharsets.US_ASCII), equalTo(data));
+	}
+
+	@Test
+	public void discardsUnreadChunksOnClose() throws Exception {
+		InputStream in = fromString("4\r\nWiki\r\n5\r\npedia\r\n0\r\n\r\nnext");
+		InputStream body = new ChunkedInputStream(in, HttpRequestLimits.UNLIMITED);
+		body.read();
+
+		body.close();
+
+		assertThat(IOUtils.toString(in, StandardCharsets.US_ASCII), equalTo("next"));
+	}
+
+	@Test(expected = BadRequestException.class)
+	public void throwsBadRequestExceptionIfChunkSizeIsInvalid() throws Exception {
+		IOUtils.toByteArray(chunked("4x\r\nWiki\r\n0\r\n\r\n"));
+	}
+
+	@Test(expected = BadRequestException.class)
+	public void throwsBadRequestExceptionIfChunkIsLongerThanDeclared() throws Exception {
+		IOUtils.toByteArray(chunked("2\r\nWiki\r\n0\r\n\r\n"));
+	}
+
+	@Test(expected = PayloadTooLargeException.class)
+	public void throwsPayloadTooLargeExceptionIfChunksExceedBodySizeLimit() throws Exception {
+		HttpRequestLimits limits = new HttpRequestLimits(0, 0, 0, 8);
+
+		IOUtils.toByteArray(new ChunkedInputStream(fromString("4\r\nWiki\r\n5\r\npedia\r\n0\r\n\r\n"), limits));
+	}
+
+	@Test(expected = EOFException.class)
+	public void throwsEOFExceptionIfStreamEndsBeforeLastChunk() throws Exception {
+		IOUtils.toByteArray(chunked("4\r\nWiki\r\n"));
+	}
+
+	private static InputStream chunked(String data) {
+		return new ChunkedInputStream(fromString(data), HttpRequestLimits.UNLIMITED);
+	}
+
+	private static InputStream fromString(String data) {
+		return new ByteArrayInputStream(data.getBytes(StandardCharsets.US_ASCII));
+	}
+}
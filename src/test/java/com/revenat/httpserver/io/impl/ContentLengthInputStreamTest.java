@@ -0,0 +1,55 @@
+package com.revenat.httpserver.io.impl;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+public class ContentLengthInputStreamTest {
+
+	@Test
+	public void readsOnlyDeclaredNumberOfBytes() throws Exception {
+		InputStream in = fromString("bodynext");
+
+		InputStream body = new ContentLengthInputStream(in, 4);
+
+		assertThat(IOUtils.toString(body, StandardCharsets.US_ASCII), equalTo("body"));
+		assertThat(body.read(), equalTo(-1));
+		assertThat(IOUtils.toString(in, StandardCharsets.US_ASCII), equalTo("next"));
+	}
+
+	@Test
+	public void discardsUnreadBytesOnClose() throws Exception {
+		InputStream in = fromString("bodynext");
+		InputStream body = new ContentLengthInputStream(in, 4);
+		body.read();
+
+		body.close();
+
+		assertThat(IOUtils.toString(in, StandardCharsets.US_ASCII), equalTo("next"));
+	}
+
+	@Test(expected = EOFException.class)
+	public void throwsEOFExceptionIfStreamEndsBeforeBody() throws Exception {
+		IOUtils.toByteArray(new ContentLengthInputStream(fromString("bo"), 4));
+	}
+
+	@Test(expected = IOException.class)
+	public void throwsExceptionIfReadAfterClose() throws Exception {
+		InputStream body = new ContentLengthInputStream(fromString("body"), 4);
+		body.close();
+
+		body.read();
+	}
+
+	private static InputStream fromString(String data) {
+		return new ByteArrayInputStream(data.getBytes(StandardCharsets.US_ASCII));
+	}
+}
@@ -22,7 +22,9 @@ import java.io.StringWriter;
 import java.io.Writer;
 import java.net.Socket;
 import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.Properties;
 
 import org.apache.commons.io.input.ReaderInputStream;
 import org.apache.commons.io.output.WriterOutputStream;
@@ -36,7 +38,6 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 
-import com.revenat.httpserver.io.Constants;
 import com.revenat.httpserver.io.HttpHandlerRegistrar;
 import com.revenat.httpserver.io.HttpResponse;
 import com.revenat.httpserver.io.config.HttpClientSocketHandler;
@@ -49,13 +50,18 @@ import com.revenat.httpserver.io.config.ReadableHttpResponse;
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class DefaultHttpClientSocketHandlerTest {
 	private static final String RESPONSE_BODY = "test content";
+	private static final int STREAMED_BODY_SIZE = 10000;
 	private static final String GET_REQUEST_CONTENT = "GET /index.html HTTP/1.1\r\n" + 
 												 "Host: localhost\r\n" + 
 												 "User-Agent: Mozilla/5.0\r\n" + 
 												 "Accept: text/html\r\n" + 
 												 "Connection: close\r\n\r\n";
-	private static final String PUT_REQUEST_CONTENT = "PUT /index.html HTTP/1.1\r\n\r\n";
+	private static final String KEEP_ALIVE_GET_REQUEST_CONTENT = "GET /index.html HTTP/1.1\r\n" + 
+															"Host: localhost\r\n\r\n";
+	private static final int KEEP_ALIVE_TIMEOUT = 1000;
+	private static final String TRACE_REQUEST_CONTENT = "TRACE /index.html HTTP/1.1\r\n\r\n";
 	private static final String GET_HTTP_NOT_SUPPORTED_REQUEST_CONTENT = "GET /index.html HTTP/1.0\r\n\r\n";
+	private static final String HEAD_HTTP_NOT_SUPPORTED_REQUEST_CONTENT = "head /index.html HTTP/1.0\r\n\r\n";
 	private static final String CLIENT_REMOTE_ADDRESS = "localhost";
 	
 	private final StubInputStream clientInputStream = createStubInputStream(GET_REQUEST_CONTENT);
@@ -98,6 +104,19 @@ public class DefaultHttpClientSocketHandlerTest {
 		when(propLoader.loadProperties(MIME_PROPS_RESOURCE)).thenReturn(createMimeProperties());
 		when(propLoader.loadProperties(SERVER_PROPS_RESOURCE)).thenReturn(createServerProperties());
 	}
+	
+	private void configureKeepAlive(int maxRequests) {
+		Properties serverProperties = createServerProperties();
+		serverProperties.put("server.keepalive.timeout", String.valueOf(KEEP_ALIVE_TIMEOUT));
+		serverProperties.put("server.keepalive.max.requests", String.valueOf(maxRequests));
+		when(propLoader.loadProperties(SERVER_PROPS_RESOURCE)).thenReturn(serverProperties);
+		when(responseBuilder.buildNewHttpResponse()).thenAnswer(invocation -> new DefaultReadableHttpResponse());
+		serverConfig = new FakeHttpServerConfig(propLoader, requestDispatcher, responseBuilder);
+	}
+	
+	private static int countResponses(String content) {
+		return StringUtils.countMatches(content, "HTTP/1.1 200 OK");
+	}
 
 	@Test(expected = NullPointerException.class)
 	public void throwsNullPointerExceptionIfConstructedWithNullClientSocket() throws Exception {
@@ -193,16 +212,26 @@ public class DefaultHttpClientSocketHandlerTest {
 		handler.run();
 	}
 	
+	@Test
+	public void preparesErrorResponseWithoutBodyIfInvalidRequestMethodIsHead() throws Exception {
+		when(clientSocket.getInputStream()).thenReturn(createStubInputStream(HEAD_HTTP_NOT_SUPPORTED_REQUEST_CONTENT));
+		handler = new DefaultHttpClientSocketHandler(clientSocket, serverConfig);
+		
+		handler.run();
+		
+		verify(responseBuilder, times(1)).prepareHttpResponse(Mockito.any(), Mockito.eq(true));
+	}
+	
 	@Test
 	public void setsAllowResponseHeaderIfRequestMethodNotAllowed() throws Exception {;
-		when(clientSocket.getInputStream()).thenReturn(createStubInputStream(PUT_REQUEST_CONTENT));
+		when(clientSocket.getInputStream()).thenReturn(createStubInputStream(TRACE_REQUEST_CONTENT));
 		handler = new DefaultHttpClientSocketHandler(clientSocket, serverConfig);
 		doAnswer(new Answer<Void>() {
 			@Override
 			public Void answer(InvocationOnMock invocation) throws Throwable {
 				ReadableHttpResponse response = invocation.getArgument(0);
 				Map<String, String> headers = response.getHeaders();
-				assertThat(headers.get("Allow"), equalTo(StringUtils.join(Constants.ALLOWED_METHODS, ", ")));
+				assertThat(headers.get("Allow"), equalTo("GET, HEAD, POST, OPTIONS"));
 				return null;
 			}
 		}).when(responseBuilder).prepareHttpResponse(Mockito.any(), Mockito.anyBoolean());
@@ -210,6 +239,199 @@ public class DefaultHttpClientSocketHandlerTest {
 		handler.run();
 	}
 	
+	@Test
+	public void servesSeveralRequestsOverPersistentConnection() throws Exception {
+		configureKeepAlive(0);
+		when(clientSocket.getInputStream())
+				.thenReturn(createStubInputStream(KEEP_ALIVE_GET_REQUEST_CONTENT + KEEP_ALIVE_GET_REQUEST_CONTENT));
+		handler = new DefaultHttpClientSocketHandler(clientSocket, serverConfig);
+		
+		handler.run();
+		
+		assertThat(countResponses(responseContent.toString()), equalTo(2));
+		assertThat(responseContent.toString(), containsString("Connection: keep-alive"));
+		verify(clientSocket, times(1)).setSoTimeout(KEEP_ALIVE_TIMEOUT);
+		verify(clientSocket, times(1)).close();
+	}
+	
+	@Test
+	public void servesSingleRequestWithoutKeepAliveIfAsked() throws Exception {
+		configureKeepAlive(0);
+		when(clientSocket.getInputStream())
+				.thenReturn(createStubInputStream(KEEP_ALIVE_GET_REQUEST_CONTENT + KEEP_ALIVE_GET_REQUEST_CONTENT));
+		handler = new DefaultHttpClientSocketHandler(clientSocket, serverConfig);
+		
+		handler.runSingleRequest();
+		
+		assertThat(countResponses(responseContent.toString()), equalTo(1));
+		assertThat(responseContent.toString(), not(containsString("Connection: keep-alive")));
+		verify(clientSocket, times(1)).close();
+	}
+	
+	@Test
+	public void servesPipelinedRequestsFlushingResponsesOnce() throws Exception {
+		configureKeepAlive(0);
+		when(clientSocket.getInputStream()).thenReturn(createStubInputStream(
+				KEEP_ALIVE_GET_REQUEST_CONTENT + KEEP_ALIVE_GET_REQUEST_CONTENT + GET_REQUEST_CONTENT));
+		handler = new DefaultHttpClientSocketHandler(clientSocket, serverConfig);
+		
+		handler.run();
+		
+		assertThat(countResponses(responseContent.toString()), equalTo(3));
+		assertThat(clientOutputStream.getFlushCount(), equalTo(1));
+	}
+	
+	@Test
+	public void streamsLargeResponseBodyWithChunkedTransferEncoding() throws Exception {
+		configureKeepAlive(0);
+		when(clientSocket.getInputStream())
+				.thenReturn(createStubInputStream(KEEP_ALIVE_GET_REQUEST_CONTENT + KEEP_ALIVE_GET_REQUEST_CONTENT));
+		doAnswer(invocation -> {
+			HttpResponse response = invocation.getArgument(2);
+			response.getOutputStream().write(new byte[STREAMED_BODY_SIZE]);
+			return null;
+		}).when(requestDispatcher).handle(Mockito.any(), Mockito.any(), Mockito.any(HttpResponse.class));
+		handler = new DefaultHttpClientSocketHandler(clientSocket, serverConfig);
+		
+		handler.run();
+		
+		String content = responseContent.toString();
+		assertThat(countResponses(content), equalTo(2));
+		assertThat(content, containsString("Transfer-Encoding: chunked"));
+		assertThat(content, containsString("Connection: keep-alive"));
+		assertThat(content, containsString(Integer.toHexString(STREAMED_BODY_SIZE) + "\r\n"));
+		assertThat(content, endsWith("\r\n0\r\n\r\n"));
+		verify(responseBuilder, never()).prepareHttpResponse(Mockito.any(), Mockito.anyBoolean());
+	}
+	
+	@Test
+	public void sendsSmallStreamedResponseBodyAsRegularBody() throws Exception {
+		doAnswer(invocation -> {
+			HttpResponse response = invocation.getArgument(2);
+			response.getOutputStream().write(RESPONSE_BODY.getBytes(StandardCharsets.UTF_8));
+			return null;
+		}).when(requestDispatcher).handle(Mockito.any(), Mockito.any(), Mockito.any(HttpResponse.class));
+		handler = new DefaultHttpClientSocketHandler(clientSocket, serverConfig);
+		
+		handler.run();
+		
+		assertThat(responseContent.toString(), endsWith(RESPONSE_BODY));
+		assertThat(responseContent.toString(), not(containsString("Transfer-Encoding")));
+		verify(responseBuilder, times(1)).prepareHttpResponse(Mockito.any(), Mockito.anyBoolean());
+	}
+	
+	@Test
+	public void closesConnectionIfHandlerFailsAfterResponseIsCommitted() throws Exception {
+		configureKeepAlive(0);
+		when(clientSocket.getInputStream())
+				.thenReturn(createStubInputStream(KEEP_ALIVE_GET_REQUEST_CONTENT + KEEP_ALIVE_GET_REQUEST_CONTENT));
+		doAnswer(invocation -> {
+			HttpResponse response = invocation.getArgument(2);
+			response.getOutputStream().flush();
+			throw new IOException("Some error occurred");
+		}).when(requestDispatcher).handle(Mockito.any(), Mockito.any(), Mockito.any(HttpResponse.class));
+		handler = new DefaultHttpClientSocketHandler(clientSocket, serverConfig);
+		
+		handler.run();
+		
+		assertThat(countResponses(responseContent.toString()), equalTo(1));
+		assertThat(responseContent.toString(), not(containsString("\r\n0\r\n\r\n")));
+		verify(clientSocket, times(1)).close();
+	}
+	
+	@Test
+	public void closesPersistentConnectionIfClientAsksToCloseIt() throws Exception {
+		configureKeepAlive(0);
+		when(clientSocket.getInputStream())
+				.thenReturn(createStubInputStream(GET_REQUEST_CONTENT + KEEP_ALIVE_GET_REQUEST_CONTENT));
+		handler = new DefaultHttpClientSocketHandler(clientSocket, serverConfig);
+		
+		handler.run();
+		
+		assertThat(countResponses(responseContent.toString()), equalTo(1));
+		verify(clientSocket, never()).setSoTimeout(Mockito.anyInt());
+	}
+	
+	@Test
+	public void closesPersistentConnectionIfMaxRequestsCountReached() throws Exception {
+		configureKeepAlive(2);
+		when(clientSocket.getInputStream()).thenReturn(createStubInputStream(
+				KEEP_ALIVE_GET_REQUEST_CONTENT + KEEP_ALIVE_GET_REQUEST_CONTENT + KEEP_ALIVE_GET_REQUEST_CONTENT));
+		handler = new DefaultHttpClientSocketHandler(clientSocket, serverConfig);
+		
+		handler.run();
+		
+		assertThat(countResponses(responseContent.toString()), equalTo(2));
+		assertThat(StringUtils.countMatches(responseContent.toString(), "Connection: keep-alive"), equalTo(1));
+	}
+	
+	@Test
+	public void closesPersistentConnectionIfServerIsDraining() throws Exception {
+		configureKeepAlive(0);
+		serverConfig.getServerInfo().getStatistics().startDraining();
+		when(clientSocket.getInputStream())
+				.thenReturn(createStubInputStream(KEEP_ALIVE_GET_REQUEST_CONTENT + KEEP_ALIVE_GET_REQUEST_CONTENT));
+		handler = new DefaultHttpClientSocketHandler(clientSocket, serverConfig);
+		
+		handler.run();
+		
+		assertThat(countResponses(responseContent.toString()), equalTo(1));
+		assertThat(responseContent.toString(), not(containsString("Connection: keep-alive")));
+	}
+	
+	@Test
+	public void countsProcessedRequests() throws Exception {
+		configureKeepAlive(0);
+		when(clientSocket.getInputStream())
+				.thenReturn(createStubInputStream(KEEP_ALIVE_GET_REQUEST_CONTENT + GET_REQUEST_CONTENT));
+		handler = new DefaultHttpClientSocketHandler(clientSocket, serverConfig);
+		
+		handler.run();
+		
+		assertThat(serverConfig.getServerInfo().getStatistics().getProcessedRequestCount(), equalTo(2L));
+		assertThat(serverConfig.getServerInfo().getStatistics().getInFlightRequestCount(), equalTo(0));
+	}
+	
+	@Test
+	public void doesNotKeepConnectionOpenIfKeepAliveDisabled() throws Exception {
+		when(clientSocket.getInputStream())
+				.thenReturn(createStubInputStream(KEEP_ALIVE_GET_REQUEST_CONTENT + KEEP_ALIVE_GET_REQUEST_CONTENT));
+		when(responseBuilder.buildNewHttpResponse()).thenAnswer(invocation -> new DefaultReadableHttpResponse());
+		handler = new DefaultHttpClientSocketHandler(clientSocket, serverConfig);
+		
+		handler.run();
+		
+		assertThat(countResponses(responseContent.toString()), equalTo(1));
+	}
+	
+	@Test
+	public void appliesSocketTuningToClientSocket() throws Exception {
+		Properties serverProperties = createServerProperties();
+		serverProperties.put("server.socket.tcp.nodelay", "true");
+		serverProperties.put("server.socket.send.buffer", "65536");
+		when(propLoader.loadProperties(SERVER_PROPS_RESOURCE)).thenReturn(serverProperties);
+		serverConfig = new FakeHttpServerConfig(propLoader, requestDispatcher, responseBuilder);
+		handler = new DefaultHttpClientSocketHandler(clientSocket, serverConfig);
+		
+		handler.run();
+		
+		verify(clientSocket).setTcpNoDelay(true);
+		verify(clientSocket).setSendBufferSize(65536);
+	}
+	
+	@Test
+	public void appliesHeaderReadTimeoutWhileWaitingForRequest() throws Exception {
+		Properties serverProperties = createServerProperties();
+		serverProperties.put("server.request.header.timeout", "3000");
+		when(propLoader.loadProperties(SERVER_PROPS_RESOURCE)).thenReturn(serverProperties);
+		serverConfig = new FakeHttpServerConfig(propLoader, requestDispatcher, responseBuilder);
+		handler = new DefaultHttpClientSocketHandler(clientSocket, serverConfig);
+		
+		handler.run();
+		
+		verify(clientSocket).setSoTimeout(3000);
+	}
+	
 	private static class StubInputStream extends ReaderInputStream {
 		private boolean isClosed = false;
 		
@@ -230,10 +452,21 @@ public class DefaultHttpClientSocketHandlerTest {
 	
 	private static class StubOutputStream extends WriterOutputStream {
 		private boolean isClosed = false;
+		private int flushCount = 0;
 		
 		public StubOutputStream(Writer writer) {
 			super(writer, "UTF-8");
 		}
+		
+		@Override
+		public void flush() throws IOException {
+			super.flush();
+			flushCount++;
+		}
+		
+		int getFlushCount() {
+			return flushCount;
+		}
 
 		@Override
 		public void close() throws IOException {
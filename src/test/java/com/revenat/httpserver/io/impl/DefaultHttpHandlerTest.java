@@ -36,6 +36,7 @@ import com.revenat.httpserver.io.HttpHandler;
 import com.revenat.httpserver.io.HttpRequest;
 import com.revenat.httpserver.io.HttpServerContext;
 import com.revenat.httpserver.io.config.ReadableHttpResponse;
+import com.revenat.httpserver.io.exception.MethodNotAllowedException;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class DefaultHttpHandlerTest {
@@ -154,6 +155,28 @@ public class DefaultHttpHandlerTest {
 	}
 	
 
+	@Test
+	public void answersOptionsRequestWithAllowedMethods() throws Exception {
+		HttpRequest request = createRequestFor("OPTIONS", "index.html");
+		ReadableHttpResponse response = createDefaultResponse();
+
+		handler.handle(serverContext, request, response);
+
+		assertThat(response.getStatus(), equalTo(204));
+		assertThat(response.getHeaders().get("Allow"), equalTo("GET, HEAD, POST, OPTIONS"));
+		assertThat(response.isBodyEmpty(), equalTo(true));
+	}
+
+	@Test(expected = MethodNotAllowedException.class)
+	public void throwsMethodNotAllowedExceptionIfStaticResourceIsDeleted() throws Exception {
+		handler.handle(serverContext, createRequestFor("DELETE", "index.html"), createDefaultResponse());
+	}
+
+	@Test(expected = MethodNotAllowedException.class)
+	public void throwsMethodNotAllowedExceptionIfStaticResourceIsPut() throws Exception {
+		handler.handle(serverContext, createRequestFor("PUT", "index.html"), createDefaultResponse());
+	}
+
 	private static ReadableHttpResponse createDefaultResponse() {
 		ReadableHttpResponse response = new DefaultReadableHttpResponse();
 		response.setStatus(200);
@@ -161,7 +184,11 @@ public class DefaultHttpHandlerTest {
 	}
 
 	private static HttpRequest createGetRequestFor(String resource) {
-		HttpRequest request = new DefaultHttpRequest("GET", resource, "HTTP/1.1", "localhost", Collections.emptyMap(),
+		return createRequestFor("GET", resource);
+	}
+
+	private static HttpRequest createRequestFor(String method, String resource) {
+		HttpRequest request = new DefaultHttpRequest(method, resource, "HTTP/1.1", "localhost", Collections.emptyMap(),
 				Collections.emptyMap());
 		return request;
 	}
@@ -13,6 +13,7 @@ import static com.revenat.httpserver.io.impl.TestUtils.POST_WITH_BODY_WITHOUT_CO
 import static com.revenat.httpserver.io.impl.TestUtils.POST_WITH_EMPTY_BODY;
 import static com.revenat.httpserver.io.impl.TestUtils.POST_WITH_EMPTY_BODY_WITHOUT_CONTENT_LENGTH;
 import static com.revenat.httpserver.io.impl.TestUtils.UNSUPPORTED_METHOD;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.junit.Assert.assertThat;
@@ -32,16 +33,20 @@ import com.revenat.httpserver.io.exception.HttpVersionNotSupportedException;
 import com.revenat.httpserver.io.exception.MethodNotAllowedException;
 
 public class DefaultHttpRequestParserTest {
-	private static final String DEFAULT_REMOTE_ADDRESS = "localhost";
+	protected static final String DEFAULT_REMOTE_ADDRESS = "localhost";
 
-	private HttpRequestParser parser;
+	protected HttpRequestParser parser;
 
 	@Before
 	public void setup() {
-		parser = new DefaultHttpRequestParser();
+		parser = createParser();
 	}
 	
-	private static InputStream fromRequest(Path requestPath) throws IOException {
+	protected HttpRequestParser createParser() {
+		return new DefaultHttpRequestParser();
+	}
+	
+	protected InputStream fromRequest(Path requestPath) throws IOException {
 		return Files.newInputStream(requestPath);
 	}
 
@@ -162,6 +167,7 @@ public class DefaultHttpRequestParserTest {
 		assertThat(params.size(), equalTo(2));
 		assertThat(params, hasEntry("param1", "value1,value2"));
 		assertThat(params, hasEntry("param2", "true"));
+		assertThat(request.getParameterValues().get("param1"), contains("value1", "value2", "value1"));
 		}
 	}
 
@@ -202,7 +208,7 @@ public class DefaultHttpRequestParserTest {
 		Map<String, String> headers = request.getHeaders();
 		Map<String, String> params = request.getParameters();
 		assertThat(request.getMethod(), equalTo("POST"));
-		assertThat(headers.size(), equalTo(5));
+		assertThat(headers.size(), equalTo(6));
 		assertThat(headers, hasEntry("Content-Length", "94"));
 		assertThat(params.size(), equalTo(5));
 		assertThat(params, hasEntry("email", "welcome@devstudy.net"));
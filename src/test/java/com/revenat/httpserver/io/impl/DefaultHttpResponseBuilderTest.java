@@ -51,7 +51,7 @@ public class DefaultHttpResponseBuilderTest {
 	@Before
 	public void setup() {
 		builder = new DefaultHttpResponseBuilder(config, provider);
-		when(provider.getCurrentDateTime()).thenReturn(CURRENT_DATE_TIME);
+		when(provider.getCurrentHttpDate()).thenReturn(DATE_TIME_STRING);
 		when(config.getServerInfo()).thenReturn(serverInfo);
 		when(config.getHttpServerContext()).thenReturn(context);
 		when(context.getHtmlTemplateManager()).thenReturn(templateManager);
@@ -86,7 +86,7 @@ public class DefaultHttpResponseBuilderTest {
 		assertThat(headers.get("Connection"), equalTo("close"));
 		assertThat(headers.get("Content-Type"), equalTo("text/html"));
 		assertThat(headers.get("Date"), equalTo(DATE_TIME_STRING));
-		verify(provider, times(1)).getCurrentDateTime();
+		verify(provider, times(1)).getCurrentHttpDate();
 		verify(serverInfo, times(1)).getName();
 	}
 	
@@ -100,6 +100,16 @@ public class DefaultHttpResponseBuilderTest {
 		assertThat(headers.get("Content-Length"), equalTo("0"));
 	}
 
+	
+	@Test
+	public void doesNotSetContentLengthHeaderIfResponseStatusIs204() throws Exception {
+		ReadableHttpResponse response = createEmptyResponse();
+		response.setStatus(204);
+		
+		builder.prepareHttpResponse(response, false);
+		
+		assertThat(response.getHeaders().containsKey("Content-Length"), equalTo(false));
+	}
 
 	@Test
 	public void setsContentLengthHeaderEqualToBodyLengthOfTheProvidedResponse() throws Exception {
@@ -123,7 +133,7 @@ public class DefaultHttpResponseBuilderTest {
 		
 		builder.prepareHttpResponse(response, isClearBody);
 		
-		assertThat(response.getBodyLength(), equalTo(0));
+		assertThat(response.getBodyLength(), equalTo(0L));
 	}
 	
 	@Test
@@ -4,10 +4,13 @@ import static com.revenat.httpserver.io.impl.TestUtils.BAD_REQUEST_400_WITH_BODY
 import static com.revenat.httpserver.io.impl.TestUtils.OK_200_WITH_BODY;
 import static com.revenat.httpserver.io.impl.TestUtils.SERVER_ERROR_500_WITHOUT_BODY;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
@@ -18,7 +21,9 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.io.output.WriterOutputStream;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -29,12 +34,16 @@ import org.mockito.stubbing.Answer;
 import com.revenat.httpserver.io.config.HttpResponseWriter;
 import com.revenat.httpserver.io.config.HttpServerConfig;
 import com.revenat.httpserver.io.config.ReadableHttpResponse;
+import com.revenat.httpserver.io.utils.HttpUtils;
 
 @RunWith(MockitoJUnitRunner.class)
 public class DefaultHttpResponseWriterTest {
 	@Mock
 	private HttpServerConfig config;
 
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
 	private HttpResponseWriter responseWriter;
 
 	@Before
@@ -54,6 +63,10 @@ public class DefaultHttpResponseWriterTest {
 				return "Unsupported status code";
 			}
 		});
+		when(config.getStatusLine(Mockito.anyInt())).thenAnswer(invocation -> {
+			int statusCode = invocation.getArgument(0);
+			return HttpUtils.encodeStatusLine(statusCode, config.getStatusMessage(statusCode));
+		});
 	};
 
 	@Test
@@ -92,6 +105,81 @@ public class DefaultHttpResponseWriterTest {
 		assertThat(actualContent, containsString(expectedContent));
 	}
 
+	@Test
+	public void writesHeadAndSmallBodyWithSingleWrite() throws Exception {
+		ReadableHttpResponse response = create200OKResponse();
+		WriteCountingOutputStream out = new WriteCountingOutputStream();
+
+		responseWriter.writeHttpResponse(out, response);
+
+		assertThat(out.writeCount, equalTo(1));
+		assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8), equalTo(getContentFrom(OK_200_WITH_BODY)));
+	}
+
+	@Test
+	public void writesBodyWithoutCopyingIt() throws Exception {
+		ReadableHttpResponse response = Mockito.spy(create200OKResponse());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		responseWriter.writeHttpResponse(out, response);
+
+		assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8), equalTo(getContentFrom(OK_200_WITH_BODY)));
+		Mockito.verify(response, Mockito.never()).getBody();
+	}
+
+	@Test
+	public void writesOnlyHeadOfResponse() throws Exception {
+		ReadableHttpResponse response = create200OKResponse();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		responseWriter.writeHttpResponseHead(out, response);
+
+		assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8),
+				endsWith("Content-Length: 94\r\n\r\n"));
+	}
+
+	@Test
+	public void encodesNonAsciiHeaderValueAsUtf8() throws Exception {
+		ReadableHttpResponse response = createEmptyResponse();
+		response.setHeader("Content-Disposition", "attachment; filename=\"\u0444\u0430\u0439\u043b.txt\"");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		responseWriter.writeHttpResponse(out, response);
+
+		assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8), equalTo("HTTP/1.1 200 OK\r\n"
+				+ "Content-Disposition: attachment; filename=\"\u0444\u0430\u0439\u043b.txt\"\r\n\r\n"));
+	}
+
+	@Test
+	public void writesBodyFromFile() throws Exception {
+		Path file = tempFolder.newFile().toPath();
+		Files.write(file, "file content".getBytes(StandardCharsets.UTF_8));
+		ReadableHttpResponse response = createEmptyResponse();
+		response.setStatus(200);
+		response.setBody(file);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		responseWriter.writeHttpResponse(out, response);
+
+		assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8), endsWith("\nfile content"));
+	}
+
+	@Test
+	public void writesBodyFromFileAfterBufferedHeadThroughBatchingStream() throws Exception {
+		Path file = tempFolder.newFile().toPath();
+		Files.write(file, "file content".getBytes(StandardCharsets.UTF_8));
+		ReadableHttpResponse response = createEmptyResponse();
+		response.setStatus(200);
+		response.setBody(file);
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+		responseWriter.writeHttpResponse(new BatchingOutputStream(target), response);
+
+		String actualContent = new String(target.toByteArray(), StandardCharsets.UTF_8);
+		assertThat(actualContent, startsWith("HTTP/1.1 200 OK"));
+		assertThat(actualContent, endsWith("\nfile content"));
+	}
+
 	private static ReadableHttpResponse create200OKResponse() {
 		ReadableHttpResponse response = createEmptyResponse();
 		response.setStatus(200);
@@ -138,4 +226,14 @@ public class DefaultHttpResponseWriterTest {
 	private static ReadableHttpResponse createEmptyResponse() {
 		return new DefaultReadableHttpResponse();
 	}
+
+	private static class WriteCountingOutputStream extends ByteArrayOutputStream {
+		private int writeCount;
+
+		@Override
+		public synchronized void write(byte[] b, int off, int len) {
+			super.write(b, off, len);
+			writeCount++;
+		}
+	}
 }
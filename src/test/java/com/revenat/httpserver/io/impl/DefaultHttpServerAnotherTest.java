@@ -1,9 +1,12 @@
 package com.revenat.httpserver.io.impl;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -11,11 +14,16 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -24,12 +32,16 @@ import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import com.revenat.httpserver.io.AcceptorStatistics;
 import com.revenat.httpserver.io.ServerInfo;
+import com.revenat.httpserver.io.ServerStatistics;
 import com.revenat.httpserver.io.config.HttpClientSocketHandler;
 import com.revenat.httpserver.io.config.HttpServerConfig;
+import com.revenat.httpserver.io.config.RejectionPolicy;
 
 /**
  * This test class uses test approach of heavy mocking
@@ -50,6 +62,8 @@ public class DefaultHttpServerAnotherTest {
 	private static final int THREAD_COUNT_LIMIT = 5;
 
 	private static final int UNLIMITED_COUNT = 0;
+	
+	private static final int QUEUE_CAPACITY = 10;
 
 	private DefaultHttpServer server;
 	
@@ -64,6 +78,7 @@ public class DefaultHttpServerAnotherTest {
 		serverSocket = mock(ServerSocket.class);
 		executorService = mock(ExecutorService.class);
 		mainServerThread = mock(Thread.class);
+		when(httpServerConfig.getServerInfo()).thenReturn(new ServerInfo("test", 0, THREAD_COUNT_LIMIT));
 	}
 	
 	@Test
@@ -167,6 +182,34 @@ public class DefaultHttpServerAnotherTest {
 		verify(executorService).shutdown();
 	}
 	
+	@Test
+	public void closesHttpServerConfigOnlyAfterInFlightRequestsAreDrained() throws Exception {
+		when(httpServerConfig.getShutdownTimeout()).thenReturn(1000);
+		server = new DefaultHttpServer(httpServerConfig) {
+			@Override
+			protected ExecutorService createExecutorService() {
+				return executorService;
+			}
+			@Override
+			protected Thread createMainServerThread(Runnable job) {
+				return mainServerThread;
+			}
+			@Override
+			protected ServerSocket createServerSocket() {
+				return serverSocket;
+			}
+		};
+		
+		server.destroyHttpServer();
+		
+		InOrder inOrder = Mockito.inOrder(serverSocket, executorService, httpServerConfig);
+		inOrder.verify(serverSocket).close();
+		inOrder.verify(executorService).shutdown();
+		inOrder.verify(executorService).shutdownNow();
+		inOrder.verify(httpServerConfig).close();
+		assertThat(server.isServerStopped(), is(true));
+	}
+	
 	@Test
 	public void createsCachedExecutorServiceForUnlimitedThreadCount() throws Exception {
 		ThreadFactory threadFactory = mock(ThreadFactory.class);
@@ -174,6 +217,7 @@ public class DefaultHttpServerAnotherTest {
 		ServerInfo serverInfo = mock(ServerInfo.class);
 		when(httpServerConfig.getServerInfo()).thenReturn(serverInfo);
 		when(serverInfo.getThreadCount()).thenReturn(UNLIMITED_COUNT);
+		when(serverInfo.getStatistics()).thenReturn(new ServerStatistics());
 		
 		server = new DefaultHttpServer(httpServerConfig) {
 			@Override
@@ -205,6 +249,7 @@ public class DefaultHttpServerAnotherTest {
 		ServerInfo serverInfo = mock(ServerInfo.class);
 		when(httpServerConfig.getServerInfo()).thenReturn(serverInfo);
 		when(serverInfo.getThreadCount()).thenReturn(THREAD_COUNT_LIMIT);
+		when(serverInfo.getStatistics()).thenReturn(new ServerStatistics());
 		
 		server = new DefaultHttpServer(httpServerConfig) {
 			@Override
@@ -228,16 +273,157 @@ public class DefaultHttpServerAnotherTest {
 		assertThat(executorService.getThreadFactory(), sameInstance(threadFactory));
 		assertThat(executorService.getQueue(), instanceOf(LinkedBlockingQueue.class));
 	}
+	
+	@Test
+	public void createsAcceptorThread() throws Exception {
+		when(httpServerConfig.getWorkerThreadFactory()).thenReturn(mock(ThreadFactory.class));
+		server = createServerWithMockedSocket();
+		
+		Thread thread = server.createAcceptorThread(mock(Runnable.class), 1);
+		
+		assertThat(thread.getPriority(), equalTo(Thread.MAX_PRIORITY));
+		assertThat(thread.getName(), equalTo("Acceptor Thread-1"));
+		assertThat(thread.isDaemon(), is(false));
+		assertThat(thread.isAlive(), is(false));
+	}
+	
+	@Test
+	public void additionalAcceptorsShareServerSocketAndCountAcceptedConnections() throws Exception {
+		ServerInfo serverInfo = new ServerInfo("test", 0, THREAD_COUNT_LIMIT);
+		when(httpServerConfig.getServerInfo()).thenReturn(serverInfo);
+		when(httpServerConfig.getAcceptorCount()).thenReturn(3);
+		final List<Runnable> acceptorJobs = new ArrayList<>();
+		server = new DefaultHttpServer(httpServerConfig) {
+			@Override
+			protected ExecutorService createExecutorService() {
+				return executorService;
+			}
+			@Override
+			protected Thread createMainServerThread(Runnable job) {
+				return mainServerThread;
+			}
+			@Override
+			protected Thread createAcceptorThread(Runnable job, int acceptorIndex) {
+				acceptorJobs.add(job);
+				return mock(Thread.class);
+			}
+			@Override
+			protected ServerSocket createServerSocket() {
+				return serverSocket;
+			}
+		};
+		when(mainServerThread.isInterrupted()).thenReturn(false, true);
+		Socket clientSocket = mock(Socket.class);
+		when(serverSocket.accept()).thenReturn(clientSocket);
+		
+		assertThat(acceptorJobs, hasSize(2));
+		acceptorJobs.get(0).run();
+		
+		verify(serverSocket).accept();
+		verify(httpServerConfig).buildNewHttpClientSocketHandler(clientSocket);
+		List<AcceptorStatistics> acceptors = serverInfo.getStatistics().getAcceptorStatistics();
+		assertThat(acceptors, hasSize(1));
+		assertThat(acceptors.get(0).getAcceptedConnectionCount(), equalTo(1L));
+	}
+	
+	@Test
+	public void createsExecutorServiceWithBoundedQueueIfQueueCapacitySpecified() throws Exception {
+		ServerInfo serverInfo = new ServerInfo("test", 0, THREAD_COUNT_LIMIT);
+		when(httpServerConfig.getServerInfo()).thenReturn(serverInfo);
+		when(httpServerConfig.getWorkerThreadFactory()).thenReturn(mock(ThreadFactory.class));
+		when(httpServerConfig.getWorkerQueueCapacity()).thenReturn(QUEUE_CAPACITY);
+		server = createServerWithMockedSocket();
+		
+		ThreadPoolExecutor executorService = (ThreadPoolExecutor) server.createExecutorService();
+		
+		assertThat(executorService.getQueue().remainingCapacity(), equalTo(QUEUE_CAPACITY));
+		executorService.getQueue().add(mock(Runnable.class));
+		assertThat(serverInfo.getStatistics().getWorkerQueueSize(), equalTo(1));
+	}
+	
+	@Test
+	public void respondsWithServiceUnavailableIfWorkerQueueIsFull() throws Exception {
+		ServerInfo serverInfo = new ServerInfo("test", 0, THREAD_COUNT_LIMIT);
+		when(httpServerConfig.getServerInfo()).thenReturn(serverInfo);
+		Socket clientSocket = acceptRejectedClientSocket();
+		ByteArrayOutputStream clientOutput = new ByteArrayOutputStream();
+		when(clientSocket.getOutputStream()).thenReturn(clientOutput);
+		
+		server.createServerRunnable().run();
+		
+		String response = new String(clientOutput.toByteArray(), StandardCharsets.US_ASCII);
+		assertThat(response, startsWith("HTTP/1.1 503 Service Unavailable\r\n"));
+		assertThat(response, containsString("Retry-After: "));
+		verify(clientSocket).close();
+		assertThat(serverInfo.getStatistics().getRejectedRequestCount(), equalTo(1L));
+	}
+	
+	@Test
+	public void closesClientSocketWithoutResponseIfWorkerQueueIsFullAndClosePolicySpecified() throws Exception {
+		when(httpServerConfig.getServerInfo()).thenReturn(new ServerInfo("test", 0, THREAD_COUNT_LIMIT));
+		when(httpServerConfig.getRejectionPolicy()).thenReturn(RejectionPolicy.CLOSE);
+		Socket clientSocket = acceptRejectedClientSocket();
+		
+		server.createServerRunnable().run();
+		
+		verify(clientSocket, never()).getOutputStream();
+		verify(clientSocket).close();
+	}
+	
+	@Test
+	public void processesClientSocketInAcceptingThreadIfWorkerQueueIsFullAndCallerRunsPolicySpecified()
+			throws Exception {
+		when(httpServerConfig.getServerInfo()).thenReturn(new ServerInfo("test", 0, THREAD_COUNT_LIMIT));
+		when(httpServerConfig.getRejectionPolicy()).thenReturn(RejectionPolicy.CALLER_RUNS);
+		Socket clientSocket = acceptRejectedClientSocket();
+		HttpClientSocketHandler socketHandler = mock(HttpClientSocketHandler.class);
+		when(httpServerConfig.buildNewHttpClientSocketHandler(clientSocket)).thenReturn(socketHandler);
+		
+		server.createServerRunnable().run();
+		
+		verify(socketHandler).runSingleRequest();
+		verify(socketHandler, never()).run();
+		verify(clientSocket, never()).close();
+	}
+	
+	private Socket acceptRejectedClientSocket() throws IOException {
+		server = new DefaultHttpServer(httpServerConfig) {
+			@Override
+			protected ExecutorService createExecutorService() {
+				return executorService;
+			}
+			@Override
+			protected Thread createMainServerThread(Runnable job) {
+				return mainServerThread;
+			}
+			@Override
+			protected ServerSocket createServerSocket() {
+				return serverSocket;
+			}
+		};
+		when(mainServerThread.isInterrupted()).thenReturn(false, true);
+		Socket clientSocket = mock(Socket.class);
+		when(serverSocket.accept()).thenReturn(clientSocket);
+		when(httpServerConfig.buildNewHttpClientSocketHandler(clientSocket))
+				.thenReturn(mock(HttpClientSocketHandler.class));
+		when(executorService.submit(Mockito.any(Runnable.class))).thenThrow(new RejectedExecutionException());
+		return clientSocket;
+	}
+	
+	private DefaultHttpServer createServerWithMockedSocket() {
+		return new DefaultHttpServer(httpServerConfig) {
+			@Override
+			protected Thread createMainServerThread(Runnable job) {
+				return mainServerThread;
+			}
+			@Override
+			protected Runnable createServerRunnable() {
+				return mock(Runnable.class);
+			}
+			@Override
+			protected ServerSocket createServerSocket() {
+				return serverSocket;
+			}
+		};
+	}
 }
-
-
-
-
-
-
-
-
-
-
-
-
@@ -10,6 +10,7 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
@@ -33,6 +34,7 @@ import com.revenat.httpserver.io.config.HttpRequestParser;
 import com.revenat.httpserver.io.config.HttpResponseBuilder;
 import com.revenat.httpserver.io.config.HttpResponseWriter;
 import com.revenat.httpserver.io.config.HttpServerResourceLoader;
+import com.revenat.httpserver.io.config.RejectionPolicy;
 import com.revenat.httpserver.io.exception.HttpServerConfigException;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
@@ -229,6 +231,37 @@ public class DefaultHttpServerConfigTest {
 		
 	}
 	
+	@Test
+	public void returnsEncodedStatusLineForStatusCode() throws Exception {
+		setupTestProperties();
+		serverConfig = createServerConfig(null, resourceLoader);
+		
+		assertThat(serverConfig.getStatusLine(200), equalTo("HTTP/1.1 200 OK\r\n".getBytes(StandardCharsets.US_ASCII)));
+		assertThat(serverConfig.getStatusLine(350),
+				equalTo("HTTP/1.1 350 Internal Server Error\r\n".getBytes(StandardCharsets.US_ASCII)));
+		assertThat(serverConfig.getStatusLine(200), sameInstance(serverConfig.getStatusLine(200)));
+	}
+	
+	@Test
+	public void encodesNoContentStatusLineFromBundledStatuses() throws Exception {
+		serverConfig = createServerConfig(null, new ClassPathHttpServerResourceLoader());
+		
+		assertThat(serverConfig.getStatusLine(204),
+				equalTo("HTTP/1.1 204 No Content\r\n".getBytes(StandardCharsets.US_ASCII)));
+		serverConfig.close();
+	}
+	
+	@Test
+	public void compilesMimeTypesAndStaticExpiresDaysFromProperties() throws Exception {
+		setupTestProperties();
+		serverConfig = createServerConfig(null, resourceLoader);
+		
+		assertThat(serverConfig.getMimeTypes().get("123"), equalTo("application/vnd.lotus-1-2-3"));
+		assertThat(serverConfig.getMimeTypes().size(), equalTo(MIME_PROPERTIES.size()));
+		assertThat(serverConfig.getStaticExpiresDaysByExtension().get("woff2"), equalTo(7));
+		assertThat(serverConfig.getStaticExpiresDaysByExtension().get("html"), nullValue());
+	}
+	
 	@Test
 	public void returnsCorrectRootPath() throws Exception {
 		setupTestProperties();
@@ -347,6 +380,227 @@ public class DefaultHttpServerConfigTest {
 		serverConfig = createServerConfig(null, resourceLoader);
 	}
 	
+	@Test
+	public void returnsKeepAliveSettingsAsSpecifiedInServerProperties() throws Exception {
+		setupTestProperties();
+		SERVER_PROPERTIES.setProperty("server.keepalive.timeout", "5000");
+		SERVER_PROPERTIES.setProperty("server.keepalive.max.requests", "100");
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+		
+		assertThat(serverConfig.getKeepAliveTimeout(), equalTo(5000));
+		assertThat(serverConfig.getKeepAliveMaxRequests(), equalTo(100));
+	}
+	
+	@Test
+	public void enablesVirtualThreadsIfSpecifiedInServerProperties() throws Exception {
+		setupTestProperties();
+		SERVER_PROPERTIES.setProperty("server.thread.virtual", "true");
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+		
+		assertThat(serverConfig.isVirtualThreadsEnabled(), is(true));
+	}
+	
+	@Test
+	public void disablesVirtualThreadsByDefault() throws Exception {
+		setupTestProperties();
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+		
+		assertThat(serverConfig.isVirtualThreadsEnabled(), is(false));
+	}
+	
+	@Test
+	public void returnsWorkerQueueSettingsAsSpecifiedInServerProperties() throws Exception {
+		setupTestProperties();
+		SERVER_PROPERTIES.setProperty("server.thread.queue.capacity", "1000");
+		SERVER_PROPERTIES.setProperty("server.thread.rejection.policy", "caller-runs");
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+		
+		assertThat(serverConfig.getWorkerQueueCapacity(), equalTo(1000));
+		assertThat(serverConfig.getRejectionPolicy(), equalTo(RejectionPolicy.CALLER_RUNS));
+	}
+	
+	@Test
+	public void usesUnboundedWorkerQueueAndServiceUnavailablePolicyByDefault() throws Exception {
+		setupTestProperties();
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+		
+		assertThat(serverConfig.getWorkerQueueCapacity(), equalTo(0));
+		assertThat(serverConfig.getRejectionPolicy(), equalTo(RejectionPolicy.SERVICE_UNAVAILABLE));
+	}
+	
+	@Test
+	public void throwsExceptionIfRejectionPolicyIsUnsupported() throws Exception {
+		setupTestProperties();
+		SERVER_PROPERTIES.setProperty("server.thread.rejection.policy", "discard");
+		expected.expect(HttpServerConfigException.class);
+		expected.expectMessage(containsString("Unsupported server.thread.rejection.policy"));
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+	}
+	
+	@Test
+	public void returnsAcceptorSettingsAsSpecifiedInServerProperties() throws Exception {
+		setupTestProperties();
+		SERVER_PROPERTIES.setProperty("server.acceptor.count", "4");
+		SERVER_PROPERTIES.setProperty("server.acceptor.reuseport", "true");
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+		
+		assertThat(serverConfig.getAcceptorCount(), equalTo(4));
+		assertThat(serverConfig.isReusePortEnabled(), is(true));
+	}
+	
+	@Test
+	public void throwsExceptionIfAcceptorCountPropLessThanZero() throws Exception {
+		setupTestProperties();
+		SERVER_PROPERTIES.setProperty("server.acceptor.count", "-1");
+		expected.expect(HttpServerConfigException.class);
+		expected.expectMessage(containsString("server.acceptor.count should be >= 0"));
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+	}
+	
+	@Test
+	public void returnsEventLoopSettingsAsSpecifiedInServerProperties() throws Exception {
+		setupTestProperties();
+		SERVER_PROPERTIES.setProperty("server.nio.eventloop.count", "8");
+		SERVER_PROPERTIES.setProperty("server.nio.eventloop.inline", "true");
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+		
+		assertThat(serverConfig.getEventLoopCount(), equalTo(8));
+		assertThat(serverConfig.isEventLoopProcessingEnabled(), is(true));
+	}
+	
+	@Test
+	public void throwsExceptionIfEventLoopCountPropLessThanZero() throws Exception {
+		setupTestProperties();
+		SERVER_PROPERTIES.setProperty("server.nio.eventloop.count", "-1");
+		expected.expect(HttpServerConfigException.class);
+		expected.expectMessage(containsString("server.nio.eventloop.count should be >= 0"));
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+	}
+	
+	@Test
+	public void returnsSocketSettingsAsSpecifiedInServerProperties() throws Exception {
+		setupTestProperties();
+		SERVER_PROPERTIES.setProperty("server.socket.backlog", "1024");
+		SERVER_PROPERTIES.setProperty("server.socket.tcp.nodelay", "true");
+		SERVER_PROPERTIES.setProperty("server.socket.receive.buffer", "65536");
+		SERVER_PROPERTIES.setProperty("server.socket.send.buffer", "32768");
+		SERVER_PROPERTIES.setProperty("server.request.header.timeout", "10000");
+		SERVER_PROPERTIES.setProperty("server.request.body.timeout", "30000");
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+		
+		assertThat(serverConfig.getSocketBacklog(), equalTo(1024));
+		assertThat(serverConfig.isTcpNoDelayEnabled(), is(true));
+		assertThat(serverConfig.getSocketReceiveBufferSize(), equalTo(65536));
+		assertThat(serverConfig.getSocketSendBufferSize(), equalTo(32768));
+		assertThat(serverConfig.getHeaderReadTimeout(), equalTo(10000));
+		assertThat(serverConfig.getBodyReadTimeout(), equalTo(30000));
+	}
+	
+	@Test
+	public void usesPlatformSocketDefaultsAndNoReadTimeoutsIfSocketPropertiesAreAbsent() throws Exception {
+		setupTestProperties();
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+		
+		assertThat(serverConfig.getSocketBacklog(), equalTo(0));
+		assertThat(serverConfig.isTcpNoDelayEnabled(), is(false));
+		assertThat(serverConfig.getSocketReceiveBufferSize(), equalTo(0));
+		assertThat(serverConfig.getSocketSendBufferSize(), equalTo(0));
+		assertThat(serverConfig.getHeaderReadTimeout(), equalTo(0));
+		assertThat(serverConfig.getBodyReadTimeout(), equalTo(0));
+	}
+	
+	@Test
+	public void loadsRequestSizeLimitsFromProperties() throws Exception {
+		setupTestProperties();
+		SERVER_PROPERTIES.setProperty("server.request.line.max.length", "8192");
+		SERVER_PROPERTIES.setProperty("server.request.header.max.size", "65536");
+		SERVER_PROPERTIES.setProperty("server.request.header.max.count", "100");
+		SERVER_PROPERTIES.setProperty("server.request.body.max.size", "1048576");
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+		
+		assertThat(serverConfig.getMaxRequestLineLength(), equalTo(8192));
+		assertThat(serverConfig.getMaxHeaderSize(), equalTo(65536));
+		assertThat(serverConfig.getMaxHeaderCount(), equalTo(100));
+		assertThat(serverConfig.getMaxBodySize(), equalTo(1048576));
+	}
+	
+	@Test
+	public void doesNotLimitRequestSizeIfLimitPropertiesAreAbsent() throws Exception {
+		setupTestProperties();
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+		
+		assertThat(serverConfig.getMaxRequestLineLength(), equalTo(0));
+		assertThat(serverConfig.getMaxHeaderSize(), equalTo(0));
+		assertThat(serverConfig.getMaxHeaderCount(), equalTo(0));
+		assertThat(serverConfig.getMaxBodySize(), equalTo(0));
+	}
+	
+	@Test
+	public void loadsMultipartSettingsFromProperties() throws Exception {
+		setupTestProperties();
+		SERVER_PROPERTIES.setProperty("server.multipart.memory.threshold", "1024");
+		SERVER_PROPERTIES.setProperty("server.multipart.temp.dir", ROOT_PATH);
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+		
+		assertThat(serverConfig.getMultipartMemoryThreshold(), equalTo(1024));
+		assertThat(serverConfig.getMultipartTempDir(), equalTo(Paths.get(ROOT_PATH).toAbsolutePath()));
+	}
+	
+	@Test
+	public void usesDefaultMultipartSettingsIfPropertiesAreAbsent() throws Exception {
+		setupTestProperties();
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+		
+		assertThat(serverConfig.getMultipartMemoryThreshold(), equalTo(MultipartConfig.DEFAULT_MEMORY_THRESHOLD));
+		assertThat(serverConfig.getMultipartTempDir(), nullValue());
+	}
+	
+	@Test
+	public void throwsExceptionIfMultipartTempDirIsNotDirectory() throws Exception {
+		setupTestProperties();
+		SERVER_PROPERTIES.setProperty("server.multipart.temp.dir", "/wrong/dir");
+		expected.expect(HttpServerConfigException.class);
+		expected.expectMessage(containsString("Multipart temp dir is not a directory"));
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+	}
+	
+	@Test
+	public void disablesKeepAliveIfKeepAlivePropertiesAreAbsent() throws Exception {
+		setupTestProperties();
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+		
+		assertThat(serverConfig.getKeepAliveTimeout(), equalTo(0));
+		assertThat(serverConfig.getKeepAliveMaxRequests(), equalTo(0));
+	}
+	
+	@Test
+	public void throwsExceptionIfKeepAliveTimeoutPropLessThanZero() throws Exception {
+		setupTestProperties();
+		SERVER_PROPERTIES.setProperty("server.keepalive.timeout", "-1");
+		expected.expect(HttpServerConfigException.class);
+		expected.expectMessage(containsString("server.keepalive.timeout should be >= 0"));
+		
+		serverConfig = createServerConfig(null, resourceLoader);
+	}
+	
 	@Test
 	public void closesKeepedDatasourceWhenClosedItself() throws Exception {
 		setupTestProperties();
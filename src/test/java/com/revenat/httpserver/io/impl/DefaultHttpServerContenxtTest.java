@@ -9,9 +9,8 @@ import static org.mockito.Mockito.when;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.List;
+import java.util.Collections;
 import java.util.Properties;
 
 import javax.sql.DataSource;
@@ -107,24 +106,24 @@ public class DefaultHttpServerContenxtTest {
 	
 	@Test
 	public void returnsContentType() throws Exception {
-		Properties mimeTypes = new Properties();
-		mimeTypes.setProperty("exe", "application/executable");
-		when(config.getMimeTypesProperties()).thenReturn(mimeTypes);
+		ImmutableStringMap<String> mimeTypes = new ImmutableStringMap<>(
+				Collections.singletonMap("exe", "application/executable"));
+		when(config.getMimeTypes()).thenReturn(mimeTypes);
 		
 		String contentType = context.getContentType("exe");
 		assertThat(contentType, equalTo("application/executable"));
-		verify(config, times(1)).getMimeTypesProperties();
+		verify(config, times(1)).getMimeTypes();
 	}
 	
 	@Test
 	public void returnsTextPlainContentTypeForUnknownExtension() throws Exception {
-		Properties mimeTypes = new Properties();
-		mimeTypes.setProperty("exe", "application/executable");
-		when(config.getMimeTypesProperties()).thenReturn(mimeTypes);
+		ImmutableStringMap<String> mimeTypes = new ImmutableStringMap<>(
+				Collections.singletonMap("exe", "application/executable"));
+		when(config.getMimeTypes()).thenReturn(mimeTypes);
 		
 		String contentType = context.getContentType("ini");
 		assertThat(contentType, equalTo("text/plain"));
-		verify(config, times(1)).getMimeTypesProperties();
+		verify(config, times(1)).getMimeTypes();
 		
 	}
 	
@@ -140,27 +139,24 @@ public class DefaultHttpServerContenxtTest {
 	
 	@Test
 	public void returnsExpiresDaysForKnownStaticResource() throws Exception {
-		List<String> staticExpiresExtensions = Arrays.asList("js");
 		int defaultDays = 7;
-		when(config.getStaticExpiresExtensions()).thenReturn(staticExpiresExtensions);
-		when(config.getStaticExpiresDays()).thenReturn(defaultDays);
+		when(config.getStaticExpiresDaysByExtension())
+				.thenReturn(new ImmutableStringMap<>(Collections.singletonMap("js", defaultDays)));
 		
 		Integer days = context.getExpiresDaysForResource("js");
 		assertThat(days, equalTo(defaultDays));
-		verify(config, times(1)).getStaticExpiresExtensions();
-		verify(config, times(1)).getStaticExpiresDays();
+		verify(config, times(1)).getStaticExpiresDaysByExtension();
 	}
 	
 	@Test
 	public void returnsNullAsExpiresDaysForUnknownStaticResource() throws Exception {
-		List<String> staticExpiresExtensions = Arrays.asList("js");
 		int defaultDays = 7;
-		when(config.getStaticExpiresExtensions()).thenReturn(staticExpiresExtensions);
-		when(config.getStaticExpiresDays()).thenReturn(defaultDays);
+		when(config.getStaticExpiresDaysByExtension())
+				.thenReturn(new ImmutableStringMap<>(Collections.singletonMap("js", defaultDays)));
 		
 		Integer days = context.getExpiresDaysForResource("css");
 		assertThat(days, nullValue());
-		verify(config, times(1)).getStaticExpiresExtensions();
+		verify(config, times(1)).getStaticExpiresDaysByExtension();
 	}
 
 }
@@ -0,0 +1,299 @@
+package com.revenat.httpserver.io.impl;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.revenat.httpserver.io.HttpRequest;
+import com.revenat.httpserver.io.config.IncrementalHttpRequestParser;
+import com.revenat.httpserver.io.config.IncrementalHttpRequestParser.Status;
+import com.revenat.httpserver.io.exception.BadRequestException;
+import com.revenat.httpserver.io.exception.HttpVersionNotSupportedException;
+import com.revenat.httpserver.io.exception.PayloadTooLargeException;
+import com.revenat.httpserver.io.exception.RequestHeaderFieldsTooLargeException;
+import com.revenat.httpserver.io.exception.RequestUriTooLongException;
+
+public class DefaultIncrementalHttpRequestParserTest {
+	private static final String REMOTE_ADDRESS = "localhost";
+	private static final String FORM_CONTENT_TYPE = "Content-Type: application/x-www-form-urlencoded\r\n";
+	private static final String POST_REQUEST = "POST /form HTTP/1.1\r\nHost: localhost\r\n" + FORM_CONTENT_TYPE
+			+ "Content-Length: 11\r\n\r\nname=John&x";
+	private static final String CHUNKED_REQUEST = "POST /form HTTP/1.1\r\nTransfer-Encoding: chunked\r\n"
+			+ FORM_CONTENT_TYPE + "\r\n"
+			+ "5;ext=1\r\nname=\r\n6\r\nJohn&x\r\n0\r\nX-Trailer: value\r\n\r\n";
+
+	private IncrementalHttpRequestParser parser;
+
+	@Before
+	public void setUp() {
+		parser = new DefaultIncrementalHttpRequestParser(REMOTE_ADDRESS);
+	}
+
+	@Test
+	public void parsesRequestReceivedAtOnce() throws Exception {
+		ByteBuffer fragment = toBuffer(POST_REQUEST);
+
+		assertThat(parser.parse(fragment), equalTo(Status.COMPLETE));
+
+		HttpRequest request = parser.getRequest();
+		assertThat(request.getStartingLine(), equalTo("POST /form HTTP/1.1"));
+		assertThat(request.getHeaders(), hasEntry("Host", "localhost"));
+		assertThat(request.getParameters(), hasEntry("name", "John"));
+		assertThat(request.getRemoteAddress(), equalTo(REMOTE_ADDRESS));
+		assertThat(parser.getConsumedCount(), equalTo(POST_REQUEST.length()));
+		assertThat(fragment.hasRemaining(), equalTo(false));
+	}
+
+	@Test
+	public void parsesRequestSplitAtAnyPosition() throws Exception {
+		for (int split = 1; split < POST_REQUEST.length(); split++) {
+			parser.reset();
+
+			assertThat(parser.parse(toBuffer(POST_REQUEST.substring(0, split))), equalTo(Status.NEED_MORE));
+			assertThat(parser.getConsumedCount(), equalTo(split));
+			assertThat(parser.parse(toBuffer(POST_REQUEST.substring(split))), equalTo(Status.COMPLETE));
+
+			HttpRequest request = parser.getRequest();
+			assertThat(request.getHeaders(), hasEntry("Content-Length", "11"));
+			assertThat(request.getParameters(), hasEntry("name", "John"));
+		}
+	}
+
+	@Test
+	public void parsesRequestReceivedByteByByte() throws Exception {
+		ByteBuffer fragment = ByteBuffer.allocate(1);
+		byte[] bytes = POST_REQUEST.getBytes(StandardCharsets.US_ASCII);
+		Status status = null;
+		for (byte b : bytes) {
+			fragment.clear();
+			fragment.put(b).flip();
+			status = parser.parse(fragment);
+		}
+
+		assertThat(status, equalTo(Status.COMPLETE));
+		assertThat(parser.getRequest().getParameters(), hasEntry("x", ""));
+	}
+
+	@Test
+	public void leavesBytesOfNextRequestInTheBuffer() throws Exception {
+		String second = "GET /second HTTP/1.1\r\nHost: localhost\r\n\r\n";
+		ByteBuffer fragment = toBuffer(POST_REQUEST + second);
+
+		assertThat(parser.parse(fragment), equalTo(Status.COMPLETE));
+		assertThat(parser.getConsumedCount(), equalTo(POST_REQUEST.length()));
+		assertThat(fragment.remaining(), equalTo(second.length()));
+		assertThat(parser.getRequest().getUri(), equalTo("/form"));
+
+		parser.reset();
+
+		assertThat(parser.parse(fragment), equalTo(Status.COMPLETE));
+		assertThat(parser.getConsumedCount(), equalTo(second.length()));
+		assertThat(parser.getRequest().getUri(), equalTo("/second"));
+	}
+
+	@Test
+	public void consumesNothingUntilResetAfterRequestIsComplete() throws Exception {
+		parser.parse(toBuffer("GET / HTTP/1.1\r\n\r\n"));
+		ByteBuffer fragment = toBuffer("GET /next HTTP/1.1\r\n\r\n");
+
+		assertThat(parser.parse(fragment), equalTo(Status.COMPLETE));
+		assertThat(parser.getConsumedCount(), equalTo(0));
+		assertThat(parser.getRequest().getUri(), equalTo("/"));
+	}
+
+	@Test
+	public void skipsEmptyLinesBeforeStartingLine() throws Exception {
+		assertThat(parser.parse(toBuffer("\r\n\r\nGET / HTTP/1.1\r\n\r\n")), equalTo(Status.COMPLETE));
+		assertThat(parser.getRequest().getStartingLine(), equalTo("GET / HTTP/1.1"));
+	}
+
+	@Test
+	public void parsesHeadersLargerThanInitialLineBuffer() throws Exception {
+		String longValue = StringUtils.repeat('x', 10000);
+
+		parser.parse(toBuffer("GET / HTTP/1.1\r\nX-Long: " + longValue + "\r\n\r\n"));
+
+		assertThat(parser.getRequest().getHeaders(), hasEntry("X-Long", longValue));
+	}
+
+	@Test
+	public void collectsBodyLargerThanInitialBufferFromSeveralFragments() throws Exception {
+		String body = StringUtils.repeat('b', 5000);
+		String request = "POST /file HTTP/1.1\r\nContent-Type: text/plain\r\nContent-Length: 5000\r\n\r\n" + body;
+
+		for (int start = 0; start < request.length(); start += 700) {
+			parser.parse(toBuffer(request.substring(start, Math.min(start + 700, request.length()))));
+		}
+
+		assertThat(parser.getStatus(), equalTo(Status.COMPLETE));
+		assertThat(IOUtils.toString(parser.getRequest().getBody(), StandardCharsets.US_ASCII), equalTo(body));
+	}
+
+	@Test
+	public void doesNotAllocateDeclaredContentLengthBeforeBodyArrives() throws Exception {
+		assertThat(parser.parse(toBuffer("POST / HTTP/1.1\r\nContent-Length: 2000000000\r\n\r\nname=John")),
+				equalTo(Status.NEED_MORE));
+	}
+
+	@Test
+	public void reportsHeadReceivedOnceHeadersEnd() throws Exception {
+		parser.parse(toBuffer("POST / HTTP/1.1\r\nContent-Length: 5\r\n"));
+		assertThat(parser.isHeadReceived(), equalTo(false));
+
+		parser.parse(toBuffer("\r\nab"));
+		assertThat(parser.isHeadReceived(), equalTo(true));
+	}
+
+	@Test
+	public void decodesChunkedBodySplitAtAnyPosition() throws Exception {
+		for (int split = 1; split < CHUNKED_REQUEST.length(); split++) {
+			parser.reset();
+
+			assertThat(parser.parse(toBuffer(CHUNKED_REQUEST.substring(0, split))), equalTo(Status.NEED_MORE));
+			assertThat(parser.parse(toBuffer(CHUNKED_REQUEST.substring(split))), equalTo(Status.COMPLETE));
+
+			assertThat(parser.getRequest().getParameters(), hasEntry("name", "John"));
+			assertThat(parser.getRequest().getParameters(), hasEntry("x", ""));
+		}
+	}
+
+	@Test
+	public void providesBufferedBodyAsStream() throws Exception {
+		String body = StringUtils.repeat('b', 5000);
+		parser.parse(toBuffer("POST /file HTTP/1.1\r\nContent-Type: text/plain\r\nTransfer-Encoding: chunked\r\n\r\n"
+				+ "1388\r\n" + body + "\r\n0\r\n\r\n"));
+
+		assertThat(IOUtils.toString(parser.getRequest().getBody(), StandardCharsets.US_ASCII), equalTo(body));
+	}
+
+	@Test
+	public void doesNotAllocateDeclaredChunkSizeBeforeChunkDataArrives() throws Exception {
+		assertThat(parser.parse(toBuffer("POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n7FFFFFF0\r\nabc")),
+				equalTo(Status.NEED_MORE));
+	}
+
+	@Test
+	public void returnsErrorIfChunkSizeIsInvalid() throws Exception {
+		assertThat(parser.parse(toBuffer("POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\nxyz\r\n")),
+				equalTo(Status.ERROR));
+		assertThat(parser.getError(), instanceOf(BadRequestException.class));
+	}
+
+	@Test
+	public void returnsErrorIfChunkDataIsLongerThanChunkSize() throws Exception {
+		assertThat(parser.parse(toBuffer("POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n1\r\nab\r\n")),
+				equalTo(Status.ERROR));
+		assertThat(parser.getError(), instanceOf(BadRequestException.class));
+	}
+
+	@Test
+	public void returnsErrorAsSoonAsStartingLineExceedsLimit() throws Exception {
+		parser = new DefaultIncrementalHttpRequestParser(REMOTE_ADDRESS, new HttpRequestLimits(64, 0, 0, 0),
+				MultipartConfig.DEFAULT);
+
+		assertThat(parser.parse(toBuffer("GET /" + StringUtils.repeat('a', 100))), equalTo(Status.ERROR));
+		assertThat(parser.getError(), instanceOf(RequestUriTooLongException.class));
+	}
+
+	@Test
+	public void returnsErrorAsSoonAsHeadersExceedSizeLimit() throws Exception {
+		parser = new DefaultIncrementalHttpRequestParser(REMOTE_ADDRESS, new HttpRequestLimits(0, 1024, 0, 0),
+				MultipartConfig.DEFAULT);
+		parser.parse(toBuffer("GET / HTTP/1.1\r\nX-Long: "));
+
+		assertThat(parser.parse(toBuffer(StringUtils.repeat('x', 2000))), equalTo(Status.ERROR));
+		assertThat(parser.getError(), instanceOf(RequestHeaderFieldsTooLargeException.class));
+	}
+
+	@Test
+	public void returnsErrorIfThereAreMoreHeadersThanLimit() throws Exception {
+		parser = new DefaultIncrementalHttpRequestParser(REMOTE_ADDRESS, new HttpRequestLimits(0, 0, 1, 0),
+				MultipartConfig.DEFAULT);
+
+		assertThat(parser.parse(toBuffer("GET / HTTP/1.1\r\nA: 1\r\nB: 2\r\n\r\n")), equalTo(Status.ERROR));
+		assertThat(parser.getError(), instanceOf(RequestHeaderFieldsTooLargeException.class));
+	}
+
+	@Test
+	public void returnsErrorIfBodyExceedsLimit() throws Exception {
+		parser = new DefaultIncrementalHttpRequestParser(REMOTE_ADDRESS, new HttpRequestLimits(0, 0, 0, 10),
+				MultipartConfig.DEFAULT);
+
+		assertThat(parser.parse(toBuffer(POST_REQUEST)), equalTo(Status.ERROR));
+		assertThat(parser.getError(), instanceOf(PayloadTooLargeException.class));
+
+		parser.reset();
+
+		assertThat(parser.parse(toBuffer(CHUNKED_REQUEST)), equalTo(Status.ERROR));
+		assertThat(parser.getError(), instanceOf(PayloadTooLargeException.class));
+	}
+
+	@Test
+	public void returnsErrorIfStartingLineIsInvalid() throws Exception {
+		assertThat(parser.parse(toBuffer("GET\r\n\r\n")), equalTo(Status.ERROR));
+		assertThat(parser.getError(), instanceOf(BadRequestException.class));
+	}
+
+	@Test
+	public void returnsErrorIfContentLengthIsInvalid() throws Exception {
+		assertThat(parser.parse(toBuffer("POST / HTTP/1.1\r\nContent-Length: abc\r\n\r\n")), equalTo(Status.ERROR));
+		assertThat(parser.getError(), instanceOf(BadRequestException.class));
+	}
+
+	@Test
+	public void returnsErrorIfHttpVersionIsNotSupported() throws Exception {
+		assertThat(parser.parse(toBuffer("GET / HTTP/2.0\r\n\r\n")), equalTo(Status.ERROR));
+		assertThat(parser.getError(), instanceOf(HttpVersionNotSupportedException.class));
+		assertThat(parser.getError().getStartingLine(), equalTo("GET / HTTP/2.0"));
+	}
+
+	@Test
+	public void parsesNextRequestAfterReset() throws Exception {
+		parser.parse(toBuffer("GET\r\n\r\n"));
+		parser.reset();
+
+		assertThat(parser.getStatus(), equalTo(Status.NEED_MORE));
+		assertThat(parser.parse(toBuffer("GET /valid HTTP/1.1\r\n\r\n")), equalTo(Status.COMPLETE));
+		assertThat(parser.getRequest().getUri(), equalTo("/valid"));
+	}
+
+	@Test
+	public void keepsHeadersOfPreviousRequestIntactWhenParsingNextOne() throws Exception {
+		parser.parse(toBuffer("GET /first HTTP/1.1\r\nHost: first\r\nX-First: 1\r\n\r\n"));
+		HttpRequest first = parser.getRequest();
+		parser.reset();
+
+		parser.parse(toBuffer("GET /second HTTP/1.1\r\nHost: second\r\n\r\n"));
+
+		assertThat(first.getHeaders(), hasEntry("Host", "first"));
+		assertThat(first.getHeaders(), hasEntry("X-First", "1"));
+		assertThat(parser.getRequest().getHeaders(), hasEntry("Host", "second"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void throwsExceptionIfRequestIsTakenBeforeItIsComplete() throws Exception {
+		parser.parse(toBuffer("GET / HTTP/1.1\r\n"));
+
+		parser.getRequest();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void throwsExceptionIfErrorIsTakenFromValidRequest() throws Exception {
+		parser.parse(toBuffer("GET / HTTP/1.1\r\n\r\n"));
+
+		parser.getError();
+	}
+
+	private static ByteBuffer toBuffer(String data) {
+		return ByteBuffer.wrap(data.getBytes(StandardCharsets.US_ASCII));
+	}
+}
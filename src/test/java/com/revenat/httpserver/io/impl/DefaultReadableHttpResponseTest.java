@@ -3,14 +3,20 @@ package com.revenat.httpserver.io.impl;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -25,7 +31,9 @@ import org.apache.commons.io.input.ReaderInputStream;
 import org.hamcrest.Description;
 import org.hamcrest.TypeSafeMatcher;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
@@ -37,6 +45,9 @@ public class DefaultReadableHttpResponseTest {
 	private static final FileTime FILE_TIME = FileTime.from(DATE_NOW.toInstant());
 	private static final String DATE_TIME_STRING = DateTimeFormatter.RFC_1123_DATE_TIME.format(DATE_NOW);
 
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
 	private ReadableHttpResponse response;
 	
 	@Before
@@ -46,7 +57,7 @@ public class DefaultReadableHttpResponseTest {
 
 	@Test
 	public void containsEmptyBodyWhenCreated() throws Exception {
-		assertThat(response.getBodyLength(), equalTo(0));
+		assertThat(response.getBodyLength(), equalTo(0L));
 		assertThat(response.isBodyEmpty(), is(true));
 
 	}
@@ -167,6 +178,63 @@ public class DefaultReadableHttpResponseTest {
 		assertThat(new String(body, StandardCharsets.UTF_8), equalTo(bodyContent));
 	}
 	
+	@Test
+	public void returnsBodyArrayWithoutCopyingIt() throws Exception {
+		response.setBody("Body content");
+		
+		byte[] body = response.getBodyArray();
+		
+		assertThat(new String(body, 0, (int) response.getBodyLength(), StandardCharsets.UTF_8),
+				equalTo("Body content"));
+		assertThat(response.getBodyArray(), sameInstance(body));
+	}
+	
+	@Test
+	public void keepsFileAsBodyWithoutReadingIt() throws Exception {
+		Path file = tempFolder.newFile().toPath();
+		Files.write(file, "Body content".getBytes(StandardCharsets.UTF_8));
+		
+		response.setBody(file);
+		
+		assertThat(response.getBodyFile(), equalTo(file));
+		assertThat(response.getBodyLength(), equalTo(12L));
+		assertThat(new String(response.getBody(), StandardCharsets.UTF_8), equalTo("Body content"));
+	}
+	
+	@Test
+	public void dropsBodyFileWhenOtherBodySet() throws Exception {
+		response.setBody(tempFolder.newFile().toPath());
+		
+		response.setBody("Body content");
+		
+		assertThat(response.getBodyFile(), nullValue());
+		assertThat(response.getBodyLength(), equalTo(12L));
+	}
+	
+	@Test(expected = HttpServerException.class)
+	public void throwsExceptionIfBodyFileCanNotBeRead() throws Exception {
+		response.setBody(tempFolder.getRoot().toPath().resolve("absent.txt"));
+		
+	}
+	
+	@Test
+	public void setsBodyWrittenToOutputStreamWhenClosed() throws Exception {
+		try (OutputStream out = response.getOutputStream()) {
+			out.write("Body content".getBytes(StandardCharsets.UTF_8));
+		}
+		
+		assertThat(new String(response.getBody(), StandardCharsets.UTF_8), equalTo("Body content"));
+	}
+	
+	@Test
+	public void returnsBodyOutputStreamSetByServer() throws Exception {
+		OutputStream bodyOutputStream = new ByteArrayOutputStream();
+		
+		response.setBodyOutputStream(bodyOutputStream);
+		
+		assertThat(response.getOutputStream(), sameInstance(bodyOutputStream));
+	}
+	
 	@Test(expected = HttpServerException.class)
 	public void throwsExceptionIfErrorOccursDuringReadingBodyFromInputStream() throws Exception {
 		InputStream in = mock(InputStream.class, throwsIOExceptionForAllMethodCalls());
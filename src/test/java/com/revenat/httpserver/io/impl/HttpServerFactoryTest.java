@@ -6,9 +6,12 @@ import static org.junit.Assert.*;
 import java.util.Properties;
 
 import org.junit.Test;
+import org.mockito.Mockito;
 
 import com.revenat.httpserver.io.HttpHandlerRegistrar;
 import com.revenat.httpserver.io.HttpServer;
+import com.revenat.httpserver.io.ServerInfo;
+import com.revenat.httpserver.io.config.HttpServerConfig;
 
 public class HttpServerFactoryTest {
 	
@@ -36,5 +39,37 @@ public class HttpServerFactoryTest {
 		
 		assertThat(httpServer, not(nullValue()));
 	}
+	
+	@Test
+	public void createsHttpServerOfSpecifiedType() throws Exception {
+		factory = HttpServerFactory.create();
+		HttpServerConfig config = Mockito.mock(HttpServerConfig.class);
+		Mockito.when(config.getServerInfo()).thenReturn(new ServerInfo("Test server", 0, 1));
+		Mockito.when(config.getWorkerThreadFactory()).thenReturn(new DefaultThreadFactory("test-"));
+		
+		HttpServer httpServer = factory.createHttpServer(config, HttpServerType.NIO);
+		
+		try {
+			assertThat(httpServer, instanceOf(NioHttpServer.class));
+		} finally {
+			httpServer.stop();
+		}
+	}
+	
+	@Test
+	public void createsAsyncHttpServer() throws Exception {
+		factory = HttpServerFactory.create();
+		HttpServerConfig config = Mockito.mock(HttpServerConfig.class);
+		Mockito.when(config.getServerInfo()).thenReturn(new ServerInfo("Test server", 0, 1));
+		Mockito.when(config.getWorkerThreadFactory()).thenReturn(new DefaultThreadFactory("test-"));
+		
+		HttpServer httpServer = factory.createHttpServer(config, HttpServerType.ASYNC);
+		
+		try {
+			assertThat(httpServer, instanceOf(AsyncHttpServer.class));
+		} finally {
+			httpServer.stop();
+		}
+	}
 
 }
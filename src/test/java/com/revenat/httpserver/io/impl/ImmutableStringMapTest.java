@@ -0,0 +1,61 @@
+package com.revenat.httpserver.io.impl;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ImmutableStringMapTest {
+
+	@Test
+	public void returnsValuesOfAllTheKeys() throws Exception {
+		Map<String, Integer> entries = new HashMap<>();
+		for (int i = 0; i < 1000; i++) {
+			entries.put("key" + i, i);
+		}
+		
+		ImmutableStringMap<Integer> map = new ImmutableStringMap<>(entries);
+		
+		assertThat(map.size(), equalTo(1000));
+		for (int i = 0; i < 1000; i++) {
+			assertThat(map.get("key" + i), equalTo(i));
+		}
+	}
+	
+	@Test
+	public void returnsNullForAbsentKey() throws Exception {
+		ImmutableStringMap<String> map = new ImmutableStringMap<>(Collections.singletonMap("js", "text/javascript"));
+		
+		assertThat(map.get("css"), nullValue());
+		assertThat(map.get(null), nullValue());
+		assertThat(map.containsKey("css"), is(false));
+		assertThat(map.containsKey("js"), is(true));
+	}
+	
+	@Test
+	public void findsKeysWithSameHashCode() throws Exception {
+		Map<String, String> entries = new HashMap<>();
+		// "Aa" and "BB" have the same hash code
+		entries.put("Aa", "first");
+		entries.put("BB", "second");
+		
+		ImmutableStringMap<String> map = new ImmutableStringMap<>(entries);
+		
+		assertThat(map.get("Aa"), equalTo("first"));
+		assertThat(map.get("BB"), equalTo("second"));
+	}
+	
+	@Test
+	public void returnsNothingIfEmpty() throws Exception {
+		ImmutableStringMap<String> map = new ImmutableStringMap<>(Collections.emptyMap());
+		
+		assertThat(map.size(), equalTo(0));
+		assertThat(map.get("js"), nullValue());
+	}
+}
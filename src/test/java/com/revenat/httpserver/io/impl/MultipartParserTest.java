@@ -0,0 +1,178 @@
+package com.revenat.httpserver.io.impl;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.revenat.httpserver.io.Part;
+import com.revenat.httpserver.io.exception.BadRequestException;
+
+public class MultipartParserTest {
+	private static final String BOUNDARY = "----boundary42";
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Test
+	public void readsPartsHeldInMemory() throws Exception {
+		MultipartParser parser = parser("--" + BOUNDARY + "\r\n"
+				+ "Content-Disposition: form-data; name=\"title\"\r\n\r\n"
+				+ "Hello\r\n"
+				+ "--" + BOUNDARY + "\r\n"
+				+ "content-disposition: form-data; name=\"file\"; filename=\"a.txt\"\r\n"
+				+ "Content-Type: text/plain\r\n\r\n"
+				+ "line1\r\nline2\r\n"
+				+ "--" + BOUNDARY + "--\r\n", MultipartConfig.DEFAULT);
+
+		Part title = parser.next();
+		Part file = parser.next();
+
+		assertThat(title.getName(), equalTo("title"));
+		assertThat(title.getFileName(), nullValue());
+		assertThat(title.isInMemory(), is(true));
+		assertThat(contentOf(title), equalTo("Hello"));
+		assertThat(file.getName(), equalTo("file"));
+		assertThat(file.getFileName(), equalTo("a.txt"));
+		assertThat(file.getContentType(), equalTo("text/plain"));
+		assertThat(file.getSize(), equalTo(12L));
+		assertThat(contentOf(file), equalTo("line1\r\nline2"));
+		assertThat(parser.hasNext(), is(false));
+	}
+
+	@Test
+	public void writesPartLargerThanThresholdToTemporaryFile() throws Exception {
+		String content = StringUtils.repeat("0123456789", 2000);
+		Path tempDir = tempFolder.getRoot().toPath();
+		MultipartParser parser = parser("--" + BOUNDARY + "\r\n"
+				+ "Content-Disposition: form-data; name=\"file\"; filename=\"big.bin\"\r\n\r\n"
+				+ content + "\r\n"
+				+ "--" + BOUNDARY + "--", new MultipartConfig(1024, tempDir));
+
+		Part part = parser.next();
+
+		assertThat(part.isInMemory(), is(false));
+		assertThat(part.getSize(), equalTo((long) content.length()));
+		assertThat(contentOf(part), equalTo(content));
+		assertThat(tempDir.toFile().list().length, equalTo(1));
+	}
+
+	@Test
+	public void deletesTemporaryFilesOnClose() throws Exception {
+		Path tempDir = tempFolder.getRoot().toPath();
+		MultipartParser parser = parser("--" + BOUNDARY + "\r\n"
+				+ "Content-Disposition: form-data; name=\"file\"\r\n\r\n"
+				+ StringUtils.repeat('x', 100) + "\r\n"
+				+ "--" + BOUNDARY + "--", new MultipartConfig(10, tempDir));
+		parser.next();
+
+		parser.close();
+
+		assertThat(Files.list(tempDir).count(), equalTo(0L));
+	}
+
+	@Test
+	public void skipsPreambleAndTransportPadding() throws Exception {
+		MultipartParser parser = parser("preamble text\r\n"
+				+ "--" + BOUNDARY + " \t\r\n"
+				+ "Content-Disposition: form-data; name=a\r\n\r\n"
+				+ "1\r\n"
+				+ "--" + BOUNDARY + "--\r\nepilogue", MultipartConfig.DEFAULT);
+
+		Part part = parser.next();
+
+		assertThat(part.getName(), equalTo("a"));
+		assertThat(contentOf(part), equalTo("1"));
+		assertThat(parser.hasNext(), is(false));
+	}
+
+	@Test
+	public void findsBoundarySplitBetweenReads() throws Exception {
+		String content = StringUtils.repeat('y', 8190);
+		MultipartParser parser = new MultipartParser(new OneByteAtTimeInputStream("--" + BOUNDARY + "\r\n"
+				+ "Content-Disposition: form-data; name=\"a\"\r\n\r\n"
+				+ content + "\r\n"
+				+ "--" + BOUNDARY + "--"), BOUNDARY, MultipartConfig.DEFAULT);
+
+		assertThat(contentOf(parser.next()), equalTo(content));
+		assertThat(parser.hasNext(), is(false));
+	}
+
+	@Test(expected = BadRequestException.class)
+	public void throwsBadRequestExceptionIfPartHasNoName() throws Exception {
+		parser("--" + BOUNDARY + "\r\n"
+				+ "Content-Disposition: form-data\r\n\r\n"
+				+ "1\r\n"
+				+ "--" + BOUNDARY + "--", MultipartConfig.DEFAULT).next();
+	}
+
+	@Test
+	public void throwsUncheckedIOExceptionIfBodyIsNotTerminated() throws Exception {
+		MultipartParser parser = parser("--" + BOUNDARY + "\r\n"
+				+ "Content-Disposition: form-data; name=\"a\"\r\n\r\n"
+				+ "1", MultipartConfig.DEFAULT);
+
+		try {
+			parser.next();
+			fail("UncheckedIOException expected");
+		} catch (UncheckedIOException e) {
+			assertThat(e.getCause(), instanceOf(EOFException.class));
+		}
+	}
+
+	@Test
+	public void extractsBoundaryFromContentType() throws Exception {
+		assertThat(MultipartParser.getBoundary("multipart/form-data; boundary=abc"), equalTo("abc"));
+		assertThat(MultipartParser.getBoundary("Multipart/Form-Data; boundary=\"a b\"; charset=UTF-8"),
+				equalTo("a b"));
+	}
+
+	@Test
+	public void returnsNullBoundaryIfBodyIsNotMultipart() throws Exception {
+		assertThat(MultipartParser.getBoundary("application/x-www-form-urlencoded"), nullValue());
+		assertThat(MultipartParser.getBoundary(null), nullValue());
+	}
+
+	@Test(expected = BadRequestException.class)
+	public void throwsBadRequestExceptionIfBoundaryIsAbsent() throws Exception {
+		MultipartParser.getBoundary("multipart/form-data");
+	}
+
+	private static MultipartParser parser(String body, MultipartConfig config) {
+		return new MultipartParser(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), BOUNDARY,
+				config);
+	}
+
+	private static String contentOf(Part part) throws Exception {
+		try (InputStream in = part.getInputStream()) {
+			return IOUtils.toString(in, StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * Stream which returns at most one byte per read.
+	 */
+	private static class OneByteAtTimeInputStream extends ByteArrayInputStream {
+
+		OneByteAtTimeInputStream(String data) {
+			super(data.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public synchronized int read(byte[] b, int off, int len) {
+			return super.read(b, off, Math.min(len, 1));
+		}
+	}
+}
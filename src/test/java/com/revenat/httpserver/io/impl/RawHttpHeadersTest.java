@@ -0,0 +1,99 @@
+package com.revenat.httpserver.io.impl;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class RawHttpHeadersTest {
+
+	@Test
+	public void looksUpHeaderIgnoringCase() throws Exception {
+		Map<String, String> headers = parseHeaders("Content-Type: text/html", "X-Custom-Header:  value ");
+
+		assertThat(headers.get("content-type"), equalTo("text/html"));
+		assertThat(headers.get("CONTENT-TYPE"), equalTo("text/html"));
+		assertThat(headers.get("X-Custom-Header"), equalTo("value"));
+		assertThat(headers.containsKey("x-custom-header"), equalTo(true));
+	}
+
+	@Test
+	public void returnsNullForAbsentHeader() throws Exception {
+		Map<String, String> headers = parseHeaders("Host: localhost");
+
+		assertThat(headers.get("Hos"), nullValue());
+		assertThat(headers.get("Hosts"), nullValue());
+		assertThat(headers.get(1), nullValue());
+		assertThat(headers.containsKey("Accept"), equalTo(false));
+	}
+
+	@Test
+	public void returnsLastValueOfRepeatedHeader() throws Exception {
+		Map<String, String> headers = parseHeaders("Accept: text/html", "accept: */*");
+
+		assertThat(headers.get("Accept"), equalTo("*/*"));
+		assertThat(headers.size(), equalTo(1));
+		assertThat(headers.entrySet().iterator().next().getValue(), equalTo("*/*"));
+	}
+
+	@Test
+	public void iteratesHeadersWithNormalizedNamesInReceivedOrder() throws Exception {
+		Map<String, String> headers = parseHeaders("host: localhost", "CONTENT-LENGTH: 0", "x-a: b");
+
+		assertThat(headers.keySet(), contains("Host", "Content-Length", "X-A"));
+	}
+
+	@Test
+	public void appendsFoldedLinesToHeaderValue() throws Exception {
+		Map<String, String> headers = parseHeaders("X-Folded: first", " second", "\tthird", "Host: localhost");
+
+		assertThat(headers.get("X-Folded"), equalTo("firstsecondthird"));
+		assertThat(headers.get("Host"), equalTo("localhost"));
+	}
+
+	@Test
+	public void isEmptyIfRequestHasNoHeaders() throws Exception {
+		Map<String, String> headers = parseHeaders();
+
+		assertThat(headers.isEmpty(), equalTo(true));
+		assertThat(headers.size(), equalTo(0));
+	}
+
+	@Test
+	public void handlesMoreHeadersThanInitialCapacity() throws Exception {
+		String[] lines = new String[50];
+		for (int i = 0; i < lines.length; i++) {
+			lines[i] = "X-Header-" + i + ": value-" + i;
+		}
+
+		Map<String, String> headers = parseHeaders(lines);
+
+		assertThat(headers.size(), equalTo(50));
+		assertThat(headers.get("x-header-0"), equalTo("value-0"));
+		assertThat(headers.get("x-header-49"), equalTo("value-49"));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void doesNotAllowToModifyHeaders() throws Exception {
+		parseHeaders("Host: localhost").put("Accept", "*/*");
+	}
+
+	private static Map<String, String> parseHeaders(String... headerLines) throws Exception {
+		HttpRequestHead head = new HttpRequestHead(HttpRequestLimits.UNLIMITED);
+		parseLine(head, "GET / HTTP/1.1");
+		for (String line : headerLines) {
+			parseLine(head, line);
+		}
+		return head.getHeaders();
+	}
+
+	private static void parseLine(HttpRequestHead head, String line) {
+		byte[] data = ("  " + line + "\r\n").getBytes(StandardCharsets.UTF_8);
+		head.parseLine(data, 2, data.length - 2);
+	}
+}
@@ -0,0 +1,174 @@
+package com.revenat.httpserver.io.impl;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.revenat.httpserver.io.config.ReadableHttpResponse;
+
+public class ResponseBodyOutputStreamTest {
+	private static final String HEAD = "HEAD\r\n";
+	private static final byte[] CONTENT = "test content".getBytes(StandardCharsets.UTF_8);
+	private static final int LARGE_CONTENT_SIZE = 10000;
+
+	private final ByteArrayOutputStream clientOutput = new ByteArrayOutputStream();
+	private ReadableHttpResponse response;
+	private int headCount;
+	private Boolean persistent;
+
+	@Before
+	public void setup() {
+		response = new DefaultReadableHttpResponse();
+	}
+
+	private ResponseBodyOutputStream createStream(boolean bodyAllowed, boolean chunkedAllowed) {
+		return new ResponseBodyOutputStream(response, clientOutput, persistent -> {
+			headCount++;
+			this.persistent = persistent;
+			clientOutput.write(HEAD.getBytes(StandardCharsets.US_ASCII));
+		}, bodyAllowed, chunkedAllowed);
+	}
+
+	private String getClientContent() {
+		return new String(clientOutput.toByteArray(), StandardCharsets.US_ASCII);
+	}
+
+	private static byte[] createLargeContent() {
+		byte[] content = new byte[LARGE_CONTENT_SIZE];
+		Arrays.fill(content, (byte) 'a');
+		return content;
+	}
+
+	private static String repeat(char ch, int count) {
+		char[] chars = new char[count];
+		Arrays.fill(chars, ch);
+		return new String(chars);
+	}
+
+	@Test
+	public void setsSmallBodyToResponseWithoutCommittingIt() throws Exception {
+		ResponseBodyOutputStream out = createStream(true, true);
+
+		out.write(CONTENT);
+		out.finish();
+
+		assertThat(out.isCommitted(), is(false));
+		assertThat(headCount, equalTo(0));
+		assertThat(clientOutput.size(), equalTo(0));
+		assertThat(response.getBody(), equalTo(CONTENT));
+	}
+
+	@Test
+	public void sendsLargeBodyInChunksAfterHead() throws Exception {
+		ResponseBodyOutputStream out = createStream(true, true);
+
+		out.write(createLargeContent());
+		out.finish();
+
+		assertThat(out.isCommitted(), is(true));
+		assertThat(persistent, is(true));
+		assertThat(response.getHeaders().get("Transfer-Encoding"), equalTo("chunked"));
+		assertThat(getClientContent(),
+				equalTo(HEAD + "2710\r\n" + repeat('a', LARGE_CONTENT_SIZE) + "\r\n0\r\n\r\n"));
+	}
+
+	@Test
+	public void sendsHeadAndBufferedBodyWhenFlushed() throws Exception {
+		ResponseBodyOutputStream out = createStream(true, true);
+
+		out.write(CONTENT);
+		out.flush();
+
+		assertThat(getClientContent(), equalTo(HEAD + "c\r\ntest content\r\n"));
+	}
+
+	@Test
+	public void collectsSmallWritesIntoSingleChunk() throws Exception {
+		ResponseBodyOutputStream out = createStream(true, true);
+		out.flush();
+
+		out.write('a');
+		out.write(CONTENT);
+		out.finish();
+
+		assertThat(headCount, equalTo(1));
+		assertThat(getClientContent(), equalTo(HEAD + "d\r\natest content\r\n0\r\n\r\n"));
+	}
+
+	@Test
+	public void sendsBodyAsIsIfContentLengthDeclared() throws Exception {
+		response.setHeader("Content-Length", CONTENT.length);
+		ResponseBodyOutputStream out = createStream(true, true);
+
+		out.write(CONTENT);
+		out.flush();
+		out.finish();
+
+		assertThat(response.getHeaders().get("Transfer-Encoding"), nullValue());
+		assertThat(persistent, is(true));
+		assertThat(getClientContent(), equalTo(HEAD + "test content"));
+	}
+
+	@Test(expected = IOException.class)
+	public void throwsExceptionIfBodyIsShorterThanDeclaredContentLength() throws Exception {
+		response.setHeader("Content-Length", CONTENT.length + 1);
+		ResponseBodyOutputStream out = createStream(true, true);
+
+		out.write(CONTENT);
+		out.flush();
+		out.finish();
+	}
+
+	@Test
+	public void sendsBodyAsIsAndClosesConnectionIfChunkedCodingNotSupported() throws Exception {
+		ResponseBodyOutputStream out = createStream(true, false);
+
+		out.write(CONTENT);
+		out.flush();
+		out.finish();
+
+		assertThat(persistent, is(false));
+		assertThat(out.isPersistent(), is(false));
+		assertThat(getClientContent(), equalTo(HEAD + "test content"));
+	}
+
+	@Test
+	public void sendsOnlyHeadIfBodyNotAllowed() throws Exception {
+		ResponseBodyOutputStream out = createStream(false, true);
+
+		out.write(createLargeContent());
+		out.finish();
+
+		assertThat(getClientContent(), equalTo(HEAD));
+		assertThat(out.getSize(), equalTo((long) LARGE_CONTENT_SIZE));
+	}
+
+	@Test
+	public void discardsBodyWrittenBeforeCommit() throws Exception {
+		ResponseBodyOutputStream out = createStream(true, true);
+		out.write(CONTENT);
+
+		out.discard();
+		out.finish();
+
+		assertThat(response.isBodyEmpty(), is(true));
+		assertThat(out.getSize(), equalTo(0L));
+	}
+
+	@Test(expected = IOException.class)
+	public void throwsExceptionIfWrittenAfterClose() throws Exception {
+		ResponseBodyOutputStream out = createStream(true, true);
+		out.close();
+
+		out.write(CONTENT);
+	}
+}
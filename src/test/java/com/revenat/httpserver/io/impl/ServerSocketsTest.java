@@ -0,0 +1,49 @@
+package com.revenat.httpserver.io.impl;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import org.junit.Test;
+
+public class ServerSocketsTest {
+	
+	@Test
+	public void opensServerSocketWithReuseAddress() throws Exception {
+		try (ServerSocket socket = ServerSockets.open(0, false, 0, 0)) {
+			assertThat(socket.isBound(), is(true));
+			assertThat(socket.getReuseAddress(), is(true));
+		}
+	}
+	
+	@Test
+	public void opensSeveralServerSocketsOnTheSamePortIfReusePortSupported() throws Exception {
+		assumeTrue(ServerSockets.isReusePortSupported());
+		int port = findFreePort();
+		
+		try (ServerSocket first = ServerSockets.open(port, true, 0, 0);
+				ServerSocket second = ServerSockets.open(port, true, 0, 0)) {
+			assertThat(first.getLocalPort(), equalTo(port));
+			assertThat(second.getLocalPort(), equalTo(port));
+		}
+	}
+	
+	@Test
+	public void fallsBackToRegularServerSocketIfReusePortNotSupported() throws Exception {
+		assumeTrue(!ServerSockets.isReusePortSupported());
+		
+		try (ServerSocket socket = ServerSockets.open(0, true, 0, 0)) {
+			assertThat(socket.isBound(), is(true));
+		}
+	}
+	
+	private static int findFreePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package com.revenat.httpserver.io.impl;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TimeoutSocketInputStreamTest {
+	private static final String REQUEST_HEAD = "POST /test HTTP/1.1\r\nContent-Length: 4\r\n\r\n";
+	private static final int HEADER_TIMEOUT = 50;
+	private static final int BODY_TIMEOUT = 3000;
+	private static final int IDLE_TIMEOUT = 1000;
+
+	@Mock
+	private Socket socket;
+
+	private TimeoutSocketInputStream createStream(String... chunks) throws IOException {
+		InputStream[] streams = new InputStream[chunks.length];
+		for (int i = 0; i < chunks.length; i++) {
+			streams[i] = new ByteArrayInputStream(chunks[i].getBytes(StandardCharsets.US_ASCII));
+		}
+		InputStream socketInput = Mockito.mock(InputStream.class);
+		when(socketInput.read(Mockito.any(byte[].class), Mockito.anyInt(), Mockito.anyInt())).thenAnswer(invocation -> {
+			for (InputStream stream : streams) {
+				if (stream.available() > 0) {
+					return stream.read(invocation.getArgument(0), invocation.getArgument(1),
+							invocation.getArgument(2));
+				}
+			}
+			return -1;
+		});
+		when(socket.getInputStream()).thenReturn(socketInput);
+		return new TimeoutSocketInputStream(socket, HEADER_TIMEOUT, BODY_TIMEOUT);
+	}
+
+	@Test
+	public void waitsForFirstRequestNoLongerThanHeaderTimeout() throws Exception {
+		createStream(REQUEST_HEAD);
+
+		verify(socket).setSoTimeout(HEADER_TIMEOUT);
+	}
+
+	@Test
+	public void appliesBodyTimeoutWhenHeadersReceived() throws Exception {
+		TimeoutSocketInputStream stream = createStream(REQUEST_HEAD, "body");
+		byte[] buffer = new byte[128];
+
+		stream.read(buffer, 0, buffer.length);
+		int read = stream.read(buffer, 0, buffer.length);
+
+		assertThat(read, equalTo(4));
+		verify(socket).setSoTimeout(BODY_TIMEOUT);
+	}
+
+	@Test(expected = SocketTimeoutException.class)
+	public void throwsExceptionIfHeadersNotReceivedBeforeDeadline() throws Exception {
+		TimeoutSocketInputStream stream = createStream("GET /test HTTP/1.1\r\n", "Host: localhost\r\n\r\n");
+		byte[] buffer = new byte[128];
+		stream.read(buffer, 0, buffer.length);
+
+		Thread.sleep(HEADER_TIMEOUT * 2);
+		stream.read(buffer, 0, buffer.length);
+	}
+
+	@Test
+	public void detectsEndOfHeadersSplitBetweenReads() throws Exception {
+		TimeoutSocketInputStream stream = createStream("GET /test HTTP/1.1\r\n\r", "\n", "body");
+		byte[] buffer = new byte[128];
+
+		stream.read(buffer, 0, buffer.length);
+		stream.read(buffer, 0, buffer.length);
+		stream.read(buffer, 0, buffer.length);
+
+		verify(socket).setSoTimeout(BODY_TIMEOUT);
+	}
+
+	@Test
+	public void appliesIdleTimeoutWhileWaitingForNextRequest() throws Exception {
+		TimeoutSocketInputStream stream = createStream(REQUEST_HEAD);
+		byte[] buffer = new byte[128];
+		stream.read(buffer, 0, buffer.length);
+
+		stream.awaitRequest(IDLE_TIMEOUT);
+
+		verify(socket).setSoTimeout(IDLE_TIMEOUT);
+	}
+
+	@Test
+	public void doesNotChangeSocketTimeoutIfTimeoutsAreDisabled() throws Exception {
+		InputStream socketInput = new ByteArrayInputStream(REQUEST_HEAD.getBytes(StandardCharsets.US_ASCII));
+		when(socket.getInputStream()).thenReturn(socketInput);
+		TimeoutSocketInputStream stream = new TimeoutSocketInputStream(socket, 0, 0);
+
+		while (stream.read() != -1) {
+			// read whole request
+		}
+
+		verify(socket, never()).setSoTimeout(Mockito.anyInt());
+	}
+}
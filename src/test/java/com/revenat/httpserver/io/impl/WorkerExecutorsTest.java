@@ -0,0 +1,105 @@
+package com.revenat.httpserver.io.impl;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.revenat.httpserver.io.ServerInfo;
+import com.revenat.httpserver.io.ServerStatistics;
+import com.revenat.httpserver.io.config.HttpServerConfig;
+import com.revenat.httpserver.io.exception.HttpServerConfigException;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class WorkerExecutorsTest {
+	
+	@Mock
+	private HttpServerConfig httpServerConfig;
+
+	@Test
+	public void createsExecutorThatRunsEachTaskInNewVirtualThread() throws Exception {
+		assumeTrue(WorkerExecutors.isVirtualThreadsSupported());
+		when(httpServerConfig.isVirtualThreadsEnabled()).thenReturn(true);
+		
+		ExecutorService executorService = WorkerExecutors.create(httpServerConfig);
+		try {
+			Boolean virtual = executorService.submit(WorkerExecutorsTest::isCurrentThreadVirtual).get(5, TimeUnit.SECONDS);
+			
+			assertThat(virtual, is(true));
+		} finally {
+			executorService.shutdown();
+		}
+	}
+	
+	@Test(expected = HttpServerConfigException.class)
+	public void throwsExceptionIfVirtualThreadsNotSupportedByCurrentJvm() throws Exception {
+		assumeFalse(WorkerExecutors.isVirtualThreadsSupported());
+		when(httpServerConfig.isVirtualThreadsEnabled()).thenReturn(true);
+		
+		WorkerExecutors.create(httpServerConfig);
+	}
+	
+	@Test
+	public void waitsForInFlightRequestsWhenDrained() throws Exception {
+		ServerStatistics statistics = configureDrain(5000);
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		CountDownLatch started = new CountDownLatch(1);
+		executorService.execute(() -> processRequest(statistics, started, 200));
+		started.await();
+		
+		WorkerExecutors.drain(executorService, httpServerConfig);
+		
+		assertThat(executorService.isTerminated(), is(true));
+		assertThat(statistics.isDraining(), is(true));
+		assertThat(statistics.getDrainedRequestCount(), equalTo(1L));
+		assertThat(statistics.getAbortedRequestCount(), equalTo(0L));
+	}
+	
+	@Test
+	public void abortsInFlightRequestsIfShutdownTimeoutExpired() throws Exception {
+		ServerStatistics statistics = configureDrain(100);
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		CountDownLatch started = new CountDownLatch(1);
+		executorService.execute(() -> processRequest(statistics, started, 5000));
+		started.await();
+		
+		WorkerExecutors.drain(executorService, httpServerConfig);
+		
+		assertThat(executorService.awaitTermination(1, TimeUnit.SECONDS), is(true));
+		assertThat(statistics.getDrainedRequestCount(), equalTo(0L));
+		assertThat(statistics.getAbortedRequestCount(), equalTo(1L));
+	}
+	
+	private ServerStatistics configureDrain(int shutdownTimeout) {
+		ServerInfo serverInfo = new ServerInfo("test", 0, 1);
+		when(httpServerConfig.getServerInfo()).thenReturn(serverInfo);
+		when(httpServerConfig.getShutdownTimeout()).thenReturn(shutdownTimeout);
+		return serverInfo.getStatistics();
+	}
+	
+	private static void processRequest(ServerStatistics statistics, CountDownLatch started, long processingTime) {
+		statistics.requestStarted();
+		started.countDown();
+		try {
+			Thread.sleep(processingTime);
+			statistics.requestCompleted();
+		} catch (InterruptedException e) {
+			// request aborted
+		}
+	}
+	
+	private static boolean isCurrentThreadVirtual() throws Exception {
+		return (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+	}
+}
@@ -0,0 +1,62 @@
+package com.revenat.httpserver.io.utils;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class HeaderNamesTest {
+
+	@Test
+	public void returnsSharedInstanceForWellKnownName() throws Exception {
+		assertThat(HeaderNames.canonicalize(new String("content-type")), sameInstance(HeaderNames.CONTENT_TYPE));
+		assertThat(HeaderNames.canonicalize(new String("HOST")), sameInstance(HeaderNames.HOST));
+		assertThat(HeaderNames.canonicalize(new String("Date")), sameInstance(HeaderNames.DATE));
+	}
+
+	@Test
+	public void returnsSharedInstanceForWellKnownNameBytes() throws Exception {
+		byte[] data = " accept-ENCODING ".getBytes(StandardCharsets.US_ASCII);
+
+		assertThat(HeaderNames.canonicalize(data, 1, data.length - 1), sameInstance(HeaderNames.ACCEPT_ENCODING));
+	}
+
+	@Test
+	public void canonicalizesCustomName() throws Exception {
+		assertThat(HeaderNames.canonicalize("x-CUSTOM-header"), equalTo("X-Custom-Header"));
+		assertThat(HeaderNames.canonicalize(" x-trimmed "), equalTo("X-Trimmed"));
+	}
+
+	@Test
+	public void returnsCachedInstanceForRepeatedCustomName() throws Exception {
+		String first = HeaderNames.canonicalize("x-cached-name");
+
+		assertThat(HeaderNames.canonicalize("x-cached-name"), sameInstance(first));
+	}
+
+	@Test
+	public void canonicalizesCustomNameBytes() throws Exception {
+		byte[] data = "x-forwarded-FOR".getBytes(StandardCharsets.US_ASCII);
+
+		assertThat(HeaderNames.canonicalize(data, 0, data.length), equalTo("X-Forwarded-For"));
+	}
+
+	@Test
+	public void doesNotMatchWellKnownNameWithSameLength() throws Exception {
+		assertThat(HeaderNames.canonicalize("content-typo"), equalTo("Content-Typo"));
+	}
+
+	@Test
+	public void keepsCanonicalizingNamesWhenCacheIsFull() throws Exception {
+		for (int i = 0; i < 1000; i++) {
+			assertThat(HeaderNames.canonicalize("x-name-" + i + "-test"), equalTo("X-Name-" + i + "-Test"));
+		}
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void throwsExceptionIfNameIsNull() throws Exception {
+		HeaderNames.canonicalize(null);
+	}
+}
@@ -10,6 +10,8 @@ import java.nio.charset.StandardCharsets;
 import org.apache.commons.io.input.ReaderInputStream;
 import org.junit.Test;
 
+import com.revenat.httpserver.io.exception.RequestHeaderFieldsTooLargeException;
+
 public class HttpUtilsTest {
 	private static final String STARTING_LINE = "GET / HTTP/1.1";
 	private static final String LINE_FEED = "\r\n";
@@ -71,6 +73,14 @@ public class HttpUtilsTest {
 
 	}
 
+	@Test(expected = RequestHeaderFieldsTooLargeException.class)
+	public void throwsExceptionIfStartingLineAndHeadersExceedMaxSize() throws Exception {
+		String content = STARTING_LINE + LINE_FEED + HEADERS + EMPTY_LINE;
+
+		HttpUtils.readStartingLineAndHeaders(new ReaderInputStream(new StringReader(content), StandardCharsets.UTF_8),
+				content.length() - 1);
+	}
+
 	@Test(expected = EOFException.class)
 	public void throwsExceptionIfNoContentInTheInputStream() throws Exception {
 		String content = "";
@@ -134,4 +144,11 @@ public class HttpUtilsTest {
 		HttpUtils.readBody(null, 0);
 
 	}
+
+	@Test
+	public void encodesStatusLineWithLineFeedAtTheEnd() throws Exception {
+		byte[] statusLine = HttpUtils.encodeStatusLine(404, "Not Found");
+
+		assertThat(new String(statusLine, StandardCharsets.UTF_8), equalTo("HTTP/1.1 404 Not Found\r\n"));
+	}
 }
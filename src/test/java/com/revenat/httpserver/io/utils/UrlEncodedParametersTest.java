@@ -0,0 +1,88 @@
+package com.revenat.httpserver.io.utils;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class UrlEncodedParametersTest {
+
+	@Test
+	public void parsesParametersInOrder() throws Exception {
+		Map<String, List<String>> parameters = UrlEncodedParameters.parse("b=2&a=1&c=");
+
+		assertThat(parameters.keySet(), contains("b", "a", "c"));
+		assertThat(parameters.get("a"), contains("1"));
+		assertThat(parameters.get("c"), contains(""));
+	}
+
+	@Test
+	public void keepsAllValuesOfRepeatedParameter() throws Exception {
+		Map<String, List<String>> parameters = UrlEncodedParameters.parse("p=value&p=val&p=value");
+
+		assertThat(parameters.get("p"), contains("value", "val", "value"));
+	}
+
+	@Test
+	public void decodesPercentEscapesAndPlus() throws Exception {
+		Map<String, List<String>> parameters = UrlEncodedParameters
+				.parse("text=Simple+Text&p=test%26qwerty%3Fty%3Du&name=%D0%98%D0%B2%D0%B0%D0%BD");
+
+		assertThat(parameters.get("text"), contains("Simple Text"));
+		assertThat(parameters.get("p"), contains("test&qwerty?ty=u"));
+		assertThat(parameters.get("name"), contains("Иван"));
+	}
+
+	@Test
+	public void parsesParametersFromBytes() throws Exception {
+		byte[] data = "  email=welcome%40devstudy.net&flag&x=a=b  ".getBytes(StandardCharsets.UTF_8);
+
+		Map<String, List<String>> parameters = UrlEncodedParameters.parse(data, 2, data.length - 2);
+
+		assertThat(parameters.get("email"), contains("welcome@devstudy.net"));
+		assertThat(parameters.get("flag"), contains(""));
+		assertThat(parameters.get("x"), contains("a=b"));
+	}
+
+	@Test
+	public void parsesPartOfString() throws Exception {
+		String uri = "/index.html?a=1&b=2";
+
+		Map<String, List<String>> parameters = UrlEncodedParameters.parse(uri, uri.indexOf('?') + 1, uri.length());
+
+		assertThat(parameters.keySet(), contains("a", "b"));
+	}
+
+	@Test
+	public void skipsEmptyPairsAndNames() throws Exception {
+		Map<String, List<String>> parameters = UrlEncodedParameters.parse("&&a=1&=2&");
+
+		assertThat(parameters.keySet(), contains("a"));
+	}
+
+	@Test
+	public void returnsEmptyMapIfThereAreNoParameters() throws Exception {
+		assertThat(UrlEncodedParameters.parse("").isEmpty(), is(true));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void throwsExceptionIfEscapeSequenceIsIncomplete() throws Exception {
+		UrlEncodedParameters.parse("a=%4");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void throwsExceptionIfEscapeSequenceIsInvalid() throws Exception {
+		byte[] data = "a=%zz".getBytes(StandardCharsets.UTF_8);
+
+		UrlEncodedParameters.parse(data, 0, data.length);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void doesNotAllowToModifyValues() throws Exception {
+		UrlEncodedParameters.parse("a=1&a=2").get("a").add("3");
+	}
+}